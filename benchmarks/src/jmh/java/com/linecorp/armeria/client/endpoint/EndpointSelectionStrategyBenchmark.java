@@ -0,0 +1,63 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.endpoint;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.linecorp.armeria.client.Endpoint;
+
+/**
+ * Measures how fast the {@link EndpointSelector} of each {@link EndpointSelectionStrategy} selects an
+ * {@link Endpoint} from a {@link StaticEndpointGroup} of {@code numEndpoints} {@link Endpoint}s with
+ * different weights. The {@link Endpoint}s are selected with {@link EndpointSelector#select()}, so the
+ * load-aware strategies do not track the requests.
+ */
+@State(Scope.Thread)
+public class EndpointSelectionStrategyBenchmark {
+
+    @Param({ "ROUND_ROBIN", "WEIGHTED_ROUND_ROBIN", "LEAST_OUTSTANDING_REQUESTS", "POWER_OF_TWO_CHOICES" })
+    private String strategy;
+
+    @Param({ "2", "16", "256" })
+    private int numEndpoints;
+
+    private EndpointSelector selector;
+
+    @Setup
+    public void setUp() throws Exception {
+        final List<Endpoint> endpoints = new ArrayList<>(numEndpoints);
+        for (int i = 0; i < numEndpoints; i++) {
+            endpoints.add(Endpoint.of("10.0." + (i >>> 8) + '.' + (i & 0xFF), 8080, i % 10 + 1));
+        }
+
+        final EndpointSelectionStrategy strategy = (EndpointSelectionStrategy)
+                EndpointSelectionStrategy.class.getField(this.strategy).get(null);
+        selector = strategy.newSelector(new StaticEndpointGroup(endpoints));
+    }
+
+    @Benchmark
+    public Endpoint select() {
+        return selector.select();
+    }
+}
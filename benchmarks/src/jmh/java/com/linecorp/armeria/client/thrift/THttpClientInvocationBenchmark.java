@@ -0,0 +1,92 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.thrift;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.thrift.TException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.linecorp.armeria.benchmarks.thrift.EchoService;
+import com.linecorp.armeria.benchmarks.thrift.Item;
+import com.linecorp.armeria.client.Client;
+import com.linecorp.armeria.client.ClientDecoration;
+import com.linecorp.armeria.client.ClientOption;
+import com.linecorp.armeria.client.ClientOptionValue;
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.Clients;
+import com.linecorp.armeria.client.DecoratingClient;
+import com.linecorp.armeria.common.DefaultRpcResponse;
+import com.linecorp.armeria.common.RpcRequest;
+import com.linecorp.armeria.common.RpcResponse;
+
+/**
+ * Measures the per-call overhead of a Thrift client, from the invocation of a client method to the
+ * completion of its {@link RpcResponse}. The request never leaves the client because it is answered by
+ * a decorator, so the result does not include the (de)serialization and the network round trip.
+ */
+@State(Scope.Benchmark)
+public class THttpClientInvocationBenchmark {
+
+    private static final String URI = "tbinary+http://127.0.0.1/echo";
+
+    private final List<Item> items = Collections.singletonList(new Item().setId(1).setName("item"));
+
+    private EchoService.Iface client;
+    private THttpClient thriftClient;
+
+    @Setup
+    public void setUp() {
+        final ClientOptionValue<ClientDecoration> decoration = ClientOption.DECORATION.newValue(
+                ClientDecoration.of(RpcRequest.class, RpcResponse.class, EchoClient::new));
+        client = Clients.newClient(URI, EchoService.Iface.class, decoration);
+        thriftClient = Clients.newClient(URI, THttpClient.class, decoration);
+    }
+
+    /**
+     * Invokes a method of the {@link EchoService.Iface} proxy.
+     */
+    @Benchmark
+    public List<Item> proxy() throws TException {
+        return client.echo(items);
+    }
+
+    /**
+     * Invokes a method by its name via {@link THttpClient}.
+     */
+    @Benchmark
+    public Object byName() throws Exception {
+        return thriftClient.execute("/echo", EchoService.Iface.class, "echo", items).get();
+    }
+
+    private static final class EchoClient
+            extends DecoratingClient<RpcRequest, RpcResponse, RpcRequest, RpcResponse> {
+
+        EchoClient(Client<RpcRequest, RpcResponse> delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public RpcResponse execute(ClientRequestContext ctx, RpcRequest call) {
+            return new DefaultRpcResponse(call.params().get(0));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.http;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.netty.util.AsciiString;
+
+/**
+ * Measures how fast {@link DefaultHttpHeaders} populates and looks up the headers of a typical request,
+ * which happens at least once per request when the headers are converted from or into Netty's headers.
+ */
+@State(Scope.Thread)
+public class DefaultHttpHeadersBenchmark {
+
+    private static final AsciiString[] NAMES = {
+            HttpHeaderNames.ACCEPT,
+            HttpHeaderNames.ACCEPT_ENCODING,
+            HttpHeaderNames.ACCEPT_LANGUAGE,
+            HttpHeaderNames.CONTENT_TYPE,
+            HttpHeaderNames.CONTENT_LENGTH,
+            HttpHeaderNames.COOKIE,
+            HttpHeaderNames.USER_AGENT,
+            AsciiString.of("x-request-id")
+    };
+
+    private static final String[] VALUES = {
+            "application/json, text/plain, */*",
+            "gzip, deflate",
+            "en-US,en;q=0.8",
+            "application/json; charset=utf-8",
+            "1024",
+            "session=0123456789abcdef; theme=dark",
+            "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko)",
+            "4f0c8a3e-5b1d-4d2e-9a7f-2c6b8e1d3f5a"
+    };
+
+    private HttpHeaders headers;
+
+    @Setup
+    public void setUp() {
+        headers = newHeaders();
+    }
+
+    @Benchmark
+    public HttpHeaders set() {
+        return newHeaders();
+    }
+
+    @Benchmark
+    public void get(Blackhole bh) {
+        final HttpHeaders headers = this.headers;
+        bh.consume(headers.method());
+        bh.consume(headers.path());
+        for (AsciiString name : NAMES) {
+            bh.consume(headers.get(name));
+        }
+    }
+
+    private static HttpHeaders newHeaders() {
+        final HttpHeaders headers = new DefaultHttpHeaders(true, NAMES.length + 4);
+        headers.method(HttpMethod.POST);
+        headers.scheme("http");
+        headers.authority("example.com");
+        headers.path("/api/v1/items?limit=10");
+        for (int i = 0; i < NAMES.length; i++) {
+            headers.set(NAMES[i], VALUES[i]);
+        }
+        return headers;
+    }
+}
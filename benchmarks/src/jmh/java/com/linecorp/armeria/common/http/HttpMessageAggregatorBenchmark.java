@@ -0,0 +1,74 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.http;
+
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+
+/**
+ * Measures how fast {@link HttpMessageAggregator} merges a response of {@code numChunks} chunks of 1 KiB
+ * into an {@link AggregatedHttpMessage}. The chunks are either {@link HttpData}s backed by a byte array or
+ * {@link ByteBufHttpData}s backed by a pooled direct buffer, which is what a client receives from Netty.
+ */
+@State(Scope.Thread)
+public class HttpMessageAggregatorBenchmark {
+
+    private static final int CHUNK_SIZE = 1024;
+
+    @Param({ "1", "16", "256" })
+    private int numChunks;
+
+    @Param({ "false", "true" })
+    private boolean pooled;
+
+    private byte[] chunk;
+
+    @Setup
+    public void setUp() {
+        chunk = new byte[CHUNK_SIZE];
+        new Random(42).nextBytes(chunk);
+    }
+
+    @Benchmark
+    public AggregatedHttpMessage aggregate() {
+        final DefaultHttpResponse res = new DefaultHttpResponse();
+        res.write(HttpHeaders.of(HttpStatus.OK));
+        for (int i = 0; i < numChunks; i++) {
+            res.write(newData());
+        }
+        res.close();
+        return res.aggregate().join();
+    }
+
+    private HttpData newData() {
+        if (!pooled) {
+            return HttpData.of(chunk);
+        }
+
+        final ByteBuf buf = PooledByteBufAllocator.DEFAULT.directBuffer(CHUNK_SIZE);
+        buf.writeBytes(chunk);
+        return new ByteBufHttpData(buf, false);
+    }
+}
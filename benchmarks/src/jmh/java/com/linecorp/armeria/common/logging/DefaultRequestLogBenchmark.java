@@ -0,0 +1,81 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.logging;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.linecorp.armeria.client.ClientOptions;
+import com.linecorp.armeria.client.DefaultClientRequestContext;
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.common.RequestContext;
+import com.linecorp.armeria.common.SerializationFormat;
+import com.linecorp.armeria.common.SessionProtocol;
+
+import io.netty.channel.DefaultEventLoop;
+import io.netty.channel.EventLoop;
+
+/**
+ * Measures the full lifecycle of a {@link DefaultRequestLog} with listeners, as added by decorators such as
+ * {@code LoggingService} and {@code DropwizardMetricCollectingService}. Half of the listeners are interested
+ * in {@link RequestLogAvailability#REQUEST_END} and the others in {@link RequestLogAvailability#COMPLETE}.
+ */
+@State(Scope.Thread)
+public class DefaultRequestLogBenchmark {
+
+    @Param({ "0", "3", "8" })
+    private int numListeners;
+
+    private EventLoop eventLoop;
+    private RequestContext ctx;
+
+    @Setup
+    public void setUp() {
+        eventLoop = new DefaultEventLoop();
+        ctx = new DefaultClientRequestContext(eventLoop, SessionProtocol.H2C, Endpoint.of("127.0.0.1", 8080),
+                                              "GET", "/", "", ClientOptions.DEFAULT, "request");
+    }
+
+    @TearDown
+    public void tearDown() {
+        eventLoop.shutdownGracefully();
+    }
+
+    @Benchmark
+    public void lifecycle(Blackhole bh) {
+        final DefaultRequestLog log = new DefaultRequestLog(ctx);
+        for (int i = 0; i < numListeners; i++) {
+            log.addListener(bh::consume,
+                            i % 2 == 0 ? RequestLogAvailability.REQUEST_END : RequestLogAvailability.COMPLETE);
+        }
+
+        log.startRequest(null, SessionProtocol.H2C, "127.0.0.1", "GET", "/");
+        log.serializationFormat(SerializationFormat.NONE);
+        log.increaseRequestLength(100);
+        log.endRequest();
+        log.startResponse();
+        log.statusCode(200);
+        log.increaseResponseLength(1000);
+        log.endResponse();
+        bh.consume(log);
+    }
+}
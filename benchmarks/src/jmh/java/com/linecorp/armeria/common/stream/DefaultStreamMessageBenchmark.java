@@ -0,0 +1,96 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Measures how fast {@link DefaultStreamMessage} delivers {@code numObjects} objects to a {@link Subscriber}
+ * in the same thread, both when all objects are written before the subscription and when each object is
+ * written after the {@link Subscriber} requests it, which is how a streaming request is relayed by a
+ * service.
+ */
+@State(Scope.Thread)
+public class DefaultStreamMessageBenchmark {
+
+    private static final Object OBJ = new Object();
+
+    @Param({ "1", "16", "256" })
+    private int numObjects;
+
+    @Benchmark
+    public void writeThenSubscribe(Blackhole bh) {
+        final DefaultStreamMessage<Object> stream = new DefaultStreamMessage<>();
+        for (int i = 0; i < numObjects; i++) {
+            stream.write(OBJ);
+        }
+        stream.close();
+        stream.subscribe(new ConsumingSubscriber(bh, Long.MAX_VALUE));
+    }
+
+    @Benchmark
+    public void subscribeThenWrite(Blackhole bh) {
+        final DefaultStreamMessage<Object> stream = new DefaultStreamMessage<>();
+        stream.subscribe(new ConsumingSubscriber(bh, 1));
+        for (int i = 0; i < numObjects; i++) {
+            stream.write(OBJ);
+        }
+        stream.close();
+    }
+
+    private static final class ConsumingSubscriber implements Subscriber<Object> {
+
+        private final Blackhole bh;
+        private final long demand;
+        private Subscription subscription;
+
+        ConsumingSubscriber(Blackhole bh, long demand) {
+            this.bh = bh;
+            this.demand = demand;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(demand);
+        }
+
+        @Override
+        public void onNext(Object obj) {
+            bh.consume(obj);
+            if (demand != Long.MAX_VALUE) {
+                subscription.request(demand);
+            }
+        }
+
+        @Override
+        public void onError(Throwable cause) {
+            bh.consume(cause);
+        }
+
+        @Override
+        public void onComplete() {
+            bh.consume(subscription);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.thrift.text;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.thrift.TException;
+import org.apache.thrift.protocol.TMessage;
+import org.apache.thrift.protocol.TMessageType;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.protocol.TProtocolFactory;
+import org.apache.thrift.transport.TMemoryBuffer;
+import org.apache.thrift.transport.TMemoryInputTransport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.linecorp.armeria.benchmarks.thrift.EchoService.echo_args;
+import com.linecorp.armeria.benchmarks.thrift.Item;
+import com.linecorp.armeria.common.thrift.ThriftProtocolFactories;
+import com.linecorp.armeria.common.thrift.text.legacy.LegacyTTextProtocol;
+
+/**
+ * Measures how fast {@link TTextProtocol} writes and reads the arguments of an {@code echo()} call with
+ * {@code numItems} {@link Item}s, compared against {@link LegacyTTextProtocol}, the previous implementation
+ * which builds a {@code JsonNode} tree before reading any field, and the TJSON protocol of Thrift.
+ */
+@State(Scope.Thread)
+public class TTextProtocolBenchmark {
+
+    private static final TProtocolFactory LEGACY_TEXT = new LegacyTTextProtocol.Factory();
+
+    @Param({ "1", "100" })
+    private int numItems;
+
+    private echo_args args;
+    private byte[] text;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws TException {
+        final List<Item> items = new ArrayList<>(numItems);
+        for (int i = 0; i < numItems; i++) {
+            items.add(new Item().setId(i)
+                                .setTimestamp(1480000000000L + i)
+                                .setName("item" + i)
+                                .setDescription("The description of the item " + i)
+                                .setTags(Arrays.asList("foo", "bar", "baz")));
+        }
+
+        args = new echo_args(items);
+        text = write(ThriftProtocolFactories.TEXT);
+        json = write(ThriftProtocolFactories.JSON);
+    }
+
+    @Benchmark
+    public byte[] writeText() throws TException {
+        return write(ThriftProtocolFactories.TEXT);
+    }
+
+    @Benchmark
+    public echo_args readText() throws TException {
+        return read(ThriftProtocolFactories.TEXT, text);
+    }
+
+    @Benchmark
+    public byte[] writeLegacyText() throws TException {
+        return write(LEGACY_TEXT);
+    }
+
+    @Benchmark
+    public echo_args readLegacyText() throws TException {
+        return read(LEGACY_TEXT, text);
+    }
+
+    @Benchmark
+    public byte[] writeJson() throws TException {
+        return write(ThriftProtocolFactories.JSON);
+    }
+
+    @Benchmark
+    public echo_args readJson() throws TException {
+        return read(ThriftProtocolFactories.JSON, json);
+    }
+
+    private byte[] write(TProtocolFactory protocolFactory) throws TException {
+        final TMemoryBuffer buffer = new TMemoryBuffer(1024);
+        final TProtocol out = protocolFactory.getProtocol(buffer);
+        out.writeMessageBegin(new TMessage("echo", TMessageType.CALL, 0));
+        args.write(out);
+        out.writeMessageEnd();
+        return Arrays.copyOf(buffer.getArray(), buffer.length());
+    }
+
+    private static echo_args read(TProtocolFactory protocolFactory, byte[] data) throws TException {
+        final TProtocol in = protocolFactory.getProtocol(new TMemoryInputTransport(data));
+        in.readMessageBegin();
+        final echo_args args = new echo_args();
+        args.read(in);
+        in.readMessageEnd();
+        return args;
+    }
+}
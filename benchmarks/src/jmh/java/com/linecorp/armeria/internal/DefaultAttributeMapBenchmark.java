@@ -0,0 +1,93 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.netty.util.AttributeKey;
+import io.netty.util.AttributeMap;
+
+/**
+ * Compares {@link DefaultAttributeMap} against {@link io.netty.util.DefaultAttributeMap}, which synchronizes
+ * on the head of a bucket as {@link DefaultAttributeMap} used to.
+ *
+ * <ul>
+ *   <li>{@code perRequest} sets and gets attributes on a new map, as decorators do with the attributes of
+ *       a {@link com.linecorp.armeria.common.RequestContext}.</li>
+ *   <li>{@code shared} gets and sets the attributes of a single map from all benchmark threads.</li>
+ * </ul>
+ *
+ * <p>Run with different numbers of threads to see the effect of contention, e.g.
+ * {@code -t 1}, {@code -t 4}, {@code -t 16} and {@code -t 64}.
+ */
+@State(Scope.Benchmark)
+public class DefaultAttributeMapBenchmark {
+
+    // More keys than buckets, so that most keys are not the head of a bucket.
+    private static final int NUM_KEYS = 8;
+
+    @SuppressWarnings("unchecked")
+    private static final AttributeKey<Integer>[] keys = new AttributeKey[NUM_KEYS];
+
+    static {
+        for (int i = 0; i < NUM_KEYS; i++) {
+            keys[i] = AttributeKey.valueOf(DefaultAttributeMapBenchmark.class, "KEY" + i);
+        }
+    }
+
+    @Param({ "armeria", "netty" })
+    private String impl;
+
+    private AttributeMap sharedMap;
+
+    @Setup
+    public void setUp() {
+        sharedMap = newMap();
+        for (int i = 0; i < NUM_KEYS; i++) {
+            sharedMap.attr(keys[i]).set(i);
+        }
+    }
+
+    private AttributeMap newMap() {
+        return "armeria".equals(impl) ? new DefaultAttributeMap() : new io.netty.util.DefaultAttributeMap();
+    }
+
+    @Benchmark
+    public void perRequest(Blackhole bh) {
+        final AttributeMap map = newMap();
+        for (int i = 0; i < NUM_KEYS; i++) {
+            map.attr(keys[i]).set(i);
+        }
+        for (int i = 0; i < NUM_KEYS; i++) {
+            bh.consume(map.attr(keys[i]).get());
+        }
+    }
+
+    @Benchmark
+    public void shared(Blackhole bh) {
+        final AttributeMap map = sharedMap;
+        for (int i = 0; i < NUM_KEYS; i++) {
+            bh.consume(map.attr(keys[i]).get());
+        }
+        map.attr(keys[NUM_KEYS - 1]).set(NUM_KEYS);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.thrift;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.apache.thrift.TException;
+import org.apache.thrift.protocol.TField;
+import org.apache.thrift.protocol.TList;
+import org.apache.thrift.protocol.TMessage;
+import org.apache.thrift.protocol.TMessageType;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.protocol.TProtocolFactory;
+import org.apache.thrift.protocol.TStruct;
+import org.apache.thrift.protocol.TType;
+import org.apache.thrift.transport.TMemoryBuffer;
+import org.apache.thrift.transport.TTransport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.linecorp.armeria.common.SerializationFormat;
+import com.linecorp.armeria.common.http.ByteBufHttpData;
+import com.linecorp.armeria.common.http.HttpData;
+import com.linecorp.armeria.common.thrift.ThriftProtocolFactories;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+
+/**
+ * Compares {@link TByteBufTransport} that encodes a message into a pooled {@link ByteBuf} against a
+ * {@link TMemoryBuffer} whose content is wrapped into an {@link HttpData}, which is how {@code THttpService}
+ * and {@code THttpClientDelegate} used to encode a message. Each invocation encodes a reply that contains
+ * a list of structs, so that {@code numItems} of {@code 1} is a small message of about 100 bytes and
+ * {@code 10000} is a large message of about 1 MiB.
+ */
+@State(Scope.Thread)
+public class TByteBufTransportBenchmark {
+
+    private static final TStruct ITEM = new TStruct("Item");
+    private static final TField ID = new TField("id", TType.I32, (short) 1);
+    private static final TField NAME = new TField("name", TType.STRING, (short) 2);
+    private static final TField DATA = new TField("data", TType.STRING, (short) 3);
+    private static final TStruct RESULT = new TStruct("getItems_result");
+    private static final TField SUCCESS = new TField("success", TType.LIST, (short) 0);
+
+    @Param({ "THRIFT_BINARY", "THRIFT_COMPACT", "THRIFT_JSON" })
+    private SerializationFormat serializationFormat;
+
+    @Param({ "1", "10000" })
+    private int numItems;
+
+    private TProtocolFactory protocolFactory;
+    private String[] names;
+    private ByteBuffer data;
+    private int sizeHint = 128;
+
+    @Setup
+    public void setUp() {
+        protocolFactory = ThriftProtocolFactories.get(serializationFormat);
+        names = new String[numItems];
+        for (int i = 0; i < numItems; i++) {
+            names[i] = "item" + i;
+        }
+        final byte[] data = new byte[64];
+        new Random(42).nextBytes(data);
+        this.data = ByteBuffer.wrap(data);
+    }
+
+    @Benchmark
+    public void memoryBuffer(Blackhole bh) throws TException {
+        final TMemoryBuffer buf = new TMemoryBuffer(128);
+        encode(buf);
+        bh.consume(HttpData.of(buf.getArray(), 0, buf.length()));
+    }
+
+    @Benchmark
+    public void byteBuf(Blackhole bh) throws TException {
+        final ByteBuf buf = ByteBufAllocator.DEFAULT.buffer(sizeHint);
+        encode(new TByteBufTransport(buf));
+        // Mimic ThriftFunction.updateEncodedSizeHint() which remembers the size of the last message.
+        sizeHint = Math.min(buf.readableBytes(), 65536);
+        final ByteBufHttpData httpData = new ByteBufHttpData(buf, false);
+        bh.consume(httpData);
+        httpData.release();
+    }
+
+    private void encode(TTransport transport) throws TException {
+        final TProtocol proto = protocolFactory.getProtocol(transport);
+        proto.writeMessageBegin(new TMessage("getItems", TMessageType.REPLY, 1));
+        proto.writeStructBegin(RESULT);
+        proto.writeFieldBegin(SUCCESS);
+        proto.writeListBegin(new TList(TType.STRUCT, numItems));
+        for (int i = 0; i < numItems; i++) {
+            proto.writeStructBegin(ITEM);
+            proto.writeFieldBegin(ID);
+            proto.writeI32(i);
+            proto.writeFieldEnd();
+            proto.writeFieldBegin(NAME);
+            proto.writeString(names[i]);
+            proto.writeFieldEnd();
+            proto.writeFieldBegin(DATA);
+            proto.writeBinary(data.duplicate());
+            proto.writeFieldEnd();
+            proto.writeFieldStop();
+            proto.writeStructEnd();
+        }
+        proto.writeListEnd();
+        proto.writeFieldEnd();
+        proto.writeFieldStop();
+        proto.writeStructEnd();
+        proto.writeMessageEnd();
+    }
+}
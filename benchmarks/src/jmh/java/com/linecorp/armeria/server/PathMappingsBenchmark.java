@@ -0,0 +1,117 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares {@link PathMappings#apply(String)} against a linear scan over the same {@link PathMapping}s,
+ * which is how {@link PathMappings} used to find a match. The thread-local cache is disabled so that
+ * every invocation measures the actual look-up.
+ */
+@State(Scope.Thread)
+public class PathMappingsBenchmark {
+
+    private static final int NUM_PATHS = 1024;
+
+    @Param({ "10", "100", "10000" })
+    private int numRoutes;
+
+    private final List<PathMapping> linearMappings = new ArrayList<>();
+    private PathMappings<Integer> pathMappings;
+    private String[] paths;
+    private int pathIndex;
+
+    @Setup
+    public void setUp() {
+        pathMappings = new PathMappings<>(0);
+        for (int i = 0; i < numRoutes; i++) {
+            final PathMapping mapping;
+            switch (i % 4) {
+            case 0:
+            case 1:
+                mapping = PathMapping.ofExact("/api/v1/service" + i + "/items");
+                break;
+            case 2:
+                mapping = PathMapping.ofPrefix("/static/service" + i + '/');
+                break;
+            default:
+                mapping = PathMapping.ofGlob("/api/v2/service" + i + "/*/details");
+            }
+
+            linearMappings.add(mapping);
+            pathMappings.add(mapping, i);
+        }
+        pathMappings.freeze();
+
+        // Generate the paths that match the routes uniformly, with a small portion of misses.
+        final Random random = new Random(42);
+        paths = new String[NUM_PATHS];
+        for (int i = 0; i < NUM_PATHS; i++) {
+            final int route = random.nextInt(numRoutes);
+            if (i % 10 == 0) {
+                paths[i] = "/no/such/path/" + route;
+                continue;
+            }
+
+            switch (route % 4) {
+            case 0:
+            case 1:
+                paths[i] = "/api/v1/service" + route + "/items";
+                break;
+            case 2:
+                paths[i] = "/static/service" + route + "/css/main.css";
+                break;
+            default:
+                paths[i] = "/api/v2/service" + route + '/' + i + "/details";
+            }
+        }
+    }
+
+    @Benchmark
+    public PathMapped<Integer> pathMappings() {
+        return pathMappings.apply(nextPath());
+    }
+
+    @Benchmark
+    public String linearScan() {
+        final String path = nextPath();
+        final List<PathMapping> linearMappings = this.linearMappings;
+        final int size = linearMappings.size();
+        for (int i = 0; i < size; i++) {
+            final String mappedPath = linearMappings.get(i).apply(path);
+            if (mappedPath != null) {
+                return mappedPath;
+            }
+        }
+        return null;
+    }
+
+    private String nextPath() {
+        final int pathIndex = this.pathIndex;
+        this.pathIndex = (pathIndex + 1) & (NUM_PATHS - 1);
+        return paths[pathIndex];
+    }
+}
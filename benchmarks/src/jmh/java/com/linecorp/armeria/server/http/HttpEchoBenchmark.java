@@ -0,0 +1,98 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.http;
+
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.google.common.net.MediaType;
+
+import com.linecorp.armeria.client.Clients;
+import com.linecorp.armeria.client.http.HttpClient;
+import com.linecorp.armeria.common.SessionProtocol;
+import com.linecorp.armeria.common.http.AggregatedHttpMessage;
+import com.linecorp.armeria.common.http.HttpData;
+import com.linecorp.armeria.common.http.HttpRequest;
+import com.linecorp.armeria.common.http.HttpResponseWriter;
+import com.linecorp.armeria.common.http.HttpStatus;
+import com.linecorp.armeria.server.Server;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.server.ServiceRequestContext;
+
+/**
+ * Measures the round trip of a request whose content of {@code contentLength} bytes is echoed back by
+ * a {@link Server} in the same JVM over the loopback interface, with an {@link HttpClient} that talks
+ * HTTP/1 ({@code "h1c"}) or HTTP/2 ({@code "h2c"}). Unlike the other benchmarks, the score includes the
+ * whole client and server pipelines, so it is the one to look at first when a regression is suspected.
+ */
+@State(Scope.Benchmark)
+public class HttpEchoBenchmark {
+
+    @Param({ "h1c", "h2c" })
+    private String protocol;
+
+    @Param({ "16", "16384" })
+    private int contentLength;
+
+    private Server server;
+    private HttpClient client;
+    private HttpData content;
+
+    @Setup
+    public void setUp() {
+        final ServerBuilder sb = new ServerBuilder();
+        sb.port(0, SessionProtocol.HTTP);
+        sb.serviceAt("/echo", new AbstractHttpService() {
+            @Override
+            protected void doPost(ServiceRequestContext ctx, HttpRequest req, HttpResponseWriter res) {
+                req.aggregate().whenComplete((aReq, cause) -> {
+                    if (cause != null) {
+                        res.close(cause);
+                    } else {
+                        res.respond(HttpStatus.OK, MediaType.OCTET_STREAM, aReq.content());
+                    }
+                });
+            }
+        });
+
+        server = sb.build();
+        server.start().join();
+
+        final int port = server.activePort().get().localAddress().getPort();
+        client = Clients.newClient("none+" + protocol + "://127.0.0.1:" + port, HttpClient.class);
+
+        final byte[] content = new byte[contentLength];
+        new Random(42).nextBytes(content);
+        this.content = HttpData.of(content);
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.stop().join();
+    }
+
+    @Benchmark
+    public AggregatedHttpMessage echo() {
+        return client.post("/echo", content).aggregate().join();
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.http.encoding;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.linecorp.armeria.common.http.ByteBufHttpData;
+import com.linecorp.armeria.common.http.HttpData;
+
+/**
+ * Compares {@link HttpDataDeflater} against a {@link GZIPOutputStream} that writes into a
+ * {@link ByteArrayOutputStream}, which is how {@link HttpEncodedResponse} used to compress a response.
+ * Each invocation compresses 1 MiB of text split into chunks, so the score is the CPU time per MiB.
+ */
+@State(Scope.Thread)
+public class HttpDataDeflaterBenchmark {
+
+    private static final int CONTENT_LENGTH = 1024 * 1024;
+
+    @Param({ "1024", "16384" })
+    private int chunkSize;
+
+    private HttpData[] chunks;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42);
+        final StringBuilder buf = new StringBuilder(CONTENT_LENGTH);
+        while (buf.length() < CONTENT_LENGTH) {
+            buf.append("{\"id\":").append(random.nextInt(100000))
+               .append(",\"name\":\"item").append(random.nextInt(1000)).append("\"},");
+        }
+
+        final byte[] content = buf.substring(0, CONTENT_LENGTH).getBytes(StandardCharsets.US_ASCII);
+        chunks = new HttpData[CONTENT_LENGTH / chunkSize];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = HttpData.of(content, i * chunkSize, chunkSize);
+        }
+    }
+
+    @Benchmark
+    public void deflater(Blackhole bh) {
+        deflate(bh, true);
+    }
+
+    @Benchmark
+    public void deflaterUnpooled(Blackhole bh) {
+        deflate(bh, false);
+    }
+
+    private void deflate(Blackhole bh, boolean usePooledHttpData) {
+        final HttpDataDeflater deflater = new HttpDataDeflater(HttpEncodingType.GZIP, -1, usePooledHttpData);
+        for (HttpData chunk : chunks) {
+            consume(bh, deflater.encode(chunk));
+        }
+        consume(bh, deflater.finish());
+    }
+
+    @Benchmark
+    public void outputStream(Blackhole bh) throws IOException {
+        final ByteArrayOutputStream encodedStream = new ByteArrayOutputStream();
+        final GZIPOutputStream encodingStream = new GZIPOutputStream(encodedStream, true);
+        for (HttpData chunk : chunks) {
+            encodingStream.write(chunk.array(), chunk.offset(), chunk.length());
+            encodingStream.flush();
+            bh.consume(HttpData.of(encodedStream.toByteArray()));
+            encodedStream.reset();
+        }
+        encodingStream.close();
+        bh.consume(HttpData.of(encodedStream.toByteArray()));
+    }
+
+    private static void consume(Blackhole bh, HttpData data) {
+        bh.consume(data);
+        if (data instanceof ByteBufHttpData) {
+            ((ByteBufHttpData) data).release();
+        }
+    }
+}
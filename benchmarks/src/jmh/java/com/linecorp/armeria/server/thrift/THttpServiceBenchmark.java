@@ -0,0 +1,88 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.thrift;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.thrift.TException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.linecorp.armeria.benchmarks.thrift.EchoService;
+import com.linecorp.armeria.benchmarks.thrift.Item;
+import com.linecorp.armeria.client.Clients;
+import com.linecorp.armeria.common.SessionProtocol;
+import com.linecorp.armeria.server.Server;
+import com.linecorp.armeria.server.ServerBuilder;
+
+/**
+ * Measures the round trip of a Thrift call whose {@code numItems} {@link Item}s are echoed back by
+ * a {@link THttpService} in the same JVM over HTTP/2 on the loopback interface. A request and a response
+ * are serialized and deserialized once each in the {@code format}, so the difference between a small and
+ * a large number of items is mostly the cost of the (de)serialization in the client and the service.
+ */
+@State(Scope.Benchmark)
+public class THttpServiceBenchmark {
+
+    @Param({ "tbinary", "tcompact" })
+    private String format;
+
+    @Param({ "1", "100" })
+    private int numItems;
+
+    private Server server;
+    private EchoService.Iface client;
+    private List<Item> items;
+
+    @Setup
+    public void setUp() {
+        final ServerBuilder sb = new ServerBuilder();
+        sb.port(0, SessionProtocol.HTTP);
+        sb.serviceAt("/echo", THttpService.of((EchoService.Iface) items -> items));
+
+        server = sb.build();
+        server.start().join();
+
+        final int port = server.activePort().get().localAddress().getPort();
+        client = Clients.newClient(format + "+h2c://127.0.0.1:" + port + "/echo", EchoService.Iface.class);
+
+        items = new ArrayList<>(numItems);
+        for (int i = 0; i < numItems; i++) {
+            items.add(new Item().setId(i)
+                                .setTimestamp(1480000000000L + i)
+                                .setName("item" + i)
+                                .setDescription("The description of the item " + i)
+                                .setTags(Arrays.asList("foo", "bar", "baz")));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.stop().join();
+    }
+
+    @Benchmark
+    public List<Item> echo() throws TException {
+        return client.echo(items);
+    }
+}
@@ -0,0 +1,15 @@
+namespace java com.linecorp.armeria.benchmarks.thrift
+
+// An item of a typical RPC payload, which has a few numbers, strings and a collection.
+struct Item {
+    1: i32 id
+    2: i64 timestamp
+    3: string name
+    4: string description
+    5: list<string> tags
+}
+
+// Returns the given items back, so that both a request and a response are (de)serialized.
+service EchoService {
+    list<Item> echo(1:list<Item> items)
+}
@@ -22,6 +22,9 @@ import com.google.common.net.HostAndPort;
 
 import com.linecorp.armeria.client.endpoint.EndpointGroupRegistry;
 
+import io.netty.util.Attribute;
+import io.netty.util.AttributeKey;
+
 /**
  * A remote endpoint that refers to a single host or a group of multiple hosts.
  *
@@ -33,6 +36,9 @@ import com.linecorp.armeria.client.endpoint.EndpointGroupRegistry;
  */
 public final class Endpoint {
 
+    private static final AttributeKey<Endpoint> RESOLVED_ENDPOINT =
+            AttributeKey.valueOf(Endpoint.class, "RESOLVED_ENDPOINT");
+
     /**
      * Parse the authority part of a URI. The authority part may have one of the following formats:
      * <ul>
@@ -129,6 +135,30 @@ public final class Endpoint {
         }
     }
 
+    /**
+     * Resolves this endpoint into a host endpoint for the request of the specified
+     * {@link ClientRequestContext}. A group endpoint is resolved only once per request, so that
+     * the decorators and the actual {@link Client} of the request see the same host endpoint.
+     *
+     * @return the {@link Endpoint} resolved by {@link EndpointGroupRegistry}.
+     *         {@code this} if this endpoint is already a host endpoint.
+     */
+    public Endpoint resolve(ClientRequestContext ctx) {
+        if (!isGroup()) {
+            return this;
+        }
+
+        final Attribute<Endpoint> attr = ctx.attr(RESOLVED_ENDPOINT);
+        final Endpoint resolved = attr.get();
+        if (resolved != null) {
+            return resolved;
+        }
+
+        final Endpoint selected = EndpointGroupRegistry.selectNode(groupName, ctx);
+        final Endpoint oldResolved = attr.setIfAbsent(selected);
+        return oldResolved != null ? oldResolved : selected;
+    }
+
     /**
      * Returns the group name of this endpoint.
      *
@@ -28,6 +28,7 @@ import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.linecorp.armeria.client.dns.CachingDnsResolverGroupBuilder;
 import com.linecorp.armeria.common.RequestContext;
 import com.linecorp.armeria.common.util.NativeLibraries;
 
@@ -37,13 +38,10 @@ import io.netty.channel.ChannelFactory;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoop;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.epoll.EpollDatagramChannel;
 import io.netty.channel.epoll.EpollEventLoopGroup;
 import io.netty.channel.epoll.EpollSocketChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.DatagramChannel;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioDatagramChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.codec.dns.DatagramDnsResponseDecoder;
 import io.netty.handler.codec.dns.DefaultDnsPtrRecord;
@@ -52,9 +50,7 @@ import io.netty.handler.codec.dns.DefaultDnsRecordDecoder;
 import io.netty.handler.codec.dns.DnsRecord;
 import io.netty.handler.codec.dns.DnsRecordType;
 import io.netty.resolver.AddressResolverGroup;
-import io.netty.resolver.dns.DnsAddressResolverGroup;
 import io.netty.resolver.dns.DnsNameResolver;
-import io.netty.resolver.dns.DnsServerAddresses;
 import io.netty.util.concurrent.DefaultThreadFactory;
 
 /**
@@ -153,8 +149,7 @@ public abstract class NonDecoratingClientFactory extends AbstractClientFactory {
         baseBootstrap.channel(channelType());
         baseBootstrap.resolver(
                 options.addressResolverGroup()
-                       .orElseGet(() -> new DnsAddressResolverGroup(datagramChannelType(),
-                                                                    DnsServerAddresses.defaultAddresses())));
+                       .orElseGet(() -> new CachingDnsResolverGroupBuilder().build()));
 
         baseBootstrap.option(ChannelOption.CONNECT_TIMEOUT_MILLIS,
                              ConvertUtils.safeLongToInt(options.connectTimeoutMillis()));
@@ -177,10 +172,6 @@ public abstract class NonDecoratingClientFactory extends AbstractClientFactory {
         return NativeLibraries.isEpollAvailable() ? EpollSocketChannel.class : NioSocketChannel.class;
     }
 
-    private static Class<? extends DatagramChannel> datagramChannelType() {
-        return NativeLibraries.isEpollAvailable() ? EpollDatagramChannel.class : NioDatagramChannel.class;
-    }
-
     @SuppressWarnings("checkstyle:operatorwrap")
     private static EventLoopGroup createGroup(Function<TransportType, ThreadFactory> threadFactoryFactory) {
         return NativeLibraries.isEpollAvailable()
@@ -25,6 +25,7 @@ import javax.net.ssl.TrustManagerFactory;
 
 import com.linecorp.armeria.client.pool.KeyedChannelPoolHandler;
 import com.linecorp.armeria.client.pool.PoolKey;
+import com.linecorp.armeria.common.http.ByteBufHttpData;
 import com.linecorp.armeria.common.util.AbstractOption;
 
 import io.netty.channel.EventLoop;
@@ -66,6 +67,9 @@ public final class SessionOption<T> extends AbstractOption<T> {
 
     /**
      * The {@link AddressResolverGroup} to use to resolve remote addresses into {@link InetSocketAddress}es.
+     * If unspecified, a {@link com.linecorp.armeria.client.dns.CachingDnsResolverGroup} with the default
+     * settings is used. Use {@link com.linecorp.armeria.client.dns.CachingDnsResolverGroupBuilder} to
+     * change the time-to-live of its DNS cache.
      */
     public static final SessionOption<AddressResolverGroup<? extends InetSocketAddress>>
             ADDRESS_RESOLVER_GROUP = valueOf("ADDRESS_RESOLVER_GROUP");
@@ -88,6 +92,34 @@ public final class SessionOption<T> extends AbstractOption<T> {
      */
     public static final SessionOption<Boolean> USE_HTTP2_PREFACE = valueOf("USE_HTTP2_PREFACE");
 
+    /**
+     * Whether to decode the content of an HTTP response into a pooled {@link ByteBufHttpData} which wraps
+     * the received buffer without copying it. Enable this only when every response is either aggregated or
+     * consumed by a {@link org.reactivestreams.Subscriber} that releases the {@link ByteBufHttpData}.
+     */
+    public static final SessionOption<Boolean> USE_POOLED_HTTP_DATA = valueOf("USE_POOLED_HTTP_DATA");
+
+    /**
+     * The maximum number of connections to a host per {@link EventLoop}. Each {@link EventLoop} has its own
+     * connection pool, so the total number of connections to a host can be up to this value multiplied by
+     * the number of the {@link EventLoop}s. When the limit is reached, a request waits until a connection of
+     * its {@link EventLoop} is released or closed, for up to {@link #CONNECT_TIMEOUT}. {@code 0} to disable
+     * the limit.
+     */
+    public static final SessionOption<Integer> MAX_CONNECTIONS_PER_HOST_PER_EVENT_LOOP =
+            valueOf("MAX_CONNECTIONS_PER_HOST_PER_EVENT_LOOP");
+
+    /**
+     * The minimum number of idle connections to keep to a host per {@link EventLoop}, so the total number of
+     * idle connections to a host is this value multiplied by the number of the {@link EventLoop}s which have
+     * connected to the host. The connections are established in background once the host has been connected
+     * or warmed up. When this option is greater than {@code 0}, the idle connections in the connection pool
+     * are closed by the pool, which keeps this number of connections, instead of by the
+     * {@link #IDLE_TIMEOUT} of each connection.
+     */
+    public static final SessionOption<Integer> MIN_IDLE_CONNECTIONS_PER_HOST_PER_EVENT_LOOP =
+            valueOf("MIN_IDLE_CONNECTIONS_PER_HOST_PER_EVENT_LOOP");
+
     /**
      * Returns the {@link SessionOption} of the specified name.
      */
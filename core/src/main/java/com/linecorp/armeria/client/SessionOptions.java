@@ -19,9 +19,12 @@ import static com.linecorp.armeria.client.SessionOption.ADDRESS_RESOLVER_GROUP;
 import static com.linecorp.armeria.client.SessionOption.CONNECT_TIMEOUT;
 import static com.linecorp.armeria.client.SessionOption.EVENT_LOOP_GROUP;
 import static com.linecorp.armeria.client.SessionOption.IDLE_TIMEOUT;
+import static com.linecorp.armeria.client.SessionOption.MAX_CONNECTIONS_PER_HOST_PER_EVENT_LOOP;
+import static com.linecorp.armeria.client.SessionOption.MIN_IDLE_CONNECTIONS_PER_HOST_PER_EVENT_LOOP;
 import static com.linecorp.armeria.client.SessionOption.POOL_HANDLER_DECORATOR;
 import static com.linecorp.armeria.client.SessionOption.TRUST_MANAGER_FACTORY;
 import static com.linecorp.armeria.client.SessionOption.USE_HTTP2_PREFACE;
+import static com.linecorp.armeria.client.SessionOption.USE_POOLED_HTTP_DATA;
 import static java.util.Objects.requireNonNull;
 
 import java.net.InetSocketAddress;
@@ -61,7 +64,10 @@ public final class SessionOptions extends AbstractOptions {
     private static final SessionOptionValue<?>[] DEFAULT_OPTION_VALUES = {
             CONNECT_TIMEOUT.newValue(DEFAULT_CONNECTION_TIMEOUT),
             IDLE_TIMEOUT.newValue(DEFAULT_IDLE_TIMEOUT),
-            USE_HTTP2_PREFACE.newValue(DEFAULT_USE_HTTP2_PREFACE)
+            USE_HTTP2_PREFACE.newValue(DEFAULT_USE_HTTP2_PREFACE),
+            USE_POOLED_HTTP_DATA.newValue(false),
+            MAX_CONNECTIONS_PER_HOST_PER_EVENT_LOOP.newValue(0),
+            MIN_IDLE_CONNECTIONS_PER_HOST_PER_EVENT_LOOP.newValue(0)
     };
 
     /**
@@ -93,6 +99,9 @@ public final class SessionOptions extends AbstractOptions {
             validateConnectionTimeout((Duration) value);
         } else if (option == IDLE_TIMEOUT) {
             validateIdleTimeout((Duration) value);
+        } else if (option == MAX_CONNECTIONS_PER_HOST_PER_EVENT_LOOP ||
+                   option == MIN_IDLE_CONNECTIONS_PER_HOST_PER_EVENT_LOOP) {
+            validateNumConnections(option, (Integer) value);
         }
 
         return optionValue;
@@ -116,6 +125,14 @@ public final class SessionOptions extends AbstractOptions {
         return idleTimeout;
     }
 
+    private static int validateNumConnections(SessionOption<?> option, Integer numConnections) {
+        requireNonNull(numConnections, option.name());
+        if (numConnections < 0) {
+            throw new IllegalArgumentException(option.name() + ": " + numConnections + " (expected: >= 0)");
+        }
+        return numConnections;
+    }
+
     private SessionOptions(SessionOptionValue<?>... options) {
         super(SessionOptions::validateValue, options);
     }
@@ -225,4 +242,25 @@ public final class SessionOptions extends AbstractOptions {
     public boolean useHttp2Preface() {
         return getOrElse(USE_HTTP2_PREFACE, DEFAULT_USE_HTTP2_PREFACE);
     }
+
+    /**
+     * Returns whether {@link SessionOption#USE_POOLED_HTTP_DATA} is enabled or not.
+     */
+    public boolean usePooledHttpData() {
+        return getOrElse(USE_POOLED_HTTP_DATA, false);
+    }
+
+    /**
+     * Returns the {@link SessionOption#MAX_CONNECTIONS_PER_HOST_PER_EVENT_LOOP} value.
+     */
+    public int maxConnectionsPerHostPerEventLoop() {
+        return getOrElse(MAX_CONNECTIONS_PER_HOST_PER_EVENT_LOOP, 0);
+    }
+
+    /**
+     * Returns the {@link SessionOption#MIN_IDLE_CONNECTIONS_PER_HOST_PER_EVENT_LOOP} value.
+     */
+    public int minIdleConnectionsPerHostPerEventLoop() {
+        return getOrElse(MIN_IDLE_CONNECTIONS_PER_HOST_PER_EVENT_LOOP, 0);
+    }
 }
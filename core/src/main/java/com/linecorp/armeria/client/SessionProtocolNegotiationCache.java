@@ -16,58 +16,100 @@
 
 package com.linecorp.armeria.client;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.time.Duration;
 import java.util.EnumSet;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.concurrent.locks.StampedLock;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalCause;
+
+import com.linecorp.armeria.client.http.HttpClientFactory;
 import com.linecorp.armeria.common.SessionProtocol;
-import com.linecorp.armeria.common.util.LruMap;
 
 /**
- * Keeps the recent {@link SessionProtocol} negotiation failures. It is a LRU cache which keeps at most
- * 64k 'host name + port' pairs.
+ * Keeps the recent {@link SessionProtocol} negotiation failures of an {@link HttpClientFactory}, so that
+ * a client does not attempt the negotiation which is known to fail. It keeps at most {@code maxEntries}
+ * 'host name + port' pairs and forgets a failure after {@code ttl}, so that a remote peer which started to
+ * support a protocol, such as HTTP/2, gets another chance.
+ *
+ * <p>The look-ups, which happen for every new connection, do not acquire any lock and never block
+ * the updates from other event loops.
  */
 public final class SessionProtocolNegotiationCache {
 
     private static final Logger logger = LoggerFactory.getLogger(SessionProtocolNegotiationCache.class);
 
-    private static final StampedLock lock = new StampedLock();
-    private static final Map<String, CacheEntry> cache = new LruMap<String, CacheEntry>(65536) {
-        private static final long serialVersionUID = -2506868886873712772L;
+    /**
+     * The default maximum number of the 'host name + port' pairs to keep.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 65536;
 
-        @Override
-        protected boolean removeEldestEntry(Entry<String, CacheEntry> eldest) {
-            final boolean remove = super.removeEldestEntry(eldest);
-            if (remove) {
-                logger.debug("Evicted: '{}' does not support ", eldest.getKey(), eldest.getValue());
-            }
+    /**
+     * The default duration after which a negotiation failure is forgotten.
+     */
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
 
-            return remove;
-        }
-    };
+    private final Cache<String, CacheEntry> cache;
+
+    /**
+     * Creates a new instance with {@link #DEFAULT_MAX_ENTRIES} and {@link #DEFAULT_TTL}.
+     */
+    public SessionProtocolNegotiationCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_TTL);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param maxEntries the maximum number of the 'host name + port' pairs to keep
+     * @param ttl the duration after which a negotiation failure is forgotten
+     */
+    public SessionProtocolNegotiationCache(int maxEntries, Duration ttl) {
+        this(maxEntries, ttl, Ticker.systemTicker());
+    }
+
+    @VisibleForTesting
+    SessionProtocolNegotiationCache(int maxEntries, Duration ttl, Ticker ticker) {
+        checkArgument(maxEntries > 0, "maxEntries: %s (expected: > 0)", maxEntries);
+        requireNonNull(ttl, "ttl");
+        checkArgument(!ttl.isNegative() && !ttl.isZero(), "ttl: %s (expected: > 0)", ttl);
+        requireNonNull(ticker, "ticker");
+
+        cache = CacheBuilder.newBuilder()
+                            .concurrencyLevel(Runtime.getRuntime().availableProcessors())
+                            .maximumSize(maxEntries)
+                            .expireAfterWrite(ttl.toNanos(), TimeUnit.NANOSECONDS)
+                            .ticker(ticker)
+                            .recordStats()
+                            .<String, CacheEntry>removalListener(notification -> {
+                                if (notification.getCause() == RemovalCause.SIZE) {
+                                    logger.debug("Evicted: '{}' does not support {}",
+                                                 notification.getKey(), notification.getValue());
+                                }
+                            })
+                            .build();
+    }
 
     /**
      * Returns {@code true} if the specified {@code remoteAddress} is known to have no support for
      * the specified {@link SessionProtocol}.
      */
-    public static boolean isUnsupported(SocketAddress remoteAddress, SessionProtocol protocol) {
-        final String key = key(remoteAddress);
-        final CacheEntry e;
-        final long stamp = lock.readLock();
-        try {
-            e = cache.get(key);
-        } finally {
-            lock.unlockRead(stamp);
-        }
-
+    public boolean isUnsupported(SocketAddress remoteAddress, SessionProtocol protocol) {
+        requireNonNull(protocol, "protocol");
+        final CacheEntry e = cache.getIfPresent(key(remoteAddress));
         if (e == null) {
             // Can't tell if it's unsupported
             return false;
@@ -80,35 +122,50 @@ public final class SessionProtocolNegotiationCache {
      * Updates the cache with the information that the specified {@code remoteAddress} does not support
      * the specified {@link SessionProtocol}.
      */
-    public static void setUnsupported(SocketAddress remoteAddress, SessionProtocol protocol) {
+    public void setUnsupported(SocketAddress remoteAddress, SessionProtocol protocol) {
+        requireNonNull(protocol, "protocol");
         final String key = key(remoteAddress);
-        final CacheEntry e = getOrCreate(key);
 
-        if (e.addUnsupported(protocol)) {
-            logger.debug("Updated: '{}' does not support {}", key, e);
+        // Use the ConcurrentMap view so that an update is not counted as a hit or a miss.
+        final ConcurrentMap<String, CacheEntry> map = cache.asMap();
+        for (;;) {
+            final CacheEntry oldEntry = map.get(key);
+            final CacheEntry newEntry;
+            if (oldEntry == null) {
+                newEntry = new CacheEntry(EnumSet.of(protocol));
+                if (map.putIfAbsent(key, newEntry) != null) {
+                    continue;
+                }
+            } else {
+                if (oldEntry.isUnsupported(protocol)) {
+                    return;
+                }
+
+                final EnumSet<SessionProtocol> unsupported = EnumSet.copyOf(oldEntry.unsupported);
+                unsupported.add(protocol);
+                newEntry = new CacheEntry(unsupported);
+                if (!map.replace(key, oldEntry, newEntry)) {
+                    continue;
+                }
+            }
+
+            logger.debug("Updated: '{}' does not support {}", key, newEntry);
+            return;
         }
     }
 
     /**
      * Clears the cache.
      */
-    public static void clear() {
-        int size;
-        long stamp = lock.readLock();
-        try {
-            size = cache.size();
-            if (size == 0) {
-                return;
-            }
-
-            stamp = convertToWriteLock(stamp);
-            size = cache.size();
-            cache.clear();
-        } finally {
-            lock.unlock(stamp);
+    public void clear() {
+        final long size = cache.size();
+        if (size == 0) {
+            return;
         }
 
-        if (size != 0 && logger.isDebugEnabled()) {
+        cache.invalidateAll();
+
+        if (logger.isDebugEnabled()) {
             if (size != 1) {
                 logger.debug("Cleared: {} entries", size);
             } else {
@@ -117,20 +174,20 @@ public final class SessionProtocolNegotiationCache {
         }
     }
 
-    private static CacheEntry getOrCreate(String key) {
-        long stamp = lock.readLock();
-        try {
-            final CacheEntry entry = cache.get(key);
-            if (entry != null) {
-                return entry;
-            }
-
-            stamp = convertToWriteLock(stamp);
+    /**
+     * Returns the approximate number of the 'host name + port' pairs in the cache.
+     */
+    public long size() {
+        return cache.size();
+    }
 
-            return cache.computeIfAbsent(key, CacheEntry::new);
-        } finally {
-            lock.unlock(stamp);
-        }
+    /**
+     * Returns the statistics of the cache. A look-up with
+     * {@link #isUnsupported(SocketAddress, SessionProtocol)} is counted as a hit if any negotiation failure
+     * is known for the remote address, and as a miss otherwise.
+     */
+    public CacheStats stats() {
+        return cache.stats();
     }
 
     private static String key(SocketAddress remoteAddress) {
@@ -151,39 +208,18 @@ public final class SessionProtocolNegotiationCache {
                 .toString();
     }
 
-    private static long convertToWriteLock(long stamp) {
-        final long writeStamp = lock.tryConvertToWriteLock(stamp);
-        if (writeStamp == 0L) {
-            lock.unlockRead(stamp);
-            stamp = lock.writeLock();
-        } else {
-            stamp = writeStamp;
-        }
-        return stamp;
-    }
-
+    /**
+     * An immutable set of the unsupported {@link SessionProtocol}s, which is replaced rather than updated,
+     * so that the write time of an entry is renewed whenever a new negotiation failure is recorded.
+     */
     private static final class CacheEntry {
-        private volatile EnumSet<SessionProtocol> unsupported = EnumSet.noneOf(SessionProtocol.class);
+        final EnumSet<SessionProtocol> unsupported;
 
-        CacheEntry(String key) {
-            // Key is unused. It's just here to simplify the Map.computeIfAbsent() call in getOrCreate().
-        }
-
-        boolean addUnsupported(SessionProtocol protocol) {
-            EnumSet<SessionProtocol> unsupported = this.unsupported;
-            if (unsupported.contains(protocol)) {
-                return false;
-            }
-
-            final EnumSet<SessionProtocol> copy = EnumSet.copyOf(unsupported);
-            copy.add(protocol);
-
-            this.unsupported = copy;
-            return true;
+        CacheEntry(EnumSet<SessionProtocol> unsupported) {
+            this.unsupported = unsupported;
         }
 
         boolean isUnsupported(SessionProtocol protocol) {
-            requireNonNull(protocol, "protocol");
             return unsupported.contains(protocol);
         }
 
@@ -192,6 +228,4 @@ public final class SessionProtocolNegotiationCache {
             return unsupported.toString();
         }
     }
-
-    private SessionProtocolNegotiationCache() {}
 }
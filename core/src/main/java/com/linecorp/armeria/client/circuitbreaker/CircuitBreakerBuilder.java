@@ -67,6 +67,8 @@ public final class CircuitBreakerBuilder {
 
     private Duration counterUpdateInterval = Defaults.COUNTER_UPDATE_INTERVAL;
 
+    private boolean useRingBufferCounter;
+
     private Ticker ticker = Defaults.TICKER;
 
     private List<CircuitBreakerListener> listeners = Collections.emptyList();
@@ -201,6 +203,18 @@ public final class CircuitBreakerBuilder {
         return this;
     }
 
+    /**
+     * Sets whether the circuit breaker counts events with a fixed number of preallocated buckets rather than
+     * allocating a new bucket for every {@code counterUpdateInterval}. A ring buffer counter produces less
+     * garbage, which matters when there are many circuit breakers, e.g. one per remote host. However, it
+     * allocates {@code counterSlidingWindow / counterUpdateInterval} buckets upfront, so a very short update
+     * interval with a long sliding window is not recommended. {@code false} by default.
+     */
+    public CircuitBreakerBuilder useRingBufferCounter(boolean useRingBufferCounter) {
+        this.useRingBufferCounter = useRingBufferCounter;
+        return this;
+    }
+
     /**
      * Sets the {@link ExceptionFilter} that decides whether the circuit breaker should deal with a given error.
      */
@@ -240,6 +254,7 @@ public final class CircuitBreakerBuilder {
                 new CircuitBreakerConfig(name, failureRateThreshold, minimumRequestThreshold,
                                          circuitOpenWindow, trialRequestInterval,
                                          counterSlidingWindow, counterUpdateInterval,
+                                         useRingBufferCounter,
                                          exceptionFilter, Collections.unmodifiableList(listeners)));
     }
 
@@ -41,6 +41,8 @@ class CircuitBreakerConfig {
 
     private final Duration counterUpdateInterval;
 
+    private final boolean useRingBufferCounter;
+
     private final ExceptionFilter exceptionFilter;
 
     private final List<CircuitBreakerListener> listeners;
@@ -49,6 +51,7 @@ class CircuitBreakerConfig {
                          double failureRateThreshold, long minimumRequestThreshold,
                          Duration circuitOpenWindow, Duration trialRequestInterval,
                          Duration counterSlidingWindow, Duration counterUpdateInterval,
+                         boolean useRingBufferCounter,
                          ExceptionFilter exceptionFilter, List<CircuitBreakerListener> listeners) {
         this.name = name;
         this.failureRateThreshold = failureRateThreshold;
@@ -57,6 +60,7 @@ class CircuitBreakerConfig {
         this.trialRequestInterval = trialRequestInterval;
         this.counterSlidingWindow = counterSlidingWindow;
         this.counterUpdateInterval = counterUpdateInterval;
+        this.useRingBufferCounter = useRingBufferCounter;
         this.exceptionFilter = exceptionFilter;
         this.listeners = listeners;
     }
@@ -89,6 +93,10 @@ class CircuitBreakerConfig {
         return counterUpdateInterval;
     }
 
+    boolean useRingBufferCounter() {
+        return useRingBufferCounter;
+    }
+
     ExceptionFilter exceptionFilter() {
         return exceptionFilter;
     }
@@ -108,6 +116,7 @@ class CircuitBreakerConfig {
                 .add("trialRequestInterval", trialRequestInterval)
                 .add("counterSlidingWindow", counterSlidingWindow)
                 .add("counterUpdateInterval", counterUpdateInterval)
+                .add("useRingBufferCounter", useRingBufferCounter)
                 .toString();
     }
 
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.circuitbreaker;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.google.common.base.Ticker;
+import com.google.common.primitives.Ints;
+
+/**
+ * An {@link EventCounter} that accumulates the count of events within a time window, using a fixed number of
+ * preallocated buckets. Unlike {@link SlidingWindowCounter}, it does not allocate a new bucket for every
+ * {@code updateInterval} and keeps the running sum of the buckets within the time window, so that it produces
+ * no garbage other than the {@link EventCount} snapshot when the buckets roll.
+ *
+ * <p>The events are recorded into one of the two live buckets, which are swapped whenever the buckets roll.
+ * The bucket that has been swapped out is then added to the ring of the closed buckets, which is indexed by
+ * the number of {@code updateInterval}s elapsed since the counter was created.
+ */
+final class RingBufferSlidingWindowCounter implements EventCounter {
+
+    private static final int SUCCESS = 0;
+
+    private static final int FAILURE = 1;
+
+    private final Ticker ticker;
+
+    private final long startNanos;
+
+    private final long updateIntervalNanos;
+
+    /**
+     * The success and failure counts of the two live buckets. The bucket of generation {@code g} is stored
+     * at {@code (g & 1) * 2}.
+     */
+    private final AtomicLongArray liveCounts = new AtomicLongArray(4);
+
+    /**
+     * The generation of the live bucket which accepts new events. Increased by one whenever the buckets roll.
+     */
+    private volatile long generation;
+
+    /**
+     * The epoch of the live bucket, i.e. the number of {@code updateInterval}s elapsed since
+     * {@link #startNanos} when the buckets rolled last time.
+     */
+    private volatile long currentEpoch;
+
+    /**
+     * Acquired by the thread which rolls the buckets. The fields below are accessed only while holding it.
+     */
+    private final AtomicBoolean rolling = new AtomicBoolean();
+
+    /**
+     * The success and failure counts of the closed buckets, indexed by {@code epoch % closedSuccesses.length}.
+     */
+    private final long[] closedSuccesses;
+
+    private final long[] closedFailures;
+
+    private long success;
+
+    private long failure;
+
+    /**
+     * The latest accumulated {@link EventCount}.
+     */
+    private volatile EventCount snapshot = EventCount.ZERO;
+
+    RingBufferSlidingWindowCounter(Ticker ticker, Duration slidingWindow, Duration updateInterval) {
+        this.ticker = requireNonNull(ticker, "ticker");
+        final long slidingWindowNanos = requireNonNull(slidingWindow, "slidingWindow").toNanos();
+        updateIntervalNanos = requireNonNull(updateInterval, "updateInterval").toNanos();
+
+        final int numClosedBuckets = Ints.checkedCast(
+                (slidingWindowNanos + updateIntervalNanos - 1) / updateIntervalNanos);
+        closedSuccesses = new long[numClosedBuckets];
+        closedFailures = new long[numClosedBuckets];
+        startNanos = ticker.read();
+    }
+
+    @Override
+    public EventCount count() {
+        return snapshot;
+    }
+
+    @Override
+    public Optional<EventCount> onSuccess() {
+        return onEvent(SUCCESS);
+    }
+
+    @Override
+    public Optional<EventCount> onFailure() {
+        return onEvent(FAILURE);
+    }
+
+    private Optional<EventCount> onEvent(int event) {
+        final long epoch = (ticker.read() - startNanos) / updateIntervalNanos;
+
+        EventCount eventCount = null;
+        if (epoch > currentEpoch && rolling.compareAndSet(false, true)) {
+            try {
+                eventCount = roll(epoch);
+            } finally {
+                rolling.set(false);
+            }
+        }
+
+        record(event);
+        return Optional.ofNullable(eventCount);
+    }
+
+    private void record(int event) {
+        long generation = this.generation;
+        for (;;) {
+            final int index = (int) (generation & 1) * 2 + event;
+            liveCounts.incrementAndGet(index);
+
+            final long newGeneration = this.generation;
+            if (newGeneration == generation) {
+                // The live bucket was not swapped out before the increment, so the event will be taken
+                // when the buckets roll next time.
+                return;
+            }
+
+            // The live bucket has been swapped out, possibly before the increment. Take an event back from it
+            // and record it into the new live bucket. If there's nothing to take back, the event has been
+            // taken already when the buckets rolled.
+            if (!tryDecrement(index)) {
+                return;
+            }
+            generation = newGeneration;
+        }
+    }
+
+    private boolean tryDecrement(int index) {
+        for (;;) {
+            final long count = liveCounts.get(index);
+            if (count == 0) {
+                return false;
+            }
+            if (liveCounts.compareAndSet(index, count, count - 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Swaps the live bucket, adds it to the ring of the closed buckets and removes the buckets which are out
+     * of the time window from the running sum.
+     *
+     * @return the updated {@link EventCount}, or {@code null} if the buckets have been rolled already
+     */
+    private EventCount roll(long epoch) {
+        final long lastEpoch = currentEpoch;
+        if (epoch <= lastEpoch) {
+            return null;
+        }
+
+        final long lastGeneration = generation;
+        currentEpoch = epoch;
+        generation = lastGeneration + 1;
+
+        final int index = (int) (lastGeneration & 1) * 2;
+        final long lastSuccess = liveCounts.getAndSet(index + SUCCESS, 0);
+        final long lastFailure = liveCounts.getAndSet(index + FAILURE, 0);
+
+        // Replace the closed buckets between the last epoch and the new epoch. The buckets older than
+        // the time window are cleared, which includes the last live bucket if it is out of the window.
+        final int numClosedBuckets = closedSuccesses.length;
+        for (long e = Math.max(lastEpoch, epoch - numClosedBuckets); e < epoch; e++) {
+            final int i = (int) (e % numClosedBuckets);
+            success -= closedSuccesses[i];
+            failure -= closedFailures[i];
+            if (e == lastEpoch) {
+                closedSuccesses[i] = lastSuccess;
+                closedFailures[i] = lastFailure;
+                success += lastSuccess;
+                failure += lastFailure;
+            } else {
+                closedSuccesses[i] = 0;
+                closedFailures[i] = 0;
+            }
+        }
+
+        final EventCount eventCount = new EventCount(success, failure);
+        snapshot = eventCount;
+        return eventCount;
+    }
+
+}
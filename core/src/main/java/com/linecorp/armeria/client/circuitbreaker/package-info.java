@@ -123,6 +123,10 @@
  * <h2>{@code counterUpdateInterval}</h2>
  * The interval that a circuit breaker can see the latest count of events.
  *
+ * <h2>{@code useRingBufferCounter}</h2>
+ * Whether to count events with a fixed number of preallocated buckets, which produces less garbage when
+ * there are many circuit breakers.
+ *
  * <h2>{@code exceptionFilter}</h2>
  * A filter that decides whether a circuit breaker should deal with a given error.
  */
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.dns;
+
+import java.net.InetAddress;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+
+import com.linecorp.armeria.internal.dns.DnsUtil;
+
+import io.netty.channel.EventLoop;
+import io.netty.resolver.InetNameResolver;
+import io.netty.resolver.dns.DnsNameResolver;
+import io.netty.util.concurrent.Promise;
+
+/**
+ * An {@link InetNameResolver} that looks up the {@link DnsAddressCache} shared by all {@link EventLoop}s
+ * before sending a query with the {@link DnsNameResolver} of its {@link EventLoop}.
+ */
+final class CachingDnsNameResolver extends InetNameResolver {
+
+    private final EventLoop eventLoop;
+    private final DnsNameResolver delegate;
+    private final DnsAddressCache cache;
+
+    CachingDnsNameResolver(EventLoop eventLoop, DnsNameResolver delegate, DnsAddressCache cache) {
+        super(eventLoop);
+        this.eventLoop = eventLoop;
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    protected void doResolve(String inetHost, Promise<InetAddress> promise) throws Exception {
+        final InetAddress address = DnsUtil.literalAddress(inetHost);
+        if (address != null) {
+            promise.trySuccess(address);
+            return;
+        }
+
+        cache.get(inetHost, delegate, eventLoop).whenComplete((addresses, cause) -> {
+            if (cause != null) {
+                promise.tryFailure(cause);
+            } else {
+                promise.trySuccess(addresses.get(0));
+            }
+        });
+    }
+
+    @Override
+    protected void doResolveAll(String inetHost, Promise<List<InetAddress>> promise) throws Exception {
+        final InetAddress address = DnsUtil.literalAddress(inetHost);
+        if (address != null) {
+            promise.trySuccess(ImmutableList.of(address));
+            return;
+        }
+
+        cache.get(inetHost, delegate, eventLoop).whenComplete((addresses, cause) -> {
+            if (cause != null) {
+                promise.tryFailure(cause);
+            } else {
+                promise.trySuccess(addresses);
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.dns;
+
+import java.net.InetSocketAddress;
+
+import com.linecorp.armeria.internal.dns.DnsUtil;
+
+import io.netty.channel.EventLoop;
+import io.netty.resolver.AddressResolver;
+import io.netty.resolver.AddressResolverGroup;
+import io.netty.util.concurrent.EventExecutor;
+
+/**
+ * An {@link AddressResolverGroup} that resolves host names asynchronously with a DNS cache shared by all
+ * {@link EventLoop}s. The cache respects the time-to-live of DNS records, remembers the host names which do
+ * not exist for a while and refreshes the addresses in use before they expire, so that establishing a new
+ * connection rarely has to wait for a DNS query.
+ *
+ * <p>Use {@link CachingDnsResolverGroupBuilder} to create a new instance and
+ * {@link com.linecorp.armeria.client.SessionOption#ADDRESS_RESOLVER_GROUP} to use it for a
+ * {@link com.linecorp.armeria.client.ClientFactory}.
+ */
+public final class CachingDnsResolverGroup extends AddressResolverGroup<InetSocketAddress> {
+
+    private final DnsAddressCache cache;
+    private final long queryTimeoutMillis;
+
+    CachingDnsResolverGroup(int minTtl, int maxTtl, int negativeTtl, boolean prefetch,
+                            long queryTimeoutMillis) {
+        cache = new DnsAddressCache(minTtl, maxTtl, negativeTtl, prefetch);
+        this.queryTimeoutMillis = queryTimeoutMillis;
+    }
+
+    @Override
+    protected AddressResolver<InetSocketAddress> newResolver(EventExecutor executor) throws Exception {
+        if (!(executor instanceof EventLoop)) {
+            throw new IllegalStateException(
+                    "unsupported executor type: " + executor.getClass().getName() + " (expected: EventLoop)");
+        }
+
+        final EventLoop eventLoop = (EventLoop) executor;
+        return new CachingDnsNameResolver(eventLoop, DnsUtil.newResolver(eventLoop, queryTimeoutMillis), cache)
+                .asAddressResolver();
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.dns;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Builds a new {@link CachingDnsResolverGroup}.
+ */
+public final class CachingDnsResolverGroupBuilder {
+
+    private static final int DEFAULT_MIN_TTL = 1;
+    private static final int DEFAULT_MAX_TTL = 86400;
+    private static final int DEFAULT_NEGATIVE_TTL = 10;
+    private static final long DEFAULT_QUERY_TIMEOUT_MILLIS = 5000;
+
+    private int minTtl = DEFAULT_MIN_TTL;
+    private int maxTtl = DEFAULT_MAX_TTL;
+    private int negativeTtl = DEFAULT_NEGATIVE_TTL;
+    private boolean prefetch = true;
+    private long queryTimeoutMillis = DEFAULT_QUERY_TIMEOUT_MILLIS;
+
+    /**
+     * Sets the minimum and maximum time-to-live of the cached addresses, in seconds. The time-to-live of
+     * DNS records is clamped into this range. The default is {@value #DEFAULT_MIN_TTL} and
+     * {@value #DEFAULT_MAX_TTL}.
+     */
+    public CachingDnsResolverGroupBuilder ttl(int minTtl, int maxTtl) {
+        checkArgument(minTtl >= 0, "minTtl: %s (expected: >= 0)", minTtl);
+        checkArgument(maxTtl >= minTtl, "maxTtl: %s (expected: >= minTtl(%s))", maxTtl, minTtl);
+        this.minTtl = minTtl;
+        this.maxTtl = maxTtl;
+        return this;
+    }
+
+    /**
+     * Sets how long the host names which do not exist are remembered, in seconds. {@code 0} disables the
+     * negative caching. The default is {@value #DEFAULT_NEGATIVE_TTL}.
+     */
+    public CachingDnsResolverGroupBuilder negativeTtl(int negativeTtl) {
+        checkArgument(negativeTtl >= 0, "negativeTtl: %s (expected: >= 0)", negativeTtl);
+        this.negativeTtl = negativeTtl;
+        return this;
+    }
+
+    /**
+     * Sets whether the cached addresses in use are refreshed in background before they expire.
+     * This option is enabled by default.
+     */
+    public CachingDnsResolverGroupBuilder prefetch(boolean prefetch) {
+        this.prefetch = prefetch;
+        return this;
+    }
+
+    /**
+     * Sets the timeout of a DNS query, in milliseconds. The default is {@value #DEFAULT_QUERY_TIMEOUT_MILLIS}.
+     */
+    public CachingDnsResolverGroupBuilder queryTimeoutMillis(long queryTimeoutMillis) {
+        checkArgument(queryTimeoutMillis > 0, "queryTimeoutMillis: %s (expected: > 0)", queryTimeoutMillis);
+        this.queryTimeoutMillis = queryTimeoutMillis;
+        return this;
+    }
+
+    /**
+     * Returns a newly-created {@link CachingDnsResolverGroup} based on the properties of this builder.
+     */
+    public CachingDnsResolverGroup build() {
+        return new CachingDnsResolverGroup(minTtl, maxTtl, negativeTtl, prefetch, queryTimeoutMillis);
+    }
+
+    @Override
+    public String toString() {
+        return "CachingDnsResolverGroupBuilder(minTtl: " + minTtl + ", maxTtl: " + maxTtl +
+               ", negativeTtl: " + negativeTtl + ", prefetch: " + prefetch +
+               ", queryTimeoutMillis: " + queryTimeoutMillis + ')';
+    }
+}
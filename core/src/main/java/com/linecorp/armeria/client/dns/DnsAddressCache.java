@@ -0,0 +1,191 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.dns;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.linecorp.armeria.internal.dns.DnsUtil;
+import com.linecorp.armeria.internal.dns.DnsUtil.ResolvedAddresses;
+
+import io.netty.channel.EventLoop;
+import io.netty.handler.codec.dns.DnsRecordType;
+import io.netty.resolver.dns.DnsNameResolver;
+import io.netty.util.concurrent.Future;
+
+/**
+ * A cache of the addresses of host names, which is shared by the resolvers of all {@link EventLoop}s.
+ * Concurrent lookups of the same host name are coalesced into a single query, and an entry which is
+ * about to expire is refreshed in background while it is still served from the cache.
+ */
+final class DnsAddressCache {
+
+    /**
+     * The time-to-live of the addresses resolved from the hosts file or with the search domains,
+     * which is not known to {@link DnsNameResolver#resolveAll(String)}.
+     */
+    private static final long UNKNOWN_TTL_SECONDS = 60;
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompletableFuture<Entry>> pendingLookups = new ConcurrentHashMap<>();
+    private final int minTtl;
+    private final int maxTtl;
+    private final int negativeTtl;
+    private final boolean prefetch;
+
+    DnsAddressCache(int minTtl, int maxTtl, int negativeTtl, boolean prefetch) {
+        this.minTtl = minTtl;
+        this.maxTtl = maxTtl;
+        this.negativeTtl = negativeTtl;
+        this.prefetch = prefetch;
+    }
+
+    /**
+     * Returns the cached addresses of the specified host name, or looks them up with the specified
+     * {@link DnsNameResolver} if they are not cached or expired.
+     */
+    CompletableFuture<List<InetAddress>> get(String hostname, DnsNameResolver resolver, EventLoop eventLoop) {
+        final Entry entry = entries.get(hostname);
+        if (entry != null) {
+            final long currentNanos = System.nanoTime();
+            if (currentNanos - entry.expiryNanos < 0) {
+                if (prefetch && currentNanos - entry.prefetchNanos >= 0 && entry.startPrefetch()) {
+                    lookup(hostname, resolver, eventLoop);
+                }
+                return entry.result;
+            }
+        }
+
+        final CompletableFuture<List<InetAddress>> result = new CompletableFuture<>();
+        lookup(hostname, resolver, eventLoop).thenAccept(e -> e.result.whenComplete((addresses, cause) -> {
+            if (cause != null) {
+                result.completeExceptionally(cause);
+            } else {
+                result.complete(addresses);
+            }
+        }));
+        return result;
+    }
+
+    private CompletableFuture<Entry> lookup(String hostname, DnsNameResolver resolver, EventLoop eventLoop) {
+        final CompletableFuture<Entry> future = new CompletableFuture<>();
+        final CompletableFuture<Entry> oldFuture = pendingLookups.putIfAbsent(hostname, future);
+        if (oldFuture != null) {
+            return oldFuture;
+        }
+
+        lookup(hostname, resolver).whenComplete((resolved, cause) -> {
+            final Entry entry;
+            if (cause == null) {
+                entry = new Entry(CompletableFuture.completedFuture(resolved.addresses()),
+                                  Math.max(minTtl, Math.min(resolved.ttl(), maxTtl)));
+            } else {
+                final CompletableFuture<List<InetAddress>> failed = new CompletableFuture<>();
+                failed.completeExceptionally(cause);
+                // Cache only the answer that the host name does not exist, i.e. NXDOMAIN, not a timeout,
+                // a SERVFAIL or REFUSED response, or an answer without address records.
+                entry = new Entry(failed, cause instanceof UnknownHostException ? negativeTtl : 0);
+            }
+
+            if (entry.ttl > 0) {
+                entries.put(hostname, entry);
+                eventLoop.schedule(() -> entries.remove(hostname, entry), entry.ttl, TimeUnit.SECONDS);
+            } else {
+                // Keep serving the current entry until it expires, and allow another prefetch.
+                final Entry oldEntry = entries.get(hostname);
+                if (oldEntry != null) {
+                    oldEntry.prefetchFailed();
+                }
+            }
+
+            pendingLookups.remove(hostname, future);
+            future.complete(entry);
+        });
+        return future;
+    }
+
+    /**
+     * Queries the {@code A} records and then the {@code AAAA} records of the specified host name. If neither
+     * exists, the host name is resolved by {@link DnsNameResolver#resolveAll(String)} which also looks up
+     * the hosts file and the search domains.
+     */
+    private static CompletableFuture<ResolvedAddresses> lookup(String hostname, DnsNameResolver resolver) {
+        final CompletableFuture<ResolvedAddresses> future = new CompletableFuture<>();
+        query(hostname, resolver, DnsRecordType.A).whenComplete((a, aCause) -> {
+            if (a != null) {
+                future.complete(a);
+                return;
+            }
+
+            query(hostname, resolver, DnsRecordType.AAAA).whenComplete((aaaa, aaaaCause) -> {
+                if (aaaa != null) {
+                    future.complete(aaaa);
+                    return;
+                }
+
+                resolver.resolveAll(hostname).addListener((Future<List<InetAddress>> f) -> {
+                    if (f.isSuccess()) {
+                        future.complete(new ResolvedAddresses(f.getNow(), UNKNOWN_TTL_SECONDS));
+                    } else {
+                        // Report the failure of the first query, which tells whether the name server
+                        // answered that the name does not exist or did not answer at all.
+                        future.completeExceptionally(aCause);
+                    }
+                });
+            });
+        });
+        return future;
+    }
+
+    private static CompletableFuture<ResolvedAddresses> query(String hostname, DnsNameResolver resolver,
+                                                              DnsRecordType type) {
+        return DnsUtil.query(resolver, hostname, type, res -> DnsUtil.decodeAddresses(hostname, res));
+    }
+
+    private static final class Entry {
+        final CompletableFuture<List<InetAddress>> result;
+        final long ttl;
+        final long expiryNanos;
+        final long prefetchNanos;
+        private final AtomicBoolean prefetching = new AtomicBoolean();
+
+        Entry(CompletableFuture<List<InetAddress>> result, long ttl) {
+            this.result = result;
+            this.ttl = ttl;
+            final long currentNanos = System.nanoTime();
+            final long ttlNanos = TimeUnit.SECONDS.toNanos(ttl);
+            expiryNanos = currentNanos + ttlNanos;
+            // Refresh the entry when 80% of its time-to-live has passed.
+            prefetchNanos = currentNanos + ttlNanos - ttlNanos / 5;
+        }
+
+        boolean startPrefetch() {
+            // Do not prefetch a negative entry, which is usually short-lived.
+            return !result.isCompletedExceptionally() && prefetching.compareAndSet(false, true);
+        }
+
+        void prefetchFailed() {
+            prefetching.set(false);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+/**
+ * Asynchronous DNS resolution with a cache shared by all I/O threads.
+ *
+ * <h2>Starting points</h2>
+ * <ul>
+ *   <li>{@link com.linecorp.armeria.client.dns.CachingDnsResolverGroupBuilder}</li>
+ * </ul>
+ */
+package com.linecorp.armeria.client.dns;
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.endpoint;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import com.google.common.collect.ImmutableList;
+
+import com.linecorp.armeria.client.Endpoint;
+
+/**
+ * An {@link EndpointGroup} whose {@link Endpoint}s are updated dynamically with
+ * {@link #setEndpoints(Iterable)}. The listeners added with {@link #addListener(Consumer)} are notified
+ * whenever the {@link Endpoint}s change.
+ */
+public class DynamicEndpointGroup implements EndpointGroup {
+
+    private final List<Consumer<List<Endpoint>>> listeners = new CopyOnWriteArrayList<>();
+    private volatile List<Endpoint> endpoints = ImmutableList.of();
+
+    @Override
+    public final List<Endpoint> endpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Replaces the {@link Endpoint}s of this {@link EndpointGroup} and notifies the listeners.
+     * The listeners are not notified if the specified {@link Endpoint}s are equal to the current ones.
+     */
+    protected final void setEndpoints(Iterable<Endpoint> endpoints) {
+        final List<Endpoint> newEndpoints = ImmutableList.copyOf(requireNonNull(endpoints, "endpoints"));
+        synchronized (listeners) {
+            if (this.endpoints.equals(newEndpoints)) {
+                return;
+            }
+            this.endpoints = newEndpoints;
+            for (Consumer<List<Endpoint>> listener : listeners) {
+                listener.accept(newEndpoints);
+            }
+        }
+    }
+
+    @Override
+    public final void addListener(Consumer<List<Endpoint>> listener) {
+        listeners.add(requireNonNull(listener, "listener"));
+    }
+
+    @Override
+    public final void removeListener(Consumer<List<Endpoint>> listener) {
+        listeners.remove(requireNonNull(listener, "listener"));
+    }
+}
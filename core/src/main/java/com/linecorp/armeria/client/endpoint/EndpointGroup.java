@@ -17,6 +17,7 @@
 package com.linecorp.armeria.client.endpoint;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import com.linecorp.armeria.client.Endpoint;
 import com.linecorp.armeria.common.util.SafeCloseable;
@@ -31,6 +32,21 @@ public interface EndpointGroup extends SafeCloseable {
      */
     List<Endpoint> endpoints();
 
+    /**
+     * Adds a {@link Consumer} that is notified with the new {@link Endpoint}s whenever the {@link Endpoint}s
+     * of this {@link EndpointGroup} change, so that an {@link EndpointSelector} can prepare for the change
+     * ahead of {@link EndpointSelector#select()}. The default implementation does nothing, which is suitable
+     * only for an {@link EndpointGroup} whose {@link Endpoint}s never change.
+     *
+     * @see DynamicEndpointGroup
+     */
+    default void addListener(Consumer<List<Endpoint>> listener) {}
+
+    /**
+     * Removes a {@link Consumer} added with {@link #addListener(Consumer)}.
+     */
+    default void removeListener(Consumer<List<Endpoint>> listener) {}
+
     @Override
     default void close() {}
 
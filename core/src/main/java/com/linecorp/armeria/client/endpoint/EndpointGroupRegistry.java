@@ -21,6 +21,7 @@ import static java.util.Objects.requireNonNull;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+import com.linecorp.armeria.client.ClientRequestContext;
 import com.linecorp.armeria.client.Endpoint;
 
 /**
@@ -102,5 +103,21 @@ public final class EndpointGroupRegistry {
         return endpointSelector.select();
     }
 
+    /**
+     * Selects an {@link Endpoint} from the {@link EndpointGroup} associated with the specified
+     * {@code groupName} for the request of the specified {@link ClientRequestContext}.
+     *
+     * @see EndpointSelector#select(ClientRequestContext)
+     */
+    public static Endpoint selectNode(String groupName, ClientRequestContext ctx) {
+        requireNonNull(ctx, "ctx");
+        EndpointSelector endpointSelector = getNodeSelector(groupName);
+        if (endpointSelector == null) {
+            throw new EndpointGroupException("non-existent EndpointGroup: " + groupName);
+        }
+
+        return endpointSelector.select(ctx);
+    }
+
     private EndpointGroupRegistry() {}
 }
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.endpoint;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.base.MoreObjects;
+
+import com.linecorp.armeria.client.Endpoint;
+
+/**
+ * The load of an {@link Endpoint}, i.e. the number of its in-flight requests and the exponentially weighted
+ * moving average (EWMA) of its latency. Both are updated without locking so that the requests from
+ * different event loops do not contend with each other.
+ */
+final class EndpointLoad {
+
+    /**
+     * The weight of a new latency sample in the moving average.
+     */
+    private static final double EWMA_ALPHA = 0.3;
+
+    private final Endpoint endpoint;
+    private final LongAdder inFlightRequests = new LongAdder();
+
+    /**
+     * The raw bits of the moving average of the latency in nanoseconds, which is {@code 0} if no latency
+     * has been recorded yet.
+     */
+    private final AtomicLong ewmaLatencyNanosBits = new AtomicLong();
+
+    EndpointLoad(Endpoint endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    Endpoint endpoint() {
+        return endpoint;
+    }
+
+    long inFlightRequests() {
+        return inFlightRequests.sum();
+    }
+
+    double ewmaLatencyNanos() {
+        return Double.longBitsToDouble(ewmaLatencyNanosBits.get());
+    }
+
+    void onRequestStart() {
+        inFlightRequests.increment();
+    }
+
+    void onRequestEnd() {
+        inFlightRequests.decrement();
+    }
+
+    void recordLatency(long latencyNanos) {
+        for (;;) {
+            final long oldBits = ewmaLatencyNanosBits.get();
+            final double oldValue = Double.longBitsToDouble(oldBits);
+            final double newValue = oldValue == 0 ? latencyNanos
+                                                  : oldValue + EWMA_ALPHA * (latencyNanos - oldValue);
+            if (ewmaLatencyNanosBits.compareAndSet(oldBits, Double.doubleToRawLongBits(newValue))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the expected cost of sending a new request to the {@link Endpoint}, which is proportional to
+     * its latency and the number of its in-flight requests and inversely proportional to its weight.
+     */
+    double cost() {
+        return (inFlightRequests() + 1) * (ewmaLatencyNanos() + 1) / endpoint.weight();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("endpoint", endpoint)
+                          .add("inFlightRequests", inFlightRequests())
+                          .add("ewmaLatencyNanos", (long) ewmaLatencyNanos()).toString();
+    }
+}
@@ -34,6 +34,21 @@ public interface EndpointSelectionStrategy {
      */
     EndpointSelectionStrategy WEIGHTED_ROUND_ROBIN = new WeightedRoundRobinStrategy();
 
+    /**
+     * A strategy that selects the {@link Endpoint} with the fewest in-flight requests relative to its weight.
+     * The in-flight requests are tracked only when an {@link Endpoint} is selected with
+     * {@link EndpointSelector#select(com.linecorp.armeria.client.ClientRequestContext)}.
+     */
+    EndpointSelectionStrategy LEAST_OUTSTANDING_REQUESTS = new LeastOutstandingRequestsStrategy();
+
+    /**
+     * A strategy that picks two {@link Endpoint}s at random and selects the one with the lower expected cost,
+     * which is derived from the number of in-flight requests, the moving average of the latency and the
+     * weight of an {@link Endpoint}. The load is tracked only when an {@link Endpoint} is selected with
+     * {@link EndpointSelector#select(com.linecorp.armeria.client.ClientRequestContext)}.
+     */
+    EndpointSelectionStrategy POWER_OF_TWO_CHOICES = new PowerOfTwoChoicesStrategy();
+
     /**
      * Creates a new {@link EndpointSelector} that selects an {@link Endpoint} from the specified
      * {@link EndpointGroup}.
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.endpoint;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+final class LeastOutstandingRequestsStrategy implements EndpointSelectionStrategy {
+
+    @Override
+    public EndpointSelector newSelector(EndpointGroup endpointGroup) {
+        return new LeastOutstandingRequestsSelector(endpointGroup);
+    }
+
+    /**
+     * A least-outstanding-requests select strategy, which selects the
+     * {@link com.linecorp.armeria.client.Endpoint} with the fewest in-flight requests relative to its weight.
+     * The ties are broken by starting the scan at a random position.
+     */
+    static final class LeastOutstandingRequestsSelector extends LoadAwareSelector {
+
+        LeastOutstandingRequestsSelector(EndpointGroup endpointGroup) {
+            super(endpointGroup);
+        }
+
+        @Override
+        public EndpointSelectionStrategy strategy() {
+            return LEAST_OUTSTANDING_REQUESTS;
+        }
+
+        @Override
+        EndpointLoad select(EndpointLoad[] loads) {
+            final int numLoads = loads.length;
+            final int start = numLoads > 1 ? ThreadLocalRandom.current().nextInt(numLoads) : 0;
+
+            EndpointLoad selected = null;
+            double selectedLoad = Double.MAX_VALUE;
+            for (int i = 0; i < numLoads; i++) {
+                final EndpointLoad load = loads[(start + i) % numLoads];
+                final double value = (load.inFlightRequests() + 1.0) / load.endpoint().weight();
+                if (value < selectedLoad) {
+                    selected = load;
+                    selectedLoad = value;
+                }
+            }
+            return selected;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.endpoint;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.common.logging.RequestLogAvailability;
+
+/**
+ * A skeletal {@link EndpointSelector} that selects an {@link Endpoint} based on its {@link EndpointLoad}.
+ * The load of an {@link Endpoint} is tracked only for the requests whose {@link Endpoint} is selected with
+ * {@link #select(ClientRequestContext)}; the in-flight request is counted until its
+ * {@link ClientRequestContext#log()} is complete, and then its total duration is recorded as the latency.
+ */
+abstract class LoadAwareSelector implements EndpointSelector {
+
+    private final EndpointGroup endpointGroup;
+    private volatile EndpointLoads loads;
+
+    LoadAwareSelector(EndpointGroup endpointGroup) {
+        this.endpointGroup = requireNonNull(endpointGroup, "endpointGroup");
+        loads = new EndpointLoads(endpointGroup.endpoints(), null);
+        endpointGroup.addListener(this::updateLoads);
+    }
+
+    @Override
+    public final EndpointGroup group() {
+        return endpointGroup;
+    }
+
+    @Override
+    public final Endpoint select() {
+        return selectLoad().endpoint();
+    }
+
+    @Override
+    public final Endpoint select(ClientRequestContext ctx) {
+        final EndpointLoad load = selectLoad();
+        load.onRequestStart();
+        ctx.log().addListener(log -> {
+            load.onRequestEnd();
+            load.recordLatency(log.totalDurationNanos());
+        }, RequestLogAvailability.COMPLETE);
+        return load.endpoint();
+    }
+
+    private EndpointLoad selectLoad() {
+        final List<Endpoint> endpoints = endpointGroup.endpoints();
+        EndpointLoads loads = this.loads;
+        if (loads.endpoints != endpoints) {
+            // The EndpointGroup does not notify its changes or the notification did not arrive yet.
+            loads = updateLoads(endpoints);
+        }
+
+        if (loads.loads.length == 0) {
+            throw new EndpointGroupException(endpointGroup + " is empty");
+        }
+        return select(loads.loads);
+    }
+
+    /**
+     * Selects one of the specified {@link EndpointLoad}s, which is never empty.
+     */
+    abstract EndpointLoad select(EndpointLoad[] loads);
+
+    private synchronized EndpointLoads updateLoads(List<Endpoint> endpoints) {
+        EndpointLoads loads = this.loads;
+        if (loads.endpoints != endpoints) {
+            this.loads = loads = new EndpointLoads(endpoints, loads);
+        }
+        return loads;
+    }
+
+    private static final class EndpointLoads {
+        final List<Endpoint> endpoints;
+        final EndpointLoad[] loads;
+
+        /**
+         * Creates a new instance, reusing the {@link EndpointLoad}s in the specified old instance so that
+         * the load of the {@link Endpoint}s which remain in the {@link EndpointGroup} is not lost.
+         */
+        EndpointLoads(List<Endpoint> endpoints, EndpointLoads oldLoads) {
+            this.endpoints = endpoints;
+
+            final Map<Endpoint, EndpointLoad> oldLoadMap = new HashMap<>();
+            if (oldLoads != null) {
+                for (EndpointLoad load : oldLoads.loads) {
+                    oldLoadMap.put(load.endpoint(), load);
+                }
+            }
+
+            loads = new EndpointLoad[endpoints.size()];
+            for (int i = 0; i < loads.length; i++) {
+                final Endpoint endpoint = endpoints.get(i);
+                final EndpointLoad load = oldLoadMap.get(endpoint);
+                loads[i] = load != null ? load : new EndpointLoad(endpoint);
+            }
+        }
+    }
+}
@@ -19,16 +19,32 @@ package com.linecorp.armeria.client.endpoint;
 import static java.util.Objects.requireNonNull;
 
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 import com.linecorp.armeria.client.Endpoint;
 
 final class OrElseEndpointGroup implements EndpointGroup {
     private final EndpointGroup first;
     private final EndpointGroup second;
+    private final List<Consumer<List<Endpoint>>> listeners = new CopyOnWriteArrayList<>();
 
     OrElseEndpointGroup(EndpointGroup first, EndpointGroup second) {
         this.first = requireNonNull(first, "first");
         this.second = requireNonNull(second, "second");
+        first.addListener(unused -> notifyListeners());
+        second.addListener(unused -> notifyListeners());
+    }
+
+    private void notifyListeners() {
+        if (listeners.isEmpty()) {
+            return;
+        }
+
+        final List<Endpoint> endpoints = endpoints();
+        for (Consumer<List<Endpoint>> listener : listeners) {
+            listener.accept(endpoints);
+        }
     }
 
     @Override
@@ -39,4 +55,14 @@ final class OrElseEndpointGroup implements EndpointGroup {
         }
         return second.endpoints();
     }
+
+    @Override
+    public void addListener(Consumer<List<Endpoint>> listener) {
+        listeners.add(requireNonNull(listener, "listener"));
+    }
+
+    @Override
+    public void removeListener(Consumer<List<Endpoint>> listener) {
+        listeners.remove(requireNonNull(listener, "listener"));
+    }
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.endpoint;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+final class PowerOfTwoChoicesStrategy implements EndpointSelectionStrategy {
+
+    @Override
+    public EndpointSelector newSelector(EndpointGroup endpointGroup) {
+        return new PowerOfTwoChoicesSelector(endpointGroup);
+    }
+
+    /**
+     * A power-of-two-choices select strategy, which picks two {@link com.linecorp.armeria.client.Endpoint}s
+     * at random and selects the one whose {@link EndpointLoad#cost()} is lower.
+     */
+    static final class PowerOfTwoChoicesSelector extends LoadAwareSelector {
+
+        PowerOfTwoChoicesSelector(EndpointGroup endpointGroup) {
+            super(endpointGroup);
+        }
+
+        @Override
+        public EndpointSelectionStrategy strategy() {
+            return POWER_OF_TWO_CHOICES;
+        }
+
+        @Override
+        EndpointLoad select(EndpointLoad[] loads) {
+            final int numLoads = loads.length;
+            if (numLoads == 1) {
+                return loads[0];
+            }
+
+            final ThreadLocalRandom random = ThreadLocalRandom.current();
+            final int i = random.nextInt(numLoads);
+            int j = random.nextInt(numLoads - 1);
+            if (j >= i) {
+                j++;
+            }
+
+            final EndpointLoad a = loads[i];
+            final EndpointLoad b = loads[j];
+            return a.cost() <= b.cost() ? a : b;
+        }
+    }
+}
@@ -18,10 +18,8 @@ package com.linecorp.armeria.client.endpoint;
 
 import static java.util.Objects.requireNonNull;
 
-import java.util.LinkedHashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 import com.linecorp.armeria.client.Endpoint;
@@ -41,15 +39,22 @@ final class WeightedRoundRobinStrategy implements EndpointSelectionStrategy {
      * <ul>
      *   <li>if endpoint weights are 1,1,1 (or 2,2,2), then select result is abc abc ...</li>
      *   <li>if endpoint weights are 1,2,3 (or 2,4,6), then select result is abcbcc(or abcabcbcbccc) ...</li>
-     *   <li>if endpoint weights are 3,5,7, then select result is abcabcabcbcbcbb abcabcabcbcbcbb ...</li>
+     *   <li>if endpoint weights are 3,5,7, then select result is abcabcabcbcbccc abcabcabcbcbccc ...</li>
      * </ul>
+     *
+     * <p>The schedule is computed only when the {@link Endpoint}s of the {@link EndpointGroup} change, so that
+     * {@link #select()} does not allocate and takes {@code O(log n)} time where {@code n} is the number of
+     * distinct weights.
      */
     static final class WeightedRoundRobinSelector implements EndpointSelector {
         private final EndpointGroup endpointGroup;
         private final AtomicLong sequence = new AtomicLong();
+        private volatile EndpointsAndWeights endpointsAndWeights;
 
         WeightedRoundRobinSelector(EndpointGroup endpointGroup) {
             this.endpointGroup = requireNonNull(endpointGroup, "endpointGroup");
+            endpointsAndWeights = new EndpointsAndWeights(endpointGroup.endpoints());
+            endpointGroup.addListener(endpoints -> endpointsAndWeights = new EndpointsAndWeights(endpoints));
         }
 
         @Override
@@ -64,42 +69,62 @@ final class WeightedRoundRobinStrategy implements EndpointSelectionStrategy {
 
         @Override
         public Endpoint select() {
-            long currentSequence = sequence.getAndIncrement();
+            final List<Endpoint> endpoints = endpointGroup.endpoints();
+            EndpointsAndWeights endpointsAndWeights = this.endpointsAndWeights;
+            if (endpointsAndWeights.endpoints != endpoints) {
+                // The EndpointGroup does not notify its changes or the notification did not arrive yet.
+                this.endpointsAndWeights = endpointsAndWeights = new EndpointsAndWeights(endpoints);
+            }
 
-            List<Endpoint> endpoints = endpointGroup.endpoints();
             if (endpoints.isEmpty()) {
-                throw new EndpointGroupException(endpoints + " is empty");
+                throw new EndpointGroupException(endpointGroup + " is empty");
             }
-            int minWeight = Integer.MAX_VALUE;
-            int maxWeight = Integer.MIN_VALUE;
-            int totalWeight = 0;
-
-            // TODO(ide) Build endpointWeights map is too expensive. Add endpoint change notification mechanism.
-            Map<Endpoint, AtomicInteger> endpointWeights = new LinkedHashMap<>(endpoints.size());
-            for (Endpoint endpoint : endpoints) {
-                int weight = endpoint.weight();
-                endpointWeights.put(endpoint, new AtomicInteger(weight));
-                minWeight = Math.min(minWeight, weight);
-                maxWeight = Math.max(maxWeight, weight);
-                totalWeight += weight;
+            return endpointsAndWeights.select(sequence.getAndIncrement());
+        }
+    }
+
+    /**
+     * A precomputed weighted round robin schedule. The schedule consists of bands; a band contains the
+     * {@link Endpoint}s whose weight is equal to or greater than a certain weight, in their original order,
+     * repeated as many times as the difference between that weight and the next lower distinct weight.
+     */
+    private static final class EndpointsAndWeights {
+        final List<Endpoint> endpoints;
+        private final long totalWeight;
+        private final long[] bandOffsets;
+        private final Endpoint[][] bandEndpoints;
+
+        EndpointsAndWeights(List<Endpoint> endpoints) {
+            this.endpoints = endpoints;
+
+            final int[] weights = endpoints.stream().mapToInt(Endpoint::weight).distinct().sorted().toArray();
+            bandOffsets = new long[weights.length];
+            bandEndpoints = new Endpoint[weights.length][];
+
+            long offset = 0;
+            int lowerWeight = 0;
+            for (int i = 0; i < weights.length; i++) {
+                final int weight = weights[i];
+                final Endpoint[] eligibleEndpoints = endpoints.stream()
+                                                              .filter(e -> e.weight() >= weight)
+                                                              .toArray(Endpoint[]::new);
+                bandOffsets[i] = offset;
+                bandEndpoints[i] = eligibleEndpoints;
+                offset += (long) (weight - lowerWeight) * eligibleEndpoints.length;
+                lowerWeight = weight;
             }
+            totalWeight = offset;
+        }
 
-            if (minWeight < maxWeight) {
-                int mod = (int) (currentSequence % totalWeight);
-                for (int i = 0; i < maxWeight; i++) {
-                    for (Map.Entry<Endpoint, AtomicInteger> entry : endpointWeights.entrySet()) {
-                        AtomicInteger weight = entry.getValue();
-                        if (mod == 0 && weight.get() > 0) {
-                            return entry.getKey();
-                        }
-                        if (weight.get() > 0) {
-                            weight.decrementAndGet();
-                            mod--;
-                        }
-                    }
-                }
+        Endpoint select(long sequence) {
+            final long position = Math.floorMod(sequence, totalWeight);
+            int band = Arrays.binarySearch(bandOffsets, position);
+            if (band < 0) {
+                band = -band - 2;
             }
-            return endpoints.get((int) Math.abs(currentSequence % endpoints.size()));
+
+            final Endpoint[] eligibleEndpoints = bandEndpoints[band];
+            return eligibleEndpoints[(int) ((position - bandOffsets[band]) % eligibleEndpoints.length)];
         }
     }
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.endpoint.dns;
+
+import static java.util.Objects.requireNonNull;
+
+import java.net.InetAddress;
+import java.util.concurrent.CompletableFuture;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+
+import com.linecorp.armeria.client.ClientFactory;
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.internal.dns.DnsUtil;
+import com.linecorp.armeria.internal.dns.DnsUtil.ResolvedAddresses;
+
+import io.netty.channel.EventLoop;
+import io.netty.handler.codec.dns.DnsRecordType;
+import io.netty.resolver.dns.DnsNameResolver;
+import io.netty.resolver.dns.DnsServerAddresses;
+import io.netty.util.NetUtil;
+
+/**
+ * A {@link DnsEndpointGroup} whose {@link Endpoint}s are the addresses in the {@code A} and {@code AAAA}
+ * records of a host name.
+ */
+public final class DnsAddressEndpointGroup extends DnsEndpointGroup {
+
+    /**
+     * Creates a new instance which queries the addresses of the specified host name with an
+     * {@link EventLoop} of {@link ClientFactory#DEFAULT}.
+     */
+    public static DnsAddressEndpointGroup of(String hostname, int port) {
+        return of(hostname, port, ClientFactory.DEFAULT.eventLoopGroup().next());
+    }
+
+    /**
+     * Creates a new instance which queries the addresses of the specified host name with the specified
+     * {@link EventLoop}.
+     */
+    public static DnsAddressEndpointGroup of(String hostname, int port, EventLoop eventLoop) {
+        return of(hostname, port, eventLoop, DEFAULT_MIN_TTL, DEFAULT_MAX_TTL);
+    }
+
+    /**
+     * Creates a new instance which queries the addresses of the specified host name with the specified
+     * {@link EventLoop}. The addresses are queried again when the time-to-live of their records, clamped
+     * into the specified range in seconds, expires.
+     */
+    public static DnsAddressEndpointGroup of(String hostname, int port, EventLoop eventLoop,
+                                             int minTtl, int maxTtl) {
+        return of(hostname, port, eventLoop, minTtl, maxTtl, DnsServerAddresses.defaultAddresses());
+    }
+
+    @VisibleForTesting
+    static DnsAddressEndpointGroup of(String hostname, int port, EventLoop eventLoop,
+                                      int minTtl, int maxTtl, DnsServerAddresses serverAddresses) {
+        final DnsAddressEndpointGroup group = new DnsAddressEndpointGroup(hostname, port, eventLoop,
+                                                                          minTtl, maxTtl, serverAddresses);
+        group.start();
+        return group;
+    }
+
+    private final String hostname;
+    private final int port;
+
+    private DnsAddressEndpointGroup(String hostname, int port, EventLoop eventLoop, int minTtl, int maxTtl,
+                                    DnsServerAddresses serverAddresses) {
+        super(eventLoop, minTtl, maxTtl, serverAddresses);
+        this.hostname = requireNonNull(hostname, "hostname");
+        // Validate the port.
+        Endpoint.of(hostname, port);
+        this.port = port;
+    }
+
+    @Override
+    CompletableFuture<DnsEndpoints> query(DnsNameResolver resolver) {
+        final CompletableFuture<ResolvedAddresses> a = query(resolver, DnsRecordType.A);
+        final CompletableFuture<ResolvedAddresses> aaaa = query(resolver, DnsRecordType.AAAA);
+
+        final CompletableFuture<DnsEndpoints> future = new CompletableFuture<>();
+        a.whenComplete((unused1, aCause) -> aaaa.whenComplete((unused2, aaaaCause) -> {
+            if (aCause != null && aaaaCause != null) {
+                future.completeExceptionally(aCause);
+                return;
+            }
+
+            final ImmutableList.Builder<Endpoint> endpoints = ImmutableList.builder();
+            long ttl = Long.MAX_VALUE;
+            for (CompletableFuture<ResolvedAddresses> f : ImmutableList.of(a, aaaa)) {
+                final ResolvedAddresses resolved = f.getNow(null);
+                if (resolved == null) {
+                    continue;
+                }
+                for (InetAddress address : resolved.addresses()) {
+                    endpoints.add(Endpoint.of(NetUtil.toAddressString(address), port));
+                }
+                ttl = Math.min(ttl, resolved.ttl());
+            }
+            future.complete(new DnsEndpoints(endpoints.build(), ttl));
+        }));
+        return future;
+    }
+
+    private CompletableFuture<ResolvedAddresses> query(DnsNameResolver resolver, DnsRecordType type) {
+        return DnsUtil.query(resolver, hostname, type, res -> DnsUtil.decodeAddresses(hostname, res));
+    }
+
+    @Override
+    public String toString() {
+        return "DnsAddressEndpointGroup(" + hostname + ':' + port + ", " + endpoints() + ')';
+    }
+}
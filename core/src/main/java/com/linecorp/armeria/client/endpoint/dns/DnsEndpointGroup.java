@@ -0,0 +1,157 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.endpoint.dns;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.client.endpoint.DynamicEndpointGroup;
+import com.linecorp.armeria.internal.dns.DnsUtil;
+
+import io.netty.channel.EventLoop;
+import io.netty.resolver.dns.DnsNameResolver;
+import io.netty.resolver.dns.DnsServerAddresses;
+import io.netty.util.concurrent.ScheduledFuture;
+
+/**
+ * A {@link DynamicEndpointGroup} whose {@link Endpoint}s are retrieved from DNS records. The records are
+ * queried again when their time-to-live expires, and the current {@link Endpoint}s are kept when a query
+ * fails.
+ */
+public abstract class DnsEndpointGroup extends DynamicEndpointGroup {
+
+    private static final Logger logger = LoggerFactory.getLogger(DnsEndpointGroup.class);
+
+    static final int DEFAULT_MIN_TTL = 1;
+    static final int DEFAULT_MAX_TTL = 86400;
+    private static final long QUERY_TIMEOUT_MILLIS = 5000;
+    private static final int MAX_RETRY_DELAY_SECONDS = 32;
+
+    private final EventLoop eventLoop;
+    private final int minTtl;
+    private final int maxTtl;
+    private final DnsNameResolver resolver;
+    private final CompletableFuture<List<Endpoint>> initialEndpointsFuture = new CompletableFuture<>();
+
+    // Accessed only by eventLoop.
+    private int retryDelaySeconds;
+    private ScheduledFuture<?> scheduledFuture;
+    private boolean closed;
+
+    DnsEndpointGroup(EventLoop eventLoop, int minTtl, int maxTtl, DnsServerAddresses serverAddresses) {
+        this.eventLoop = requireNonNull(eventLoop, "eventLoop");
+        checkArgument(minTtl > 0, "minTtl: %s (expected: > 0)", minTtl);
+        checkArgument(maxTtl >= minTtl, "maxTtl: %s (expected: >= minTtl(%s))", maxTtl, minTtl);
+        this.minTtl = minTtl;
+        this.maxTtl = maxTtl;
+        resolver = DnsUtil.newResolver(eventLoop, QUERY_TIMEOUT_MILLIS,
+                                       requireNonNull(serverAddresses, "serverAddresses"));
+    }
+
+    /**
+     * Sends the first query. Must be invoked by the constructor of a subclass.
+     */
+    final void start() {
+        eventLoop.execute(this::refresh);
+    }
+
+    /**
+     * Returns the {@link CompletableFuture} which is completed when the first query is answered, or
+     * completed exceptionally if the first query fails. The {@link Endpoint}s are retrieved again even if
+     * the first query fails.
+     */
+    public final CompletableFuture<List<Endpoint>> initialEndpointsFuture() {
+        return initialEndpointsFuture;
+    }
+
+    /**
+     * Sends the query for the {@link Endpoint}s of this group.
+     */
+    abstract CompletableFuture<DnsEndpoints> query(DnsNameResolver resolver);
+
+    private void refresh() {
+        if (closed) {
+            return;
+        }
+
+        query(resolver).whenComplete((result, cause) -> eventLoop.execute(() -> {
+            if (closed) {
+                return;
+            }
+
+            final long delaySeconds;
+            if (cause != null) {
+                logger.warn("{} Failed to retrieve the endpoints; retrying later", this, cause);
+                retryDelaySeconds = retryDelaySeconds == 0 ? minTtl
+                                                           : Math.min(retryDelaySeconds * 2,
+                                                                      MAX_RETRY_DELAY_SECONDS);
+                delaySeconds = retryDelaySeconds;
+                initialEndpointsFuture.completeExceptionally(cause);
+            } else {
+                retryDelaySeconds = 0;
+                delaySeconds = Math.max(minTtl, Math.min(result.ttl(), maxTtl));
+                setEndpoints(result.endpoints());
+                initialEndpointsFuture.complete(result.endpoints());
+            }
+
+            scheduledFuture = eventLoop.schedule(this::refresh, delaySeconds, TimeUnit.SECONDS);
+        }));
+    }
+
+    /**
+     * Stops retrieving the {@link Endpoint}s.
+     */
+    @Override
+    public void close() {
+        eventLoop.execute(() -> {
+            closed = true;
+            if (scheduledFuture != null) {
+                scheduledFuture.cancel(false);
+            }
+            resolver.close();
+        });
+    }
+
+    /**
+     * The {@link Endpoint}s decoded from DNS records and their time-to-live.
+     */
+    static final class DnsEndpoints {
+        private final List<Endpoint> endpoints;
+        private final long ttl;
+
+        DnsEndpoints(List<Endpoint> endpoints, long ttl) {
+            this.endpoints = endpoints;
+            this.ttl = ttl;
+        }
+
+        List<Endpoint> endpoints() {
+            return endpoints;
+        }
+
+        long ttl() {
+            return ttl;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.endpoint.dns;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+
+import com.linecorp.armeria.client.ClientFactory;
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.internal.dns.DnsQueryException;
+import com.linecorp.armeria.internal.dns.DnsUtil;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.EventLoop;
+import io.netty.handler.codec.dns.DnsRawRecord;
+import io.netty.handler.codec.dns.DnsRecord;
+import io.netty.handler.codec.dns.DnsRecordType;
+import io.netty.handler.codec.dns.DnsResponse;
+import io.netty.handler.codec.dns.DnsSection;
+import io.netty.resolver.dns.DnsNameResolver;
+import io.netty.resolver.dns.DnsServerAddresses;
+
+/**
+ * A {@link DnsEndpointGroup} whose {@link Endpoint}s are the targets in the {@code SRV} records of
+ * a service name, such as {@code "_http._tcp.example.com"}. Only the records of the highest priority,
+ * i.e. the smallest priority value, are used, and the weight of a record becomes the weight of its
+ * {@link Endpoint}.
+ */
+public final class DnsServiceEndpointGroup extends DnsEndpointGroup {
+
+    /**
+     * Creates a new instance which queries the {@code SRV} records of the specified service name with an
+     * {@link EventLoop} of {@link ClientFactory#DEFAULT}.
+     */
+    public static DnsServiceEndpointGroup of(String serviceName) {
+        return of(serviceName, ClientFactory.DEFAULT.eventLoopGroup().next());
+    }
+
+    /**
+     * Creates a new instance which queries the {@code SRV} records of the specified service name with
+     * the specified {@link EventLoop}.
+     */
+    public static DnsServiceEndpointGroup of(String serviceName, EventLoop eventLoop) {
+        return of(serviceName, eventLoop, DEFAULT_MIN_TTL, DEFAULT_MAX_TTL);
+    }
+
+    /**
+     * Creates a new instance which queries the {@code SRV} records of the specified service name with
+     * the specified {@link EventLoop}. The records are queried again when their time-to-live, clamped into
+     * the specified range in seconds, expires.
+     */
+    public static DnsServiceEndpointGroup of(String serviceName, EventLoop eventLoop, int minTtl, int maxTtl) {
+        return of(serviceName, eventLoop, minTtl, maxTtl, DnsServerAddresses.defaultAddresses());
+    }
+
+    @VisibleForTesting
+    static DnsServiceEndpointGroup of(String serviceName, EventLoop eventLoop, int minTtl, int maxTtl,
+                                      DnsServerAddresses serverAddresses) {
+        final DnsServiceEndpointGroup group = new DnsServiceEndpointGroup(serviceName, eventLoop,
+                                                                          minTtl, maxTtl, serverAddresses);
+        group.start();
+        return group;
+    }
+
+    private final String serviceName;
+
+    private DnsServiceEndpointGroup(String serviceName, EventLoop eventLoop, int minTtl, int maxTtl,
+                                    DnsServerAddresses serverAddresses) {
+        super(eventLoop, minTtl, maxTtl, serverAddresses);
+        this.serviceName = requireNonNull(serviceName, "serviceName");
+    }
+
+    @Override
+    CompletableFuture<DnsEndpoints> query(DnsNameResolver resolver) {
+        return DnsUtil.query(resolver, serviceName, DnsRecordType.SRV, this::decode);
+    }
+
+    private DnsEndpoints decode(DnsResponse res) throws IOException {
+        DnsUtil.checkResponseCode(serviceName, res);
+
+        ImmutableList.Builder<Endpoint> endpoints = ImmutableList.builder();
+        int highestPriority = Integer.MAX_VALUE;
+        long ttl = Long.MAX_VALUE;
+        final int count = res.count(DnsSection.ANSWER);
+        for (int i = 0; i < count; i++) {
+            final DnsRecord r = res.recordAt(DnsSection.ANSWER, i);
+            if (r.type() != DnsRecordType.SRV || !(r instanceof DnsRawRecord)) {
+                continue;
+            }
+
+            // The RDATA of an SRV record: priority(16), weight(16), port(16) and target(name)
+            final ByteBuf content = ((DnsRawRecord) r).content().duplicate();
+            if (content.readableBytes() < 7) {
+                continue;
+            }
+
+            final int priority = content.readUnsignedShort();
+            final int weight = content.readUnsignedShort();
+            final int port = content.readUnsignedShort();
+            final String target = DnsUtil.decodeName(content);
+            if (port == 0 || ".".equals(target)) {
+                // The service is decidedly not available at this domain.
+                continue;
+            }
+
+            if (priority > highestPriority) {
+                continue;
+            }
+            if (priority < highestPriority) {
+                highestPriority = priority;
+                endpoints = ImmutableList.builder();
+                ttl = Long.MAX_VALUE;
+            }
+
+            // Strip the trailing dot and give a little chance to the targets with the weight of 0.
+            final String host = target.substring(0, target.length() - 1);
+            endpoints.add(Endpoint.of(host, port, Math.max(weight, 1)));
+            ttl = Math.min(ttl, r.timeToLive());
+        }
+
+        final ImmutableList<Endpoint> result = endpoints.build();
+        if (result.isEmpty()) {
+            throw new DnsQueryException("no SRV records: " + serviceName);
+        }
+        return new DnsEndpoints(result, ttl);
+    }
+
+    @Override
+    public String toString() {
+        return "DnsServiceEndpointGroup(" + serviceName + ", " + endpoints() + ')';
+    }
+}
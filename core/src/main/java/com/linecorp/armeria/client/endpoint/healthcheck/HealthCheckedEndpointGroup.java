@@ -30,6 +30,7 @@ import com.google.common.collect.ImmutableList;
 
 import com.linecorp.armeria.client.ClientFactory;
 import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.client.endpoint.DynamicEndpointGroup;
 import com.linecorp.armeria.client.endpoint.EndpointGroup;
 import com.linecorp.armeria.internal.futures.CompletableFutures;
 import com.linecorp.armeria.internal.guava.stream.GuavaCollectors;
@@ -37,7 +38,7 @@ import com.linecorp.armeria.internal.guava.stream.GuavaCollectors;
 /**
  * An {@link EndpointGroup} decorator that only provides healthy {@link Endpoint}s.
  */
-public abstract class HealthCheckedEndpointGroup implements EndpointGroup {
+public abstract class HealthCheckedEndpointGroup extends DynamicEndpointGroup {
     protected static final Duration DEFAULT_HEALTHCHECK_RETRY_INTERVAL = Duration.ofSeconds(3);
 
     private final ClientFactory clientFactory;
@@ -45,7 +46,6 @@ public abstract class HealthCheckedEndpointGroup implements EndpointGroup {
     private final Duration healthCheckRetryInterval;
 
     volatile List<ServerConnection> allServers = ImmutableList.of();
-    volatile List<Endpoint> healthyEndpoints = ImmutableList.of();
 
     /**
      * Creates a new instance.
@@ -96,7 +96,7 @@ public abstract class HealthCheckedEndpointGroup implements EndpointGroup {
                     newHealthyEndpoints.add(checkedServers.get(i).endpoint());
                 }
             }
-            healthyEndpoints = newHealthyEndpoints.build();
+            setEndpoints(newHealthyEndpoints.build());
         }));
     }
 
@@ -133,11 +133,6 @@ public abstract class HealthCheckedEndpointGroup implements EndpointGroup {
         return new EndpointHealthStateGaugeSet(this, metricName);
     }
 
-    @Override
-    public List<Endpoint> endpoints() {
-        return healthyEndpoints;
-    }
-
     @Override
     public String toString() {
         StringBuilder buf = new StringBuilder();
@@ -147,7 +142,7 @@ public abstract class HealthCheckedEndpointGroup implements EndpointGroup {
         }
         buf.setCharAt(buf.length() - 1, ']');
         buf.append(", healthy:[");
-        for (Endpoint endpoint : healthyEndpoints) {
+        for (Endpoint endpoint : endpoints()) {
             buf.append(endpoint).append(',');
         }
         buf.setCharAt(buf.length() - 1, ']');
@@ -21,7 +21,6 @@ import org.slf4j.LoggerFactory;
 
 import com.linecorp.armeria.common.ContentTooLargeException;
 import com.linecorp.armeria.common.ProtocolViolationException;
-import com.linecorp.armeria.common.http.HttpData;
 import com.linecorp.armeria.common.http.HttpResponseWriter;
 import com.linecorp.armeria.internal.http.ArmeriaHttpUtil;
 
@@ -55,8 +54,8 @@ final class Http1ResponseDecoder extends HttpResponseDecoder implements ChannelI
     private int resId = 1;
     private State state = State.NEED_HEADERS;
 
-    Http1ResponseDecoder(Channel channel) {
-        super(channel);
+    Http1ResponseDecoder(Channel channel, boolean usePooledHttpData) {
+        super(channel, usePooledHttpData);
     }
 
     @Override
@@ -147,7 +146,7 @@ final class Http1ResponseDecoder extends HttpResponseDecoder implements ChannelI
                                 fail(ctx, ContentTooLargeException.get());
                                 return;
                             } else {
-                                res.write(HttpData.of(data));
+                                res.write(toHttpData(data));
                             }
                         }
 
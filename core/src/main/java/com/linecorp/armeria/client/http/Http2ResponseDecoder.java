@@ -25,7 +25,6 @@ import org.slf4j.LoggerFactory;
 
 import com.linecorp.armeria.common.ClosedSessionException;
 import com.linecorp.armeria.common.ContentTooLargeException;
-import com.linecorp.armeria.common.http.HttpData;
 import com.linecorp.armeria.common.http.HttpHeaders;
 import com.linecorp.armeria.internal.http.ArmeriaHttpUtil;
 
@@ -46,10 +45,12 @@ final class Http2ResponseDecoder extends HttpResponseDecoder implements Http2Con
     private static final Logger logger = LoggerFactory.getLogger(Http2ResponseDecoder.class);
 
     private final Http2Connection conn;
+    private final Channel channel;
 
-    Http2ResponseDecoder(Http2Connection conn, Channel channel) {
-        super(channel);
+    Http2ResponseDecoder(Http2Connection conn, Channel channel, boolean usePooledHttpData) {
+        super(channel, usePooledHttpData);
         this.conn = conn;
+        this.channel = channel;
     }
 
     @Override
@@ -80,7 +81,16 @@ final class Http2ResponseDecoder extends HttpResponseDecoder implements Http2Con
     public void onGoAwaySent(int lastStreamId, long errorCode, ByteBuf debugData) {}
 
     @Override
-    public void onGoAwayReceived(int lastStreamId, long errorCode, ByteBuf debugData) {}
+    public void onGoAwayReceived(int lastStreamId, long errorCode, ByteBuf debugData) {
+        // Send no more requests, and close the connection once the requests processed by the server are
+        // finished. The requests the server did not process are failed right away.
+        HttpSession.get(channel).deactivate();
+        disconnectWhenFinished();
+        failUnfinishedResponsesAfter(lastStreamId > 0 ? id(lastStreamId) : -1, ClosedSessionException.get());
+        if (needsToDisconnect()) {
+            channel.close();
+        }
+    }
 
     @Override
     public void onSettingsRead(ChannelHandlerContext ctx, Http2Settings settings) {
@@ -110,6 +120,7 @@ final class Http2ResponseDecoder extends HttpResponseDecoder implements Http2Con
 
         if (endOfStream) {
             res.close();
+            closeIfFinished(ctx);
         }
     }
 
@@ -142,7 +153,7 @@ final class Http2ResponseDecoder extends HttpResponseDecoder implements Http2Con
         }
 
         try {
-            res.write(HttpData.of(data));
+            res.write(toHttpData(data));
         } catch (Throwable t) {
             res.close(t);
             throw connectionError(INTERNAL_ERROR, t, "failed to consume a DATA frame");
@@ -150,6 +161,7 @@ final class Http2ResponseDecoder extends HttpResponseDecoder implements Http2Con
 
         if (endOfStream) {
             res.close();
+            closeIfFinished(ctx);
         }
 
         // All bytes have been processed.
@@ -173,6 +185,13 @@ final class Http2ResponseDecoder extends HttpResponseDecoder implements Http2Con
         }
 
         res.close(ClosedSessionException.get());
+        closeIfFinished(ctx);
+    }
+
+    private void closeIfFinished(ChannelHandlerContext ctx) {
+        if (needsToDisconnect()) {
+            ctx.close();
+        }
     }
 
     @Override
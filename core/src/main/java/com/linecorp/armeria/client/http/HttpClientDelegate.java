@@ -18,6 +18,9 @@ package com.linecorp.armeria.client.http;
 import static java.util.Objects.requireNonNull;
 
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
@@ -27,6 +30,7 @@ import com.linecorp.armeria.client.Client;
 import com.linecorp.armeria.client.ClientRequestContext;
 import com.linecorp.armeria.client.Endpoint;
 import com.linecorp.armeria.client.SessionOptions;
+import com.linecorp.armeria.client.http.MultiplexedConnectionManager.MultiplexedConnection;
 import com.linecorp.armeria.client.pool.DefaultKeyedChannelPool;
 import com.linecorp.armeria.client.pool.KeyedChannelPool;
 import com.linecorp.armeria.client.pool.KeyedChannelPoolHandler;
@@ -43,8 +47,10 @@ import com.linecorp.armeria.common.util.CompletionActions;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
 import io.netty.channel.pool.ChannelHealthChecker;
 import io.netty.util.AsciiString;
+import io.netty.util.concurrent.EventExecutor;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.FutureListener;
 
@@ -58,17 +64,20 @@ final class HttpClientDelegate implements Client<HttpRequest, HttpResponse> {
 
     private static final Pattern CONSECUTIVE_SLASHES_PATTERN = Pattern.compile("/{2,}");
 
-    final ConcurrentMap<EventLoop, KeyedChannelPool<PoolKey>> map = new ConcurrentHashMap<>();
+    final ConcurrentMap<EventLoop, DefaultKeyedChannelPool<PoolKey>> map = new ConcurrentHashMap<>();
 
     private final HttpClientFactory factory;
+    private final MultiplexedConnectionManager connectionManager;
 
     HttpClientDelegate(HttpClientFactory factory) {
         this.factory = requireNonNull(factory, "factory");
+        connectionManager = new MultiplexedConnectionManager(factory.options().idleTimeoutMillis());
     }
 
     @Override
     public HttpResponse execute(ClientRequestContext ctx, HttpRequest req) throws Exception {
-        final Endpoint endpoint = ctx.endpoint().resolve().withDefaultPort(ctx.sessionProtocol().defaultPort());
+        final Endpoint endpoint = ctx.endpoint().resolve(ctx)
+                                     .withDefaultPort(ctx.sessionProtocol().defaultPort());
         autoFillHeaders(ctx, endpoint, req);
         sanitizePath(req);
 
@@ -76,10 +85,29 @@ final class HttpClientDelegate implements Client<HttpRequest, HttpResponse> {
                 InetSocketAddress.createUnresolved(endpoint.host(), endpoint.port()),
                 ctx.sessionProtocol());
 
+        final DecodedHttpResponse res = new DecodedHttpResponse(ctx.eventLoop());
+        acquireAndInvoke(ctx, req, res, poolKey);
+        return res;
+    }
+
+    private void acquireAndInvoke(ClientRequestContext ctx, HttpRequest req, DecodedHttpResponse res,
+                                  PoolKey poolKey) {
+
         final EventLoop eventLoop = ctx.eventLoop();
-        final Future<Channel> channelFuture = pool(eventLoop).acquire(poolKey);
-        final DecodedHttpResponse res = new DecodedHttpResponse(eventLoop);
 
+        // Send the request over an existing multiplexed connection of any event loop if possible.
+        final MultiplexedConnection conn = connectionManager.tryAcquire(poolKey, eventLoop);
+        if (conn != null) {
+            final EventLoop connEventLoop = conn.channel().eventLoop();
+            if (connEventLoop.inEventLoop()) {
+                invokeMultiplexed(conn, ctx, req, res);
+            } else {
+                connEventLoop.execute(() -> invokeMultiplexed(conn, ctx, req, res));
+            }
+            return;
+        }
+
+        final Future<Channel> channelFuture = pool(eventLoop).acquire(poolKey);
         if (channelFuture.isDone()) {
             if (channelFuture.isSuccess()) {
                 Channel ch = channelFuture.getNow();
@@ -97,8 +125,6 @@ final class HttpClientDelegate implements Client<HttpRequest, HttpResponse> {
                 }
             });
         }
-
-        return res;
     }
 
     private static void autoFillHeaders(ClientRequestContext ctx, Endpoint endpoint, HttpRequest req) {
@@ -163,8 +189,8 @@ final class HttpClientDelegate implements Client<HttpRequest, HttpResponse> {
         }
     }
 
-    private KeyedChannelPool<PoolKey> pool(EventLoop eventLoop) {
-        KeyedChannelPool<PoolKey> pool = map.get(eventLoop);
+    private DefaultKeyedChannelPool<PoolKey> pool(EventLoop eventLoop) {
+        DefaultKeyedChannelPool<PoolKey> pool = map.get(eventLoop);
         if (pool != null) {
             return pool;
         }
@@ -176,13 +202,14 @@ final class HttpClientDelegate implements Client<HttpRequest, HttpResponse> {
             bootstrap.group(eventLoop);
 
             Function<PoolKey, Future<Channel>> channelFactory =
-                    new HttpSessionChannelFactory(bootstrap, options);
+                    new HttpSessionChannelFactory(bootstrap, options,
+                                                  factory.sessionProtocolNegotiationCache());
 
             final KeyedChannelPoolHandler<PoolKey> handler =
                     options.poolHandlerDecorator().apply(NOOP_POOL_HANDLER);
 
-            final KeyedChannelPool<PoolKey> newPool = new DefaultKeyedChannelPool<>(
-                    eventLoop, channelFactory, POOL_HEALTH_CHECKER, handler, true);
+            final DefaultKeyedChannelPool<PoolKey> newPool =
+                    new HttpChannelPool(eventLoop, channelFactory, handler, options);
 
             eventLoop.terminationFuture().addListener((FutureListener<Object>) f -> {
                 map.remove(eventLoop);
@@ -193,31 +220,101 @@ final class HttpClientDelegate implements Client<HttpRequest, HttpResponse> {
         });
     }
 
+    /**
+     * Establishes the connections to the specified {@link PoolKey} from all {@link EventLoop}s in
+     * the specified {@link EventLoopGroup}.
+     */
+    CompletableFuture<Void> warmUp(EventLoopGroup eventLoopGroup, PoolKey poolKey) {
+        final List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (EventExecutor e : eventLoopGroup) {
+            final CompletableFuture<Void> future = new CompletableFuture<>();
+            pool((EventLoop) e).warmUp(poolKey).addListener((Future<Void> f) -> {
+                if (f.isSuccess()) {
+                    future.complete(null);
+                } else {
+                    future.completeExceptionally(f.cause());
+                }
+            });
+            futures.add(future);
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()]));
+    }
+
     void invoke0(Channel channel, ClientRequestContext ctx,
                  HttpRequest req, DecodedHttpResponse res, PoolKey poolKey) {
 
         final HttpSession session = HttpSession.get(channel);
-        res.init(session.inboundTrafficController());
         final SessionProtocol sessionProtocol = session.protocol();
         if (sessionProtocol == null) {
+            res.init(session.inboundTrafficController());
             res.close(ClosedSessionException.get());
             return;
         }
 
+        if (sessionProtocol.isMultiplex()) {
+            // Hand the connection over to the connection manager rather than returning it to the pool,
+            // so that it is shared by all event loops. The pool still counts it as an active connection
+            // until it is closed.
+            final MultiplexedConnection conn = connectionManager.register(poolKey, channel);
+            if (conn.tryReserve()) {
+                invokeMultiplexed(conn, ctx, req, res);
+            } else {
+                // The connection has no stream left or is going away; find another one.
+                acquireAndInvoke(ctx, req, res, poolKey);
+            }
+            return;
+        }
+
+        res.init(session.inboundTrafficController());
         if (session.invoke(ctx, req, res)) {
             // Return the channel to the pool.
             final KeyedChannelPool<PoolKey> pool = KeyedChannelPool.findPool(channel);
-            if (sessionProtocol.isMultiplex()) {
-                pool.release(poolKey, channel);
-            } else {
-                req.closeFuture()
-                   .handle((ret, cause) -> pool.release(poolKey, channel))
-                   .exceptionally(CompletionActions::log);
+            req.closeFuture()
+               .handle((ret, cause) -> pool.release(poolKey, channel))
+               .exceptionally(CompletionActions::log);
+        }
+    }
+
+    private static void invokeMultiplexed(MultiplexedConnection conn, ClientRequestContext ctx,
+                                          HttpRequest req, DecodedHttpResponse res) {
+        assert conn.channel().eventLoop().inEventLoop();
+
+        final HttpSession session = conn.session();
+        res.init(session.inboundTrafficController());
+        try {
+            if (!session.invoke(ctx, req, res)) {
+                // The connection will be closed when its unfinished responses are received.
+                session.deactivate();
             }
+        } finally {
+            // The stream is now counted as an unfinished response of the session.
+            conn.release();
         }
     }
 
     void close() {
         map.values().forEach(KeyedChannelPool::close);
+        connectionManager.close();
+    }
+
+    /**
+     * A {@link DefaultKeyedChannelPool} which does not close an idle connection with an unfinished response,
+     * because an HTTP/1 connection is returned to the pool as soon as its request is sent.
+     */
+    private static final class HttpChannelPool extends DefaultKeyedChannelPool<PoolKey> {
+
+        HttpChannelPool(EventLoop eventLoop, Function<PoolKey, Future<Channel>> channelFactory,
+                        KeyedChannelPoolHandler<PoolKey> handler, SessionOptions options) {
+            super(eventLoop, channelFactory, POOL_HEALTH_CHECKER, handler, true,
+                  options.maxConnectionsPerHostPerEventLoop(),
+                  options.minIdleConnectionsPerHostPerEventLoop(),
+                  options.minIdleConnectionsPerHostPerEventLoop() > 0 ? options.idleTimeoutMillis() : 0,
+                  options.connectTimeoutMillis());
+        }
+
+        @Override
+        protected boolean isEvictable(PoolKey key, Channel channel) {
+            return !HttpSession.get(channel).hasUnfinishedResponses();
+        }
     }
 }
@@ -16,9 +16,16 @@
 
 package com.linecorp.armeria.client.http;
 
+import static java.util.Objects.requireNonNull;
+
+import java.net.InetSocketAddress;
 import java.net.URI;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 
 import com.linecorp.armeria.client.Client;
@@ -28,6 +35,8 @@ import com.linecorp.armeria.client.DefaultClientBuilderParams;
 import com.linecorp.armeria.client.Endpoint;
 import com.linecorp.armeria.client.NonDecoratingClientFactory;
 import com.linecorp.armeria.client.SessionOptions;
+import com.linecorp.armeria.client.SessionProtocolNegotiationCache;
+import com.linecorp.armeria.client.pool.PoolKey;
 import com.linecorp.armeria.common.Scheme;
 import com.linecorp.armeria.common.SerializationFormat;
 import com.linecorp.armeria.common.SessionProtocol;
@@ -51,6 +60,7 @@ public class HttpClientFactory extends NonDecoratingClientFactory {
         SUPPORTED_SCHEMES = builder.build();
     }
 
+    private final SessionProtocolNegotiationCache negotiationCache = new SessionProtocolNegotiationCache();
     private final HttpClientDelegate delegate;
 
     /**
@@ -103,7 +113,7 @@ public class HttpClientFactory extends NonDecoratingClientFactory {
         validateClientType(clientType);
 
         final Client<HttpRequest, HttpResponse> delegate = options.decoration().decorate(
-                HttpRequest.class, HttpResponse.class, new HttpClientDelegate(this));
+                HttpRequest.class, HttpResponse.class, this.delegate);
 
         if (clientType == Client.class) {
             @SuppressWarnings("unchecked")
@@ -140,6 +150,57 @@ public class HttpClientFactory extends NonDecoratingClientFactory {
         }
     }
 
+    /**
+     * Establishes the connections to the specified {@link Endpoint} in advance, so that the first requests
+     * do not have to wait for a new connection. As many connections as
+     * {@link SessionOptions#minIdleConnectionsPerHostPerEventLoop()} (or one connection if it is {@code 0})
+     * are established from each event loop of this factory.
+     *
+     * @return the {@link CompletableFuture} which is completed when all connections are established
+     */
+    public CompletableFuture<Void> warmUp(SessionProtocol sessionProtocol, Endpoint endpoint) {
+        requireNonNull(sessionProtocol, "sessionProtocol");
+        requireNonNull(endpoint, "endpoint");
+        if (!SessionProtocol.ofHttp().contains(sessionProtocol)) {
+            throw new IllegalArgumentException(
+                    "sessionProtocol: " + sessionProtocol +
+                    " (expected: one of " + SessionProtocol.ofHttp() + ')');
+        }
+        if (endpoint.isGroup()) {
+            throw new IllegalArgumentException("endpoint: " + endpoint + " (expected: a host endpoint)");
+        }
+
+        final Endpoint hostEndpoint = endpoint.withDefaultPort(sessionProtocol.defaultPort());
+        return delegate.warmUp(eventLoopGroup(), new PoolKey(
+                InetSocketAddress.createUnresolved(hostEndpoint.host(), hostEndpoint.port()), sessionProtocol));
+    }
+
+    /**
+     * Returns the {@link SessionProtocolNegotiationCache} which keeps the recent {@link SessionProtocol}
+     * negotiation failures of the connections created by this factory.
+     */
+    public SessionProtocolNegotiationCache sessionProtocolNegotiationCache() {
+        return negotiationCache;
+    }
+
+    /**
+     * Returns a {@link MetricSet} which reports the number of the idle, active and created connections,
+     * the number of the closed connections and the number of the pending connection acquisitions
+     * per remote host, and the number of the hits, misses and entries of the
+     * {@link #sessionProtocolNegotiationCache()}.
+     *
+     * @param metricName the name of the metric to report
+     */
+    public MetricSet newMetricSet(String metricName) {
+        final MetricSet poolGaugeSet = new HttpClientPoolGaugeSet(delegate, metricName);
+        final MetricSet cacheGaugeSet =
+                new SessionProtocolNegotiationCacheGaugeSet(negotiationCache, metricName);
+        return () -> ImmutableMap.<String, Metric>builder()
+                                 .putAll(poolGaugeSet.getMetrics())
+                                 .putAll(cacheGaugeSet.getMetrics())
+                                 .build();
+    }
+
     @Override
     public void close() {
         delegate.close();
@@ -16,8 +16,10 @@
 
 package com.linecorp.armeria.client.http;
 
+import com.linecorp.armeria.client.http.MultiplexedConnectionManager.MultiplexedConnection;
 import com.linecorp.armeria.internal.IdleTimeoutHandler;
 
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 
 final class HttpClientIdleTimeoutHandler extends IdleTimeoutHandler {
@@ -28,6 +30,13 @@ final class HttpClientIdleTimeoutHandler extends IdleTimeoutHandler {
 
     @Override
     protected boolean hasRequestsInProgress(ChannelHandlerContext ctx) {
-        return HttpSession.get(ctx.channel()).hasUnfinishedResponses();
+        final Channel ch = ctx.channel();
+        if (HttpSession.get(ch).hasUnfinishedResponses()) {
+            return true;
+        }
+
+        // A request from another event loop might be about to be sent over this connection.
+        final MultiplexedConnection conn = MultiplexedConnectionManager.get(ch);
+        return conn != null && conn.numReservedStreams() != 0;
     }
 }
@@ -111,9 +111,11 @@ class HttpClientPipelineConfigurator extends ChannelDuplexHandler {
     private final SslContext sslCtx;
     private final HttpPreference httpPreference;
     private final SessionOptions options;
+    private final SessionProtocolNegotiationCache negotiationCache;
     private InetSocketAddress remoteAddress;
 
-    HttpClientPipelineConfigurator(SessionProtocol sessionProtocol, SessionOptions options) {
+    HttpClientPipelineConfigurator(SessionProtocol sessionProtocol, SessionOptions options,
+                                   SessionProtocolNegotiationCache negotiationCache) {
         switch (sessionProtocol) {
         case HTTP:
         case HTTPS:
@@ -133,6 +135,7 @@ class HttpClientPipelineConfigurator extends ChannelDuplexHandler {
         }
 
         this.options = requireNonNull(options, "options");
+        this.negotiationCache = requireNonNull(negotiationCache, "negotiationCache");
 
         if (sessionProtocol.isTls()) {
             try {
@@ -230,7 +233,7 @@ class HttpClientPipelineConfigurator extends ChannelDuplexHandler {
                     protocol = H2;
                 } else {
                     if (httpPreference != HttpPreference.HTTP1_REQUIRED) {
-                        SessionProtocolNegotiationCache.setUnsupported(ctx.channel().remoteAddress(), H2);
+                        negotiationCache.setUnsupported(ctx.channel().remoteAddress(), H2);
                     }
 
                     if (httpPreference == HttpPreference.HTTP2_REQUIRED) {
@@ -264,7 +267,7 @@ class HttpClientPipelineConfigurator extends ChannelDuplexHandler {
             attemptUpgrade = false;
             break;
         case HTTP2_PREFERRED:
-            attemptUpgrade = !SessionProtocolNegotiationCache.isUnsupported(remoteAddress, H2C);
+            attemptUpgrade = !negotiationCache.isUnsupported(remoteAddress, H2C);
             break;
         case HTTP2_REQUIRED:
             attemptUpgrade = true;
@@ -314,11 +317,14 @@ class HttpClientPipelineConfigurator extends ChannelDuplexHandler {
     void finishSuccessfully(ChannelPipeline pipeline, SessionProtocol protocol) {
 
         if (protocol == H1 || protocol == H1C) {
-            addBeforeSessionHandler(pipeline, new Http1ResponseDecoder(pipeline.channel()));
+            addBeforeSessionHandler(pipeline, new Http1ResponseDecoder(pipeline.channel(),
+                                                                       options.usePooledHttpData()));
         }
 
+        // The connection pool closes the idle connections instead when it keeps the minimum idle connections.
+        // A multiplexed connection gets the handler when it is handed over to MultiplexedConnectionManager.
         final long idleTimeoutMillis = options.idleTimeoutMillis();
-        if (idleTimeoutMillis > 0) {
+        if (idleTimeoutMillis > 0 && options.minIdleConnectionsPerHostPerEventLoop() == 0) {
             pipeline.addFirst(new HttpClientIdleTimeoutHandler(idleTimeoutMillis));
         }
 
@@ -464,7 +470,7 @@ class HttpClientPipelineConfigurator extends ChannelDuplexHandler {
             if (close) {
                 // Server wants us to close the connection, which means we cannot use this connection
                 // to send the request that contains the actual invocation.
-                SessionProtocolNegotiationCache.setUnsupported(ctx.channel().remoteAddress(), H2C);
+                negotiationCache.setUnsupported(ctx.channel().remoteAddress(), H2C);
 
                 if (httpPreference == HttpPreference.HTTP2_REQUIRED) {
                     finishWithNegotiationFailure(ctx, H2C, H1C,
@@ -479,7 +485,7 @@ class HttpClientPipelineConfigurator extends ChannelDuplexHandler {
             if (success) {
                 finishSuccessfully(p, H2C);
             } else {
-                SessionProtocolNegotiationCache.setUnsupported(ctx.channel().remoteAddress(), H2C);
+                negotiationCache.setUnsupported(ctx.channel().remoteAddress(), H2C);
 
                 if (httpPreference == HttpPreference.HTTP2_REQUIRED) {
                     finishWithNegotiationFailure(ctx, H2C, H1C, "upgrade request rejected");
@@ -512,7 +518,7 @@ class HttpClientPipelineConfigurator extends ChannelDuplexHandler {
             if (in.getInt(in.readerIndex()) == 0x48545450) { // If the response starts with 'HTTP'
                 // Http2ConnectionHandler sent the preface string, but the server responded with an HTTP/1
                 // response. i.e. The server does not support HTTP/2.
-                SessionProtocolNegotiationCache.setUnsupported(ctx.channel().remoteAddress(), H2C);
+                negotiationCache.setUnsupported(ctx.channel().remoteAddress(), H2C);
                 if (httpPreference == HttpPreference.HTTP2_REQUIRED) {
                     finishWithNegotiationFailure(ctx, H2C, H1C,
                                                  "received an HTTP/1 response for the HTTP/2 preface string");
@@ -564,7 +570,7 @@ class HttpClientPipelineConfigurator extends ChannelDuplexHandler {
         Http2ConnectionEncoder encoder = new DefaultHttp2ConnectionEncoder(conn, writer);
         Http2ConnectionDecoder decoder = new DefaultHttp2ConnectionDecoder(conn, encoder, reader);
 
-        final Http2ResponseDecoder listener = new Http2ResponseDecoder(conn, ch);
+        final Http2ResponseDecoder listener = new Http2ResponseDecoder(conn, ch, options.usePooledHttpData());
 
         final Http2ClientConnectionHandler handler =
                 new Http2ClientConnectionHandler(decoder, encoder, new Http2Settings(), listener);
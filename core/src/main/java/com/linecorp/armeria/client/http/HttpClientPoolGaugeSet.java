@@ -0,0 +1,74 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.http;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ToLongBiFunction;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import com.google.common.collect.ImmutableMap;
+
+import com.linecorp.armeria.client.pool.DefaultKeyedChannelPool;
+import com.linecorp.armeria.client.pool.PoolKey;
+
+/**
+ * {@link Metric}s for the connection pools of an {@link HttpClientFactory}. Each {@link Gauge} reports
+ * the sum of the numbers from the pools of all event loops, keyed by {@code "<protocol>://<host>:<port>"}.
+ */
+final class HttpClientPoolGaugeSet implements MetricSet {
+    private static final String METRIC_NAME_PREFIX = "connectionPool.";
+    private final HttpClientDelegate delegate;
+    private final String metricName;
+
+    HttpClientPoolGaugeSet(HttpClientDelegate delegate, String metricName) {
+        this.delegate = requireNonNull(delegate, "delegate");
+        this.metricName = requireNonNull(metricName, "metricName");
+    }
+
+    @Override
+    public Map<String, Metric> getMetrics() {
+        return ImmutableMap.of(
+                METRIC_NAME_PREFIX + metricName + ".idle", gauge(DefaultKeyedChannelPool::numIdleChannels),
+                METRIC_NAME_PREFIX + metricName + ".active", gauge(DefaultKeyedChannelPool::numActiveChannels),
+                METRIC_NAME_PREFIX + metricName + ".pending",
+                gauge(DefaultKeyedChannelPool::numPendingAcquisitions),
+                METRIC_NAME_PREFIX + metricName + ".created",
+                gauge(DefaultKeyedChannelPool::numCreatedChannels),
+                METRIC_NAME_PREFIX + metricName + ".closed", gauge(DefaultKeyedChannelPool::numClosedChannels)
+        );
+    }
+
+    private Gauge<Map<String, Long>> gauge(
+            ToLongBiFunction<DefaultKeyedChannelPool<PoolKey>, PoolKey> function) {
+        return () -> {
+            final Map<String, Long> values = new TreeMap<>();
+            for (DefaultKeyedChannelPool<PoolKey> pool : delegate.map.values()) {
+                for (PoolKey key : pool.keys()) {
+                    values.merge(key.sessionProtocol().uriText() + "://" +
+                                 key.remoteAddress().getHostString() + ':' + key.remoteAddress().getPort(),
+                                 function.applyAsLong(pool, key), Long::sum);
+                }
+            }
+            return ImmutableMap.copyOf(values);
+        };
+    }
+}
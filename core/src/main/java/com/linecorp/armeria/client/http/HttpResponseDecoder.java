@@ -16,6 +16,8 @@
 
 package com.linecorp.armeria.client.http;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
@@ -36,7 +38,9 @@ import com.linecorp.armeria.common.http.HttpStatusClass;
 import com.linecorp.armeria.common.logging.RequestLogBuilder;
 import com.linecorp.armeria.common.util.Exceptions;
 import com.linecorp.armeria.internal.InboundTrafficController;
+import com.linecorp.armeria.internal.http.ArmeriaHttpUtil;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.util.collection.IntObjectHashMap;
@@ -49,16 +53,28 @@ abstract class HttpResponseDecoder {
 
     private final IntObjectMap<HttpResponseWrapper> responses = new IntObjectHashMap<>();
     private final InboundTrafficController inboundTrafficController;
+    private final boolean usePooledHttpData;
     private boolean disconnectWhenFinished;
 
-    HttpResponseDecoder(Channel channel) {
+    /**
+     * The number of the entries in {@link #responses}, which is updated only by the event loop but may be
+     * read by other threads.
+     */
+    private volatile int numUnfinishedResponses;
+
+    HttpResponseDecoder(Channel channel, boolean usePooledHttpData) {
         inboundTrafficController = new InboundTrafficController(channel);
+        this.usePooledHttpData = usePooledHttpData;
     }
 
     final InboundTrafficController inboundTrafficController() {
         return inboundTrafficController;
     }
 
+    final HttpData toHttpData(ByteBuf data) {
+        return ArmeriaHttpUtil.toArmeria(data, usePooledHttpData);
+    }
+
     final HttpResponseWrapper addResponse(
             int id, HttpRequest req, DecodedHttpResponse res, RequestLogBuilder logBuilder,
             long responseTimeoutMillis, long maxContentLength) {
@@ -66,6 +82,7 @@ abstract class HttpResponseDecoder {
         final HttpResponseWrapper newRes =
                 new HttpResponseWrapper(req, res, logBuilder, responseTimeoutMillis, maxContentLength);
         final HttpResponseWriter oldRes = responses.put(id, newRes);
+        numUnfinishedResponses = responses.size();
 
         assert oldRes == null : "addResponse(" + id + ", " + res + ", " + responseTimeoutMillis + "): " +
                                 oldRes;
@@ -82,13 +99,19 @@ abstract class HttpResponseDecoder {
     }
 
     final HttpResponseWrapper removeResponse(int id) {
-        return responses.remove(id);
+        final HttpResponseWrapper res = responses.remove(id);
+        numUnfinishedResponses = responses.size();
+        return res;
     }
 
     final boolean hasUnfinishedResponses() {
         return !responses.isEmpty();
     }
 
+    final int numUnfinishedResponses() {
+        return numUnfinishedResponses;
+    }
+
     final void failUnfinishedResponses(Throwable cause) {
         try {
             for (HttpResponseWrapper res : responses.values()) {
@@ -96,6 +119,23 @@ abstract class HttpResponseDecoder {
             }
         } finally {
             responses.clear();
+            numUnfinishedResponses = 0;
+        }
+    }
+
+    /**
+     * Fails the unfinished responses whose ID is greater than the specified ID.
+     */
+    final void failUnfinishedResponsesAfter(int id, Throwable cause) {
+        final List<Integer> ids = new ArrayList<>();
+        for (int i : responses.keySet()) {
+            if (i > id) {
+                ids.add(i);
+            }
+        }
+
+        for (int i : ids) {
+            removeResponse(i).close(cause);
         }
     }
 
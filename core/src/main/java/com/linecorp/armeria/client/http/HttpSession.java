@@ -52,6 +52,16 @@ interface HttpSession {
             return false;
         }
 
+        @Override
+        public int numUnfinishedResponses() {
+            return 0;
+        }
+
+        @Override
+        public int maxUnfinishedResponses() {
+            return 0;
+        }
+
         @Override
         public boolean invoke(ClientRequestContext ctx, HttpRequest req, DecodedHttpResponse res) {
             res.close(ClosedSessionException.get());
@@ -90,6 +100,19 @@ interface HttpSession {
 
     boolean hasUnfinishedResponses();
 
+    /**
+     * Returns the number of the requests whose responses are not received completely yet.
+     * This method may be invoked from any thread.
+     */
+    int numUnfinishedResponses();
+
+    /**
+     * Returns the maximum number of the requests this session can handle concurrently, which is the
+     * {@code SETTINGS_MAX_CONCURRENT_STREAMS} of the peer if the session is multiplexed.
+     * This method may be invoked from any thread.
+     */
+    int maxUnfinishedResponses();
+
     boolean invoke(ClientRequestContext ctx, HttpRequest req, DecodedHttpResponse res);
 
     void retryWithH1C();
@@ -47,13 +47,16 @@ class HttpSessionChannelFactory implements Function<PoolKey, Future<Channel>> {
     private final EventLoop eventLoop;
     private final Map<SessionProtocol, Bootstrap> bootstrapMap;
     private final SessionOptions options;
+    private final SessionProtocolNegotiationCache negotiationCache;
 
-    HttpSessionChannelFactory(Bootstrap bootstrap,SessionOptions options) {
+    HttpSessionChannelFactory(Bootstrap bootstrap, SessionOptions options,
+                              SessionProtocolNegotiationCache negotiationCache) {
         baseBootstrap = requireNonNull(bootstrap);
         eventLoop = (EventLoop) bootstrap.config().group();
 
         bootstrapMap = Collections.synchronizedMap(new EnumMap<>(SessionProtocol.class));
         this.options = options;
+        this.negotiationCache = requireNonNull(negotiationCache, "negotiationCache");
     }
 
     @Override
@@ -61,7 +64,7 @@ class HttpSessionChannelFactory implements Function<PoolKey, Future<Channel>> {
         final InetSocketAddress remoteAddress = key.remoteAddress();
         final SessionProtocol protocol = key.sessionProtocol();
 
-        if (SessionProtocolNegotiationCache.isUnsupported(remoteAddress, protocol)) {
+        if (negotiationCache.isUnsupported(remoteAddress, protocol)) {
             // Fail immediately if it is sure that the remote address does not support the requested protocol.
             return eventLoop.newFailedFuture(
                     new SessionProtocolNegotiationException(protocol, "previously failed negotiation"));
@@ -92,7 +95,7 @@ class HttpSessionChannelFactory implements Function<PoolKey, Future<Channel>> {
             bs.handler(new ChannelInitializer<Channel>() {
                 @Override
                 protected void initChannel(Channel ch) throws Exception {
-                    ch.pipeline().addLast(new HttpClientPipelineConfigurator(sp, options));
+                    ch.pipeline().addLast(new HttpClientPipelineConfigurator(sp, options, negotiationCache));
                 }
             });
             return bs;
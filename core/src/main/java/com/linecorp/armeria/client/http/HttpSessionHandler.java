@@ -71,6 +71,12 @@ final class HttpSessionHandler extends ChannelDuplexHandler implements HttpSessi
     private HttpResponseDecoder responseDecoder;
     private HttpObjectEncoder requestEncoder;
 
+    /**
+     * The {@code SETTINGS_MAX_CONCURRENT_STREAMS} of the peer, which is unlimited until the peer
+     * specifies it.
+     */
+    private volatile int maxUnfinishedResponses = Integer.MAX_VALUE;
+
     /**
      * The number of requests sent. Disconnects when it reaches at {@link #MAX_NUM_REQUESTS_SENT}.
      */
@@ -106,6 +112,17 @@ final class HttpSessionHandler extends ChannelDuplexHandler implements HttpSessi
         return responseDecoder.hasUnfinishedResponses();
     }
 
+    @Override
+    public int numUnfinishedResponses() {
+        final HttpResponseDecoder responseDecoder = this.responseDecoder;
+        return responseDecoder != null ? responseDecoder.numUnfinishedResponses() : 0;
+    }
+
+    @Override
+    public int maxUnfinishedResponses() {
+        return maxUnfinishedResponses;
+    }
+
     @Override
     public boolean isActive() {
         return active;
@@ -164,7 +181,10 @@ final class HttpSessionHandler extends ChannelDuplexHandler implements HttpSessi
     @Override
     public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
         if (msg instanceof Http2Settings) {
-            // Expected
+            final Long maxConcurrentStreams = ((Http2Settings) msg).maxConcurrentStreams();
+            if (maxConcurrentStreams != null) {
+                maxUnfinishedResponses = (int) Math.min(maxConcurrentStreams, Integer.MAX_VALUE);
+            }
         } else {
             try {
                 final String typeInfo;
@@ -199,6 +219,8 @@ final class HttpSessionHandler extends ChannelDuplexHandler implements HttpSessi
                 case H2: case H2C:
                     final Http2ConnectionHandler handler = ctx.pipeline().get(Http2ConnectionHandler.class);
                     requestEncoder = new Http2ObjectEncoder(handler.encoder());
+                    // The SETTINGS frame of the peer might have been received already.
+                    maxUnfinishedResponses = handler.connection().local().maxActiveStreams();
                     responseDecoder = ctx.pipeline().get(Http2ClientConnectionHandler.class).responseDecoder();
                     break;
                 default:
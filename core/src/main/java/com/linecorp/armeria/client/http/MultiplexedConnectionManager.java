@@ -0,0 +1,191 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.http;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
+
+import com.linecorp.armeria.client.pool.PoolKey;
+
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+import io.netty.util.AttributeKey;
+
+/**
+ * Keeps track of the multiplexed connections established by all {@link EventLoop}s, so that a request is
+ * sent over an existing connection of any {@link EventLoop} rather than a new connection, as long as
+ * the connection has not reached the {@code SETTINGS_MAX_CONCURRENT_STREAMS} of the peer.
+ * A connection is not handed out anymore once it is deactivated, e.g. by a {@code GOAWAY} frame,
+ * and it is closed when its remaining streams are finished. A registered connection is never returned to
+ * the connection pool, so it is closed by an {@link HttpClientIdleTimeoutHandler} when it becomes idle.
+ */
+final class MultiplexedConnectionManager {
+
+    private static final AttributeKey<MultiplexedConnection> CONNECTION =
+            AttributeKey.valueOf(MultiplexedConnectionManager.class, "CONNECTION");
+
+    private final ConcurrentMap<PoolKey, List<MultiplexedConnection>> connections = new ConcurrentHashMap<>();
+    private final long idleTimeoutMillis;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param idleTimeoutMillis the amount of time until an idle connection is closed.
+     *                          {@code 0} to disable the timeout.
+     */
+    MultiplexedConnectionManager(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    /**
+     * Reserves a stream of a connection to the specified {@link PoolKey}, preferring the connections
+     * of the specified {@link EventLoop}.
+     *
+     * @return the {@link MultiplexedConnection} whose stream has been reserved.
+     *         {@code null} if there's no connection which can accept a new stream.
+     */
+    @Nullable
+    MultiplexedConnection tryAcquire(PoolKey key, EventLoop eventLoop) {
+        final List<MultiplexedConnection> list = connections.get(key);
+        if (list == null) {
+            return null;
+        }
+
+        for (MultiplexedConnection c : list) {
+            if (c.channel().eventLoop() == eventLoop && c.tryReserve()) {
+                return c;
+            }
+        }
+        for (MultiplexedConnection c : list) {
+            if (c.channel().eventLoop() != eventLoop && c.tryReserve()) {
+                return c;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the {@link MultiplexedConnection} of the specified {@link Channel}, registering it if
+     * the {@link Channel} has not been registered yet. The {@link Channel} is unregistered when it is closed.
+     * This method must be invoked by the {@link EventLoop} of the {@link Channel}.
+     */
+    MultiplexedConnection register(PoolKey key, Channel channel) {
+        assert channel.eventLoop().inEventLoop();
+
+        final MultiplexedConnection registered = channel.attr(CONNECTION).get();
+        if (registered != null) {
+            return registered;
+        }
+
+        final MultiplexedConnection c = new MultiplexedConnection(channel, HttpSession.get(channel));
+        channel.attr(CONNECTION).set(c);
+        if (idleTimeoutMillis > 0 && channel.pipeline().get(HttpClientIdleTimeoutHandler.class) == null) {
+            // The connection pool did not install the handler because it closes its idle connections itself.
+            channel.pipeline().addFirst(new HttpClientIdleTimeoutHandler(idleTimeoutMillis));
+        }
+        connections.compute(key, (k, list) -> {
+            if (list == null) {
+                list = new CopyOnWriteArrayList<>();
+            }
+            list.add(c);
+            return list;
+        });
+        channel.closeFuture().addListener(f -> connections.computeIfPresent(key, (k, list) -> {
+            list.remove(c);
+            return list.isEmpty() ? null : list;
+        }));
+        return c;
+    }
+
+    /**
+     * Returns the {@link MultiplexedConnection} of the specified {@link Channel}.
+     *
+     * @return the {@link MultiplexedConnection}, or {@code null} if the {@link Channel} is not registered
+     */
+    @Nullable
+    static MultiplexedConnection get(Channel channel) {
+        return channel.attr(CONNECTION).get();
+    }
+
+    /**
+     * Closes all registered connections.
+     */
+    void close() {
+        connections.values().forEach(list -> list.forEach(c -> c.channel().close()));
+    }
+
+    /**
+     * A multiplexed connection and the number of its streams which have been reserved but not opened yet.
+     */
+    static final class MultiplexedConnection {
+
+        private final Channel channel;
+        private final HttpSession session;
+        private final AtomicInteger numReservedStreams = new AtomicInteger();
+
+        MultiplexedConnection(Channel channel, HttpSession session) {
+            this.channel = channel;
+            this.session = session;
+        }
+
+        Channel channel() {
+            return channel;
+        }
+
+        HttpSession session() {
+            return session;
+        }
+
+        int numReservedStreams() {
+            return numReservedStreams.get();
+        }
+
+        /**
+         * Reserves a stream if the connection is active and the number of its open and reserved streams
+         * is less than the {@code SETTINGS_MAX_CONCURRENT_STREAMS} of the peer.
+         */
+        boolean tryReserve() {
+            for (;;) {
+                if (!session.isActive()) {
+                    return false;
+                }
+
+                final int numReservedStreams = this.numReservedStreams.get();
+                if (numReservedStreams + session.numUnfinishedResponses() >= session.maxUnfinishedResponses()) {
+                    return false;
+                }
+
+                if (this.numReservedStreams.compareAndSet(numReservedStreams, numReservedStreams + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Cancels the reservation made by {@link #tryReserve()}. This method must be invoked after the
+         * request is sent, so that the stream is counted as an unfinished response instead.
+         */
+        void release() {
+            numReservedStreams.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.http;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Map;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import com.google.common.collect.ImmutableMap;
+
+import com.linecorp.armeria.client.SessionProtocolNegotiationCache;
+
+/**
+ * {@link Metric}s for the {@link SessionProtocolNegotiationCache} of an {@link HttpClientFactory}, which
+ * report the number of the look-ups that found a negotiation failure ({@code "hits"}), the number of the
+ * other look-ups ({@code "misses"}), the number of the evicted and expired entries ({@code "evictions"}),
+ * and the number of the entries ({@code "size"}).
+ */
+final class SessionProtocolNegotiationCacheGaugeSet implements MetricSet {
+    private static final String METRIC_NAME_PREFIX = "protocolNegotiationCache.";
+    private final SessionProtocolNegotiationCache cache;
+    private final String metricName;
+
+    SessionProtocolNegotiationCacheGaugeSet(SessionProtocolNegotiationCache cache, String metricName) {
+        this.cache = requireNonNull(cache, "cache");
+        this.metricName = requireNonNull(metricName, "metricName");
+    }
+
+    @Override
+    public Map<String, Metric> getMetrics() {
+        return ImmutableMap.of(
+                METRIC_NAME_PREFIX + metricName + ".hits", (Gauge<Long>) () -> cache.stats().hitCount(),
+                METRIC_NAME_PREFIX + metricName + ".misses", (Gauge<Long>) () -> cache.stats().missCount(),
+                METRIC_NAME_PREFIX + metricName + ".evictions",
+                (Gauge<Long>) () -> cache.stats().evictionCount(),
+                METRIC_NAME_PREFIX + metricName + ".size", (Gauge<Long>) cache::size
+        );
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.limit;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * The configuration of the concurrency limit of a {@link ConcurrencyLimitingClient} which is adjusted at
+ * runtime according to the observed round trip time of the requests, rather than being fixed.
+ *
+ * <p>The limit grows while the round trip time stays close to the long-term average, and shrinks when the
+ * round trip time increases, i.e. when the requests start to queue up in the remote service, or when
+ * the requests fail. Use {@link AdaptiveConcurrencyLimitBuilder} to create a new instance.
+ */
+public final class AdaptiveConcurrencyLimit {
+
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double rttTolerance;
+    private final int longWindow;
+    private final boolean perEndpoint;
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double smoothing,
+                             double rttTolerance, int longWindow, boolean perEndpoint) {
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.rttTolerance = rttTolerance;
+        this.longWindow = longWindow;
+        this.perEndpoint = perEndpoint;
+    }
+
+    /**
+     * Returns the concurrency limit before any round trip time is observed.
+     */
+    public int initialLimit() {
+        return initialLimit;
+    }
+
+    /**
+     * Returns the lower bound of the concurrency limit.
+     */
+    public int minLimit() {
+        return minLimit;
+    }
+
+    /**
+     * Returns the upper bound of the concurrency limit.
+     */
+    public int maxLimit() {
+        return maxLimit;
+    }
+
+    /**
+     * Returns the weight of a new concurrency limit when it is merged into the current one.
+     */
+    public double smoothing() {
+        return smoothing;
+    }
+
+    /**
+     * Returns how many times longer than the long-term average the round trip time can be before
+     * the concurrency limit starts to shrink.
+     */
+    public double rttTolerance() {
+        return rttTolerance;
+    }
+
+    /**
+     * Returns the number of samples that the long-term average of the round trip time is calculated over.
+     */
+    public int longWindow() {
+        return longWindow;
+    }
+
+    /**
+     * Returns whether the concurrency limit is maintained separately for each
+     * {@link com.linecorp.armeria.client.Endpoint}.
+     */
+    public boolean perEndpoint() {
+        return perEndpoint;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("initialLimit", initialLimit)
+                          .add("minLimit", minLimit)
+                          .add("maxLimit", maxLimit)
+                          .add("smoothing", smoothing)
+                          .add("rttTolerance", rttTolerance)
+                          .add("longWindow", longWindow)
+                          .add("perEndpoint", perEndpoint)
+                          .toString();
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.limit;
+
+/**
+ * Builds an {@link AdaptiveConcurrencyLimit}.
+ *
+ * <p>For example:
+ * <pre>{@code
+ * AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimitBuilder().maxLimit(200)
+ *                                                                       .perEndpoint(true)
+ *                                                                       .build();
+ * ClientBuilder builder = new ClientBuilder(...);
+ * builder.decorator(HttpRequest.class, HttpResponse.class, ConcurrencyLimitingHttpClient.newDecorator(limit));
+ * }</pre>
+ */
+public final class AdaptiveConcurrencyLimitBuilder {
+
+    private static final int DEFAULT_INITIAL_LIMIT = 20;
+    private static final int DEFAULT_MIN_LIMIT = 1;
+    private static final int DEFAULT_MAX_LIMIT = 1000;
+    private static final double DEFAULT_SMOOTHING = 0.2;
+    private static final double DEFAULT_RTT_TOLERANCE = 1.5;
+    private static final int DEFAULT_LONG_WINDOW = 600;
+
+    private int initialLimit = DEFAULT_INITIAL_LIMIT;
+    private int minLimit = DEFAULT_MIN_LIMIT;
+    private int maxLimit = DEFAULT_MAX_LIMIT;
+    private double smoothing = DEFAULT_SMOOTHING;
+    private double rttTolerance = DEFAULT_RTT_TOLERANCE;
+    private int longWindow = DEFAULT_LONG_WINDOW;
+    private boolean perEndpoint;
+
+    /**
+     * Sets the concurrency limit before any round trip time is observed. {@value #DEFAULT_INITIAL_LIMIT} by
+     * default.
+     */
+    public AdaptiveConcurrencyLimitBuilder initialLimit(int initialLimit) {
+        if (initialLimit <= 0) {
+            throw new IllegalArgumentException("initialLimit: " + initialLimit + " (expected: > 0)");
+        }
+        this.initialLimit = initialLimit;
+        return this;
+    }
+
+    /**
+     * Sets the lower bound of the concurrency limit. {@value #DEFAULT_MIN_LIMIT} by default.
+     */
+    public AdaptiveConcurrencyLimitBuilder minLimit(int minLimit) {
+        if (minLimit <= 0) {
+            throw new IllegalArgumentException("minLimit: " + minLimit + " (expected: > 0)");
+        }
+        this.minLimit = minLimit;
+        return this;
+    }
+
+    /**
+     * Sets the upper bound of the concurrency limit. {@value #DEFAULT_MAX_LIMIT} by default.
+     */
+    public AdaptiveConcurrencyLimitBuilder maxLimit(int maxLimit) {
+        if (maxLimit <= 0) {
+            throw new IllegalArgumentException("maxLimit: " + maxLimit + " (expected: > 0)");
+        }
+        this.maxLimit = maxLimit;
+        return this;
+    }
+
+    /**
+     * Sets the weight of a new concurrency limit when it is merged into the current one. A larger value
+     * makes the limit react faster but fluctuate more. {@value #DEFAULT_SMOOTHING} by default.
+     *
+     * @param smoothing the weight between 0 (exclusive) and 1 (inclusive)
+     */
+    public AdaptiveConcurrencyLimitBuilder smoothing(double smoothing) {
+        if (smoothing <= 0 || smoothing > 1) {
+            throw new IllegalArgumentException("smoothing: " + smoothing + " (expected: > 0 and <= 1)");
+        }
+        this.smoothing = smoothing;
+        return this;
+    }
+
+    /**
+     * Sets how many times longer than the long-term average the round trip time can be before
+     * the concurrency limit starts to shrink. {@value #DEFAULT_RTT_TOLERANCE} by default.
+     */
+    public AdaptiveConcurrencyLimitBuilder rttTolerance(double rttTolerance) {
+        if (rttTolerance < 1) {
+            throw new IllegalArgumentException("rttTolerance: " + rttTolerance + " (expected: >= 1)");
+        }
+        this.rttTolerance = rttTolerance;
+        return this;
+    }
+
+    /**
+     * Sets the number of samples that the long-term average of the round trip time is calculated over.
+     * {@value #DEFAULT_LONG_WINDOW} by default.
+     */
+    public AdaptiveConcurrencyLimitBuilder longWindow(int longWindow) {
+        if (longWindow <= 0) {
+            throw new IllegalArgumentException("longWindow: " + longWindow + " (expected: > 0)");
+        }
+        this.longWindow = longWindow;
+        return this;
+    }
+
+    /**
+     * Sets whether the concurrency limit is maintained separately for each
+     * {@link com.linecorp.armeria.client.Endpoint}, so that a slow remote host does not reduce the
+     * concurrency limit of the others. {@code false} by default.
+     */
+    public AdaptiveConcurrencyLimitBuilder perEndpoint(boolean perEndpoint) {
+        this.perEndpoint = perEndpoint;
+        return this;
+    }
+
+    /**
+     * Builds an {@link AdaptiveConcurrencyLimit}.
+     */
+    public AdaptiveConcurrencyLimit build() {
+        if (minLimit > maxLimit) {
+            throw new IllegalStateException(
+                    "minLimit: " + minLimit + " (expected: <= maxLimit (" + maxLimit + "))");
+        }
+        if (initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalStateException(
+                    "initialLimit: " + initialLimit + " (expected: " + minLimit + ".." + maxLimit + ')');
+        }
+        return new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, smoothing,
+                                            rttTolerance, longWindow, perEndpoint);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.limit;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Adjusts a concurrency limit according to {@link AdaptiveConcurrencyLimit} by comparing the round trip time
+ * of each request against its long-term average. When the ratio between the two, multiplied by
+ * {@link AdaptiveConcurrencyLimit#rttTolerance()}, falls below 1, the remote service is considered to be
+ * queueing the requests and the limit shrinks proportionally. Otherwise, the limit grows by its square root,
+ * which is the number of requests that are allowed to be queued in the remote service.
+ */
+final class AdaptiveConcurrencyLimiter {
+
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final AdaptiveConcurrencyLimit config;
+
+    private double estimatedLimit;
+    private double longRttNanos;
+    private volatile int limit;
+
+    AdaptiveConcurrencyLimiter(AdaptiveConcurrencyLimit config) {
+        this.config = requireNonNull(config, "config");
+        estimatedLimit = limit = config.initialLimit();
+    }
+
+    /**
+     * Returns the current concurrency limit.
+     */
+    int limit() {
+        return limit;
+    }
+
+    /**
+     * Updates the concurrency limit with the round trip time of a request which completed successfully.
+     *
+     * @param rttNanos the round trip time of the request
+     * @param numActiveRequests the number of active requests when the request was started
+     */
+    synchronized void onSuccess(long rttNanos, int numActiveRequests) {
+        if (rttNanos <= 0) {
+            return;
+        }
+
+        final double longRttNanos;
+        if (this.longRttNanos == 0) {
+            longRttNanos = rttNanos;
+        } else {
+            final double longRttNanos0 =
+                    this.longRttNanos + (rttNanos - this.longRttNanos) / config.longWindow();
+            // Let the long-term average catch up quickly once the round trip time drops significantly,
+            // e.g. after the remote service recovered, so that the limit can grow again.
+            longRttNanos = longRttNanos0 > rttNanos * 2 ? (longRttNanos0 + rttNanos) / 2 : longRttNanos0;
+        }
+        this.longRttNanos = longRttNanos;
+
+        // Do not grow the limit when it is not the limit that bounds the number of active requests.
+        if (numActiveRequests < estimatedLimit / 2) {
+            return;
+        }
+
+        final double gradient = Math.max(MIN_GRADIENT,
+                                         Math.min(1.0, config.rttTolerance() * longRttNanos / rttNanos));
+        final double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        update(estimatedLimit * (1 - config.smoothing()) + newLimit * config.smoothing());
+    }
+
+    /**
+     * Shrinks the concurrency limit because a request failed.
+     */
+    synchronized void onFailure() {
+        update(estimatedLimit * BACKOFF_RATIO);
+    }
+
+    private void update(double newLimit) {
+        estimatedLimit = Math.max(config.minLimit(), Math.min(config.maxLimit(), newLimit));
+        limit = (int) estimatedLimit;
+    }
+}
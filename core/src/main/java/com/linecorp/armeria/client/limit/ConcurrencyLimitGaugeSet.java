@@ -0,0 +1,56 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.limit;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Map;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * {@link Metric}s for a {@link ConcurrencyLimitingClient}.
+ */
+final class ConcurrencyLimitGaugeSet implements MetricSet {
+    private static final String METRIC_NAME_PREFIX = "concurrencyLimit.";
+    private final ConcurrencyLimitingClient<?, ?> client;
+    private final String metricName;
+
+    ConcurrencyLimitGaugeSet(ConcurrencyLimitingClient<?, ?> client, String metricName) {
+        this.client = requireNonNull(client, "client");
+        this.metricName = requireNonNull(metricName, "metricName");
+    }
+
+    @Override
+    public Map<String, Metric> getMetrics() {
+        return ImmutableMap.of(
+                METRIC_NAME_PREFIX + metricName + ".limit",
+                (Gauge<Integer>) client::concurrencyLimit,
+                METRIC_NAME_PREFIX + metricName + ".active",
+                (Gauge<Integer>) client::numActiveRequests,
+                METRIC_NAME_PREFIX + metricName + ".pending",
+                (Gauge<Integer>) client::numPendingRequests,
+                METRIC_NAME_PREFIX + metricName + ".rejected",
+                (Gauge<Long>) client::numRejectedRequests,
+                METRIC_NAME_PREFIX + metricName + ".endpoints.limit",
+                (Gauge<Map<String, Integer>>) client::endpointConcurrencyLimits
+        );
+    }
+}
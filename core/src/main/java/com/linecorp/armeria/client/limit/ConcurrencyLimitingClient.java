@@ -18,21 +18,35 @@ package com.linecorp.armeria.client.limit;
 
 import static java.util.Objects.requireNonNull;
 
+import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nullable;
+
+import com.codahale.metrics.MetricSet;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
 
 import com.linecorp.armeria.client.Client;
 import com.linecorp.armeria.client.ClientRequestContext;
 import com.linecorp.armeria.client.DecoratingClient;
+import com.linecorp.armeria.client.Endpoint;
 import com.linecorp.armeria.client.ResponseTimeoutException;
 import com.linecorp.armeria.common.Request;
 import com.linecorp.armeria.common.RequestContext;
 import com.linecorp.armeria.common.Response;
+import com.linecorp.armeria.common.logging.RequestLogAvailability;
 import com.linecorp.armeria.common.util.SafeCloseable;
 
+import io.netty.channel.EventLoop;
 import io.netty.util.concurrent.ScheduledFuture;
 
 /**
@@ -44,6 +58,13 @@ import io.netty.util.concurrent.ScheduledFuture;
  * at the configured {@code maxConcurrency} the {@link Request}s are deferred until the currently active
  * {@link Request}s are completed.
  *
+ * <p>If an {@link AdaptiveConcurrencyLimit} is specified instead of {@code maxConcurrency}, the limit is
+ * adjusted at runtime according to the round trip time of the requests, which is retrieved from
+ * {@link ClientRequestContext#log()}. If {@link AdaptiveConcurrencyLimit#perEndpoint()} is {@code true},
+ * the requests are limited and deferred separately for each host, i.e. the {@link Endpoint#authority()} of
+ * the host {@link Endpoint} which {@link ClientRequestContext#endpoint()} is resolved into. The limit of
+ * a host is discarded when no request has been sent to the host for a minute.
+ *
  * @param <I> the {@link Request} type
  * @param <O> the {@link Response} type
  */
@@ -51,11 +72,17 @@ public abstract class ConcurrencyLimitingClient<I extends Request, O extends Res
         extends DecoratingClient<I, O, I, O> {
 
     private static final long DEFAULT_TIMEOUT_MILLIS = 10000L;
+    private static final long DEFAULT_LIMITER_IDLE_TIMEOUT_NANOS = TimeUnit.MINUTES.toNanos(1);
 
     private final int maxConcurrency;
+    @Nullable
+    private final AdaptiveConcurrencyLimit adaptiveLimit;
     private final long timeoutMillis;
-    private final AtomicInteger numActiveRequests = new AtomicInteger();
-    private final Queue<PendingTask> pendingRequests = new ConcurrentLinkedQueue<>();
+    @Nullable
+    private final Limiter limiter;
+    private final ConcurrentMap<String, Limiter> endpointLimiters = new ConcurrentHashMap<>();
+    private final LongAdder numRejectedRequests = new LongAdder();
+    private long limiterIdleTimeoutNanos = DEFAULT_LIMITER_IDLE_TIMEOUT_NANOS;
 
     /**
      * Creates a new instance that decorates the specified {@code delegate} to limit the concurrent number of
@@ -85,15 +112,51 @@ public abstract class ConcurrencyLimitingClient<I extends Request, O extends Res
         validateAll(maxConcurrency, timeout, unit);
 
         this.maxConcurrency = maxConcurrency;
+        adaptiveLimit = null;
         timeoutMillis = unit.toMillis(timeout);
+        limiter = new Limiter(null);
+    }
+
+    /**
+     * Creates a new instance that decorates the specified {@code delegate} to limit the concurrent number of
+     * active requests with the specified {@link AdaptiveConcurrencyLimit}, with the default timeout of
+     * {@value #DEFAULT_TIMEOUT_MILLIS} milliseconds.
+     *
+     * @param delegate the delegate {@link Client}
+     * @param adaptiveLimit the {@link AdaptiveConcurrencyLimit} which determines the maximum number of
+     *                      concurrent active requests
+     */
+    protected ConcurrencyLimitingClient(Client<? super I, ? extends O> delegate,
+                                        AdaptiveConcurrencyLimit adaptiveLimit) {
+        this(delegate, adaptiveLimit, DEFAULT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates a new instance that decorates the specified {@code delegate} to limit the concurrent number of
+     * active requests with the specified {@link AdaptiveConcurrencyLimit}.
+     *
+     * @param delegate the delegate {@link Client}
+     * @param adaptiveLimit the {@link AdaptiveConcurrencyLimit} which determines the maximum number of
+     *                      concurrent active requests
+     * @param timeout the amount of time until this decorator fails the request if the request was not
+     *                delegated to the {@code delegate} before then
+     */
+    protected ConcurrencyLimitingClient(Client<? super I, ? extends O> delegate,
+                                        AdaptiveConcurrencyLimit adaptiveLimit, long timeout, TimeUnit unit) {
+        super(delegate);
+
+        requireNonNull(adaptiveLimit, "adaptiveLimit");
+        validateTimeout(timeout, unit);
+
+        maxConcurrency = 0;
+        this.adaptiveLimit = adaptiveLimit;
+        timeoutMillis = unit.toMillis(timeout);
+        limiter = adaptiveLimit.perEndpoint() ? null : new Limiter(null);
     }
 
     static void validateAll(int maxConcurrency, long timeout, TimeUnit unit) {
         validateMaxConcurrency(maxConcurrency);
-        if (timeout < 0) {
-            throw new IllegalArgumentException("timeout: " + timeout + " (expected: >= 0)");
-        }
-        requireNonNull(unit, "unit");
+        validateTimeout(timeout, unit);
     }
 
     static void validateMaxConcurrency(int maxConcurrency) {
@@ -102,30 +165,124 @@ public abstract class ConcurrencyLimitingClient<I extends Request, O extends Res
         }
     }
 
+    static void validateTimeout(long timeout, TimeUnit unit) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("timeout: " + timeout + " (expected: >= 0)");
+        }
+        requireNonNull(unit, "unit");
+    }
+
     /**
      * Returns the number of the {@link Request}s that are being executed.
      */
     public int numActiveRequests() {
-        return numActiveRequests.get();
+        if (limiter != null) {
+            return limiter.numActiveRequests.get();
+        }
+
+        int sum = 0;
+        for (Limiter l : endpointLimiters.values()) {
+            sum += l.numActiveRequests.get();
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the number of the {@link Request}s that are deferred because the concurrency limit has been
+     * reached, including the ones which timed out but have not been dequeued yet.
+     */
+    public int numPendingRequests() {
+        if (limiter != null) {
+            return limiter.numPendingRequests.get();
+        }
+
+        int sum = 0;
+        for (Limiter l : endpointLimiters.values()) {
+            sum += l.numPendingRequests.get();
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the number of the {@link Request}s that failed with a {@link ResponseTimeoutException} because
+     * they were not delegated within the timeout.
+     */
+    public long numRejectedRequests() {
+        return numRejectedRequests.sum();
+    }
+
+    /**
+     * Returns the current maximum number of concurrent active requests. If the limit is maintained for each
+     * {@link Endpoint}, the sum of the limits is returned.
+     *
+     * @return the limit, or {@code 0} if the limit is disabled
+     */
+    public int concurrencyLimit() {
+        if (limiter != null) {
+            return limiter.limit();
+        }
+
+        int sum = 0;
+        for (Limiter l : endpointLimiters.values()) {
+            sum += l.limit();
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the current maximum number of concurrent active requests of each host, if the limit is
+     * maintained for each {@link Endpoint}.
+     *
+     * @return the limits keyed by the {@link Endpoint#authority()} of the hosts, or an empty {@link Map}
+     *         if the limit is not maintained for each {@link Endpoint}
+     */
+    public Map<String, Integer> endpointConcurrencyLimits() {
+        final ImmutableMap.Builder<String, Integer> builder = ImmutableMap.builder();
+        endpointLimiters.forEach((authority, l) -> builder.put(authority, l.limit()));
+        return builder.build();
+    }
+
+    @VisibleForTesting
+    void limiterIdleTimeout(long timeout, TimeUnit unit) {
+        limiterIdleTimeoutNanos = unit.toNanos(timeout);
+    }
+
+    /**
+     * Creates a new {@link MetricSet} that reports the concurrency limit, the number of active, pending and
+     * rejected requests of this client.
+     */
+    public MetricSet newMetricSet(String metricName) {
+        return new ConcurrencyLimitGaugeSet(this, metricName);
     }
 
     @Override
     public O execute(ClientRequestContext ctx, I req) throws Exception {
-        return maxConcurrency == 0 ? unlimitedExecute(ctx, req)
-                                   : limitedExecute(ctx, req);
+        return maxConcurrency == 0 && adaptiveLimit == null ? unlimitedExecute(ctx, req)
+                                                             : limitedExecute(ctx, req);
     }
 
     private O limitedExecute(ClientRequestContext ctx, I req) throws Exception {
-        final Deferred<O> deferred = defer(ctx, req);
-        final PendingTask currentTask = new PendingTask(ctx, req, deferred);
+        final Limiter limiter = pendingLimiter(ctx);
+        final Deferred<O> deferred;
+        try {
+            deferred = defer(ctx, req);
+        } catch (Throwable t) {
+            limiter.numPendingRequests.decrementAndGet();
+            limiter.scheduleEvictionIfIdle(ctx.eventLoop());
+            throw t;
+        }
+        final PendingTask currentTask = new PendingTask(limiter, ctx, req, deferred);
 
-        pendingRequests.add(currentTask);
-        drain();
+        limiter.pendingRequests.add(currentTask);
+        limiter.drain();
 
         if (!currentTask.isRun() && timeoutMillis != 0) {
             // Current request was not delegated. Schedule a timeout.
             final ScheduledFuture<?> timeoutFuture = ctx.eventLoop().schedule(
-                    () -> deferred.close(ResponseTimeoutException.get()),
+                    () -> {
+                        numRejectedRequests.increment();
+                        deferred.close(ResponseTimeoutException.get());
+                    },
                     timeoutMillis, TimeUnit.MILLISECONDS);
             currentTask.set(timeoutFuture);
         }
@@ -134,6 +291,7 @@ public abstract class ConcurrencyLimitingClient<I extends Request, O extends Res
     }
 
     private O unlimitedExecute(ClientRequestContext ctx, I req) throws Exception {
+        final AtomicInteger numActiveRequests = limiter.numActiveRequests;
         numActiveRequests.incrementAndGet();
         boolean success = false;
         try {
@@ -148,29 +306,25 @@ public abstract class ConcurrencyLimitingClient<I extends Request, O extends Res
         }
     }
 
-    void drain() {
-        while (!pendingRequests.isEmpty()) {
-            final int currentActiveRequests = numActiveRequests.get();
-            if (currentActiveRequests >= maxConcurrency) {
-                break;
-            }
-
-            if (numActiveRequests.compareAndSet(currentActiveRequests, currentActiveRequests + 1)) {
-                final PendingTask task = pendingRequests.poll();
-                if (task == null) {
-                    numActiveRequests.decrementAndGet();
-                    if (!pendingRequests.isEmpty()) {
-                        // Another request might have been added to the queue while numActiveRequests reached
-                        // at its limit.
-                        continue;
-                    } else {
-                        break;
-                    }
-                }
-
-                task.run();
-            }
+    /**
+     * Returns the {@link Limiter} of the specified {@link ClientRequestContext} after increasing its number of
+     * pending requests, which prevents the {@link Limiter} from being evicted before the request is added.
+     */
+    private Limiter pendingLimiter(ClientRequestContext ctx) {
+        final Limiter limiter = this.limiter;
+        if (limiter != null) {
+            limiter.numPendingRequests.incrementAndGet();
+            return limiter;
         }
+
+        // Resolve a group endpoint here so that the requests to the same host share the same limit.
+        // The resolved endpoint is reused when the request is actually sent.
+        final String authority = ctx.endpoint().resolve(ctx).authority();
+        return endpointLimiters.compute(authority, (unused, oldLimiter) -> {
+            final Limiter l = oldLimiter != null ? oldLimiter : new Limiter(authority);
+            l.numPendingRequests.incrementAndGet();
+            return l;
+        });
     }
 
     /**
@@ -205,16 +359,108 @@ public abstract class ConcurrencyLimitingClient<I extends Request, O extends Res
         void close(Throwable cause);
     }
 
+    /**
+     * Limits the concurrent number of active requests, either of all requests or of the requests to
+     * a host.
+     */
+    private final class Limiter {
+
+        /**
+         * The {@link Endpoint#authority()} of the host, or {@code null} if this {@link Limiter} limits
+         * all requests.
+         */
+        @Nullable
+        final String authority;
+        final AtomicInteger numActiveRequests = new AtomicInteger();
+        final AtomicInteger numPendingRequests = new AtomicInteger();
+        final Queue<PendingTask> pendingRequests = new ConcurrentLinkedQueue<>();
+        @Nullable
+        final AdaptiveConcurrencyLimiter adaptiveLimiter =
+                adaptiveLimit != null ? new AdaptiveConcurrencyLimiter(adaptiveLimit) : null;
+        final AtomicBoolean evictionScheduled = new AtomicBoolean();
+        volatile long lastIdleNanos;
+
+        Limiter(@Nullable String authority) {
+            this.authority = authority;
+        }
+
+        int limit() {
+            return adaptiveLimiter != null ? adaptiveLimiter.limit() : maxConcurrency;
+        }
+
+        boolean isIdle() {
+            // Check the pending requests first because a pending request becomes active before it stops
+            // being pending.
+            return numPendingRequests.get() == 0 && numActiveRequests.get() == 0;
+        }
+
+        /**
+         * Schedules the removal of this {@link Limiter} from {@code endpointLimiters} if there are no active or
+         * pending requests. The removal is cancelled if a new request arrives before the idle timeout.
+         */
+        void scheduleEvictionIfIdle(EventLoop eventLoop) {
+            if (authority == null || !isIdle()) {
+                return;
+            }
+
+            lastIdleNanos = System.nanoTime();
+            if (evictionScheduled.compareAndSet(false, true)) {
+                eventLoop.schedule(() -> evictIfIdle(eventLoop), limiterIdleTimeoutNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private void evictIfIdle(EventLoop eventLoop) {
+            final long remainingNanos = limiterIdleTimeoutNanos - (System.nanoTime() - lastIdleNanos);
+            if (remainingNanos > 0 && isIdle()) {
+                // Became idle again after the eviction was scheduled.
+                eventLoop.schedule(() -> evictIfIdle(eventLoop), remainingNanos, TimeUnit.NANOSECONDS);
+                return;
+            }
+
+            evictionScheduled.set(false);
+            // Remove atomically with pendingLimiter() so that no request is added to an evicted Limiter.
+            endpointLimiters.computeIfPresent(authority, (unused, l) -> l == this && isIdle() ? null : l);
+        }
+
+        void drain() {
+            while (!pendingRequests.isEmpty()) {
+                final int currentActiveRequests = numActiveRequests.get();
+                if (currentActiveRequests >= limit()) {
+                    break;
+                }
+
+                if (numActiveRequests.compareAndSet(currentActiveRequests, currentActiveRequests + 1)) {
+                    final PendingTask task = pendingRequests.poll();
+                    if (task == null) {
+                        numActiveRequests.decrementAndGet();
+                        if (!pendingRequests.isEmpty()) {
+                            // Another request might have been added to the queue while numActiveRequests
+                            // reached at its limit.
+                            continue;
+                        } else {
+                            break;
+                        }
+                    }
+
+                    numPendingRequests.decrementAndGet();
+                    task.run();
+                }
+            }
+        }
+    }
+
     private final class PendingTask extends AtomicReference<ScheduledFuture<?>> implements Runnable {
 
         private static final long serialVersionUID = -7092037489640350376L;
 
+        private final Limiter limiter;
         private final ClientRequestContext ctx;
         private final I req;
         private final Deferred<O> deferred;
         private boolean isRun;
 
-        PendingTask(ClientRequestContext ctx, I req, Deferred<O> deferred) {
+        PendingTask(Limiter limiter, ClientRequestContext ctx, I req, Deferred<O> deferred) {
+            this.limiter = limiter;
             this.ctx = ctx;
             this.req = req;
             this.deferred = deferred;
@@ -228,6 +474,7 @@ public abstract class ConcurrencyLimitingClient<I extends Request, O extends Res
         public void run() {
             isRun = true;
 
+            final AtomicInteger numActiveRequests = limiter.numActiveRequests;
             ScheduledFuture<?> timeoutFuture = get();
             if (timeoutFuture != null) {
                 if (timeoutFuture.isDone() || !timeoutFuture.cancel(false)) {
@@ -242,12 +489,27 @@ public abstract class ConcurrencyLimitingClient<I extends Request, O extends Res
                     final O actualRes = delegate().execute(ctx, req);
                     actualRes.closeFuture().whenCompleteAsync((unused, cause) -> {
                         numActiveRequests.decrementAndGet();
-                        drain();
+                        limiter.drain();
+                        limiter.scheduleEvictionIfIdle(ctx.eventLoop());
                     }, ctx.eventLoop());
+
+                    final AdaptiveConcurrencyLimiter adaptiveLimiter = limiter.adaptiveLimiter;
+                    if (adaptiveLimiter != null) {
+                        final int currentActiveRequests = numActiveRequests.get();
+                        ctx.log().addListener(log -> {
+                            if (log.responseCause() == null) {
+                                adaptiveLimiter.onSuccess(log.totalDurationNanos(), currentActiveRequests);
+                            } else {
+                                adaptiveLimiter.onFailure();
+                            }
+                        }, RequestLogAvailability.COMPLETE);
+                    }
+
                     deferred.delegate(actualRes);
                 } catch (Throwable t) {
                     numActiveRequests.decrementAndGet();
                     deferred.close(t);
+                    limiter.scheduleEvictionIfIdle(ctx.eventLoop());
                 }
             }
         }
@@ -16,6 +16,8 @@
 
 package com.linecorp.armeria.client.limit;
 
+import static java.util.Objects.requireNonNull;
+
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
@@ -35,6 +37,7 @@ import com.linecorp.armeria.common.http.HttpResponse;
  * client = builder.build(...);
  * }</pre>
  *
+ * <p>See {@link AdaptiveConcurrencyLimitBuilder} for the decorator whose limit is adjusted at runtime.
  */
 public final class ConcurrencyLimitingHttpClient
         extends ConcurrencyLimitingClient<HttpRequest, HttpResponse> {
@@ -57,6 +60,26 @@ public final class ConcurrencyLimitingHttpClient
         return delegate -> new ConcurrencyLimitingHttpClient(delegate, maxConcurrency, timeout, unit);
     }
 
+    /**
+     * Creates a new {@link Client} decorator that limits the concurrent number of active HTTP requests
+     * with the specified {@link AdaptiveConcurrencyLimit}.
+     */
+    public static Function<Client<? super HttpRequest, ? extends HttpResponse>, ConcurrencyLimitingHttpClient>
+    newDecorator(AdaptiveConcurrencyLimit adaptiveLimit) {
+        requireNonNull(adaptiveLimit, "adaptiveLimit");
+        return delegate -> new ConcurrencyLimitingHttpClient(delegate, adaptiveLimit);
+    }
+
+    /**
+     * Creates a new {@link Client} decorator that limits the concurrent number of active HTTP requests
+     * with the specified {@link AdaptiveConcurrencyLimit}.
+     */
+    public static Function<Client<? super HttpRequest, ? extends HttpResponse>, ConcurrencyLimitingHttpClient>
+    newDecorator(AdaptiveConcurrencyLimit adaptiveLimit, long timeout, TimeUnit unit) {
+        requireNonNull(adaptiveLimit, "adaptiveLimit");
+        validateTimeout(timeout, unit);
+        return delegate -> new ConcurrencyLimitingHttpClient(delegate, adaptiveLimit, timeout, unit);
+    }
 
     private ConcurrencyLimitingHttpClient(Client<? super HttpRequest, ? extends HttpResponse> delegate,
                                           int maxConcurrency) {
@@ -68,6 +91,16 @@ public final class ConcurrencyLimitingHttpClient
         super(delegate, maxConcurrency, timeout, unit);
     }
 
+    private ConcurrencyLimitingHttpClient(Client<? super HttpRequest, ? extends HttpResponse> delegate,
+                                          AdaptiveConcurrencyLimit adaptiveLimit) {
+        super(delegate, adaptiveLimit);
+    }
+
+    private ConcurrencyLimitingHttpClient(Client<? super HttpRequest, ? extends HttpResponse> delegate,
+                                          AdaptiveConcurrencyLimit adaptiveLimit, long timeout, TimeUnit unit) {
+        super(delegate, adaptiveLimit, timeout, unit);
+    }
+
     @Override
     protected Deferred<HttpResponse> defer(ClientRequestContext ctx, HttpRequest req) throws Exception {
         final DeferredHttpResponse res = new DeferredHttpResponse();
@@ -30,7 +30,6 @@ import com.linecorp.armeria.common.Request;
 import com.linecorp.armeria.common.Response;
 import com.linecorp.armeria.common.http.HttpHeaders;
 import com.linecorp.armeria.common.logging.RequestLog;
-import com.linecorp.armeria.common.logging.RequestLogAvailability;
 import com.linecorp.armeria.common.thrift.ThriftCall;
 import com.linecorp.armeria.internal.logging.DropwizardMetricCollector;
 
@@ -122,13 +121,7 @@ public final class DropwizardMetricCollectingClient<I extends Request, O extends
 
     @Override
     public O execute(ClientRequestContext ctx, I req) throws Exception {
-        ctx.log().addListener(collector::onRequestStart,
-                              RequestLogAvailability.REQUEST_ENVELOPE,
-                              RequestLogAvailability.REQUEST_CONTENT);
-        ctx.log().addListener(collector::onRequestEnd,
-                              RequestLogAvailability.REQUEST_END);
-        ctx.log().addListener(collector::onResponse,
-                              RequestLogAvailability.COMPLETE);
+        collector.addListeners(ctx.log());
 
         return delegate().execute(ctx, req);
     }
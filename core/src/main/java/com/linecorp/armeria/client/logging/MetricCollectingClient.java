@@ -0,0 +1,127 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.logging;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.function.Function;
+
+import com.google.common.base.MoreObjects;
+
+import com.linecorp.armeria.client.Client;
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.DecoratingClient;
+import com.linecorp.armeria.common.Request;
+import com.linecorp.armeria.common.Response;
+import com.linecorp.armeria.common.http.HttpHeaders;
+import com.linecorp.armeria.common.logging.RequestLog;
+import com.linecorp.armeria.common.metric.MeterId;
+import com.linecorp.armeria.common.metric.MeterRegistry;
+import com.linecorp.armeria.common.thrift.ThriftCall;
+import com.linecorp.armeria.internal.logging.MeterRegistryMetricCollector;
+
+/**
+ * Decorates a {@link Client} to collect metrics into a {@link MeterRegistry}. Unlike
+ * {@link DropwizardMetricCollectingClient}, the metrics are recorded without acquiring a lock, and
+ * the {@link MeterId} of a request is resolved only once per request.
+ *
+ * <p>Example:
+ * <pre>{@code
+ * MeterRegistry meterRegistry = new MeterRegistry();
+ * MyService.Iface client = new ClientBuilder(uri)
+ *         .decorate(MetricCollectingClient.newDecorator(meterRegistry, "armeria.client.myService"))
+ *         .build(MyService.Iface.class);
+ * }
+ * </pre>
+ *
+ * @param <I> the request type
+ * @param <O> the response type
+ */
+public final class MetricCollectingClient<I extends Request, O extends Response>
+        extends DecoratingClient<I, O, I, O> {
+
+    /**
+     * Returns a {@link Client} decorator that tracks request stats using the specified
+     * {@link MeterRegistry}.
+     *
+     * @param meterRegistry the {@link MeterRegistry} to store metrics into.
+     * @param meterIdFunc the function that transforms a {@link RequestLog} into a {@link MeterId}
+     */
+    public static <I extends Request, O extends Response>
+    Function<Client<? super I, ? extends O>, MetricCollectingClient<I, O>> newDecorator(
+            MeterRegistry meterRegistry,
+            Function<? super RequestLog, MeterId> meterIdFunc) {
+
+        requireNonNull(meterRegistry, "meterRegistry");
+        requireNonNull(meterIdFunc, "meterIdFunc");
+
+        return client -> new MetricCollectingClient<>(client, meterRegistry, meterIdFunc);
+    }
+
+    /**
+     * Returns a {@link Client} decorator that tracks request stats using the specified
+     * {@link MeterRegistry}. The names of the {@link MeterId}s start with the specified prefix, and
+     * the {@link MeterId}s are tagged with the {@code "method"} of the requests.
+     *
+     * @param meterRegistry the {@link MeterRegistry} to store metrics into.
+     * @param meterNamePrefix the prefix of the names of the meters created by the returned decorator.
+     */
+    public static <I extends Request, O extends Response>
+    Function<Client<? super I, ? extends O>, MetricCollectingClient<I, O>> newDecorator(
+            MeterRegistry meterRegistry, String meterNamePrefix) {
+
+        requireNonNull(meterNamePrefix, "meterNamePrefix");
+        return newDecorator(meterRegistry, log -> defaultMeterId(log, meterNamePrefix));
+    }
+
+    private static MeterId defaultMeterId(RequestLog log, String meterNamePrefix) {
+        String methodName = null;
+
+        final Object envelope = log.requestEnvelope();
+        final Object content = log.requestContent();
+        if (envelope instanceof HttpHeaders) {
+            methodName = ((HttpHeaders) envelope).method().name();
+        }
+
+        if (content instanceof ThriftCall) {
+            methodName = ((ThriftCall) content).header().name;
+        }
+
+        if (methodName == null) {
+            methodName = MoreObjects.firstNonNull(log.method(), "__UNKNOWN_METHOD__");
+        }
+
+        return MeterId.of(meterNamePrefix, "method", methodName);
+    }
+
+    private final MeterRegistryMetricCollector collector;
+
+    @SuppressWarnings("unchecked")
+    MetricCollectingClient(Client<? super I, ? extends O> delegate,
+                           MeterRegistry meterRegistry,
+                           Function<? super RequestLog, MeterId> meterIdFunc) {
+        super(delegate);
+        collector = new MeterRegistryMetricCollector(
+                meterRegistry, (Function<RequestLog, MeterId>) meterIdFunc);
+    }
+
+    @Override
+    public O execute(ClientRequestContext ctx, I req) throws Exception {
+        collector.addListeners(ctx.log());
+        return delegate().execute(ctx, req);
+    }
+}
@@ -17,24 +17,42 @@ package com.linecorp.armeria.client.pool;
 
 import static java.util.Objects.requireNonNull;
 
+import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
+import com.google.common.collect.ImmutableSet;
+
 import com.linecorp.armeria.common.util.Exceptions;
 
 import io.netty.channel.Channel;
 import io.netty.channel.EventLoop;
 import io.netty.channel.pool.ChannelHealthChecker;
+import io.netty.util.AttributeKey;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.FutureListener;
 import io.netty.util.concurrent.Promise;
+import io.netty.util.concurrent.ScheduledFuture;
 
 /**
  * Default {@link KeyedChannelPool} implementation.
  *
+ * <p>The pool can optionally:
+ * <ul>
+ *   <li>limit the number of the {@link Channel}s per key, deferring an acquisition until a {@link Channel} is
+ *       released or closed when the limit is reached,</li>
+ *   <li>close the {@link Channel}s which have not been acquired for a certain amount of time, and</li>
+ *   <li>keep a minimum number of idle {@link Channel}s per key by connecting in background, which can be
+ *       triggered before the first acquisition with {@link #warmUp(Object)}.</li>
+ * </ul>
+ * The {@link Channel} released most recently is acquired first, so that the {@link Channel}s which are not
+ * needed stay idle and are closed eventually.
+ *
  * @param <K> the key type
  */
 public class DefaultKeyedChannelPool<K> implements KeyedChannelPool<K> {
@@ -46,13 +64,28 @@ public class DefaultKeyedChannelPool<K> implements KeyedChannelPool<K> {
             Exceptions.clearTrace(new IllegalStateException(
                     "Channel is unhealthy; not offering it back to pool"));
 
+    private static final IllegalStateException ACQUIRE_TIMEOUT_EXCEPTION =
+            Exceptions.clearTrace(new IllegalStateException(
+                    "Timed out while waiting for a Channel; too many connections"));
+
+    private static final AttributeKey<ChannelState> CHANNEL_STATE =
+            AttributeKey.valueOf(DefaultKeyedChannelPool.class, "CHANNEL_STATE");
+
+    private static final long MAX_MAINTENANCE_INTERVAL_MILLIS = 1000;
+
     private final EventLoop eventLoop;
     private final Function<K, Future<Channel>> channelFactory;
     private final ChannelHealthChecker healthCheck;
     private final KeyedChannelPoolHandler<K> channelPoolHandler;
     private final boolean releaseHealthCheck;
+    private final int maxConnectionsPerKey;
+    private final int minIdleConnectionsPerKey;
+    private final long idleTimeoutNanos;
+    private final long acquireTimeoutMillis;
 
     private final Map<K, Deque<Channel>> pool;
+    private final Map<K, KeyState> keyStates = new ConcurrentHashMap<>();
+    private final ScheduledFuture<?> maintenanceFuture;
 
     /**
      * Creates a new instance.
@@ -78,14 +111,66 @@ public class DefaultKeyedChannelPool<K> implements KeyedChannelPool<K> {
                                    ChannelHealthChecker healthCheck,
                                    KeyedChannelPoolHandler<K> channelPoolHandler,
                                    boolean releaseHealthCheck) {
+        this(eventLoop, channelFactory, healthCheck, channelPoolHandler, releaseHealthCheck, 0, 0, 0, 0);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param maxConnectionsPerKey the maximum number of the {@link Channel}s per key, including the ones
+     *                             being connected. {@code 0} to disable the limit.
+     * @param minIdleConnectionsPerKey the minimum number of the idle {@link Channel}s to keep per key.
+     *                                 {@code 0} to disable connecting in background.
+     * @param idleTimeoutMillis the amount of time until an idle {@link Channel} in this pool is closed.
+     *                          {@code 0} to disable closing idle {@link Channel}s.
+     * @param acquireTimeoutMillis the amount of time until an acquisition deferred by
+     *                             {@code maxConnectionsPerKey} fails. {@code 0} to disable the timeout.
+     */
+    public DefaultKeyedChannelPool(EventLoop eventLoop, Function<K, Future<Channel>> channelFactory,
+                                   ChannelHealthChecker healthCheck,
+                                   KeyedChannelPoolHandler<K> channelPoolHandler,
+                                   boolean releaseHealthCheck,
+                                   int maxConnectionsPerKey, int minIdleConnectionsPerKey,
+                                   long idleTimeoutMillis, long acquireTimeoutMillis) {
+        if (maxConnectionsPerKey < 0) {
+            throw new IllegalArgumentException(
+                    "maxConnectionsPerKey: " + maxConnectionsPerKey + " (expected: >= 0)");
+        }
+        if (minIdleConnectionsPerKey < 0) {
+            throw new IllegalArgumentException(
+                    "minIdleConnectionsPerKey: " + minIdleConnectionsPerKey + " (expected: >= 0)");
+        }
+        if (idleTimeoutMillis < 0) {
+            throw new IllegalArgumentException(
+                    "idleTimeoutMillis: " + idleTimeoutMillis + " (expected: >= 0)");
+        }
+        if (acquireTimeoutMillis < 0) {
+            throw new IllegalArgumentException(
+                    "acquireTimeoutMillis: " + acquireTimeoutMillis + " (expected: >= 0)");
+        }
+
         this.eventLoop = requireNonNull(eventLoop, "eventLoop");
         this.channelFactory = requireNonNull(channelFactory, "channelFactory");
         this.healthCheck = requireNonNull(healthCheck, "healthCheck");
         this.channelPoolHandler = new SafeKeyedChannelPoolHandler<>(requireNonNull(channelPoolHandler,
                                                                                    "channelPoolHandler"));
         this.releaseHealthCheck = releaseHealthCheck;
+        this.maxConnectionsPerKey = maxConnectionsPerKey;
+        this.minIdleConnectionsPerKey = minIdleConnectionsPerKey;
+        idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
 
         pool = new ConcurrentHashMap<>();
+
+        if (idleTimeoutMillis > 0 || minIdleConnectionsPerKey > 0) {
+            final long intervalMillis =
+                    idleTimeoutMillis > 0 ? Math.min(idleTimeoutMillis, MAX_MAINTENANCE_INTERVAL_MILLIS)
+                                          : MAX_MAINTENANCE_INTERVAL_MILLIS;
+            maintenanceFuture = eventLoop.scheduleWithFixedDelay(
+                    this::maintain, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            maintenanceFuture = null;
+        }
     }
 
     @Override
@@ -107,18 +192,21 @@ public class DefaultKeyedChannelPool<K> implements KeyedChannelPool<K> {
         return promise;
     }
 
-    private Future<Channel> acquireHealthyFromPoolOrNew(final K key, final Promise<Channel> promise) {
+    private void acquireHealthyFromPoolOrNew(final K key, final Promise<Channel> promise) {
+        assert eventLoop.inEventLoop();
+
         final Deque<Channel> queue = pool.get(key);
-        final Channel ch = queue == null ? null : queue.poll();
+        // Acquire the Channel released most recently, so that the others become idle and are closed.
+        final Channel ch = queue == null ? null : queue.pollLast();
 
         if (ch == null) {
-            Future<Channel> f = channelFactory.apply(key);
-            if (f.isDone()) {
-                notifyConnect(key, f, promise);
+            final KeyState state = keyState(key);
+            if (maxConnectionsPerKey > 0 && state.numConnections >= maxConnectionsPerKey) {
+                addWaiter(state, promise);
             } else {
-                f.addListener((Future<Channel> future) -> notifyConnect(key, future, promise));
+                connect(key, state, promise);
             }
-            return promise;
+            return;
         }
 
         EventLoop loop = ch.eventLoop();
@@ -127,28 +215,108 @@ public class DefaultKeyedChannelPool<K> implements KeyedChannelPool<K> {
         } else {
             loop.execute(() -> doHealthCheck(key, ch, promise));
         }
+    }
 
-        return promise;
+    private void connect(K key, KeyState state, Promise<Channel> promise) {
+        state.numConnections++;
+        state.numConnecting++;
+
+        final Future<Channel> f;
+        try {
+            f = channelFactory.apply(key);
+        } catch (Throwable cause) {
+            onConnectFailure(key, state, cause, promise);
+            return;
+        }
+
+        if (f.isDone()) {
+            notifyConnect(key, state, f, promise);
+        } else {
+            f.addListener((Future<Channel> future) -> runInEventLoop(
+                    () -> notifyConnect(key, state, future, promise)));
+        }
     }
 
-    private void notifyConnect(K key, Future<Channel> future, Promise<Channel> promise) {
+    private void notifyConnect(K key, KeyState state, Future<Channel> future, Promise<Channel> promise) {
         assert future.isDone();
 
+        if (!future.isSuccess()) {
+            onConnectFailure(key, state, future.cause(), promise);
+            return;
+        }
+
+        state.numConnecting--;
+        state.numCreated++;
+
+        final Channel channel = future.getNow();
+        channel.attr(CHANNEL_STATE).set(new ChannelState());
+        channel.closeFuture().addListener(f -> {
+            channelPoolHandler.channelClosed(key, channel);
+            runInEventLoop(() -> onChannelClosed(key, state, channel));
+        });
+
         try {
-            if (future.isSuccess()) {
-                Channel channel = future.getNow();
-                channel.attr(KeyedChannelPoolUtil.POOL).set(this);
-                channelPoolHandler.channelCreated(key, channel);
-                channel.closeFuture().addListener(f -> channelPoolHandler.channelClosed(key, channel));
-                promise.setSuccess(channel);
-            } else {
-                promise.setFailure(future.cause());
-            }
+            channel.attr(KeyedChannelPoolUtil.POOL).set(this);
+            channelPoolHandler.channelCreated(key, channel);
+            promise.setSuccess(channel);
         } catch (Exception e) {
             promise.setFailure(e);
         }
     }
 
+    private void onConnectFailure(K key, KeyState state, Throwable cause, Promise<Channel> promise) {
+        state.numConnecting--;
+        state.numConnections--;
+        promise.tryFailure(cause);
+        serveWaiter(key, state);
+    }
+
+    private void onChannelClosed(K key, KeyState state, Channel channel) {
+        state.numConnections--;
+        state.numClosed++;
+
+        // Remove the closed Channel from the pool so that it does not count as an idle Channel.
+        final Deque<Channel> queue = pool.get(key);
+        if (queue != null) {
+            queue.remove(channel);
+        }
+
+        serveWaiter(key, state);
+    }
+
+    private void addWaiter(KeyState state, Promise<Channel> promise) {
+        state.waiters.add(promise);
+        state.numWaiters++;
+
+        if (acquireTimeoutMillis > 0) {
+            final ScheduledFuture<?> timeoutFuture = eventLoop.schedule(() -> {
+                if (promise.tryFailure(ACQUIRE_TIMEOUT_EXCEPTION) && state.waiters.remove(promise)) {
+                    state.numWaiters--;
+                }
+            }, acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+            promise.addListener(f -> timeoutFuture.cancel(false));
+        }
+    }
+
+    /**
+     * Retries the acquisition of the first acquisition deferred because of {@code maxConnectionsPerKey},
+     * when a {@link Channel} is released or closed.
+     */
+    private void serveWaiter(K key, KeyState state) {
+        for (;;) {
+            final Promise<Channel> waiter = state.waiters.poll();
+            if (waiter == null) {
+                return;
+            }
+
+            state.numWaiters--;
+            if (!waiter.isDone()) {
+                acquireHealthyFromPoolOrNew(key, waiter);
+                return;
+            }
+        }
+    }
+
     private void doHealthCheck(final K key, final Channel ch, final Promise<Channel> promise) {
         assert ch.eventLoop().inEventLoop();
 
@@ -174,11 +342,11 @@ public class DefaultKeyedChannelPool<K> implements KeyedChannelPool<K> {
                 }
             } else {
                 closeChannel(ch);
-                acquireHealthyFromPoolOrNew(key, promise);
+                runInEventLoop(() -> acquireHealthyFromPoolOrNew(key, promise));
             }
         } else {
             closeChannel(ch);
-            acquireHealthyFromPoolOrNew(key, promise);
+            runInEventLoop(() -> acquireHealthyFromPoolOrNew(key, promise));
         }
     }
 
@@ -256,9 +424,20 @@ public class DefaultKeyedChannelPool<K> implements KeyedChannelPool<K> {
     }
 
     private void releaseAndOffer(K key, Channel channel, Promise<Void> promise) throws Exception {
+        final ChannelState channelState = channel.attr(CHANNEL_STATE).get();
+        if (channelState != null) {
+            channelState.releasedNanos = System.nanoTime();
+        }
+
         if (offerChannel(key, channel)) {
             channelPoolHandler.channelReleased(key, channel);
             promise.setSuccess(null);
+            runInEventLoop(() -> {
+                final KeyState state = keyStates.get(key);
+                if (state != null) {
+                    serveWaiter(key, state);
+                }
+            });
         } else {
             closeAndFail(channel, FULL_EXCEPTION, promise);
         }
@@ -292,8 +471,191 @@ public class DefaultKeyedChannelPool<K> implements KeyedChannelPool<K> {
         return pool.computeIfAbsent(key, k -> new ConcurrentLinkedDeque<>()).offer(channel);
     }
 
+    /**
+     * Establishes the {@link Channel}s for the specified {@code key} in background, so that the first
+     * acquisitions do not have to wait for the connection attempts. As many {@link Channel}s as
+     * the minimum number of the idle {@link Channel}s per key, or one {@link Channel} if the minimum is
+     * {@code 0}, are established and then put into this pool.
+     *
+     * @return the {@link Future} which is notified when all connection attempts are done
+     */
+    public Future<Void> warmUp(K key) {
+        requireNonNull(key, "key");
+        final Promise<Void> promise = eventLoop.newPromise();
+        runInEventLoop(() -> {
+            final int numChannels = fillIdleChannels(key, keyState(key), Math.max(1, minIdleConnectionsPerKey),
+                                                     promise);
+            if (numChannels == 0) {
+                promise.trySuccess(null);
+            }
+        });
+        return promise;
+    }
+
+    /**
+     * Returns the keys that this pool has ever acquired a {@link Channel} for and still keeps the state of.
+     */
+    public Set<K> keys() {
+        return ImmutableSet.copyOf(keyStates.keySet());
+    }
+
+    /**
+     * Returns the number of the {@link Channel}s which are in this pool and not acquired.
+     */
+    public int numIdleChannels(K key) {
+        final Deque<Channel> queue = pool.get(key);
+        return queue != null ? queue.size() : 0;
+    }
+
+    /**
+     * Returns the number of the {@link Channel}s which are connected and not in this pool,
+     * i.e. acquired.
+     */
+    public int numActiveChannels(K key) {
+        final KeyState state = keyStates.get(key);
+        if (state == null) {
+            return 0;
+        }
+        return Math.max(0, state.numConnections - state.numConnecting - numIdleChannels(key));
+    }
+
+    /**
+     * Returns the number of the acquisitions waiting for a {@link Channel} because the maximum number of
+     * the {@link Channel}s per key has been reached.
+     */
+    public int numPendingAcquisitions(K key) {
+        final KeyState state = keyStates.get(key);
+        return state != null ? state.numWaiters : 0;
+    }
+
+    /**
+     * Returns the total number of the {@link Channel}s created by this pool.
+     */
+    public long numCreatedChannels(K key) {
+        final KeyState state = keyStates.get(key);
+        return state != null ? state.numCreated : 0;
+    }
+
+    /**
+     * Returns the total number of the {@link Channel}s created by this pool and closed since.
+     */
+    public long numClosedChannels(K key) {
+        final KeyState state = keyStates.get(key);
+        return state != null ? state.numClosed : 0;
+    }
+
+    /**
+     * Returns whether the specified idle {@link Channel} can be closed when it has not been acquired for
+     * the idle timeout. Override this method to keep the {@link Channel}s which are still in use even when
+     * they are in this pool, e.g. a multiplexed connection with an active stream.
+     */
+    protected boolean isEvictable(K key, Channel channel) {
+        return true;
+    }
+
+    private KeyState keyState(K key) {
+        final KeyState state = keyStates.get(key);
+        if (state != null) {
+            return state;
+        }
+        return keyStates.computeIfAbsent(key, unused -> new KeyState());
+    }
+
+    /**
+     * Closes the idle {@link Channel}s that exceeded the idle timeout and establishes the new {@link Channel}s
+     * for the keys with less idle {@link Channel}s than the minimum.
+     */
+    private void maintain() {
+        final long currentNanos = System.nanoTime();
+        keyStates.forEach((key, state) -> {
+            final Deque<Channel> queue = pool.get(key);
+            if (idleTimeoutNanos > 0 && queue != null) {
+                evictIdleChannels(key, queue, currentNanos);
+            }
+
+            if (minIdleConnectionsPerKey > 0) {
+                fillIdleChannels(key, state, minIdleConnectionsPerKey, null);
+            } else if (state.numConnections == 0 && state.numWaiters == 0) {
+                keyStates.remove(key, state);
+            }
+        });
+    }
+
+    private void evictIdleChannels(K key, Deque<Channel> queue, long currentNanos) {
+        // The least recently released Channels are at the head of the queue.
+        while (queue.size() > minIdleConnectionsPerKey) {
+            final Channel ch = queue.peekFirst();
+            if (ch == null) {
+                break;
+            }
+
+            final ChannelState channelState = ch.attr(CHANNEL_STATE).get();
+            if (ch.isActive() && (channelState == null ||
+                                  currentNanos - channelState.releasedNanos < idleTimeoutNanos ||
+                                  !isEvictable(key, ch))) {
+                break;
+            }
+
+            if (queue.remove(ch)) {
+                closeChannel(ch);
+            }
+        }
+    }
+
+    /**
+     * Starts to establish the {@link Channel}s for the specified {@code key} until the number of the idle
+     * {@link Channel}s reaches the specified {@code minIdleChannels}.
+     *
+     * @param promise the {@link Promise} to notify when all connection attempts are done, or {@code null}
+     * @return the number of the connection attempts started
+     */
+    private int fillIdleChannels(K key, KeyState state, int minIdleChannels, Promise<Void> promise) {
+        int numChannels = minIdleChannels - numIdleChannels(key) - state.numConnecting;
+        if (maxConnectionsPerKey > 0) {
+            numChannels = Math.min(numChannels, maxConnectionsPerKey - state.numConnections);
+        }
+        if (numChannels <= 0) {
+            return 0;
+        }
+
+        final int[] remaining = { numChannels };
+        final Throwable[] firstCause = new Throwable[1];
+        for (int i = 0; i < numChannels; i++) {
+            final Promise<Channel> connectPromise = eventLoop.newPromise();
+            connectPromise.addListener((Future<Channel> f) -> {
+                if (f.isSuccess()) {
+                    release(key, f.getNow());
+                } else if (firstCause[0] == null) {
+                    firstCause[0] = f.cause();
+                }
+
+                if (promise != null && --remaining[0] == 0) {
+                    if (firstCause[0] == null) {
+                        promise.trySuccess(null);
+                    } else {
+                        promise.tryFailure(firstCause[0]);
+                    }
+                }
+            });
+            connect(key, state, connectPromise);
+        }
+        return numChannels;
+    }
+
+    private void runInEventLoop(Runnable task) {
+        if (eventLoop.inEventLoop()) {
+            task.run();
+        } else {
+            eventLoop.execute(task);
+        }
+    }
+
     @Override
     public void close() {
+        if (maintenanceFuture != null) {
+            maintenanceFuture.cancel(false);
+        }
+
         pool.forEach((k, v) -> {
             for (;;) {
                 Channel channel = pollChannel(k);
@@ -307,4 +669,20 @@ public class DefaultKeyedChannelPool<K> implements KeyedChannelPool<K> {
             }
         });
     }
+
+    /**
+     * The state of the {@link Channel}s of a key, which is updated only by {@link #eventLoop}.
+     */
+    private static final class KeyState {
+        final Deque<Promise<Channel>> waiters = new ArrayDeque<>();
+        volatile int numWaiters;
+        volatile int numConnections;
+        volatile int numConnecting;
+        volatile long numCreated;
+        volatile long numClosed;
+    }
+
+    private static final class ChannelState {
+        volatile long releasedNanos = System.nanoTime();
+    }
 }
@@ -18,6 +18,8 @@ package com.linecorp.armeria.client.thrift;
 
 import static java.util.Objects.requireNonNull;
 
+import java.util.Collection;
+
 import com.linecorp.armeria.client.Client;
 import com.linecorp.armeria.client.ClientBuilderParams;
 import com.linecorp.armeria.client.Endpoint;
@@ -26,6 +28,10 @@ import com.linecorp.armeria.common.DefaultRpcResponse;
 import com.linecorp.armeria.common.RpcRequest;
 import com.linecorp.armeria.common.RpcResponse;
 import com.linecorp.armeria.common.SessionProtocol;
+import com.linecorp.armeria.common.stream.DefaultStreamMessage;
+import com.linecorp.armeria.common.stream.DeferredStreamMessage;
+import com.linecorp.armeria.common.stream.StreamMessage;
+import com.linecorp.armeria.common.util.CompletionActions;
 
 final class DefaultTHttpClient extends UserClient<RpcRequest, RpcResponse> implements THttpClient {
 
@@ -47,4 +53,57 @@ final class DefaultTHttpClient extends UserClient<RpcRequest, RpcResponse> imple
         final RpcRequest call = RpcRequest.of(serviceType, method, args);
         return execute(call.method(), path, serviceName, call, DefaultRpcResponse::new);
     }
+
+    /**
+     * Sends the specified {@link RpcRequest} which has been built by the caller already.
+     */
+    RpcResponse executeMultiplexed(String path, String serviceName, RpcRequest call) {
+        return execute(call.method(), path, serviceName, call, DefaultRpcResponse::new);
+    }
+
+    @Override
+    public <T> StreamMessage<T> executeStreaming(
+            String path, Class<?> serviceType, String method, Object... args) {
+        return executeMultiplexedStreaming(path, serviceType, "", method, args);
+    }
+
+    @Override
+    public <T> StreamMessage<T> executeMultiplexedStreaming(
+            String path, Class<?> serviceType, String serviceName, String method, Object... args) {
+        requireNonNull(serviceName, "serviceName");
+        final RpcRequest call = new StreamingRpcRequest(serviceType, method, args);
+        final RpcResponse reply = execute(call.method(), path, serviceName, call, DefaultRpcResponse::new);
+        final DeferredElementStream<T> stream = new DeferredElementStream<>();
+        reply.handle((result, cause) -> {
+            stream.complete(result, cause);
+            return null;
+        }).exceptionally(CompletionActions::log);
+        return stream;
+    }
+
+    /**
+     * A {@link StreamMessage} of the elements of a result, which is published by the {@link StreamMessage}
+     * the {@link RpcResponse} is completed with. A decorator may complete the {@link RpcResponse} with
+     * a {@link Collection} instead, e.g. when it served the call without sending it.
+     */
+    private static final class DeferredElementStream<T> extends DeferredStreamMessage<T> {
+
+        @SuppressWarnings("unchecked")
+        void complete(Object result, Throwable cause) {
+            if (cause != null) {
+                close(cause);
+            } else if (result instanceof StreamMessage) {
+                delegate((StreamMessage<T>) result);
+            } else if (result instanceof Collection) {
+                final DefaultStreamMessage<T> elements = new DefaultStreamMessage<>();
+                for (Object e : (Collection<?>) result) {
+                    elements.write((T) e);
+                }
+                elements.close();
+                delegate(elements);
+            } else {
+                close(new IllegalStateException("result is not a list or a set: " + result));
+            }
+        }
+    }
 }
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.thrift;
+
+import com.linecorp.armeria.common.DefaultRpcRequest;
+import com.linecorp.armeria.common.RpcResponse;
+import com.linecorp.armeria.common.stream.StreamMessage;
+
+/**
+ * A Thrift call made by {@link THttpClient#executeStreaming(String, Class, String, Object...)}, whose
+ * {@link RpcResponse} is completed with a {@link StreamMessage} of the elements of the result.
+ */
+final class StreamingRpcRequest extends DefaultRpcRequest {
+
+    StreamingRpcRequest(Class<?> serviceType, String method, Object... params) {
+        super(serviceType, method, params);
+    }
+}
@@ -18,6 +18,7 @@ package com.linecorp.armeria.client.thrift;
 
 import com.linecorp.armeria.client.ClientBuilderParams;
 import com.linecorp.armeria.common.RpcResponse;
+import com.linecorp.armeria.common.stream.StreamMessage;
 
 /**
  * A generic Thrift-over-HTTP client.
@@ -58,4 +59,37 @@ public interface THttpClient extends ClientBuilderParams {
      */
     RpcResponse executeMultiplexed(
             String path, Class<?> serviceType, String serviceName, String method, Object... args);
+
+    /**
+     * Executes the specified Thrift call whose result is a {@code list} or a {@code set}, and returns
+     * a {@link StreamMessage} that publishes the elements of the result. With the
+     * {@link com.linecorp.armeria.common.SerializationFormat#THRIFT_BINARY TBinary} or
+     * {@link com.linecorp.armeria.common.SerializationFormat#THRIFT_COMPACT TCompact} protocol, each element
+     * is decoded and published as soon as it is received, and the rest of the reply is received only as fast
+     * as the elements are consumed. With other protocols, the elements are published after the whole reply
+     * is received. The {@link StreamMessage} fails with the exception raised by the call, if any.
+     *
+     * @param path the path of the Thrift service
+     * @param serviceType the Thrift service interface
+     * @param method the method name
+     * @param args the arguments of the call
+     *
+     * @see com.linecorp.armeria.server.thrift.THttpService#withStreaming(boolean)
+     */
+    <T> StreamMessage<T> executeStreaming(String path, Class<?> serviceType, String method, Object... args);
+
+    /**
+     * Executes the specified multiplexed Thrift call whose result is a {@code list} or a {@code set}, and
+     * returns a {@link StreamMessage} that publishes the elements of the result.
+     *
+     * @param path the path of the Thrift service
+     * @param serviceType the Thrift service interface
+     * @param serviceName the Thrift service name
+     * @param method the method name
+     * @param args the arguments of the call
+     *
+     * @see #executeStreaming(String, Class, String, Object...)
+     */
+    <T> StreamMessage<T> executeMultiplexedStreaming(
+            String path, Class<?> serviceType, String serviceName, String method, Object... args);
 }
@@ -17,6 +17,8 @@
 package com.linecorp.armeria.client.thrift;
 
 import static com.linecorp.armeria.common.util.Functions.voidFunction;
+import static com.linecorp.armeria.internal.http.ArmeriaHttpUtil.newContentBuffer;
+import static com.linecorp.armeria.internal.http.ArmeriaHttpUtil.toHttpData;
 
 import java.util.Arrays;
 import java.util.List;
@@ -34,8 +36,8 @@ import org.apache.thrift.protocol.TMessage;
 import org.apache.thrift.protocol.TMessageType;
 import org.apache.thrift.protocol.TProtocol;
 import org.apache.thrift.protocol.TProtocolFactory;
-import org.apache.thrift.transport.TMemoryBuffer;
 import org.apache.thrift.transport.TMemoryInputTransport;
+import org.apache.thrift.transport.TTransport;
 import org.apache.thrift.transport.TTransportException;
 
 import com.linecorp.armeria.client.Client;
@@ -46,6 +48,7 @@ import com.linecorp.armeria.common.RpcRequest;
 import com.linecorp.armeria.common.RpcResponse;
 import com.linecorp.armeria.common.SerializationFormat;
 import com.linecorp.armeria.common.http.AggregatedHttpMessage;
+import com.linecorp.armeria.common.http.CompositeHttpData;
 import com.linecorp.armeria.common.http.DefaultHttpRequest;
 import com.linecorp.armeria.common.http.HttpData;
 import com.linecorp.armeria.common.http.HttpHeaderNames;
@@ -58,10 +61,14 @@ import com.linecorp.armeria.common.thrift.ThriftCall;
 import com.linecorp.armeria.common.thrift.ThriftProtocolFactories;
 import com.linecorp.armeria.common.thrift.ThriftReply;
 import com.linecorp.armeria.common.util.CompletionActions;
+import com.linecorp.armeria.internal.thrift.BoundRpcRequest;
+import com.linecorp.armeria.internal.thrift.TByteBufTransport;
 import com.linecorp.armeria.internal.thrift.ThriftFieldAccess;
 import com.linecorp.armeria.internal.thrift.ThriftFunction;
 import com.linecorp.armeria.internal.thrift.ThriftServiceMetadata;
 
+import io.netty.buffer.ByteBuf;
+
 final class THttpClientDelegate implements Client<RpcRequest, RpcResponse> {
 
     private final AtomicInteger nextSeqId = new AtomicInteger();
@@ -71,16 +78,21 @@ final class THttpClientDelegate implements Client<RpcRequest, RpcResponse> {
     private final SerializationFormat serializationFormat;
     private final TProtocolFactory protocolFactory;
     private final String mediaType;
+    private final boolean streamable;
+    private final boolean usePooledHttpData;
     private final Map<Class<?>, ThriftServiceMetadata> metadataMap = new ConcurrentHashMap<>();
 
     THttpClientDelegate(Client<HttpRequest, HttpResponse> httpClient, String path,
-                        SerializationFormat serializationFormat) {
+                        SerializationFormat serializationFormat, boolean usePooledHttpData) {
 
         this.httpClient = httpClient;
         this.path = path;
         this.serializationFormat = serializationFormat;
         protocolFactory = ThriftProtocolFactories.get(serializationFormat);
         mediaType = serializationFormat.mediaType().toString();
+        streamable = serializationFormat == SerializationFormat.THRIFT_BINARY ||
+                     serializationFormat == SerializationFormat.THRIFT_COMPACT;
+        this.usePooledHttpData = usePooledHttpData;
     }
 
     @Override
@@ -94,36 +106,39 @@ final class THttpClientDelegate implements Client<RpcRequest, RpcResponse> {
 
         final ThriftFunction func;
         try {
-            func = metadata(call.serviceType()).function(method);
+            if (call instanceof BoundRpcRequest) {
+                func = ((BoundRpcRequest) call).function();
+            } else {
+                func = metadata(call.serviceType()).function(method);
+            }
             if (func == null) {
                 throw new IllegalArgumentException("Thrift method not found: " + method);
             }
+            if (call instanceof StreamingRpcRequest && func.successElementCodec() == null) {
+                throw new IllegalArgumentException(
+                        "Thrift method does not return a list or a set of streamable elements: " + method);
+            }
         } catch (Throwable cause) {
             reply.completeExceptionally(cause);
             return reply;
         }
 
         try {
-            final TMemoryBuffer outTransport = new TMemoryBuffer(128);
-            final TProtocol tProtocol = protocolFactory.getProtocol(outTransport);
-            final TMessage header = new TMessage(fullMethod(ctx, method), func.messageType(), seqId);
-
-            tProtocol.writeMessageBegin(header);
-            @SuppressWarnings("rawtypes")
-            final TBase tArgs = func.newArgs(args);
-            tArgs.write(tProtocol);
-            tProtocol.writeMessageEnd();
-
-            ctx.logBuilder().requestContent(new ThriftCall(header, tArgs));
-
+            final HttpData content = encodeRequest(ctx, func, seqId, method, args);
             final DefaultHttpRequest httpReq = new DefaultHttpRequest(
                     HttpHeaders.of(HttpMethod.POST, path)
                                .set(HttpHeaderNames.CONTENT_TYPE, mediaType), true);
-            httpReq.write(HttpData.of(outTransport.getArray(), 0, outTransport.length()));
+            httpReq.write(content);
             httpReq.close();
 
             ctx.logBuilder().deferResponseContent();
 
+            if (call instanceof StreamingRpcRequest && streamable) {
+                httpClient.execute(ctx, httpReq).subscribe(
+                        new ThriftResultDecoder(ctx, this, protocolFactory, func, reply), ctx.eventLoop());
+                return reply;
+            }
+
             final CompletableFuture<AggregatedHttpMessage> future =
                     httpClient.execute(ctx, httpReq).aggregate();
 
@@ -153,6 +168,32 @@ final class THttpClientDelegate implements Client<RpcRequest, RpcResponse> {
         return reply;
     }
 
+    private HttpData encodeRequest(ClientRequestContext ctx, ThriftFunction func, int seqId,
+                                   String method, List<Object> args) throws TException {
+
+        final ByteBuf buf = newContentBuffer(func.encodedSizeHint(), usePooledHttpData);
+        boolean success = false;
+        try {
+            final TProtocol tProtocol = protocolFactory.getProtocol(new TByteBufTransport(buf));
+            final TMessage header = new TMessage(fullMethod(ctx, method), func.messageType(), seqId);
+
+            tProtocol.writeMessageBegin(header);
+            @SuppressWarnings("rawtypes")
+            final TBase tArgs = func.newArgs(args);
+            tArgs.write(tProtocol);
+            tProtocol.writeMessageEnd();
+
+            ctx.logBuilder().requestContent(new ThriftCall(header, tArgs));
+            func.updateEncodedSizeHint(buf.readableBytes());
+            success = true;
+            return toHttpData(buf, usePooledHttpData);
+        } finally {
+            if (!success) {
+                buf.release();
+            }
+        }
+    }
+
     private static String fullMethod(ClientRequestContext ctx, String method) {
         final String service = ctx.fragment();
         if (service.isEmpty()) {
@@ -171,8 +212,7 @@ final class THttpClientDelegate implements Client<RpcRequest, RpcResponse> {
         return metadataMap.computeIfAbsent(serviceType, ThriftServiceMetadata::new);
     }
 
-    private Object decodeResponse(
-            ClientRequestContext ctx, ThriftFunction func, HttpData content) throws TException {
+    Object decodeResponse(ClientRequestContext ctx, ThriftFunction func, HttpData content) throws TException {
 
         if (func.isOneWay()) {
             ctx.logBuilder().responseContent(null);
@@ -183,8 +223,13 @@ final class THttpClientDelegate implements Client<RpcRequest, RpcResponse> {
             throw new TApplicationException(TApplicationException.MISSING_RESULT);
         }
 
-        final TMemoryInputTransport inputTransport =
-                new TMemoryInputTransport(content.array(), content.offset(), content.length());
+        final TTransport inputTransport;
+        if (content instanceof CompositeHttpData) {
+            // Read the chunks of the response as they are rather than merging them into an array.
+            inputTransport = new TByteBufTransport(((CompositeHttpData) content).toByteBuf());
+        } else {
+            inputTransport = new TMemoryInputTransport(content.array(), content.offset(), content.length());
+        }
         final TProtocol inputProtocol = protocolFactory.getProtocol(inputTransport);
 
         final TMessage header = inputProtocol.readMessageBegin();
@@ -234,8 +279,8 @@ final class THttpClientDelegate implements Client<RpcRequest, RpcResponse> {
         return appEx;
     }
 
-    private static void completeExceptionally(ClientRequestContext ctx, DefaultRpcResponse reply,
-                                              ThriftFunction thriftMethod, Throwable cause) {
+    static void completeExceptionally(ClientRequestContext ctx, DefaultRpcResponse reply,
+                                      ThriftFunction thriftMethod, Throwable cause) {
         ctx.logBuilder().responseContent(null);
         reply.completeExceptionally(decodeException(cause, thriftMethod.declaredExceptions()));
     }
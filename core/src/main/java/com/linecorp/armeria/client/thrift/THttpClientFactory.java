@@ -92,9 +92,9 @@ public class THttpClientFactory extends DecoratingClientFactory {
         final Client<RpcRequest, RpcResponse> delegate = options.decoration().decorate(
                 RpcRequest.class, RpcResponse.class,
                 new THttpClientDelegate(newHttpClient(uri, scheme, options),
-                                        uri.getPath(), serializationFormat));
+                                        uri.getPath(), serializationFormat, options().usePooledHttpData()));
 
-        final THttpClient thriftClient = new DefaultTHttpClient(
+        final DefaultTHttpClient thriftClient = new DefaultTHttpClient(
                 new DefaultClientBuilderParams(this, uri, THttpClient.class, options),
                 delegate, scheme.sessionProtocol(), newEndpoint(uri));
 
@@ -23,31 +23,56 @@ import java.lang.reflect.Method;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.net.URI;
 import java.util.Arrays;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 
 import org.apache.thrift.async.AsyncMethodCallback;
 
+import com.google.common.collect.ImmutableMap;
+
 import com.linecorp.armeria.client.ClientBuilderParams;
 import com.linecorp.armeria.client.ClientFactory;
 import com.linecorp.armeria.client.ClientOptions;
 import com.linecorp.armeria.common.RpcResponse;
 import com.linecorp.armeria.common.util.CompletionActions;
+import com.linecorp.armeria.internal.thrift.BoundRpcRequest;
+import com.linecorp.armeria.internal.thrift.ThriftFunction;
+import com.linecorp.armeria.internal.thrift.ThriftServiceMetadata;
 
 final class THttpClientInvocationHandler implements InvocationHandler, ClientBuilderParams {
 
     private static final Object[] NO_ARGS = new Object[0];
 
     private final ClientBuilderParams params;
-    private final THttpClient thriftClient;
+    private final DefaultTHttpClient thriftClient;
     private final String path;
     private final String fragment;
+    private final Map<Method, ThriftFunction> functions;
 
     THttpClientInvocationHandler(ClientBuilderParams params,
-                                 THttpClient thriftClient, String path, String fragment) {
+                                 DefaultTHttpClient thriftClient, String path, String fragment) {
         this.params = params;
         this.thriftClient = thriftClient;
         this.path = path;
         this.fragment = fragment;
+        functions = bindFunctions(params.clientType());
+    }
+
+    /**
+     * Looks up the {@link ThriftFunction} of each method in the specified client interface once, so that
+     * an invocation does not have to look it up by its name.
+     */
+    private static Map<Method, ThriftFunction> bindFunctions(Class<?> clientType) {
+        final ThriftServiceMetadata metadata = new ThriftServiceMetadata(clientType);
+        final ImmutableMap.Builder<Method, ThriftFunction> builder = ImmutableMap.builder();
+        for (Method m : clientType.getMethods()) {
+            final ThriftFunction func = metadata.function(m.getName());
+            if (func == null) {
+                throw new IllegalArgumentException("Thrift method not found: " + m.getName());
+            }
+            builder.put(m, func);
+        }
+        return builder.build();
     }
 
     @Override
@@ -99,25 +124,29 @@ final class THttpClientInvocationHandler implements InvocationHandler, ClientBui
     }
 
     private Object invokeClientMethod(Method method, Object[] args) throws Throwable {
+        final ThriftFunction func = functions.get(method);
+        assert func != null;
+
         final AsyncMethodCallback<Object> callback;
+        final Object[] callParams;
         if (args == null) {
-            args = NO_ARGS;
+            callParams = NO_ARGS;
             callback = null;
-        } else {
+        } else if (func.isAsync()) {
+            // The last parameter of an AsyncIface method is always the callback.
             final int lastIdx = args.length - 1;
-            if (args.length > 0 && args[lastIdx] instanceof AsyncMethodCallback) {
-                @SuppressWarnings("unchecked")
-                final AsyncMethodCallback<Object> lastArg = (AsyncMethodCallback<Object>) args[lastIdx];
-                callback = lastArg;
-                args = Arrays.copyOfRange(args, 0, lastIdx);
-            } else {
-                callback = null;
-            }
+            @SuppressWarnings("unchecked")
+            final AsyncMethodCallback<Object> lastArg = (AsyncMethodCallback<Object>) args[lastIdx];
+            callback = lastArg;
+            callParams = Arrays.copyOfRange(args, 0, lastIdx);
+        } else {
+            callParams = args;
+            callback = null;
         }
 
         try {
             final RpcResponse reply = thriftClient.executeMultiplexed(
-                    path, params.clientType(), fragment, method.getName(), args);
+                    path, fragment, new BoundRpcRequest(func, callParams));
 
             if (callback != null) {
                 reply.handle(voidFunction((result, cause) -> {
@@ -0,0 +1,345 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.thrift;
+
+import org.apache.thrift.TException;
+import org.apache.thrift.TFieldIdEnum;
+import org.apache.thrift.protocol.TField;
+import org.apache.thrift.protocol.TMessage;
+import org.apache.thrift.protocol.TMessageType;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.protocol.TProtocolException;
+import org.apache.thrift.protocol.TProtocolFactory;
+import org.apache.thrift.protocol.TType;
+import org.apache.thrift.transport.TTransportException;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.InvalidResponseException;
+import com.linecorp.armeria.common.DefaultRpcResponse;
+import com.linecorp.armeria.common.http.HttpData;
+import com.linecorp.armeria.common.http.HttpHeaders;
+import com.linecorp.armeria.common.http.HttpObject;
+import com.linecorp.armeria.common.http.HttpStatus;
+import com.linecorp.armeria.common.http.HttpStatusClass;
+import com.linecorp.armeria.common.stream.DefaultStreamMessage;
+import com.linecorp.armeria.common.stream.StreamMessage;
+import com.linecorp.armeria.internal.thrift.TByteBufTransport;
+import com.linecorp.armeria.internal.thrift.ThriftElementCodec;
+import com.linecorp.armeria.internal.thrift.ThriftFunction;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.util.ReferenceCountUtil;
+
+/**
+ * Decodes a Thrift reply whose result is a {@code list} or a {@code set} as the {@link HttpData} of the
+ * response arrives, and publishes each element into a {@link StreamMessage} as soon as it is decoded.
+ * The {@link DefaultRpcResponse} of the call is completed with the {@link StreamMessage} once the beginning
+ * of the result has been decoded. The next {@link HttpData} is requested only when the elements decoded so
+ * far have been consumed, so that the memory footprint does not grow with the number of the elements.
+ *
+ * <p>An element is decoded from the received bytes optimistically. If the bytes end in the middle of the
+ * element, the decoding is retried from the beginning of the element once twice as many bytes have
+ * arrived, or when the response ends. Doubling the bytes between the attempts keeps the total cost of
+ * decoding a large element linear in its size, even if it arrives in many small chunks. This works only
+ * with the protocols that do not keep any state between the elements, i.e. TBinary and TCompact.
+ *
+ * <p>All signals are expected to be received from the {@link ClientRequestContext#eventLoop()}, which is
+ * also where the decoder is cleaned up when the stream of the elements is aborted.
+ *
+ * <p>If the reply is not a successful result, e.g. an exception, the whole reply is received and decoded
+ * by {@link THttpClientDelegate} as usual.
+ */
+final class ThriftResultDecoder implements Subscriber<HttpObject> {
+
+    private enum State {
+        HTTP_HEADERS,
+        RESULT_BEGIN,
+        ELEMENTS,
+        RESULT_END,
+        AGGREGATING,
+        DONE
+    }
+
+    private final ClientRequestContext ctx;
+    private final THttpClientDelegate delegate;
+    private final ThriftFunction func;
+    private final ThriftElementCodec codec;
+    private final DefaultRpcResponse reply;
+    private final DefaultStreamMessage<Object> elements = new DefaultStreamMessage<>();
+
+    /**
+     * The received bytes which have not been decoded yet. It is a direct buffer so that a decoded
+     * {@code binary} field never shares its memory, which is reused as more bytes arrive.
+     */
+    private final ByteBuf buf = ByteBufAllocator.DEFAULT.directBuffer();
+    private final TProtocol proto;
+    private Subscription subscription;
+    private State state = State.HTTP_HEADERS;
+    private int numRemainingElements;
+    /**
+     * The number of readable bytes required before the next decoding attempt, which is twice the number of
+     * readable bytes of the previous attempt that ran out of bytes, or {@code 0}.
+     */
+    private int minReadableBytes;
+
+    ThriftResultDecoder(ClientRequestContext ctx, THttpClientDelegate delegate,
+                        TProtocolFactory protocolFactory, ThriftFunction func, DefaultRpcResponse reply) {
+        this.ctx = ctx;
+        this.delegate = delegate;
+        this.func = func;
+        codec = func.successElementCodec();
+        assert codec != null;
+        this.reply = reply;
+        proto = protocolFactory.getProtocol(new TByteBufTransport(buf));
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(HttpObject obj) {
+        if (state == State.DONE) {
+            ReferenceCountUtil.safeRelease(obj);
+            return;
+        }
+
+        try {
+            if (obj instanceof HttpHeaders) {
+                onHeaders((HttpHeaders) obj);
+            } else {
+                final HttpData data = (HttpData) obj;
+                if (state == State.ELEMENTS || state == State.RESULT_END) {
+                    // The decoded elements are never decoded again.
+                    buf.discardSomeReadBytes();
+                }
+                try {
+                    buf.writeBytes(data.array(), data.offset(), data.length());
+                } finally {
+                    ReferenceCountUtil.safeRelease(data);
+                }
+                decode();
+            }
+        } catch (Throwable cause) {
+            subscription.cancel();
+            fail(cause);
+            return;
+        }
+
+        if (state == State.DONE) {
+            return;
+        }
+
+        if (state == State.ELEMENTS) {
+            // Receive more only after the decoded elements are consumed.
+            elements.onDemand(() -> subscription.request(1))
+                    .exceptionally(unused -> {
+                        // The stream of the elements has been aborted, possibly from another thread.
+                        ctx.eventLoop().execute(() -> {
+                            subscription.cancel();
+                            cleanup();
+                        });
+                        return null;
+                    });
+        } else {
+            subscription.request(1);
+        }
+    }
+
+    private void onHeaders(HttpHeaders headers) {
+        if (state != State.HTTP_HEADERS) {
+            // Trailing headers
+            return;
+        }
+
+        final HttpStatus status = headers.status();
+        if (status == null) {
+            throw new InvalidResponseException("no status: " + headers);
+        }
+        if (status.codeClass() == HttpStatusClass.INFORMATIONAL) {
+            return;
+        }
+        if (status.code() != HttpStatus.OK.code()) {
+            throw new InvalidResponseException(status.toString());
+        }
+        state = State.RESULT_BEGIN;
+    }
+
+    private void decode() throws TException {
+        for (;;) {
+            if (buf.readableBytes() < minReadableBytes) {
+                return;
+            }
+
+            final int readerIndex = buf.readerIndex();
+            try {
+                switch (state) {
+                    case RESULT_BEGIN:
+                        decodeResultBegin();
+                        break;
+                    case ELEMENTS:
+                        if (!decodeElement()) {
+                            return;
+                        }
+                        break;
+                    case RESULT_END:
+                        decodeResultEnd();
+                        break;
+                    default:
+                        return;
+                }
+            } catch (TTransportException e) {
+                // Not enough bytes; try again when twice as many bytes have arrived.
+                buf.readerIndex(readerIndex);
+                proto.reset();
+                minReadableBytes = (int) Math.min(Integer.MAX_VALUE, buf.readableBytes() * 2L);
+                return;
+            }
+            minReadableBytes = 0;
+        }
+    }
+
+    private void decodeResultBegin() throws TException {
+        final TMessage header = proto.readMessageBegin();
+        if (header.type != TMessageType.REPLY || !func.name().equals(header.name)) {
+            aggregate();
+            return;
+        }
+
+        proto.readStructBegin();
+        final TField field = proto.readFieldBegin();
+        final TFieldIdEnum successField = func.successField();
+        if (field.id != successField.getThriftFieldId() || field.type != codec.containerType()) {
+            // An exception or a missing result
+            aggregate();
+            return;
+        }
+
+        numRemainingElements = codec.readBegin(proto);
+        state = State.ELEMENTS;
+        // Discard the beginning of the result because it is never decoded again.
+        proto.reset();
+        buf.discardReadBytes();
+        reply.complete(elements);
+    }
+
+    private void aggregate() {
+        // Decode the whole reply later from the beginning.
+        buf.readerIndex(0);
+        state = State.AGGREGATING;
+    }
+
+    private boolean decodeElement() throws TException {
+        if (numRemainingElements == 0) {
+            state = State.RESULT_END;
+            return true;
+        }
+
+        final Object element = codec.read(proto);
+        numRemainingElements--;
+        if (!elements.write(element)) {
+            // The stream of the elements has been aborted.
+            subscription.cancel();
+            cleanup();
+            return false;
+        }
+        return true;
+    }
+
+    private void decodeResultEnd() throws TException {
+        codec.readEnd(proto);
+        proto.readFieldEnd();
+        final TField field = proto.readFieldBegin();
+        if (field.type != TType.STOP) {
+            throw new TProtocolException(TProtocolException.INVALID_DATA,
+                                         "unexpected field after the result: " + field);
+        }
+
+        // The rest of the reply, i.e. the end of the struct and the message, is not encoded in TBinary and
+        // TCompact, and is not decoded because TCompactProtocol tracks the struct depth.
+        ctx.logBuilder().responseContent(null);
+        elements.close();
+        cleanup();
+
+        // Drain the rest of the response, such as the trailing headers.
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onError(Throwable cause) {
+        fail(cause);
+    }
+
+    @Override
+    public void onComplete() {
+        if (state == State.RESULT_BEGIN || state == State.ELEMENTS || state == State.RESULT_END) {
+            // Decode what has not been retried yet because fewer than 'minReadableBytes' have arrived.
+            minReadableBytes = 0;
+            try {
+                decode();
+            } catch (Throwable cause) {
+                fail(cause);
+                return;
+            }
+        }
+
+        switch (state) {
+            case DONE:
+                return;
+            case AGGREGATING:
+                try {
+                    final byte[] content = new byte[buf.readableBytes()];
+                    buf.readBytes(content);
+                    reply.complete(delegate.decodeResponse(ctx, func, HttpData.of(content)));
+                } catch (Throwable cause) {
+                    THttpClientDelegate.completeExceptionally(ctx, reply, func, cause);
+                } finally {
+                    cleanup();
+                }
+                return;
+            default:
+                fail(new TTransportException(TTransportException.END_OF_FILE,
+                                             "the reply ended unexpectedly"));
+        }
+    }
+
+    private void fail(Throwable cause) {
+        if (state == State.DONE) {
+            return;
+        }
+
+        if (state == State.ELEMENTS || state == State.RESULT_END) {
+            ctx.logBuilder().responseContent(null);
+            elements.close(cause);
+        } else {
+            THttpClientDelegate.completeExceptionally(ctx, reply, func, cause);
+        }
+        cleanup();
+    }
+
+    private void cleanup() {
+        if (state != State.DONE) {
+            state = State.DONE;
+            buf.release();
+        }
+    }
+}
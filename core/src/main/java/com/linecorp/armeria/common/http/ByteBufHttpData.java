@@ -0,0 +1,205 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.http;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.InputStream;
+
+import com.google.common.base.MoreObjects;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufHolder;
+import io.netty.buffer.ByteBufUtil;
+
+/**
+ * An {@link HttpData} that wraps a Netty {@link ByteBuf} without copying its content. This is usually
+ * produced by the session layer when pooled {@link HttpData} is enabled, so that the content of an inbound
+ * frame can be relayed to an outbound connection without an intermediate {@code byte[]}.
+ *
+ * <p>Unlike {@link DefaultHttpData}, this object is reference-counted. The party that consumes it last,
+ * such as the session layer that writes it to a connection or {@link HttpRequest#aggregate()}, is
+ * responsible for calling {@link #release()}. A {@link org.reactivestreams.Subscriber} that consumes
+ * an {@link HttpRequest} or an {@link HttpResponse} directly must release every {@link ByteBufHttpData}
+ * it receives.
+ *
+ * <p>{@link #array()} does not copy the content if the underlying {@link ByteBuf} is backed by a heap array.
+ * Otherwise, the content is copied into a new array when {@link #array()} is invoked for the first time.
+ *
+ * @see com.linecorp.armeria.server.ServerBuilder#usePooledHttpData(boolean)
+ * @see com.linecorp.armeria.client.SessionOption#USE_POOLED_HTTP_DATA
+ */
+public final class ByteBufHttpData implements HttpData, ByteBufHolder {
+
+    private final ByteBuf buf;
+    private final int length;
+    private final boolean endOfStream;
+    private byte[] array;
+
+    /**
+     * Creates a new instance. The readable bytes of the specified {@link ByteBuf} become the content of this
+     * data. This instance takes over the ownership of the {@link ByteBuf}; do not release it after calling
+     * this constructor.
+     */
+    public ByteBufHttpData(ByteBuf buf, boolean endOfStream) {
+        this.buf = requireNonNull(buf, "buf");
+        length = buf.readableBytes();
+        this.endOfStream = endOfStream;
+    }
+
+    @Override
+    public byte[] array() {
+        if (buf.hasArray()) {
+            return buf.array();
+        }
+
+        byte[] array = this.array;
+        if (array == null) {
+            this.array = array = ByteBufUtil.getBytes(buf, buf.readerIndex(), length);
+        }
+        return array;
+    }
+
+    @Override
+    public int offset() {
+        return buf.hasArray() ? buf.arrayOffset() + buf.readerIndex() : 0;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public InputStream toInputStream() {
+        return new ByteBufInputStream(buf.duplicate(), false);
+    }
+
+    @Override
+    public boolean isEndOfStream() {
+        return endOfStream;
+    }
+
+    @Override
+    public ByteBuf content() {
+        return buf;
+    }
+
+    @Override
+    public ByteBufHttpData copy() {
+        return replace(buf.copy());
+    }
+
+    @Override
+    public ByteBufHttpData duplicate() {
+        return replace(buf.duplicate());
+    }
+
+    @Override
+    public ByteBufHttpData retainedDuplicate() {
+        return replace(buf.retainedDuplicate());
+    }
+
+    @Override
+    public ByteBufHttpData replace(ByteBuf content) {
+        return new ByteBufHttpData(content, endOfStream);
+    }
+
+    @Override
+    public int refCnt() {
+        return buf.refCnt();
+    }
+
+    @Override
+    public ByteBufHttpData retain() {
+        buf.retain();
+        return this;
+    }
+
+    @Override
+    public ByteBufHttpData retain(int increment) {
+        buf.retain(increment);
+        return this;
+    }
+
+    @Override
+    public ByteBufHttpData touch() {
+        buf.touch();
+        return this;
+    }
+
+    @Override
+    public ByteBufHttpData touch(Object hint) {
+        buf.touch(hint);
+        return this;
+    }
+
+    @Override
+    public boolean release() {
+        return buf.release();
+    }
+
+    @Override
+    public boolean release(int decrement) {
+        return buf.release(decrement);
+    }
+
+    @Override
+    public int hashCode() {
+        // Use the same algorithm with DefaultHttpData so that two equal HttpData have the same hash code.
+        final int end = buf.readerIndex() + length;
+        int hash = 1;
+        for (int i = buf.readerIndex(); i < end; i++) {
+            hash = hash * 31 + buf.getByte(i);
+        }
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof HttpData)) {
+            return false;
+        }
+
+        if (this == obj) {
+            return true;
+        }
+
+        final HttpData that = (HttpData) obj;
+        if (length() != that.length()) {
+            return false;
+        }
+
+        final byte[] thatArray = that.array();
+        final int endIndex = buf.readerIndex() + length;
+        for (int i = buf.readerIndex(), j = that.offset(); i < endIndex; i++, j++) {
+            if (buf.getByte(i) != thatArray[j]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("length", length)
+                          .add("buf", buf).toString();
+    }
+}
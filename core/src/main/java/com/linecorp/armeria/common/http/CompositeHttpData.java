@@ -0,0 +1,195 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.http;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.Iterator;
+import java.util.List;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * An {@link HttpData} that presents a sequence of {@link HttpData} components as one logical content without
+ * copying them, which is how {@link AggregatedHttpMessage#content()} holds the content received in more than
+ * one chunk. Prefer {@link #components()}, {@link #toByteBuf()} or {@link #toInputStream()} to read it;
+ * {@link #array()} merges the components into a new array when it is invoked for the first time.
+ *
+ * <p>The components must not be reference-counted, e.g. {@link ByteBufHttpData}, because this data does not
+ * take over their ownership.
+ */
+public final class CompositeHttpData implements HttpData {
+
+    private final List<HttpData> components;
+    private final int length;
+    private final boolean endOfStream;
+
+    /**
+     * The merged components, which is volatile because this data may be read by more than one thread, e.g. an
+     * event loop and a blocking task executor. Racing threads may merge the components more than once, but
+     * they always see a fully populated array.
+     */
+    private volatile byte[] array;
+
+    /**
+     * Creates a new instance with the specified components.
+     *
+     * @throws IllegalArgumentException if any of the components is reference-counted
+     *                                  or the total length is greater than {@link Integer#MAX_VALUE}
+     */
+    public CompositeHttpData(Iterable<? extends HttpData> components, boolean endOfStream) {
+        this.components = ImmutableList.copyOf(requireNonNull(components, "components"));
+
+        long length = 0;
+        for (HttpData c : this.components) {
+            if (c instanceof ByteBufHttpData) {
+                throw new IllegalArgumentException(
+                        "components: " + components + " (expected: no " +
+                        ByteBufHttpData.class.getSimpleName() + ')');
+            }
+            length += c.length();
+        }
+
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "components: " + components + " (expected: total length <= " + Integer.MAX_VALUE + ')');
+        }
+
+        this.length = (int) length;
+        this.endOfStream = endOfStream;
+    }
+
+    /**
+     * Returns the {@link HttpData} components of this data.
+     */
+    public List<HttpData> components() {
+        return components;
+    }
+
+    /**
+     * Returns a new unpooled {@link ByteBuf} that reads the components of this data without copying them.
+     * The returned {@link ByteBuf} does not have to be released.
+     */
+    public ByteBuf toByteBuf() {
+        final int numComponents = components.size();
+        if (numComponents == 0) {
+            return Unpooled.EMPTY_BUFFER;
+        }
+
+        final ByteBuf[] bufs = new ByteBuf[numComponents];
+        for (int i = 0; i < numComponents; i++) {
+            final HttpData c = components.get(i);
+            bufs[i] = Unpooled.wrappedBuffer(c.array(), c.offset(), c.length());
+        }
+        return Unpooled.wrappedBuffer(numComponents, bufs);
+    }
+
+    @Override
+    public InputStream toInputStream() {
+        final Iterator<InputStream> streams = Iterators.transform(components.iterator(),
+                                                                  HttpData::toInputStream);
+        return new SequenceInputStream(Iterators.asEnumeration(streams));
+    }
+
+    @Override
+    public byte[] array() {
+        byte[] array = this.array;
+        if (array == null) {
+            array = new byte[length];
+            int offset = 0;
+            for (HttpData c : components) {
+                System.arraycopy(c.array(), c.offset(), array, offset, c.length());
+                offset += c.length();
+            }
+            this.array = array;
+        }
+        return array;
+    }
+
+    @Override
+    public int offset() {
+        return 0;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public boolean isEndOfStream() {
+        return endOfStream;
+    }
+
+    @Override
+    public int hashCode() {
+        // Use the same algorithm with DefaultHttpData so that two equal HttpData have the same hash code.
+        int hash = 1;
+        for (HttpData c : components) {
+            final byte[] data = c.array();
+            final int end = c.offset() + c.length();
+            for (int i = c.offset(); i < end; i++) {
+                hash = hash * 31 + data[i];
+            }
+        }
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof HttpData)) {
+            return false;
+        }
+
+        if (this == obj) {
+            return true;
+        }
+
+        final HttpData that = (HttpData) obj;
+        if (length() != that.length()) {
+            return false;
+        }
+
+        final byte[] thatArray = that.array();
+        int j = that.offset();
+        for (HttpData c : components) {
+            final byte[] data = c.array();
+            final int end = c.offset() + c.length();
+            for (int i = c.offset(); i < end; i++, j++) {
+                if (data[i] != thatArray[j]) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("length", length)
+                          .add("components", components.size()).toString();
+    }
+}
@@ -18,6 +18,8 @@ package com.linecorp.armeria.common.http;
 
 import static java.util.Objects.requireNonNull;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.Formatter;
@@ -197,6 +199,13 @@ public interface HttpData extends HttpObject {
         return length() == 0;
     }
 
+    /**
+     * Returns a new {@link InputStream} that reads this data without copying it.
+     */
+    default InputStream toInputStream() {
+        return new ByteArrayInputStream(array(), offset(), length());
+    }
+
     /**
      * Decodes this data into a {@link String}.
      *
@@ -23,6 +23,9 @@ import java.util.concurrent.CompletableFuture;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.util.ReferenceCountUtil;
+
 abstract class HttpMessageAggregator implements Subscriber<HttpObject> {
 
     private final CompletableFuture<AggregatedHttpMessage> future;
@@ -48,37 +51,60 @@ abstract class HttpMessageAggregator implements Subscriber<HttpObject> {
         final int dataLength = data.length();
         if (dataLength > 0) {
             if (contentLength > Integer.MAX_VALUE - dataLength) {
+                ReferenceCountUtil.safeRelease(data);
                 clear();
                 subscription.cancel();
                 throw new IllegalStateException("content length greater than Integer.MAX_VALUE");
             }
 
-            contentList.add(data);
+            if (data instanceof ByteBufHttpData) {
+                // Copy the pooled buffer into an array and release it as early as possible, so that
+                // the aggregated content does not have to be released by its consumer.
+                final ByteBuf buf = ((ByteBufHttpData) data).content();
+                final byte[] array = new byte[dataLength];
+                try {
+                    buf.getBytes(buf.readerIndex(), array);
+                } finally {
+                    ReferenceCountUtil.safeRelease(data);
+                }
+                contentList.add(HttpData.of(array));
+            } else if (data instanceof CompositeHttpData) {
+                contentList.addAll(((CompositeHttpData) data).components());
+            } else {
+                contentList.add(data);
+            }
             contentLength += dataLength;
+        } else {
+            ReferenceCountUtil.safeRelease(data);
         }
     }
 
     protected final void clear() {
         doClear();
+        contentList.forEach(ReferenceCountUtil::safeRelease);
         contentList.clear();
+        contentLength = 0;
     }
 
     protected void doClear() {}
 
     protected final HttpData finish() {
         final HttpData content;
-        if (contentLength == 0) {
-            content = HttpData.EMPTY_DATA;
-        } else {
-            final byte[] merged = new byte[contentLength];
-            for (int i = 0, offset = 0; i < contentList.size(); i++) {
-                final HttpData data = contentList.set(i, null);
-                final int dataLength = data.length();
-                System.arraycopy(data.array(), data.offset(), merged, offset, dataLength);
-                offset += dataLength;
-            }
-            content = HttpData.of(merged);
+        switch (contentList.size()) {
+            case 0:
+                content = HttpData.EMPTY_DATA;
+                break;
+            case 1:
+                final HttpData data = contentList.get(0);
+                content = data.isEndOfStream() ? HttpData.of(data.array(), data.offset(), data.length())
+                                               : data;
+                break;
+            default:
+                // Present the chunks as one content rather than merging them into a new array.
+                content = new CompositeHttpData(contentList, false);
         }
+        contentList.clear();
+        contentLength = 0;
         return content;
     }
 }
@@ -29,11 +29,9 @@ import static com.linecorp.armeria.common.logging.RequestLogAvailability.SCHEME;
 import static com.linecorp.armeria.common.logging.RequestLogAvailability.STATUS_CODE;
 import static java.util.Objects.requireNonNull;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import com.linecorp.armeria.common.RequestContext;
 import com.linecorp.armeria.common.Scheme;
@@ -51,6 +49,11 @@ public class DefaultRequestLog implements RequestLog, RequestLogBuilder {
     private static final AtomicIntegerFieldUpdater<DefaultRequestLog> flagsUpdater =
             AtomicIntegerFieldUpdater.newUpdater(DefaultRequestLog.class, "flags");
 
+    private static final AtomicReferenceFieldUpdater<DefaultRequestLog, ListenerEntry[]> listenersUpdater =
+            AtomicReferenceFieldUpdater.newUpdater(DefaultRequestLog.class, ListenerEntry[].class, "listeners");
+
+    private static final ListenerEntry[] EMPTY_LISTENERS = new ListenerEntry[0];
+
     private static final int FLAGS_REQUEST_END_WITHOUT_CONTENT =
             REQUEST_END.setterFlags() & ~REQUEST_CONTENT.setterFlags();
     private static final int FLAGS_RESPONSE_END_WITHOUT_CONTENT =
@@ -65,7 +68,12 @@ public class DefaultRequestLog implements RequestLog, RequestLogBuilder {
      */
     @SuppressWarnings("unused")
     private volatile int flags;
-    private final List<ListenerEntry> listeners = new ArrayList<>(4);
+
+    /**
+     * The listeners in the order of registration, which is replaced by {@link #listenersUpdater} with a new
+     * array when a listener is added. A listener is notified by the thread which claims its entry first.
+     */
+    private volatile ListenerEntry[] listeners = EMPTY_LISTENERS;
     private volatile boolean requestContentDeferred;
     private volatile boolean responseContentDeferred;
 
@@ -172,12 +180,46 @@ public class DefaultRequestLog implements RequestLog, RequestLogBuilder {
         }
 
         final ListenerEntry e = new ListenerEntry(listener, interestedFlags);
-        final RequestLogListener[] satisfiedListeners;
-        synchronized (listeners) {
-            listeners.add(e);
-            satisfiedListeners = removeSatisfiedListeners();
+        for (;;) {
+            final ListenerEntry[] oldListeners = listeners;
+            final ListenerEntry[] newListeners = appendListener(oldListeners, e);
+            if (listenersUpdater.compareAndSet(this, oldListeners, newListeners)) {
+                break;
+            }
+        }
+
+        // The availability might have been updated before the new entry became visible to
+        // updateAvailability(), in which case the entry has to be notified here.
+        if (isAvailable(interestedFlags) && e.claim()) {
+            RequestLogListenerInvoker.invokeOnRequestLog(listener, this);
+        }
+    }
+
+    /**
+     * Returns a copy of the specified array with the specified entry appended, dropping the entries which
+     * have been notified already.
+     */
+    private static ListenerEntry[] appendListener(ListenerEntry[] listeners, ListenerEntry e) {
+        int numPending = 0;
+        for (ListenerEntry l : listeners) {
+            if (!l.isNotified()) {
+                numPending++;
+            }
+        }
+
+        final ListenerEntry[] newListeners = new ListenerEntry[numPending + 1];
+        if (numPending == listeners.length) {
+            System.arraycopy(listeners, 0, newListeners, 0, numPending);
+        } else {
+            int i = 0;
+            for (ListenerEntry l : listeners) {
+                if (!l.isNotified()) {
+                    newListeners[i++] = l;
+                }
+            }
         }
-        notifyListeners(satisfiedListeners);
+        newListeners[numPending] = e;
+        return newListeners;
     }
 
     private static int getterFlags(RequestLogAvailability[] availabilities) {
@@ -566,53 +608,19 @@ public class DefaultRequestLog implements RequestLog, RequestLogBuilder {
             final int newAvailability = oldAvailability | flags;
             if (flagsUpdater.compareAndSet(this, oldAvailability, newAvailability)) {
                 if (oldAvailability != newAvailability) {
-                    final RequestLogListener[] satisfiedListeners;
-                    synchronized (listeners) {
-                        satisfiedListeners = removeSatisfiedListeners();
-                    }
-                    notifyListeners(satisfiedListeners);
+                    notifyListeners(newAvailability);
                 }
                 break;
             }
         }
     }
 
-    private RequestLogListener[] removeSatisfiedListeners() {
-        if (listeners.isEmpty()) {
-            return null;
-        }
-
-        final int flags = this.flags;
-        final int maxNumListeners = listeners.size();
-        final Iterator<ListenerEntry> i = listeners.iterator();
-        RequestLogListener[] satisfied = null;
-        int numSatisfied = 0;
-
-        do {
-            final ListenerEntry e = i.next();
+    private void notifyListeners(int flags) {
+        for (ListenerEntry e : listeners) {
             final int interestedFlags = e.interestedFlags;
-            if ((flags & interestedFlags) == interestedFlags) {
-                i.remove();
-                if (satisfied == null) {
-                    satisfied = new RequestLogListener[maxNumListeners];
-                }
-                satisfied[numSatisfied++] = e.listener;
-            }
-        } while (i.hasNext());
-
-        return satisfied;
-    }
-
-    private void notifyListeners(RequestLogListener[] listeners) {
-        if (listeners == null) {
-            return;
-        }
-
-        for (RequestLogListener l : listeners) {
-            if (l == null) {
-                break;
+            if ((flags & interestedFlags) == interestedFlags && e.claim()) {
+                RequestLogListenerInvoker.invokeOnRequestLog(e.listener, this);
             }
-            RequestLogListenerInvoker.invokeOnRequestLog(l, this);
         }
     }
 
@@ -729,12 +737,33 @@ public class DefaultRequestLog implements RequestLog, RequestLogBuilder {
     }
 
     private static final class ListenerEntry {
+
+        private static final AtomicIntegerFieldUpdater<ListenerEntry> notifiedUpdater =
+                AtomicIntegerFieldUpdater.newUpdater(ListenerEntry.class, "notified");
+
         final RequestLogListener listener;
         final int interestedFlags;
 
+        /**
+         * Updated by {@link #notifiedUpdater}.
+         */
+        @SuppressWarnings("unused")
+        private volatile int notified;
+
         ListenerEntry(RequestLogListener listener, int interestedFlags) {
             this.listener = listener;
             this.interestedFlags = interestedFlags;
         }
+
+        boolean isNotified() {
+            return notified != 0;
+        }
+
+        /**
+         * Returns {@code true} if the caller is the first one who is going to notify the listener.
+         */
+        boolean claim() {
+            return notified == 0 && notifiedUpdater.compareAndSet(this, 0, 1);
+        }
     }
 }
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.metric;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link Meter} which counts the number of events or the sum of the values which only increases,
+ * such as the number of requests and the number of bytes sent.
+ */
+public final class Counter implements Meter {
+
+    private final MeterId id;
+    private final LongAdder value = new LongAdder();
+
+    Counter(MeterId id) {
+        this.id = requireNonNull(id, "id");
+    }
+
+    @Override
+    public MeterId id() {
+        return id;
+    }
+
+    /**
+     * Increases the count by one.
+     */
+    public void increment() {
+        value.increment();
+    }
+
+    /**
+     * Increases the count by the specified amount.
+     */
+    public void add(long amount) {
+        value.add(amount);
+    }
+
+    /**
+     * Returns the current count.
+     */
+    public long count() {
+        return value.sum();
+    }
+
+    @Override
+    public String toString() {
+        return id + "=" + count();
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.metric;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.function.Function;
+
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricRegistry;
+
+/**
+ * Exposes the {@link Meter}s in a {@link MeterRegistry} to a Dropwizard {@link MetricRegistry}, so that
+ * they can be reported by the existing Dropwizard reporters.
+ *
+ * <p>A {@link Counter} and a {@link Gauge} are registered as a Dropwizard {@link com.codahale.metrics.Gauge}.
+ * A {@link Histogram} is registered as a set of Dropwizard {@link com.codahale.metrics.Gauge}s whose names
+ * end with {@code ".count"}, {@code ".mean"}, {@code ".p50"}, {@code ".p75"}, {@code ".p95"},
+ * {@code ".p99"}, {@code ".p999"} and {@code ".max"}.
+ *
+ * <p>Example:
+ * <pre>{@code
+ * MeterRegistry meterRegistry = new MeterRegistry();
+ * MetricRegistry metricRegistry = new MetricRegistry();
+ * DropwizardMeterRegistryAdapter.bind(meterRegistry, metricRegistry);
+ * }</pre>
+ */
+public final class DropwizardMeterRegistryAdapter {
+
+    /**
+     * Registers all current and future {@link Meter}s in the specified {@link MeterRegistry} to
+     * the specified {@link MetricRegistry}. The name of a Dropwizard metric is the name of the
+     * {@link MeterId} followed by its tag values, e.g. {@code "armeria.server.requests./hello.GET"}.
+     */
+    public static void bind(MeterRegistry meterRegistry, MetricRegistry metricRegistry) {
+        bind(meterRegistry, metricRegistry, DropwizardMeterRegistryAdapter::defaultMetricName);
+    }
+
+    /**
+     * Registers all current and future {@link Meter}s in the specified {@link MeterRegistry} to
+     * the specified {@link MetricRegistry}.
+     *
+     * @param metricNameFunc the function that transforms a {@link MeterId} into a Dropwizard metric name
+     */
+    public static void bind(MeterRegistry meterRegistry, MetricRegistry metricRegistry,
+                            Function<? super MeterId, String> metricNameFunc) {
+        requireNonNull(meterRegistry, "meterRegistry");
+        requireNonNull(metricRegistry, "metricRegistry");
+        requireNonNull(metricNameFunc, "metricNameFunc");
+
+        meterRegistry.addListener(meter -> register(metricRegistry, metricNameFunc.apply(meter.id()), meter));
+    }
+
+    private static String defaultMetricName(MeterId id) {
+        final int numTags = id.numTags();
+        final String[] tagValues = new String[numTags];
+        for (int i = 0; i < numTags; i++) {
+            tagValues[i] = id.tagValue(i);
+        }
+        return MetricRegistry.name(id.name(), tagValues);
+    }
+
+    private static void register(MetricRegistry registry, String name, Meter meter) {
+        if (meter instanceof Counter) {
+            final Counter counter = (Counter) meter;
+            register(registry, name, (com.codahale.metrics.Gauge<Long>) counter::count);
+        } else if (meter instanceof Gauge) {
+            final Gauge gauge = (Gauge) meter;
+            register(registry, name, (com.codahale.metrics.Gauge<Long>) gauge::value);
+        } else if (meter instanceof Histogram) {
+            final Histogram histogram = (Histogram) meter;
+            register(registry, MetricRegistry.name(name, "count"),
+                     (com.codahale.metrics.Gauge<Long>) () -> histogram.snapshot().count());
+            register(registry, MetricRegistry.name(name, "mean"),
+                     (com.codahale.metrics.Gauge<Double>) () -> histogram.snapshot().mean());
+            registerQuantile(registry, name, "p50", histogram, 0.5);
+            registerQuantile(registry, name, "p75", histogram, 0.75);
+            registerQuantile(registry, name, "p95", histogram, 0.95);
+            registerQuantile(registry, name, "p99", histogram, 0.99);
+            registerQuantile(registry, name, "p999", histogram, 0.999);
+            register(registry, MetricRegistry.name(name, "max"),
+                     (com.codahale.metrics.Gauge<Long>) () -> histogram.snapshot().max());
+        }
+    }
+
+    private static void registerQuantile(MetricRegistry registry, String name, String suffix,
+                                         Histogram histogram, double quantile) {
+        register(registry, MetricRegistry.name(name, suffix),
+                 (com.codahale.metrics.Gauge<Long>) () -> histogram.snapshot().valueAtQuantile(quantile));
+    }
+
+    private static void register(MetricRegistry registry, String name, Metric metric) {
+        if (registry.getMetrics().containsKey(name)) {
+            // Notified of the same Meter again.
+            return;
+        }
+
+        try {
+            registry.register(name, metric);
+        } catch (IllegalArgumentException ignored) {
+            // Registered concurrently.
+        }
+    }
+
+    private DropwizardMeterRegistryAdapter() {}
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.metric;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link Meter} whose value can increase and decrease, such as the number of active requests.
+ */
+public final class Gauge implements Meter {
+
+    private final MeterId id;
+    private final LongAdder value = new LongAdder();
+
+    Gauge(MeterId id) {
+        this.id = requireNonNull(id, "id");
+    }
+
+    @Override
+    public MeterId id() {
+        return id;
+    }
+
+    /**
+     * Increases the value by one.
+     */
+    public void increment() {
+        value.increment();
+    }
+
+    /**
+     * Decreases the value by one.
+     */
+    public void decrement() {
+        value.decrement();
+    }
+
+    /**
+     * Adds the specified amount to the value.
+     */
+    public void add(long amount) {
+        value.add(amount);
+    }
+
+    /**
+     * Returns the current value.
+     */
+    public long value() {
+        return value.sum();
+    }
+
+    @Override
+    public String toString() {
+        return id + "=" + value();
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.metric;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link Meter} which records the distribution of non-negative values, such as the latency of requests
+ * in nanoseconds.
+ *
+ * <p>Unlike a Dropwizard {@link com.codahale.metrics.Histogram} backed by a sampling reservoir, this
+ * histogram records every value into a fixed set of log-linear buckets in the manner of
+ * <a href="http://hdrhistogram.org/">HdrHistogram</a>, which requires no lock and no allocation. A value
+ * falls into one of the 32 linear sub-buckets of its power-of-two range, so the values reported by
+ * a {@link HistogramSnapshot} are within about 1.6% of the recorded values. Values are accumulated
+ * since the creation of the histogram; use a monitoring system which calculates the rate of change,
+ * such as <a href="https://prometheus.io/">Prometheus</a>, to get the distribution of a recent period.
+ */
+public final class Histogram implements Meter {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_MASK = SUB_BUCKET_COUNT - 1;
+
+    /**
+     * The number of buckets required to cover all non-negative {@code long} values, i.e. the linear
+     * buckets for {@code [0, SUB_BUCKET_COUNT)} and {@code SUB_BUCKET_COUNT} sub-buckets for each
+     * power-of-two range above them.
+     */
+    static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final MeterId id;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    Histogram(MeterId id) {
+        this.id = requireNonNull(id, "id");
+    }
+
+    @Override
+    public MeterId id() {
+        return id;
+    }
+
+    /**
+     * Records the specified value. A negative value is recorded as {@code 0}.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+
+        buckets.getAndIncrement(bucketIndex(value));
+        sum.add(value);
+
+        for (;;) {
+            final long currentMax = max.get();
+            if (value <= currentMax || max.compareAndSet(currentMax, value)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Returns the snapshot of the values recorded so far.
+     */
+    public HistogramSnapshot snapshot() {
+        final long[] counts = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            final long c = buckets.get(i);
+            counts[i] = c;
+            count += c;
+        }
+        return new HistogramSnapshot(counts, count, sum.sum(), max.get());
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+
+        // 'shift' is the number of the low bits which are not distinguished in the power-of-two range.
+        final int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        final int subBucket = (int) (value >>> shift) & SUB_BUCKET_MASK;
+        return ((shift + 1) << SUB_BUCKET_BITS) + subBucket;
+    }
+
+    static long bucketLowerBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+
+        final int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        return (long) (SUB_BUCKET_COUNT + (index & SUB_BUCKET_MASK)) << shift;
+    }
+
+    static long bucketMidpoint(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+
+        final int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        return bucketLowerBound(index) + ((1L << shift) >>> 1);
+    }
+
+    @Override
+    public String toString() {
+        return id + "=" + snapshot();
+    }
+}
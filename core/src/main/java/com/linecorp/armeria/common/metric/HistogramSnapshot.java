@@ -0,0 +1,102 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.metric;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * An immutable snapshot of the values recorded by a {@link Histogram}.
+ */
+public final class HistogramSnapshot {
+
+    private final long[] counts;
+    private final long count;
+    private final long sum;
+    private final long max;
+
+    HistogramSnapshot(long[] counts, long count, long sum, long max) {
+        this.counts = counts;
+        this.count = count;
+        this.sum = sum;
+        this.max = max;
+    }
+
+    /**
+     * Returns the number of the recorded values.
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Returns the sum of the recorded values.
+     */
+    public long sum() {
+        return sum;
+    }
+
+    /**
+     * Returns the maximum of the recorded values.
+     */
+    public long max() {
+        return max;
+    }
+
+    /**
+     * Returns the mean of the recorded values, or {@code 0} if no value has been recorded.
+     */
+    public double mean() {
+        return count != 0 ? (double) sum / count : 0;
+    }
+
+    /**
+     * Returns the value at the specified quantile, or {@code 0} if no value has been recorded.
+     *
+     * @param quantile a value between {@code 0.0} and {@code 1.0}, e.g. {@code 0.99} for
+     *                 the 99th percentile
+     */
+    public long valueAtQuantile(double quantile) {
+        checkArgument(quantile >= 0 && quantile <= 1, "quantile: %s (expected: 0.0..1.0)", quantile);
+        if (count == 0) {
+            return 0;
+        }
+
+        final long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(Histogram.bucketMidpoint(i), max);
+            }
+        }
+
+        // Reached only when the buckets were updated while the snapshot was being taken.
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("count", count)
+                          .add("mean", mean())
+                          .add("p50", valueAtQuantile(0.5))
+                          .add("p99", valueAtQuantile(0.99))
+                          .add("max", max).toString();
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.metric;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * The identifier of a {@link Meter}, which consists of a name and an ordered set of tags. A {@link MeterId}
+ * is immutable and caches its hash code, so that it can be created once and be used as a key for looking up
+ * a {@link Meter} from a {@link MeterRegistry} repeatedly.
+ *
+ * <p>Example:
+ * <pre>{@code
+ * MeterId id = MeterId.of("armeria.server.requests", "path", "/hello", "method", "GET");
+ * }</pre>
+ */
+public final class MeterId {
+
+    private static final String[] EMPTY_TAGS = new String[0];
+
+    /**
+     * Returns a new {@link MeterId} with the specified name and tags.
+     *
+     * @param name the name of the {@link Meter}
+     * @param tagKeysAndValues the tag keys and values, e.g. {@code "method", "GET", "path", "/hello"}
+     */
+    public static MeterId of(String name, String... tagKeysAndValues) {
+        requireNonNull(name, "name");
+        requireNonNull(tagKeysAndValues, "tagKeysAndValues");
+        checkArgument((tagKeysAndValues.length & 1) == 0,
+                      "tagKeysAndValues.length: %s (expected: an even number)", tagKeysAndValues.length);
+
+        if (tagKeysAndValues.length == 0) {
+            return new MeterId(name, EMPTY_TAGS);
+        }
+
+        final String[] tags = tagKeysAndValues.clone();
+        for (int i = 0; i < tags.length; i++) {
+            requireNonNull(tags[i], "tagKeysAndValues[" + i + ']');
+        }
+        sortTags(tags);
+        return new MeterId(name, tags);
+    }
+
+    /**
+     * Returns a new {@link MeterId} with the specified name and tags.
+     */
+    public static MeterId of(String name, Map<String, String> tags) {
+        requireNonNull(name, "name");
+        requireNonNull(tags, "tags");
+
+        final String[] keysAndValues = new String[tags.size() * 2];
+        int i = 0;
+        for (Entry<String, String> e : tags.entrySet()) {
+            keysAndValues[i++] = requireNonNull(e.getKey(), "tags contains a null key");
+            keysAndValues[i++] = requireNonNull(e.getValue(), "tags contains a null value");
+        }
+        sortTags(keysAndValues);
+        return new MeterId(name, keysAndValues);
+    }
+
+    /**
+     * Sorts the key-value pairs by their keys using insertion sort, which is fast enough for
+     * the small number of tags a {@link Meter} usually has.
+     */
+    private static void sortTags(String[] tags) {
+        for (int i = 2; i < tags.length; i += 2) {
+            final String key = tags[i];
+            final String value = tags[i + 1];
+            int j = i - 2;
+            for (; j >= 0; j -= 2) {
+                final int cmp = tags[j].compareTo(key);
+                checkArgument(cmp != 0, "duplicate tag key: %s", key);
+                if (cmp < 0) {
+                    break;
+                }
+                tags[j + 2] = tags[j];
+                tags[j + 3] = tags[j + 1];
+            }
+            tags[j + 2] = key;
+            tags[j + 3] = value;
+        }
+    }
+
+    private final String name;
+    private final String[] tags;
+    private final int hashCode;
+
+    private MeterId(String name, String[] tags) {
+        this.name = name;
+        this.tags = tags;
+        hashCode = name.hashCode() * 31 + Arrays.hashCode(tags);
+    }
+
+    /**
+     * Returns the name of the {@link Meter}.
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Returns the tags of the {@link Meter}, sorted by their keys.
+     */
+    public Map<String, String> tags() {
+        final ImmutableMap.Builder<String, String> builder = ImmutableMap.builder();
+        for (int i = 0; i < tags.length; i += 2) {
+            builder.put(tags[i], tags[i + 1]);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns the number of the tags.
+     */
+    public int numTags() {
+        return tags.length >>> 1;
+    }
+
+    /**
+     * Returns the key of the tag at the specified index, in the order of {@link #tags()}.
+     */
+    public String tagKey(int index) {
+        return tags[index << 1];
+    }
+
+    /**
+     * Returns the value of the tag at the specified index, in the order of {@link #tags()}.
+     */
+    public String tagValue(int index) {
+        return tags[(index << 1) + 1];
+    }
+
+    /**
+     * Returns a new {@link MeterId} whose name is the name of this {@link MeterId} followed by
+     * a dot ({@code '.'}) and the specified suffix, and whose tags are the same with this {@link MeterId}.
+     */
+    public MeterId append(String suffix) {
+        requireNonNull(suffix, "suffix");
+        return new MeterId(name + '.' + suffix, tags);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (!(obj instanceof MeterId)) {
+            return false;
+        }
+
+        final MeterId that = (MeterId) obj;
+        return hashCode == that.hashCode &&
+               name.equals(that.name) &&
+               Arrays.equals(tags, that.tags);
+    }
+
+    @Override
+    public String toString() {
+        if (tags.length == 0) {
+            return name;
+        }
+
+        final StringBuilder buf = new StringBuilder(name.length() + tags.length * 8);
+        buf.append(name).append('{');
+        for (int i = 0; i < tags.length; i += 2) {
+            if (i != 0) {
+                buf.append(',');
+            }
+            buf.append(tags[i]).append('=').append(tags[i + 1]);
+        }
+        return buf.append('}').toString();
+    }
+}
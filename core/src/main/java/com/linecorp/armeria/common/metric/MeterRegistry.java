@@ -0,0 +1,115 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.metric;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A registry of {@link Meter}s identified by {@link MeterId}s. A {@link Meter} is created when it is
+ * looked up for the first time, and is never removed.
+ *
+ * <p>Looking up a {@link Meter} involves a hash table lookup. To avoid the lookup in a hot path, look up
+ * the {@link Meter}s once and keep the references to them, as
+ * {@link com.linecorp.armeria.server.logging.MetricCollectingService} does for each request.
+ */
+public final class MeterRegistry {
+
+    private final ConcurrentMap<MeterId, Meter> meters = new ConcurrentHashMap<>();
+    private final Collection<Meter> unmodifiableMeters = Collections.unmodifiableCollection(meters.values());
+    private final List<Consumer<? super Meter>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Returns the {@link Counter} with the specified {@link MeterId}, creating it if it does not exist.
+     *
+     * @throws IllegalArgumentException if a {@link Meter} of a different type has the same {@link MeterId}
+     */
+    public Counter counter(MeterId id) {
+        return meter(id, Counter.class, Counter::new);
+    }
+
+    /**
+     * Returns the {@link Gauge} with the specified {@link MeterId}, creating it if it does not exist.
+     *
+     * @throws IllegalArgumentException if a {@link Meter} of a different type has the same {@link MeterId}
+     */
+    public Gauge gauge(MeterId id) {
+        return meter(id, Gauge.class, Gauge::new);
+    }
+
+    /**
+     * Returns the {@link Histogram} with the specified {@link MeterId}, creating it if it does not exist.
+     *
+     * @throws IllegalArgumentException if a {@link Meter} of a different type has the same {@link MeterId}
+     */
+    public Histogram histogram(MeterId id) {
+        return meter(id, Histogram.class, Histogram::new);
+    }
+
+    private <T extends Meter> T meter(MeterId id, Class<T> type, Function<MeterId, T> factory) {
+        requireNonNull(id, "id");
+        Meter meter = meters.get(id);
+        if (meter == null) {
+            final T newMeter = factory.apply(id);
+            meter = meters.putIfAbsent(id, newMeter);
+            if (meter == null) {
+                listeners.forEach(l -> l.accept(newMeter));
+                return newMeter;
+            }
+        }
+
+        if (!type.isInstance(meter)) {
+            throw new IllegalArgumentException(
+                    "id: " + id + " (expected: a " + type.getSimpleName() +
+                    ", found: a " + meter.getClass().getSimpleName() + ')');
+        }
+
+        return type.cast(meter);
+    }
+
+    /**
+     * Returns the {@link Meter}s in this registry. The returned {@link Collection} is a live view which
+     * reflects the {@link Meter}s added later.
+     */
+    public Collection<Meter> meters() {
+        return unmodifiableMeters;
+    }
+
+    /**
+     * Adds the specified listener which is notified when a new {@link Meter} is added to this registry.
+     * The listener is also notified of all the {@link Meter}s in this registry when it is added, and may
+     * be notified of the same {@link Meter} more than once when a {@link Meter} is added concurrently.
+     */
+    public void addListener(Consumer<? super Meter> listener) {
+        requireNonNull(listener, "listener");
+        listeners.add(listener);
+        meters.values().forEach(listener);
+    }
+
+    @Override
+    public String toString() {
+        return "MeterRegistry(" + meters.size() + " meters)";
+    }
+}
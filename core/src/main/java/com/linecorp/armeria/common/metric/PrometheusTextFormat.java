@@ -0,0 +1,198 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.metric;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import com.google.common.net.MediaType;
+
+/**
+ * Writes the {@link Meter}s in a {@link MeterRegistry} in the
+ * <a href="https://prometheus.io/docs/instrumenting/exposition_formats/">Prometheus text format</a>.
+ *
+ * <p>The names of the {@link Meter}s and the keys of their tags are converted into valid Prometheus
+ * metric names and label names by replacing invalid characters with underscores ({@code '_'}), e.g.
+ * {@code "armeria.server.requests"} becomes {@code "armeria_server_requests"}. A {@link Counter} and
+ * a {@link Gauge} are written as a {@code counter} and a {@code gauge} respectively. A {@link Histogram} is
+ * written as a {@code summary} with the 50th, 75th, 90th, 95th, 99th and 99.9th percentiles, followed by
+ * a {@code gauge} whose name ends with {@code "_max"}.
+ */
+public final class PrometheusTextFormat {
+
+    /**
+     * The {@link MediaType} of the Prometheus text format.
+     */
+    public static final MediaType MEDIA_TYPE =
+            MediaType.create("text", "plain").withParameter("version", "0.0.4").withCharset(UTF_8);
+
+    private static final double[] QUANTILES = { 0.5, 0.75, 0.9, 0.95, 0.99, 0.999 };
+
+    private static final Comparator<Meter> METER_ORDER =
+            Comparator.<Meter, String>comparing(m -> metricName(m.id().name()))
+                    .thenComparing(m -> m.id().toString());
+
+    /**
+     * Returns the {@link Meter}s in the specified {@link MeterRegistry} in the Prometheus text format.
+     */
+    public static String format(MeterRegistry registry) {
+        final StringBuilder buf = new StringBuilder(4096);
+        write(registry, buf);
+        return buf.toString();
+    }
+
+    /**
+     * Appends the {@link Meter}s in the specified {@link MeterRegistry} to the specified
+     * {@link StringBuilder} in the Prometheus text format.
+     */
+    public static void write(MeterRegistry registry, StringBuilder buf) {
+        requireNonNull(registry, "registry");
+        requireNonNull(buf, "buf");
+
+        final List<Meter> meters = new ArrayList<>(registry.meters());
+        meters.sort(METER_ORDER);
+
+        for (int i = 0; i < meters.size();) {
+            // Write the Meters with the same name as a single metric family.
+            final String name = metricName(meters.get(i).id().name());
+            int end = i + 1;
+            while (end < meters.size() && name.equals(metricName(meters.get(end).id().name()))) {
+                end++;
+            }
+
+            writeFamily(buf, name, meters.subList(i, end));
+            i = end;
+        }
+    }
+
+    private static void writeFamily(StringBuilder buf, String name, List<Meter> meters) {
+        final Meter first = meters.get(0);
+        if (first instanceof Histogram) {
+            buf.append("# TYPE ").append(name).append(" summary\n");
+            final List<HistogramSnapshot> snapshots = new ArrayList<>(meters.size());
+            for (Meter m : meters) {
+                if (!(m instanceof Histogram)) {
+                    continue;
+                }
+                final HistogramSnapshot snapshot = ((Histogram) m).snapshot();
+                snapshots.add(snapshot);
+                for (double q : QUANTILES) {
+                    writeSample(buf, name, m.id(), Double.toString(q), snapshot.valueAtQuantile(q));
+                }
+                writeSample(buf, name + "_sum", m.id(), null, snapshot.sum());
+                writeSample(buf, name + "_count", m.id(), null, snapshot.count());
+            }
+
+            buf.append("# TYPE ").append(name).append("_max gauge\n");
+            int i = 0;
+            for (Meter m : meters) {
+                if (m instanceof Histogram) {
+                    writeSample(buf, name + "_max", m.id(), null, snapshots.get(i++).max());
+                }
+            }
+            return;
+        }
+
+        final boolean counter = first instanceof Counter;
+        buf.append("# TYPE ").append(name).append(counter ? " counter\n" : " gauge\n");
+        for (Meter m : meters) {
+            if (m instanceof Counter) {
+                if (counter) {
+                    writeSample(buf, name, m.id(), null, ((Counter) m).count());
+                }
+            } else if (m instanceof Gauge) {
+                if (!counter) {
+                    writeSample(buf, name, m.id(), null, ((Gauge) m).value());
+                }
+            }
+        }
+    }
+
+    private static void writeSample(StringBuilder buf, String name, MeterId id, String quantile, long value) {
+        buf.append(name);
+
+        final int numTags = id.numTags();
+        if (numTags != 0 || quantile != null) {
+            buf.append('{');
+            for (int i = 0; i < numTags; i++) {
+                if (i != 0) {
+                    buf.append(',');
+                }
+                appendName(buf, id.tagKey(i), false);
+                buf.append("=\"");
+                appendLabelValue(buf, id.tagValue(i));
+                buf.append('"');
+            }
+            if (quantile != null) {
+                if (numTags != 0) {
+                    buf.append(',');
+                }
+                buf.append("quantile=\"").append(quantile).append('"');
+            }
+            buf.append('}');
+        }
+
+        buf.append(' ').append(value).append('\n');
+    }
+
+    static String metricName(String name) {
+        final StringBuilder buf = new StringBuilder(name.length() + 1);
+        appendName(buf, name, true);
+        return buf.toString();
+    }
+
+    private static void appendName(StringBuilder buf, String name, boolean allowColon) {
+        if (name.isEmpty() || (name.charAt(0) >= '0' && name.charAt(0) <= '9')) {
+            buf.append('_');
+        }
+
+        for (int i = 0; i < name.length(); i++) {
+            final char ch = name.charAt(i);
+            if (ch >= 'a' && ch <= 'z' || ch >= 'A' && ch <= 'Z' || ch >= '0' && ch <= '9' || ch == '_' ||
+                allowColon && ch == ':') {
+                buf.append(ch);
+            } else {
+                buf.append('_');
+            }
+        }
+    }
+
+    private static void appendLabelValue(StringBuilder buf, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            final char ch = value.charAt(i);
+            switch (ch) {
+                case '\\':
+                    buf.append("\\\\");
+                    break;
+                case '"':
+                    buf.append("\\\"");
+                    break;
+                case '\n':
+                    buf.append("\\n");
+                    break;
+                default:
+                    buf.append(ch);
+            }
+        }
+    }
+
+    private PrometheusTextFormat() {}
+}
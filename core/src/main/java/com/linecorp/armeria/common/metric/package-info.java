@@ -0,0 +1,30 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+/**
+ * A meter registry which records the metrics of {@link com.linecorp.armeria.common.Request}s and
+ * {@link com.linecorp.armeria.common.Response}s without locks, and its adapters for other monitoring
+ * systems.
+ *
+ * <h2>Starting points</h2>
+ * <ul>
+ *   <li>{@link com.linecorp.armeria.common.metric.MeterRegistry}</li>
+ *   <li>{@link com.linecorp.armeria.common.metric.MeterId}</li>
+ *   <li>{@link com.linecorp.armeria.common.metric.PrometheusTextFormat}</li>
+ *   <li>{@link com.linecorp.armeria.common.metric.DropwizardMeterRegistryAdapter}</li>
+ * </ul>
+ */
+package com.linecorp.armeria.common.metric;
@@ -33,12 +33,18 @@ import com.google.common.base.MoreObjects;
 
 import com.linecorp.armeria.common.util.Exceptions;
 
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.ReferenceCounted;
+
 /**
  * A {@link StreamMessage} which buffers the elements to be signaled into a {@link Queue}.
  *
  * <p>This class implements the {@link StreamWriter} interface as well. A written element will be buffered
  * into the {@link Queue} until a {@link Subscriber} consumes it. Use {@link StreamWriter#onDemand(Runnable)}
  * to control the rate of production so that the {@link Queue} does not grow up infinitely.
+ * A {@link ReferenceCounted} element is owned by this stream until it is passed to
+ * {@link Subscriber#onNext(Object)}. If the element cannot be delivered, e.g. because the stream was closed
+ * before it was written or the {@link Subscription} was cancelled, it is released by this stream.
  *
  * <pre>{@code
  * void stream(QueueBasedPublished<Integer> pub, int start, int end) {
@@ -72,7 +78,8 @@ public class DefaultStreamMessage<T> implements StreamMessage<T>, StreamWriter<T
         OPEN,
         /**
          * {@link #close()} or {@link #close(Throwable)} has been called. Will enter {@link #CLEANUP} after
-         * {@link Subscriber#onComplete()} or {@link Subscriber#onError(Throwable)} is invoked.
+         * {@link Subscriber#onComplete()} or {@link Subscriber#onError(Throwable)} is invoked, or when
+         * {@link Subscription#cancel()} is invoked.
          */
         CLOSED,
         /**
@@ -191,6 +198,7 @@ public class DefaultStreamMessage<T> implements StreamMessage<T>, StreamWriter<T
     public boolean write(T obj) {
         requireNonNull(obj, "obj");
         if (!isOpen()) {
+            ReferenceCountUtil.safeRelease(obj);
             return false;
         }
 
@@ -393,7 +401,11 @@ public class DefaultStreamMessage<T> implements StreamMessage<T>, StreamWriter<T
 
             @SuppressWarnings("unchecked")
             T obj = (T) e;
-            onRemoval(obj);
+            try {
+                onRemoval(obj);
+            } finally {
+                ReferenceCountUtil.safeRelease(obj);
+            }
         }
     }
 
@@ -450,6 +462,9 @@ public class DefaultStreamMessage<T> implements StreamMessage<T>, StreamWriter<T
                                                : CANCELLED_CLOSE;
 
                 publisher.pushObject(closeEvent);
+            } else if (stateUpdater.compareAndSet(publisher, State.CLOSED, State.CLEANUP)) {
+                // Closed already, but the remaining elements will never be consumed; clean them up.
+                publisher.notifySubscriber();
             }
         }
 
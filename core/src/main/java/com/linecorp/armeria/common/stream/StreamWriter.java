@@ -21,6 +21,8 @@ import java.util.function.Supplier;
 
 import org.reactivestreams.Subscriber;
 
+import io.netty.util.ReferenceCounted;
+
 /**
  * Produces the objects to be published by a {@link StreamMessage}.
  *
@@ -35,7 +37,11 @@ public interface StreamWriter<T> {
 
     /**
      * Writes the specified object to the {@link StreamMessage}. The written object will be transferred to the
-     * {@link Subscriber}.
+     * {@link Subscriber}. If the {@link StreamMessage} is not open, the object is released if it is
+     * {@link ReferenceCounted}.
+     *
+     * @return {@code true} if the object has been written. {@code false} if the {@link StreamMessage} is not
+     *         open.
      */
     boolean write(T o);
 
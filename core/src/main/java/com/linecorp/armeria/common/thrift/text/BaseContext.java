@@ -21,8 +21,6 @@ import javax.annotation.Nullable;
 import org.apache.thrift.TException;
 import org.apache.thrift.protocol.TField;
 
-import com.fasterxml.jackson.databind.JsonNode;
-
 /**
  * A base parsing context. Used as a root level parsing context for
  * parsing Json Objects
@@ -74,19 +72,4 @@ class BaseContext {
     protected Class<?> getClassByFieldName(String fieldName) {
         return null;
     }
-
-    /**
-     * Return the json element that should be processed next. Used for
-     * Contexts that have child JsonElements, e.g. Sequences, Maps, etc.
-     */
-    protected JsonNode getCurrentChild() {
-        return unsupportedOperation();
-    }
-
-    /**
-     * Returns whether there are more child elements to process.
-     */
-    protected boolean hasMoreChildren() {
-        return (Boolean) unsupportedOperation();
-    }
 }
@@ -16,45 +16,16 @@
 
 package com.linecorp.armeria.common.thrift.text;
 
-import java.util.Iterator;
-
-import com.fasterxml.jackson.databind.JsonNode;
-
 /**
- * A parsing context used for Sequences (lists & sets). Maintains its
- * child elements, and a pointer to the current one being parsed.
+ * A parsing context used for Sequences (lists & sets). It has no state
+ * because the elements of a sequence are read from the stream one by one,
+ * so a single instance is shared by all sequences.
  *
  * @author Alex Roetter
  */
-class SequenceContext extends BaseContext {
-
-    private final Iterator<JsonNode> children;
-    private JsonNode currentChild;
-
-    /**
-     * Create an iterator over the children. May be constructed with a null
-     * JsonArray if we only use it for writing.
-     */
-    protected SequenceContext(JsonNode json) {
-        children = null != json ? json.elements() : null;
-    }
-
-    @Override
-    protected void read() {
-        if (!children.hasNext()) {
-            throw new RuntimeException(
-                    "Called SequenceContext.read() too many times!");
-        }
-        currentChild = children.next();
-    }
+final class SequenceContext extends BaseContext {
 
-    @Override
-    protected JsonNode getCurrentChild() {
-        return currentChild;
-    }
+    static final SequenceContext INSTANCE = new SequenceContext();
 
-    @Override
-    protected boolean hasMoreChildren() {
-        return children.hasNext();
-    }
+    private SequenceContext() {}
 }
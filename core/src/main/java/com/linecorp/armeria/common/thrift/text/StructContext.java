@@ -21,6 +21,7 @@ import java.lang.reflect.Modifier;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.annotation.Nullable;
 
@@ -40,8 +41,6 @@ import org.apache.thrift.protocol.TType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.fasterxml.jackson.databind.JsonNode;
-
 /**
  * A struct parsing context. Builds a map from field name to TField.
  *
@@ -50,6 +49,12 @@ import com.fasterxml.jackson.databind.JsonNode;
 class StructContext extends PairContext {
     private static final Logger log = LoggerFactory.getLogger(StructContext.class);
 
+    /**
+     * The field name maps of the Thrift classes, which are computed only once per class because
+     * a {@link StructContext} is created for every struct being read.
+     */
+    private static final Map<Class<?>, StructContext> prototypes = new ConcurrentHashMap<>();
+
     // When processing a given thrift struct, we need certain information
     // for every field in that struct. We store that here, in a map
     // from fieldName (a string) to a TField object describing that
@@ -61,22 +66,36 @@ class StructContext extends PairContext {
     /**
      * Build the name -> TField map.
      */
-    StructContext(JsonNode json) {
-        this(json, getCurrentThriftMessageClass());
+    StructContext() {
+        this(getCurrentThriftMessageClass());
+    }
+
+    StructContext(Class<?> clazz) {
+        StructContext prototype = prototypes.get(clazz);
+        if (prototype == null) {
+            prototype = new StructContext(clazz, new HashMap<>());
+            final StructContext existing = prototypes.putIfAbsent(clazz, prototype);
+            if (existing != null) {
+                prototype = existing;
+            }
+        }
+
+        fieldNameMap = prototype.fieldNameMap;
+        classMap = prototype.classMap;
     }
 
-    StructContext(JsonNode json, Class<?> clazz) {
-        super(json);
-        classMap = new HashMap<>();
+    private StructContext(Class<?> clazz, Map<String, Class<?>> classMap) {
+        this.classMap = classMap;
         fieldNameMap = computeFieldNameMap(clazz);
     }
 
     @Override
     protected TField getTFieldByName(String name) throws TException {
-        if (!fieldNameMap.containsKey(name)) {
+        final TField field = fieldNameMap.get(name);
+        if (field == null) {
             throw new TException("Unknown field: " + name);
         }
-        return fieldNameMap.get(name);
+        return field;
     }
 
     @Override
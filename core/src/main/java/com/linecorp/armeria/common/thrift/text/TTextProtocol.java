@@ -18,8 +18,13 @@ package com.linecorp.armeria.common.thrift.text;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
-import java.util.Stack;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+import javax.annotation.Nullable;
 
 import org.apache.thrift.TBase;
 import org.apache.thrift.TEnum;
@@ -40,10 +45,13 @@ import org.apache.thrift.transport.TTransport;
 import org.apache.thrift.transport.TTransportException;
 
 import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonParser.Feature;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonToken;
+import com.google.common.primitives.Ints;
 
 /**
  * A simple text format for serializing/deserializing thrift
@@ -91,8 +99,6 @@ import com.fasterxml.jackson.databind.ObjectMapper;
  *
  * <p>TODO(Alex Roetter): Also add a new TEXT_PROTOCOL field to ThriftCodec
  *
- * <p>TODO: Support map enum keys specified as strings.
- *
  * <p>TODO: Support string values for enums that have been typedef'd.
  */
 public class TTextProtocol extends TProtocol {
@@ -100,7 +106,9 @@ public class TTextProtocol extends TProtocol {
     private static final String SEQUENCE_AS_KEY_ILLEGAL =
             "Can't have a sequence (list or set) as a key in a map!";
 
-    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+    private static final String INVALID_JSON = "Could not parse input, is it valid json?";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
             .configure(Feature.ALLOW_UNQUOTED_FIELD_NAMES, true);
 
     private static final TStruct ANONYMOUS_STRUCT = new TStruct();
@@ -109,10 +117,43 @@ public class TTextProtocol extends TProtocol {
     private static final int READ_BUFFER_SIZE = 1024;
 
     private static final byte UNUSED_TYPE = TType.STOP;
-    private final Stack<WriterByteArrayOutputStream> writers;
-    private final Stack<BaseContext> contextStack;
-    private final Stack<Class<?>> currentFieldClass;
-    private JsonNode root;
+
+    private static final TField STOP_FIELD = new TField("", UNUSED_TYPE, (short) 0);
+
+    /**
+     * The context of a struct being written. Unlike reading, writing a struct does not need to
+     * know its fields, so the same stateless context is used for all structs.
+     */
+    private static final BaseContext STRUCT_WRITE_CONTEXT = new BaseContext();
+
+    /**
+     * Pushed onto {@link #currentFieldClass} for a field which is neither an enum nor a struct,
+     * because an {@link ArrayDeque} does not accept {@code null}.
+     */
+    private static final Class<?> UNKNOWN_FIELD_CLASS = Object.class;
+
+    private final ArrayDeque<BaseContext> contextStack = new ArrayDeque<>();
+    private final ArrayDeque<Class<?>> currentFieldClass = new ArrayDeque<>();
+
+    /**
+     * The writers of the map keys being written. A struct or a map used as a map key is written
+     * into its own buffer first, because it has to be written out as a JSON field name.
+     */
+    private final ArrayDeque<WriterByteArrayOutputStream> keyWriters = new ArrayDeque<>();
+
+    /**
+     * The parser of the input, followed by the parsers of the map keys being read, each of which
+     * contains a struct or a map encoded as JSON.
+     */
+    private final ArrayDeque<ParserState> parsers = new ArrayDeque<>();
+
+    @Nullable
+    private JsonGenerator writer;
+
+    @Nullable
+    private byte[] input;
+    private int inputOffset;
+    private int inputLength;
 
     /**
      * Create a parser which can read from trans, and create the output writer
@@ -120,10 +161,6 @@ public class TTextProtocol extends TProtocol {
      */
     public TTextProtocol(TTransport trans) {
         super(trans);
-
-        writers = new Stack<>();
-        contextStack = new Stack<>();
-        currentFieldClass = new Stack<>();
         reset();
     }
 
@@ -135,10 +172,10 @@ public class TTextProtocol extends TProtocol {
 
     @Override
     public final void reset() {
-        root = null;
+        clearParsers();
 
-        writers.clear();
-        pushWriter(new TTransportOutputStream());
+        writer = null;
+        keyWriters.clear();
 
         contextStack.clear();
         contextStack.push(new BaseContext());
@@ -153,14 +190,15 @@ public class TTextProtocol extends TProtocol {
     @Override
     public void writeMessageBegin(TMessage message) throws TException {
         try {
-            getCurrentWriter().writeStartObject();
-            getCurrentWriter().writeFieldName("method");
-            getCurrentWriter().writeString(message.name);
-            getCurrentWriter().writeFieldName("type");
-            TypedParser.TMESSAGE_TYPE.writeValue(getCurrentWriter(), message.type);
-            getCurrentWriter().writeFieldName("seqid");
-            getCurrentWriter().writeNumber(message.seqid);
-            getCurrentWriter().writeFieldName("args");
+            final JsonGenerator writer = getCurrentWriter();
+            writer.writeStartObject();
+            writer.writeFieldName("method");
+            writer.writeString(message.name);
+            writer.writeFieldName("type");
+            TypedParser.TMESSAGE_TYPE.writeValue(writer, message.type);
+            writer.writeFieldName("seqid");
+            writer.writeNumber(message.seqid);
+            writer.writeFieldName("args");
         } catch (IOException e) {
             throw new TTransportException(e);
         }
@@ -169,8 +207,9 @@ public class TTextProtocol extends TProtocol {
     @Override
     public void writeMessageEnd() throws TException {
         try {
-            getCurrentWriter().writeEndObject();
-            getCurrentWriter().flush();
+            final JsonGenerator writer = getCurrentWriter();
+            writer.writeEndObject();
+            writer.flush();
         } catch (IOException e) {
             throw new TTransportException(e);
         }
@@ -178,7 +217,7 @@ public class TTextProtocol extends TProtocol {
 
     @Override
     public void writeStructBegin(TStruct struct) throws TException {
-        writeJsonObjectBegin(new StructContext(null));
+        writeJsonObjectBegin(STRUCT_WRITE_CONTEXT);
     }
 
     @Override
@@ -205,7 +244,7 @@ public class TTextProtocol extends TProtocol {
 
     @Override
     public void writeMapBegin(TMap map) throws TException {
-        writeJsonObjectBegin(new MapContext(null));
+        writeJsonObjectBegin(new MapContext());
     }
 
     @Override
@@ -220,7 +259,7 @@ public class TTextProtocol extends TProtocol {
     private void writeJsonObjectBegin(BaseContext context) throws TException {
         getCurrentContext().write();
         if (getCurrentContext().isMapKey()) {
-            pushWriter(new ByteArrayOutputStream());
+            pushWriter();
         }
         pushContext(context);
         try {
@@ -281,7 +320,7 @@ public class TTextProtocol extends TProtocol {
         if (getCurrentContext().isMapKey()) {
             throw new TException(SEQUENCE_AS_KEY_ILLEGAL);
         }
-        pushContext(new SequenceContext(null));
+        pushContext(SequenceContext.INSTANCE);
 
         try {
             getCurrentWriter().writeStartArray();
@@ -366,108 +405,139 @@ public class TTextProtocol extends TProtocol {
     /////////////////////////////////////////
     @Override
     public TMessage readMessageBegin() throws TException {
-        try {
-            readRoot();
+        clearParsers();
+        readInput();
+
+        String methodName = null;
+        String messageType = null;
+        int sequenceId = 0;
+        boolean argsFound = false;
+        boolean hasArgs = false;
+        final ContainerSizes sizes = new ContainerSizes();
+
+        // Scan the message to find its header and the sizes of the containers in 'args'. The header may
+        // appear after 'args', so 'args' is parsed again by the parser created below.
+        try (JsonParser parser = newParser()) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new TException(
+                        "The top level of the input must be a json object with method and args!");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String name = parser.getCurrentName();
+                final JsonToken token = parser.nextToken();
+                switch (name) {
+                    case "method":
+                        methodName = parser.getValueAsString();
+                        break;
+                    case "type":
+                        messageType = parser.getValueAsString();
+                        break;
+                    case "seqid":
+                        sequenceId = parser.getValueAsInt();
+                        break;
+                    case "args":
+                        if (!argsFound) {
+                            argsFound = true;
+                            if (token == JsonToken.START_OBJECT) {
+                                hasArgs = true;
+                                sizes.scan(parser);
+                            }
+                        }
+                        break;
+                    default:
+                        // Ignore the unknown fields.
+                }
+                parser.skipChildren();
+            }
         } catch (IOException e) {
-            throw new TException("Could not parse input, is it valid json?", e);
-        }
-        if (!root.isObject()) {
-            throw new TException("The top level of the input must be a json object with method and args!");
+            throw new TException(INVALID_JSON, e);
         }
 
-        if (!root.has("method")) {
+        if (methodName == null) {
             throw new TException("Object must have field 'method' with the rpc method name!");
         }
-        String methodName = root.get("method").asText();
 
-        if (!root.has("type")) {
+        if (messageType == null) {
             throw new TException(
                     "Object must have field 'type' with the message type (CALL, REPLY, EXCEPTION, ONEWAY)!");
         }
-        Byte messageType = TypedParser.TMESSAGE_TYPE.readFromJsonElement(root.get("type"));
 
-        if (!root.has("args") || !root.get("args").isObject()) {
+        if (!hasArgs) {
             throw new TException("Object must have field 'args' with the rpc method args!");
         }
 
-        int sequenceId = root.has("seqid") ? root.get("seqid").asInt() : 0;
-
-        // Override the root with the content of args - thrift's rpc reading will
+        // Skip to the content of args - thrift's rpc reading will
         // proceed to read it as a message object.
-        root = root.get("args");
+        final JsonParser parser;
+        try {
+            parser = newParser();
+            parser.nextToken();
+            while (parser.nextToken() == JsonToken.FIELD_NAME && !"args".equals(parser.getCurrentName())) {
+                parser.nextToken();
+                parser.skipChildren();
+            }
+        } catch (IOException e) {
+            throw new TException(INVALID_JSON, e);
+        }
+        parsers.push(new ParserState(parser, sizes, -1));
 
-        return new TMessage(methodName, messageType, sequenceId);
+        return new TMessage(methodName, TypedParser.TMESSAGE_TYPE.readFromString(messageType), sequenceId);
     }
 
     @Override
     public void readMessageEnd() throws TException {
-        // We've already finished parsing the top level struct in
-        // readMessageBegin, so nothing to do here.
+        // The rest of the message, if any, is not needed because
+        // the header has been read already in readMessageBegin.
+        clearParsers();
     }
 
     @Override
     public TStruct readStructBegin() throws TException {
         getCurrentContext().read();
 
-        JsonNode structElem;
         // Reading a new top level struct if the only item on the stack
         // is the BaseContext
         if (1 == contextStack.size()) {
-            try {
-                readRoot();
-            } catch (IOException e) {
-                throw new TException("Could not parse input, is it valid json?", e);
-            }
-            if (root == null) {
-                throw new TException("parser.next() has nothing to parse!");
-            }
-            structElem = root;
-        } else {
-            structElem = getCurrentContext().getCurrentChild();
+            readRoot();
         }
 
         if (getCurrentContext().isMapKey()) {
-            try {
-                structElem = OBJECT_MAPPER.readTree(structElem.asText());
-            } catch (IOException e) {
-                throw new TException("Could not parse map key, is it valid json?", e);
-            }
+            pushKeyParser();
         }
 
-        if (!structElem.isObject()) {
-            throw new TException("Expected Json Object!");
-        }
+        readContainerBegin(JsonToken.START_OBJECT, "Expected Json Object!");
 
         Class<?> fieldClass = getCurrentFieldClassIfIs(TBase.class);
         if (fieldClass != null) {
-            pushContext(new StructContext(structElem, fieldClass));
+            pushContext(new StructContext(fieldClass));
         } else {
-            pushContext(new StructContext(structElem));
+            pushContext(new StructContext());
         }
         return ANONYMOUS_STRUCT;
     }
 
     @Override
     public void readStructEnd() throws TException {
+        // The end of the JSON object has been read by readFieldBegin already.
         popContext();
+        popKeyParserIfDone();
     }
 
     @Override
     public TField readFieldBegin() throws TException {
-        if (!getCurrentContext().hasMoreChildren()) {
-            return new TField("", UNUSED_TYPE, (short) 0);
+        final JsonToken token = nextToken();
+        if (token == JsonToken.END_OBJECT) {
+            return STOP_FIELD;
         }
 
-        getCurrentContext().read();
-
-        JsonNode jsonName = getCurrentContext().getCurrentChild();
-
-        if (!jsonName.isTextual()) {
-            throw new RuntimeException("Expected String for a field name");
+        if (token != JsonToken.FIELD_NAME) {
+            throw new TException("Expected String for a field name");
         }
 
-        String fieldName = jsonName.asText();
-        currentFieldClass.push(getCurrentContext().getClassByFieldName(fieldName));
+        String fieldName = getCurrentName();
+        Class<?> fieldClass = getCurrentContext().getClassByFieldName(fieldName);
+        currentFieldClass.push(fieldClass != null ? fieldClass : UNKNOWN_FIELD_CLASS);
 
         return getCurrentContext().getTFieldByName(fieldName);
     }
@@ -481,28 +551,21 @@ public class TTextProtocol extends TProtocol {
     public TMap readMapBegin() throws TException {
         getCurrentContext().read();
 
-        JsonNode curElem = getCurrentContext().getCurrentChild();
-
         if (getCurrentContext().isMapKey()) {
-            try {
-                curElem = OBJECT_MAPPER.readTree(curElem.asText());
-            } catch (IOException e) {
-                throw new TException("Could not parse map key, is it valid json?", e);
-            }
-        }
-
-        if (!curElem.isObject()) {
-            throw new TException("Expected JSON Object!");
+            pushKeyParser();
         }
 
-        pushContext(new MapContext(curElem));
+        int size = readContainerBegin(JsonToken.START_OBJECT, "Expected JSON Object!");
+        pushContext(new MapContext());
 
-        return new TMap(UNUSED_TYPE, UNUSED_TYPE, curElem.size());
+        return new TMap(UNUSED_TYPE, UNUSED_TYPE, size);
     }
 
     @Override
     public void readMapEnd() throws TException {
+        readContainerEnd(JsonToken.END_OBJECT, "Expected the end of JSON Object!");
         popContext();
+        popKeyParserIfDone();
     }
 
     @Override
@@ -536,19 +599,16 @@ public class TTextProtocol extends TProtocol {
             throw new TException(SEQUENCE_AS_KEY_ILLEGAL);
         }
 
-        JsonNode curElem = getCurrentContext().getCurrentChild();
-        if (!curElem.isArray()) {
-            throw new TException("Expected JSON Array!");
-        }
-
-        pushContext(new SequenceContext(curElem));
-        return curElem.size();
+        int size = readContainerBegin(JsonToken.START_ARRAY, "Expected JSON Array!");
+        pushContext(SequenceContext.INSTANCE);
+        return size;
     }
 
     /**
      * Helper shared by read{List/Set}End.
      */
-    private void readSequenceEnd() {
+    private void readSequenceEnd() throws TException {
+        readContainerEnd(JsonToken.END_ARRAY, "Expected the end of JSON Array!");
         popContext();
     }
 
@@ -570,24 +630,32 @@ public class TTextProtocol extends TProtocol {
     @Override
     public int readI32() throws TException {
         Class<?> fieldClass = getCurrentFieldClassIfIs(TEnum.class);
-        if (fieldClass != null) {
-            // Enum fields may be set by string, even though they represent integers.
-            getCurrentContext().read();
-            JsonNode elem = getCurrentContext().getCurrentChild();
-            if (elem.isInt()) {
-                return TypedParser.INTEGER.readFromJsonElement(elem);
-            } else if (elem.isTextual()) {
-                @SuppressWarnings("rawtypes,unchecked") // All TEnum are enums
-                Class casted = (Class) fieldClass;
-                TEnum tEnum = (TEnum) Enum.valueOf(casted, TypedParser.STRING.readFromJsonElement(elem));
-                return tEnum.getValue();
-            } else {
-                throw new TTransportException("invalid value type for enum field: " + elem.getNodeType() +
-                                              " (" + elem + ')');
-            }
-        } else {
+        if (fieldClass == null) {
             return readNameOrValue(TypedParser.INTEGER);
         }
+
+        // Enum fields may be set by string, even though they represent integers.
+        getCurrentContext().read();
+        if (getCurrentContext().isMapKey()) {
+            final String name = readFieldName();
+            final Integer value = Ints.tryParse(name);
+            return value != null ? value : enumValue(fieldClass, name);
+        }
+
+        final JsonToken token = nextToken();
+        final JsonParser parser = currentParser();
+        try {
+            if (token == JsonToken.VALUE_NUMBER_INT) {
+                return parser.getIntValue();
+            }
+            if (token == JsonToken.VALUE_STRING) {
+                return enumValue(fieldClass, parser.getText());
+            }
+            throw new TTransportException("invalid value type for enum field: " + token +
+                                          " (" + parser.getText() + ')');
+        } catch (IOException e) {
+            throw new TException(INVALID_JSON, e);
+        }
     }
 
     @Override
@@ -612,8 +680,8 @@ public class TTextProtocol extends TProtocol {
 
     /**
      * Read in a value of the given type, either as a name (meaning the
-     * JSONElement is a string and we convert it), or as a value
-     * (meaning the JSONElement has the type we expect).
+     * JSON token is a field name and we convert it), or as a value
+     * (meaning the JSON token has the type we expect).
      * Uses a TypedParser to do the real work.
      *
      * <p>TODO(Alex Roetter): not sure TypedParser is a win for the number of
@@ -621,37 +689,185 @@ public class TTextProtocol extends TProtocol {
      * do what readNameOrValue does, calling the relevant methods from
      * the TypedParser directly.
      */
-    private <T> T readNameOrValue(TypedParser<T> ch) {
+    private <T> T readNameOrValue(TypedParser<T> ch) throws TException {
         getCurrentContext().read();
 
-        JsonNode elem = getCurrentContext().getCurrentChild();
         if (getCurrentContext().isMapKey()) {
-            // Will throw a ClassCastException if this is not a JsonPrimitive string
-            return ch.readFromString(elem.asText());
-        } else {
-            return ch.readFromJsonElement(elem);
+            return ch.readFromString(readFieldName());
+        }
+
+        final JsonToken token = nextToken();
+        if (!token.isScalarValue()) {
+            throw new TException("Expected a JSON scalar value: " + token);
+        }
+
+        try {
+            return ch.readFromJsonParser(currentParser());
+        } catch (IOException e) {
+            throw new TException(INVALID_JSON, e);
         }
     }
 
+    @SuppressWarnings({ "rawtypes", "unchecked" }) // All TEnum are enums
+    private static int enumValue(Class<?> enumClass, String name) {
+        return ((TEnum) Enum.valueOf((Class) enumClass, name)).getValue();
+    }
+
     /**
      * Read in the root node if it has not yet been read.
      */
-    private void readRoot() throws IOException {
-        if (root != null) {
+    private void readRoot() throws TException {
+        if (!parsers.isEmpty()) {
+            return;
+        }
+
+        readInput();
+
+        final ContainerSizes sizes = new ContainerSizes();
+        final JsonParser parser;
+        try (JsonParser scanner = newParser()) {
+            while (scanner.nextToken() != null) {
+                sizes.scan(scanner);
+            }
+            parser = newParser();
+        } catch (IOException e) {
+            throw new TException(INVALID_JSON, e);
+        }
+        parsers.push(new ParserState(parser, sizes, -1));
+    }
+
+    /**
+     * Reads the whole input. The buffer of the transport is parsed as it is
+     * if the transport has one, e.g. TMemoryInputTransport.
+     */
+    private void readInput() throws TException {
+        final int remaining = trans_.getBytesRemainingInBuffer();
+        if (remaining > 0) {
+            input = trans_.getBuffer();
+            inputOffset = trans_.getBufferPosition();
+            inputLength = remaining;
+            trans_.consumeBuffer(remaining);
             return;
         }
-        ByteArrayOutputStream content = new ByteArrayOutputStream();
-        byte[] buffer = new byte[READ_BUFFER_SIZE];
+
+        byte[] content = new byte[READ_BUFFER_SIZE];
+        int length = 0;
         try {
-            while (trans_.read(buffer, 0, READ_BUFFER_SIZE) > 0) {
-                content.write(buffer);
+            for (;;) {
+                if (length == content.length) {
+                    content = Arrays.copyOf(content, length << 1);
+                }
+                final int read = trans_.read(content, length, content.length - length);
+                if (read <= 0) {
+                    break;
+                }
+                length += read;
             }
         } catch (TTransportException e) {
             if (TTransportException.END_OF_FILE != e.getType()) {
-                throw new IOException(e);
+                throw new TException(INVALID_JSON, e);
             }
         }
-        root = OBJECT_MAPPER.readTree(content.toByteArray());
+
+        input = content;
+        inputOffset = 0;
+        inputLength = length;
+    }
+
+    private JsonParser newParser() throws IOException {
+        assert input != null;
+        return JSON_FACTORY.createParser(input, inputOffset, inputLength);
+    }
+
+    /**
+     * Starts to read a struct or a map used as a map key, which is
+     * encoded as JSON in the name of the current map entry.
+     */
+    private void pushKeyParser() throws TException {
+        final String key = readFieldName();
+        final ContainerSizes sizes = new ContainerSizes();
+        final JsonParser parser;
+        try (JsonParser scanner = JSON_FACTORY.createParser(key)) {
+            scanner.nextToken();
+            sizes.scan(scanner);
+            parser = JSON_FACTORY.createParser(key);
+        } catch (IOException e) {
+            throw new TException("Could not parse map key, is it valid json?", e);
+        }
+        parsers.push(new ParserState(parser, sizes, contextStack.size()));
+    }
+
+    /**
+     * Goes back to the parser of the enclosing map if the struct or map used
+     * as a map key has been read.
+     */
+    private void popKeyParserIfDone() {
+        final ParserState state = parsers.peek();
+        if (state != null && state.depth == contextStack.size()) {
+            parsers.pop().close();
+        }
+    }
+
+    private void clearParsers() {
+        for (ParserState state; (state = parsers.poll()) != null;) {
+            state.close();
+        }
+        input = null;
+    }
+
+    private JsonParser currentParser() throws TException {
+        final ParserState state = parsers.peek();
+        if (state == null) {
+            throw new TException("Must read a message or a struct first!");
+        }
+        return state.parser;
+    }
+
+    private JsonToken nextToken() throws TException {
+        final JsonToken token;
+        try {
+            token = currentParser().nextToken();
+        } catch (IOException e) {
+            throw new TException(INVALID_JSON, e);
+        }
+        if (token == null) {
+            throw new TException("Unexpected end of input!");
+        }
+        return token;
+    }
+
+    private String getCurrentName() throws TException {
+        try {
+            return currentParser().getCurrentName();
+        } catch (IOException e) {
+            throw new TException(INVALID_JSON, e);
+        }
+    }
+
+    /**
+     * Reads the next token, which must be a field name, and returns the name.
+     */
+    private String readFieldName() throws TException {
+        if (nextToken() != JsonToken.FIELD_NAME) {
+            throw new TException("Expected String for a field name");
+        }
+        return getCurrentName();
+    }
+
+    /**
+     * Reads the beginning of a JSON object or array and returns the number of its elements.
+     */
+    private int readContainerBegin(JsonToken expectedToken, String message) throws TException {
+        if (nextToken() != expectedToken) {
+            throw new TException(message);
+        }
+        return parsers.peek().sizes.next();
+    }
+
+    private void readContainerEnd(JsonToken expectedToken, String message) throws TException {
+        if (nextToken() != expectedToken) {
+            throw new TException(message);
+        }
     }
 
     /**
@@ -676,18 +892,28 @@ public class TTextProtocol extends TProtocol {
     }
 
     /**
-     * Return the current parsing context.
+     * Return the current writer, which writes to the transport
+     * unless a map key is being written.
      */
     private JsonGenerator getCurrentWriter() {
-        return writers.peek().writer;
+        final WriterByteArrayOutputStream keyWriter = keyWriters.peek();
+        if (keyWriter != null) {
+            return keyWriter.writer;
+        }
+
+        JsonGenerator writer = this.writer;
+        if (writer == null) {
+            this.writer = writer = newGenerator(new TTransportOutputStream());
+        }
+        return writer;
     }
 
     private String getWriterString() throws TException {
-        WriterByteArrayOutputStream wbaos = writers.peek();
+        WriterByteArrayOutputStream wbaos = keyWriters.peek();
         String ret;
         try {
             wbaos.writer.flush();
-            ret = new String(wbaos.baos.toByteArray());
+            ret = new String(wbaos.baos.toByteArray(), StandardCharsets.UTF_8);
             wbaos.writer.close();
         } catch (IOException e) {
             throw new TException(e);
@@ -695,33 +921,31 @@ public class TTextProtocol extends TProtocol {
         return ret;
     }
 
+    @Nullable
     private Class<?> getCurrentFieldClassIfIs(Class<?> classToMatch) {
-        if (currentFieldClass.isEmpty() || currentFieldClass.peek() == null) {
-            return null;
-        }
-        Class<?> classToCheck = currentFieldClass.peek();
-        if (classToMatch.isAssignableFrom(classToCheck)) {
+        final Class<?> classToCheck = currentFieldClass.peek();
+        if (classToCheck != null && classToMatch.isAssignableFrom(classToCheck)) {
             return classToCheck;
         }
         return null;
     }
 
-    private void pushWriter(ByteArrayOutputStream baos) {
-        JsonGenerator generator;
+    private void pushWriter() {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        keyWriters.push(new WriterByteArrayOutputStream(newGenerator(baos), baos));
+    }
+
+    private void popWriter() {
+        keyWriters.pop();
+    }
+
+    private static JsonGenerator newGenerator(OutputStream out) {
         try {
-            generator = OBJECT_MAPPER.getFactory().createGenerator(baos, JsonEncoding.UTF8)
-                    .useDefaultPrettyPrinter();
+            return JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8).useDefaultPrettyPrinter();
         } catch (IOException e) {
-            // Can't happen, using a byte stream.
+            // Can't happen, nothing is written until the generator is flushed.
             throw new IllegalStateException(e);
         }
-
-        WriterByteArrayOutputStream wbaos = new WriterByteArrayOutputStream(generator, baos);
-        writers.push(wbaos);
-    }
-
-    private void popWriter() {
-        writers.pop();
     }
 
     private static final class WriterByteArrayOutputStream {
@@ -734,6 +958,92 @@ public class TTextProtocol extends TProtocol {
         }
     }
 
+    private static final class ParserState {
+        final JsonParser parser;
+        final ContainerSizes sizes;
+        /**
+         * The depth of the context stack when the map key parsed by this parser was read,
+         * or {@code -1} if this parser parses the input.
+         */
+        final int depth;
+
+        ParserState(JsonParser parser, ContainerSizes sizes, int depth) {
+            this.parser = parser;
+            this.sizes = sizes;
+            this.depth = depth;
+        }
+
+        void close() {
+            try {
+                parser.close();
+            } catch (IOException ignored) {
+                // Can't happen, the input is in memory.
+            }
+        }
+    }
+
+    /**
+     * The number of the elements of every JSON object and array, in the order of their appearance.
+     * Thrift has to know the size of a map, list or set before reading its elements, so the input is
+     * scanned once with a separate JsonParser before it is parsed for real, which is still much cheaper
+     * than building a tree of JsonNodes.
+     */
+    private static final class ContainerSizes {
+        private int[] sizes = new int[16];
+        private int length;
+        private int nextIndex;
+
+        /**
+         * Scans the JSON value which begins with the current token of the specified JsonParser.
+         */
+        void scan(JsonParser parser) throws IOException {
+            // The index of each open container, shifted left by one with the lowest bit set for an array.
+            int[] open = null;
+            int depth = 0;
+            JsonToken token = parser.getCurrentToken();
+            for (;;) {
+                if (token == null) {
+                    throw new JsonParseException(parser, "Unexpected end of input");
+                }
+
+                if (depth > 0) {
+                    final int parent = open[depth - 1];
+                    if (token == JsonToken.FIELD_NAME || ((parent & 1) != 0 && !token.isStructEnd())) {
+                        sizes[parent >>> 1]++;
+                    }
+                }
+
+                if (token.isStructStart()) {
+                    if (open == null) {
+                        open = new int[8];
+                    } else if (depth == open.length) {
+                        open = Arrays.copyOf(open, depth << 1);
+                    }
+                    open[depth++] = add() << 1 | (token == JsonToken.START_ARRAY ? 1 : 0);
+                } else if (token.isStructEnd()) {
+                    depth--;
+                }
+
+                if (depth == 0) {
+                    return;
+                }
+                token = parser.nextToken();
+            }
+        }
+
+        private int add() {
+            if (length == sizes.length) {
+                sizes = Arrays.copyOf(sizes, length << 1);
+            }
+            sizes[length] = 0;
+            return length++;
+        }
+
+        int next() {
+            return sizes[nextIndex++];
+        }
+    }
+
     /**
      * Factory.
      */
@@ -747,33 +1057,38 @@ public class TTextProtocol extends TProtocol {
     }
 
     /**
-     * Just a byte array output stream that forwards all data to
-     * a TTransport when it is flushed or closed.
+     * An output stream that forwards all data to a TTransport, so that
+     * the JsonGenerator writes its buffer to the transport as it is.
      */
-    private class TTransportOutputStream extends ByteArrayOutputStream {
-        // This isn't necessary, but a good idea to close the transport
+    private class TTransportOutputStream extends OutputStream {
         @Override
-        public void close() throws IOException {
-            flush();
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
 
-            super.close();
-            trans_.close();
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            try {
+                trans_.write(b, off, len);
+            } catch (TTransportException ex) {
+                throw new IOException(ex);
+            }
         }
 
         @Override
         public void flush() throws IOException {
             try {
-                super.flush();
-                byte[] bytes = toByteArray();
-                trans_.write(bytes);
                 trans_.flush();
-
             } catch (TTransportException ex) {
                 throw new IOException(ex);
             }
-            // Clears the internal memory buffer, since we've already
-            // written it out.
-            reset();
+        }
+
+        // This isn't necessary, but a good idea to close the transport
+        @Override
+        public void close() throws IOException {
+            flush();
+            trans_.close();
         }
     }
 }
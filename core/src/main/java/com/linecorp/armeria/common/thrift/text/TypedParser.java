@@ -23,11 +23,11 @@ import org.apache.thrift.protocol.TMessageType;
 
 import com.fasterxml.jackson.core.Base64Variants;
 import com.fasterxml.jackson.core.JsonGenerator;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonParser;
 
 /**
  * A type parsing helper, knows how to parse a given type either from a string
- * or from a JsonElement, and knows how to emit a given type to a JsonGenerator.
+ * or from the current token of a JsonParser, and knows how to emit a given type to a JsonGenerator.
  *
  * <p>Clients should use the static members defined here for common types.
  * Should be implemented for each integral type we need to read/write.
@@ -46,8 +46,8 @@ abstract class TypedParser<T> {
         }
 
         @Override
-        public Boolean readFromJsonElement(JsonNode elem) {
-            return elem.asBoolean();
+        public Boolean readFromJsonParser(JsonParser parser) throws IOException {
+            return parser.getValueAsBoolean();
         }
 
         @Override
@@ -64,8 +64,8 @@ abstract class TypedParser<T> {
         }
 
         @Override
-        public Byte readFromJsonElement(JsonNode elem) {
-            return (byte) elem.asInt();
+        public Byte readFromJsonParser(JsonParser parser) throws IOException {
+            return (byte) parser.getValueAsInt();
         }
 
         @Override
@@ -82,8 +82,8 @@ abstract class TypedParser<T> {
         }
 
         @Override
-        public Short readFromJsonElement(JsonNode elem) {
-            return (short) elem.asInt();
+        public Short readFromJsonParser(JsonParser parser) throws IOException {
+            return (short) parser.getValueAsInt();
         }
 
         @Override
@@ -100,8 +100,8 @@ abstract class TypedParser<T> {
         }
 
         @Override
-        public Integer readFromJsonElement(JsonNode elem) {
-            return elem.asInt();
+        public Integer readFromJsonParser(JsonParser parser) throws IOException {
+            return parser.getValueAsInt();
         }
 
         @Override
@@ -117,8 +117,8 @@ abstract class TypedParser<T> {
         }
 
         @Override
-        public Long readFromJsonElement(JsonNode elem) {
-            return elem.asLong();
+        public Long readFromJsonParser(JsonParser parser) throws IOException {
+            return parser.getValueAsLong();
         }
 
         @Override
@@ -134,8 +134,8 @@ abstract class TypedParser<T> {
         }
 
         @Override
-        public Double readFromJsonElement(JsonNode elem) {
-            return elem.asDouble();
+        public Double readFromJsonParser(JsonParser parser) throws IOException {
+            return parser.getValueAsDouble();
         }
 
         @Override
@@ -151,8 +151,8 @@ abstract class TypedParser<T> {
         }
 
         @Override
-        public String readFromJsonElement(JsonNode elem) {
-            return elem.asText();
+        public String readFromJsonParser(JsonParser parser) throws IOException {
+            return parser.getValueAsString();
         }
 
         @Override
@@ -168,9 +168,9 @@ abstract class TypedParser<T> {
         }
 
         @Override
-        public ByteBuffer readFromJsonElement(JsonNode elem) {
+        public ByteBuffer readFromJsonParser(JsonParser parser) throws IOException {
             try {
-                return ByteBuffer.wrap(elem.binaryValue());
+                return ByteBuffer.wrap(parser.getBinaryValue());
             } catch (IOException e) {
                 throw new IllegalArgumentException("Error decoding binary value, is it valid base64?", e);
             }
@@ -200,8 +200,8 @@ abstract class TypedParser<T> {
         }
 
         @Override
-        Byte readFromJsonElement(JsonNode elem) {
-            return readFromString(elem.asText());
+        Byte readFromJsonParser(JsonParser parser) throws IOException {
+            return readFromString(parser.getValueAsString());
         }
 
         @Override
@@ -233,9 +233,9 @@ abstract class TypedParser<T> {
     abstract T readFromString(String s);
 
     /**
-     * Read the given type from a JsonElement.
+     * Read the given type from the current token of a JsonParser.
      */
-    abstract T readFromJsonElement(JsonNode elem);
+    abstract T readFromJsonParser(JsonParser parser) throws IOException;
 
     /**
      * Write the given type out using a JsonGenerator.
@@ -46,10 +46,19 @@ import io.netty.util.AttributeKey;
 import io.netty.util.AttributeMap;
 
 /**
- * Default {@link AttributeMap} implementation which use simple synchronization per bucket to keep the memory
- * overhead as low as possible.
+ * Default {@link AttributeMap} implementation which keeps the memory overhead as low as possible and never
+ * acquires a lock.
  *
- * <p>Note: This class has been forked from {@link io.netty.util.DefaultAttributeMap}.
+ * <p>Each bucket is a singly-linked list of attributes. A new attribute is appended to the tail of the list
+ * with a compare-and-set on the {@code next} reference of the tail, and a removed attribute is only marked as
+ * removed. A removed attribute is unlinked from the list later by {@link #attr(AttributeKey)} when it
+ * traverses the list, unless it is the head or the tail of the list. Because nothing is ever appended to
+ * a non-tail attribute, the unlinking can never lose an attribute appended concurrently; at worst, another
+ * concurrent unlinking makes a removed attribute reachable again, which is harmless because a removed
+ * attribute is always skipped.
+ *
+ * <p>Note: This class has been forked from {@link io.netty.util.DefaultAttributeMap}, which synchronizes on
+ * the head of a bucket to insert or remove an attribute.
  */
 public class DefaultAttributeMap implements AttributeMap {
 
@@ -58,6 +67,10 @@ public class DefaultAttributeMap implements AttributeMap {
             AtomicReferenceFieldUpdater.newUpdater(DefaultAttributeMap.class,
                                                    AtomicReferenceArray.class, "attributes");
 
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<DefaultAttribute, DefaultAttribute> nextUpdater =
+            AtomicReferenceFieldUpdater.newUpdater(DefaultAttribute.class, DefaultAttribute.class, "next");
+
     private static final int BUCKET_SIZE = 4;
     private static final int MASK = BUCKET_SIZE  - 1;
 
@@ -82,37 +95,46 @@ public class DefaultAttributeMap implements AttributeMap {
             }
         }
 
-        int i = index(key);
+        final int i = index(key);
         DefaultAttribute<?> head = attributes.get(i);
         if (head == null) {
-            // No head exists yet which means we may be able to add the attribute without synchronization and
-            // just use compare and set. At worst we need to fallback to synchronization
-            head = new DefaultAttribute(key);
+            // No head exists yet, so try to make the new attribute the head of the bucket.
+            head = new DefaultAttribute<>(key);
             if (attributes.compareAndSet(i, null, head)) {
-                // we were able to add it so return the head right away
                 return (Attribute<T>) head;
-            } else {
-                head = attributes.get(i);
             }
+            head = attributes.get(i);
         }
 
-        synchronized (head) {
-            DefaultAttribute<?> curr = head;
-            for (;;) {
-                if (!curr.removed && curr.key == key) {
-                    return (Attribute<T>) curr;
+        DefaultAttribute<?> prev = null;
+        DefaultAttribute<?> curr = head;
+        DefaultAttribute<T> newAttr = null;
+        for (;;) {
+            final DefaultAttribute<?> next = curr.next;
+            if (curr.removed) {
+                if (prev != null && next != null) {
+                    // Unlink the removed attribute which is neither the head nor the tail.
+                    nextUpdater.compareAndSet(prev, curr, next);
+                    curr = next;
+                    continue;
                 }
+            } else if (curr.key == key) {
+                return (Attribute<T>) curr;
+            }
 
-                DefaultAttribute<?> next = curr.next;
-                if (next == null) {
-                    DefaultAttribute<T> attr = new DefaultAttribute<>(head, key);
-                    curr.next =  attr;
-                    attr.prev = curr;
-                    return attr;
-                } else {
-                    curr = next;
+            if (next == null) {
+                if (newAttr == null) {
+                    newAttr = new DefaultAttribute<>(key);
                 }
+                if (nextUpdater.compareAndSet(curr, null, newAttr)) {
+                    return newAttr;
+                }
+                // Another attribute has been appended; check it before trying again.
+                continue;
             }
+
+            prev = curr;
+            curr = next;
         }
     }
 
@@ -127,29 +149,12 @@ public class DefaultAttributeMap implements AttributeMap {
             return false;
         }
 
-        int i = index(key);
-        DefaultAttribute<?> head = attributes.get(i);
-        if (head == null) {
-            // No attribute exists which point to the bucket in which the head should be located
-            return false;
-        }
-
-        // check on the head can be done without synchronization
-        if (head.key == key && !head.removed) {
-            return true;
-        }
-
-        synchronized (head) {
-            // we need to synchronize on the head
-            DefaultAttribute<?> curr = head.next;
-            while (curr != null) {
-                if (!curr.removed && curr.key == key) {
-                    return true;
-                }
-                curr = curr.next;
+        for (DefaultAttribute<?> curr = attributes.get(index(key)); curr != null; curr = curr.next) {
+            if (!curr.removed && curr.key == key) {
+                return true;
             }
-            return false;
         }
+        return false;
     }
 
     /**
@@ -183,24 +188,15 @@ public class DefaultAttributeMap implements AttributeMap {
 
         private static final long serialVersionUID = -2661411462200283011L;
 
-        // The head of the linked-list this attribute belongs to, which may be itself
-        private final DefaultAttribute<?> head;
         private final AttributeKey<T> key;
 
-        // Double-linked list to prev and next node to allow fast removal
-        private DefaultAttribute<?> prev;
-        private DefaultAttribute<?> next;
+        // The next attribute in the same bucket; updated via nextUpdater.
+        volatile DefaultAttribute<?> next;
 
         // Will be set to true one the attribute is removed via getAndRemove() or remove()
-        private volatile boolean removed;
-
-        DefaultAttribute(DefaultAttribute<?> head, AttributeKey<T> key) {
-            this.head = head;
-            this.key = key;
-        }
+        volatile boolean removed;
 
         DefaultAttribute(AttributeKey<T> key) {
-            head = this;
             this.key = key;
         }
 
@@ -223,38 +219,13 @@ public class DefaultAttributeMap implements AttributeMap {
         @Override
         public T getAndRemove() {
             removed = true;
-            T oldValue = getAndSet(null);
-            remove0();
-            return oldValue;
+            return getAndSet(null);
         }
 
         @Override
         public void remove() {
             removed = true;
             set(null);
-            remove0();
-        }
-
-        private void remove0() {
-            synchronized (head) {
-                // We only update the linked-list structure if prev != null because if it is null this
-                // DefaultAttribute acts also as head. The head must never be removed completely and just be
-                // marked as removed as all synchronization is done on the head itself for each bucket.
-                // The head itself will be GC'ed once the DefaultAttributeMap is GC'ed. So at most 5 heads will
-                // be removed lazy as the array size is 5.
-                if (prev != null) {
-                    prev.next = next;
-
-                    if (next != null) {
-                        next.prev = prev;
-                    }
-
-                    // Null out prev and next - this will guard against multiple remove0() calls which may
-                    // corrupt the linked list for the bucket.
-                    prev = null;
-                    next = null;
-                }
-            }
         }
     }
 
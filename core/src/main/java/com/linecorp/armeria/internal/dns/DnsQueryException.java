@@ -0,0 +1,39 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.dns;
+
+import java.io.IOException;
+import java.net.UnknownHostException;
+
+/**
+ * An {@link IOException} raised when a DNS query did not return the records of the queried type for
+ * a reason other than the non-existence of the queried name, e.g. the name server failed or refused to
+ * answer, or the name has no records of the queried type. Unlike the {@link UnknownHostException} raised
+ * for an {@code NXDOMAIN} response, it does not tell that the name does not exist, so it should not be
+ * cached as a negative answer.
+ */
+public final class DnsQueryException extends IOException {
+
+    private static final long serialVersionUID = -5417315232396215816L;
+
+    /**
+     * Creates a new instance with the specified {@code message}.
+     */
+    public DnsQueryException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,282 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.dns;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import javax.annotation.Nullable;
+
+import com.linecorp.armeria.common.util.NativeLibraries;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.AddressedEnvelope;
+import io.netty.channel.EventLoop;
+import io.netty.channel.epoll.EpollDatagramChannel;
+import io.netty.channel.socket.DatagramChannel;
+import io.netty.channel.socket.nio.NioDatagramChannel;
+import io.netty.handler.codec.dns.DefaultDnsQuestion;
+import io.netty.handler.codec.dns.DnsRawRecord;
+import io.netty.handler.codec.dns.DnsRecord;
+import io.netty.handler.codec.dns.DnsRecordType;
+import io.netty.handler.codec.dns.DnsResponse;
+import io.netty.handler.codec.dns.DnsResponseCode;
+import io.netty.handler.codec.dns.DnsSection;
+import io.netty.resolver.dns.DnsNameResolver;
+import io.netty.resolver.dns.DnsNameResolverBuilder;
+import io.netty.resolver.dns.DnsServerAddresses;
+import io.netty.util.NetUtil;
+import io.netty.util.concurrent.Future;
+
+/**
+ * Utility methods for sending DNS queries with a {@link DnsNameResolver} and decoding their answers,
+ * including the time-to-live of the records which {@link DnsNameResolver#resolveAll(String)} does not
+ * expose.
+ */
+public final class DnsUtil {
+
+    private static final int MAX_NAME_LENGTH = 255;
+
+    /**
+     * Returns a new {@link DnsNameResolver} which sends queries from the specified {@link EventLoop} to
+     * the default name servers.
+     */
+    public static DnsNameResolver newResolver(EventLoop eventLoop, long queryTimeoutMillis) {
+        return newResolver(eventLoop, queryTimeoutMillis, DnsServerAddresses.defaultAddresses());
+    }
+
+    /**
+     * Returns a new {@link DnsNameResolver} which sends queries from the specified {@link EventLoop} to
+     * the specified name servers.
+     */
+    public static DnsNameResolver newResolver(EventLoop eventLoop, long queryTimeoutMillis,
+                                              DnsServerAddresses serverAddresses) {
+        return new DnsNameResolverBuilder(eventLoop)
+                .channelType(datagramChannelType())
+                .nameServerAddresses(serverAddresses)
+                .queryTimeoutMillis(queryTimeoutMillis)
+                .build();
+    }
+
+    /**
+     * Returns the {@link DatagramChannel} type of the current transport.
+     */
+    public static Class<? extends DatagramChannel> datagramChannelType() {
+        return NativeLibraries.isEpollAvailable() ? EpollDatagramChannel.class : NioDatagramChannel.class;
+    }
+
+    /**
+     * Sends a query for the records of the specified name and type, and decodes its response with the
+     * specified {@link DnsResponseDecoder}. The response is released after the {@link DnsResponseDecoder}
+     * returns, so the {@link DnsResponseDecoder} must not return anything that refers to the content of
+     * the records. The returned {@link CompletableFuture} is completed with the exception raised by the
+     * {@link DnsResponseDecoder} as it is.
+     */
+    public static <T> CompletableFuture<T> query(DnsNameResolver resolver, String name, DnsRecordType type,
+                                                 DnsResponseDecoder<T> decoder) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        final Future<AddressedEnvelope<DnsResponse, InetSocketAddress>> queryFuture;
+        try {
+            queryFuture = resolver.query(new DefaultDnsQuestion(name, type));
+        } catch (Throwable cause) {
+            future.completeExceptionally(cause);
+            return future;
+        }
+
+        queryFuture.addListener((Future<AddressedEnvelope<DnsResponse, InetSocketAddress>> f) -> {
+            if (!f.isSuccess()) {
+                future.completeExceptionally(f.cause());
+                return;
+            }
+
+            final AddressedEnvelope<DnsResponse, InetSocketAddress> envelope = f.getNow();
+            try {
+                future.complete(decoder.decode(envelope.content()));
+            } catch (Throwable cause) {
+                future.completeExceptionally(cause);
+            } finally {
+                envelope.release();
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Decodes the {@code A} or {@code AAAA} records in the answer section of the specified {@link DnsResponse}.
+     *
+     * @throws UnknownHostException if the name does not exist
+     * @throws DnsQueryException if the name server failed to answer or the answer has no addresses
+     */
+    public static ResolvedAddresses decodeAddresses(String hostname, DnsResponse res) throws IOException {
+        checkResponseCode(hostname, res);
+
+        final List<InetAddress> addresses = new ArrayList<>();
+        long ttl = Long.MAX_VALUE;
+        final int count = res.count(DnsSection.ANSWER);
+        for (int i = 0; i < count; i++) {
+            final DnsRecord r = res.recordAt(DnsSection.ANSWER, i);
+            final DnsRecordType type = r.type();
+            if ((type != DnsRecordType.A && type != DnsRecordType.AAAA) || !(r instanceof DnsRawRecord)) {
+                // CNAME and other records in the chain.
+                continue;
+            }
+
+            final ByteBuf content = ((DnsRawRecord) r).content();
+            final int length = content.readableBytes();
+            if (length != 4 && length != 16) {
+                continue;
+            }
+
+            final byte[] address = new byte[length];
+            content.getBytes(content.readerIndex(), address);
+            addresses.add(InetAddress.getByAddress(hostname, address));
+            ttl = Math.min(ttl, r.timeToLive());
+        }
+
+        if (addresses.isEmpty()) {
+            throw new DnsQueryException("no address records: " + hostname);
+        }
+        return new ResolvedAddresses(addresses, ttl);
+    }
+
+    /**
+     * Checks the response code of the specified {@link DnsResponse}.
+     *
+     * @throws UnknownHostException if the queried name does not exist, i.e. {@code NXDOMAIN}
+     * @throws DnsQueryException if the response code is neither {@code NOERROR} nor {@code NXDOMAIN},
+     *                           e.g. {@code SERVFAIL} and {@code REFUSED}
+     */
+    public static void checkResponseCode(String name, DnsResponse res) throws IOException {
+        final DnsResponseCode code = res.code();
+        if (code == DnsResponseCode.NXDOMAIN) {
+            throw new UnknownHostException("non-existent domain: " + name);
+        }
+        if (code != DnsResponseCode.NOERROR) {
+            throw new DnsQueryException("unexpected response code: " + code + " (name: " + name + ')');
+        }
+    }
+
+    /**
+     * Returns the {@link InetAddress} of the specified IP address literal.
+     *
+     * @return the {@link InetAddress}, or {@code null} if the specified string is not an IP address
+     */
+    @Nullable
+    public static InetAddress literalAddress(String host) {
+        final byte[] address = NetUtil.createByteArrayFromIpAddressString(host);
+        if (address == null) {
+            return null;
+        }
+
+        try {
+            return InetAddress.getByAddress(host, address);
+        } catch (UnknownHostException e) {
+            // Never happens because the length of the address is valid.
+            throw new Error(e);
+        }
+    }
+
+    /**
+     * Decodes a domain name at the current reader index of the specified {@link ByteBuf}, following the
+     * compression pointers. The {@link ByteBuf} must be a view of the whole DNS message, so that the
+     * pointers which refer to the other parts of the message can be resolved.
+     */
+    public static String decodeName(ByteBuf in) {
+        final StringBuilder buf = new StringBuilder(64);
+        int position = in.readerIndex();
+        int end = -1;
+        int numJumps = 0;
+        for (;;) {
+            final int len = in.getUnsignedByte(position++);
+            if (len == 0) {
+                break;
+            }
+
+            if ((len & 0xC0) == 0xC0) {
+                if (end < 0) {
+                    end = position + 1;
+                }
+                if (++numJumps > MAX_NAME_LENGTH) {
+                    throw new IllegalArgumentException("too many compression pointers in a name");
+                }
+                position = (len & 0x3F) << 8 | in.getUnsignedByte(position);
+                continue;
+            }
+
+            buf.append(in.toString(position, len, StandardCharsets.UTF_8)).append('.');
+            if (buf.length() > MAX_NAME_LENGTH) {
+                throw new IllegalArgumentException("name too long: " + buf);
+            }
+            position += len;
+        }
+
+        in.readerIndex(end < 0 ? position : end);
+        return buf.length() == 0 ? "." : buf.toString();
+    }
+
+    /**
+     * Decodes a {@link DnsResponse} into an object.
+     */
+    @FunctionalInterface
+    public interface DnsResponseDecoder<T> {
+        /**
+         * Decodes the specified {@link DnsResponse}.
+         */
+        T decode(DnsResponse res) throws Exception;
+    }
+
+    /**
+     * The addresses of a host name and their time-to-live.
+     */
+    public static final class ResolvedAddresses {
+
+        private final List<InetAddress> addresses;
+        private final long ttl;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param ttl the time-to-live of the addresses, in seconds
+         */
+        public ResolvedAddresses(List<InetAddress> addresses, long ttl) {
+            this.addresses = addresses;
+            this.ttl = ttl;
+        }
+
+        /**
+         * Returns the resolved addresses.
+         */
+        public List<InetAddress> addresses() {
+            return addresses;
+        }
+
+        /**
+         * Returns the smallest time-to-live of the records, in seconds.
+         */
+        public long ttl() {
+            return ttl;
+        }
+    }
+
+    private DnsUtil() {}
+}
@@ -42,13 +42,18 @@ import java.net.URISyntaxException;
 import java.util.Iterator;
 import java.util.Map.Entry;
 
+import com.linecorp.armeria.common.http.ByteBufHttpData;
 import com.linecorp.armeria.common.http.DefaultHttpHeaders;
+import com.linecorp.armeria.common.http.HttpData;
 import com.linecorp.armeria.common.http.HttpHeaderNames;
 import com.linecorp.armeria.common.http.HttpHeaders;
 import com.linecorp.armeria.common.http.HttpMethod;
 import com.linecorp.armeria.common.http.HttpStatus;
 import com.linecorp.armeria.common.http.HttpStatusClass;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
 import io.netty.handler.codec.DefaultHeaders;
 import io.netty.handler.codec.UnsupportedValueConverter;
 import io.netty.handler.codec.http.HttpHeaderValues;
@@ -141,6 +146,48 @@ public final class ArmeriaHttpUtil {
         return false;
     }
 
+    /**
+     * Converts the readable bytes of the specified Netty {@link ByteBuf} into an {@link HttpData}.
+     * If {@code pooled} is {@code true}, a {@link ByteBufHttpData} which retains the {@link ByteBuf} is
+     * returned instead of a copy. The caller still owns the {@link ByteBuf} in both cases.
+     */
+    public static HttpData toArmeria(ByteBuf buf, boolean pooled) {
+        if (!buf.isReadable()) {
+            return HttpData.EMPTY_DATA;
+        }
+
+        return pooled ? new ByteBufHttpData(buf.retain(), false) : HttpData.of(buf);
+    }
+
+    /**
+     * Allocates a {@link ByteBuf} to encode a content into. If {@code pooled} is {@code false}, an unpooled
+     * heap buffer is allocated so that {@link #toHttpData(ByteBuf, boolean)} can wrap its array without
+     * a copy.
+     */
+    public static ByteBuf newContentBuffer(int initialCapacity, boolean pooled) {
+        return pooled ? ByteBufAllocator.DEFAULT.buffer(initialCapacity) : Unpooled.buffer(initialCapacity);
+    }
+
+    /**
+     * Converts the readable bytes of the specified {@link ByteBuf}, allocated by
+     * {@link #newContentBuffer(int, boolean)}, into an {@link HttpData}. Unlike
+     * {@link #toArmeria(ByteBuf, boolean)}, the ownership of the {@link ByteBuf} is transferred; it is
+     * wrapped into a {@link ByteBufHttpData} if {@code pooled} is {@code true}, or released after its array
+     * is wrapped into an ordinary {@link HttpData} otherwise.
+     */
+    public static HttpData toHttpData(ByteBuf buf, boolean pooled) {
+        if (pooled) {
+            return new ByteBufHttpData(buf, false);
+        }
+
+        try {
+            return HttpData.of(buf.array(), buf.arrayOffset() + buf.readerIndex(), buf.readableBytes());
+        } finally {
+            // Releasing an unpooled heap buffer does not reuse its array.
+            buf.release();
+        }
+    }
+
     /**
      * Converts the specified Netty HTTP/2 into Armeria HTTP/2 headers.
      */
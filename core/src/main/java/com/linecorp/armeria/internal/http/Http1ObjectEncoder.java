@@ -54,6 +54,7 @@ import io.netty.handler.codec.http.LastHttpContent;
 import io.netty.handler.codec.http2.Http2Error;
 import io.netty.handler.codec.http2.Http2Exception;
 import io.netty.handler.codec.http2.HttpConversionUtil.ExtensionHeaderNames;
+import io.netty.util.ReferenceCountUtil;
 import io.netty.util.collection.IntObjectHashMap;
 import io.netty.util.collection.IntObjectMap;
 
@@ -218,6 +219,7 @@ public final class Http1ObjectEncoder extends HttpObjectEncoder {
             ChannelHandlerContext ctx, int id, int streamId, HttpData data, boolean endStream) {
 
         if (id >= minClosedId) {
+            ReferenceCountUtil.safeRelease(data);
             return ctx.newFailedFuture(ClosedSessionException.get());
         }
 
@@ -239,6 +241,7 @@ public final class Http1ObjectEncoder extends HttpObjectEncoder {
         if (id < currentId) {
             // Attempted to write something on a finished request/response; discard.
             // e.g. the request already timed out.
+            ReferenceCountUtil.safeRelease(obj);
             return ctx.newFailedFuture(ClosedPublisherException.get());
         }
 
@@ -317,6 +320,7 @@ public final class Http1ObjectEncoder extends HttpObjectEncoder {
                 if (e == null) {
                     break;
                 }
+                ReferenceCountUtil.safeRelease(e.getKey());
                 e.getValue().tryFailure(ClosedSessionException.get());
             }
         }
@@ -343,6 +347,7 @@ public final class Http1ObjectEncoder extends HttpObjectEncoder {
                     break;
                 }
 
+                ReferenceCountUtil.safeRelease(e.getKey());
                 e.getValue().tryFailure(cause);
             }
         }
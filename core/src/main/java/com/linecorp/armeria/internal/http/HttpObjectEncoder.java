@@ -17,6 +17,8 @@
 package com.linecorp.armeria.internal.http;
 
 import com.linecorp.armeria.common.ClosedSessionException;
+import com.linecorp.armeria.common.http.ByteBufHttpData;
+import com.linecorp.armeria.common.http.CompositeHttpData;
 import com.linecorp.armeria.common.http.HttpData;
 import com.linecorp.armeria.common.http.HttpHeaders;
 import com.linecorp.armeria.common.http.HttpObject;
@@ -26,6 +28,8 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http2.Http2Error;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.ReferenceCounted;
 
 /**
  * Converts an {@link HttpObject} into a protocol-specific object and writes it into a {@link Channel}.
@@ -53,7 +57,8 @@ public abstract class HttpObjectEncoder {
             ChannelHandlerContext ctx, int id, int streamId, HttpHeaders headers, boolean endStream);
 
     /**
-     * Writes an {@link HttpData}.
+     * Writes an {@link HttpData}. If the {@link HttpData} is {@link ReferenceCounted}, this encoder takes over
+     * its ownership and releases it once written or failed.
      */
     public final ChannelFuture writeData(
             ChannelHandlerContext ctx, int id, int streamId, HttpData data, boolean endStream) {
@@ -61,6 +66,7 @@ public abstract class HttpObjectEncoder {
         assert ctx.channel().eventLoop().inEventLoop();
 
         if (closed) {
+            ReferenceCountUtil.safeRelease(data);
             return newFailedFuture(ctx);
         }
 
@@ -105,9 +111,24 @@ public abstract class HttpObjectEncoder {
         return ctx.newFailedFuture(ClosedSessionException.get());
     }
 
+    /**
+     * Converts the specified {@link HttpData} into a {@link ByteBuf}. The {@link ByteBuf} of a
+     * {@link ByteBufHttpData} is returned as it is without copying, transferring its ownership to the caller.
+     */
     protected static ByteBuf toByteBuf(ChannelHandlerContext ctx, HttpData data) {
+        if (data instanceof ByteBufHttpData) {
+            return ((ByteBufHttpData) data).content();
+        }
+
         final ByteBuf buf = ctx.alloc().directBuffer(data.length(), data.length());
-        buf.writeBytes(data.array(), data.offset(), data.length());
+        if (data instanceof CompositeHttpData) {
+            // Copy each component rather than merging them into an array first.
+            for (HttpData c : ((CompositeHttpData) data).components()) {
+                buf.writeBytes(c.array(), c.offset(), c.length());
+            }
+        } else {
+            buf.writeBytes(data.array(), data.offset(), data.length());
+        }
         return buf;
     }
 }
@@ -24,14 +24,12 @@ import java.util.function.Function;
 
 import com.codahale.metrics.MetricRegistry;
 
-import com.linecorp.armeria.common.SessionProtocol;
 import com.linecorp.armeria.common.logging.RequestLog;
-import com.linecorp.armeria.common.thrift.ThriftReply;
 
 /**
  * (Internal use only) Collects the metric data and stores it into the {@link MetricRegistry}.
  */
-public final class DropwizardMetricCollector {
+public final class DropwizardMetricCollector extends RequestMetricCollector {
 
     private final MetricRegistry metricRegistry;
     private final Function<RequestLog, String> metricNameFunc;
@@ -48,64 +46,14 @@ public final class DropwizardMetricCollector {
         methodRequestMetrics = new ConcurrentHashMap<>();
     }
 
-    public void onRequestStart(RequestLog log) {
-        final DropwizardRequestMetrics metrics = getRequestMetrics(log);
-        metrics.markStart();
-    }
-
-    public void onRequestEnd(RequestLog log) {
-        final DropwizardRequestMetrics metrics = getRequestMetrics(log);
-        metrics.requestBytes(log.requestLength());
-        if (log.requestCause() != null) {
-            metrics.markFailure();
-            metrics.markComplete();
-        }
-    }
-
-    public void onResponse(RequestLog log) {
-        if (log.requestCause() != null) {
-            return;
-        }
-
-        final DropwizardRequestMetrics metrics = getRequestMetrics(log);
-        metrics.updateTime(log.totalDurationNanos());
-        metrics.responseBytes(log.responseLength());
-
-        if (isSuccess(log)) {
-            metrics.markSuccess();
-        } else {
-            metrics.markFailure();
-        }
-
-        metrics.markComplete();
-    }
-
-    private static boolean isSuccess(RequestLog log) {
-        if (log.responseCause() != null) {
-            return false;
-        }
-
-        if (SessionProtocol.ofHttp().contains(log.sessionProtocol())) {
-            if (log.statusCode() >= 400) {
-                return false;
-            }
-        } else {
-            if (log.statusCode() != 0) {
-                return false;
-            }
-        }
-
-        final Object responseContent = log.responseContent();
-        if (responseContent instanceof ThriftReply) {
-            final ThriftReply reply = (ThriftReply) responseContent;
-            return !reply.isException() && !(reply.result() instanceof Throwable);
+    @Override
+    DropwizardRequestMetrics requestMetrics(RequestLog log) {
+        final String metricName = metricNameFunc.apply(log);
+        final DropwizardRequestMetrics metrics = methodRequestMetrics.get(metricName);
+        if (metrics != null) {
+            return metrics;
         }
 
-        return true;
-    }
-
-    private DropwizardRequestMetrics getRequestMetrics(RequestLog log) {
-        final String metricName = metricNameFunc.apply(log);
         return methodRequestMetrics.computeIfAbsent(
                 metricName,
                 name -> new DropwizardRequestMetrics(
@@ -26,7 +26,7 @@ import com.codahale.metrics.Timer;
 /**
  * {@link Metric}s for a single request-response pair.
  */
-final class DropwizardRequestMetrics {
+final class DropwizardRequestMetrics implements RequestMetrics {
 
     private final String name;
     private final Timer timer;
@@ -48,31 +48,38 @@ final class DropwizardRequestMetrics {
         this.responseBytes = responseBytes;
     }
 
-    void updateTime(long durationNanos) {
+    @Override
+    public void updateTime(long durationNanos) {
         timer.update(durationNanos, TimeUnit.NANOSECONDS);
     }
 
-    void markSuccess() {
+    @Override
+    public void markSuccess() {
         successes.mark();
     }
 
-    void markFailure() {
+    @Override
+    public void markFailure() {
         failures.mark();
     }
 
-    void markStart() {
+    @Override
+    public void markStart() {
         activeRequests.inc();
     }
 
-    void markComplete() {
+    @Override
+    public void markComplete() {
         activeRequests.dec();
     }
 
-    void requestBytes(long requestBytes) {
+    @Override
+    public void requestBytes(long requestBytes) {
         this.requestBytes.mark(requestBytes);
     }
 
-    void responseBytes(long responseBytes) {
+    @Override
+    public void responseBytes(long responseBytes) {
         this.responseBytes.mark(responseBytes);
     }
 
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.logging;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import com.linecorp.armeria.common.logging.RequestLog;
+import com.linecorp.armeria.common.metric.MeterId;
+import com.linecorp.armeria.common.metric.MeterRegistry;
+
+/**
+ * (Internal use only) Collects the metric data and stores it into the {@link MeterRegistry}.
+ */
+public final class MeterRegistryMetricCollector extends RequestMetricCollector {
+
+    private final MeterRegistry meterRegistry;
+    private final Function<RequestLog, MeterId> meterIdFunc;
+    private final Map<MeterId, MeterRegistryRequestMetrics> requestMetrics;
+
+    /**
+     * Creates a new instance.
+     */
+    public MeterRegistryMetricCollector(
+            MeterRegistry meterRegistry, Function<RequestLog, MeterId> meterIdFunc) {
+
+        this.meterRegistry = requireNonNull(meterRegistry, "meterRegistry");
+        this.meterIdFunc = requireNonNull(meterIdFunc, "meterIdFunc");
+        requestMetrics = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    MeterRegistryRequestMetrics requestMetrics(RequestLog log) {
+        final MeterId id = meterIdFunc.apply(log);
+        final MeterRegistryRequestMetrics metrics = requestMetrics.get(id);
+        if (metrics != null) {
+            return metrics;
+        }
+
+        return requestMetrics.computeIfAbsent(
+                id,
+                key -> new MeterRegistryRequestMetrics(
+                        meterRegistry.histogram(key.append("durationNanos")),
+                        meterRegistry.counter(key.append("successes")),
+                        meterRegistry.counter(key.append("failures")),
+                        meterRegistry.gauge(key.append("activeRequests")),
+                        meterRegistry.counter(key.append("requestBytes")),
+                        meterRegistry.counter(key.append("responseBytes"))));
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.logging;
+
+import com.linecorp.armeria.common.metric.Counter;
+import com.linecorp.armeria.common.metric.Gauge;
+import com.linecorp.armeria.common.metric.Histogram;
+import com.linecorp.armeria.common.metric.Meter;
+
+/**
+ * {@link Meter}s for a single request-response pair.
+ */
+final class MeterRegistryRequestMetrics implements RequestMetrics {
+
+    private final Histogram durationNanos;
+    private final Counter successes;
+    private final Counter failures;
+    private final Gauge activeRequests;
+    private final Counter requestBytes;
+    private final Counter responseBytes;
+
+    MeterRegistryRequestMetrics(Histogram durationNanos, Counter successes, Counter failures,
+                                Gauge activeRequests, Counter requestBytes, Counter responseBytes) {
+
+        this.durationNanos = durationNanos;
+        this.successes = successes;
+        this.failures = failures;
+        this.activeRequests = activeRequests;
+        this.requestBytes = requestBytes;
+        this.responseBytes = responseBytes;
+    }
+
+    @Override
+    public void updateTime(long durationNanos) {
+        this.durationNanos.record(durationNanos);
+    }
+
+    @Override
+    public void markSuccess() {
+        successes.increment();
+    }
+
+    @Override
+    public void markFailure() {
+        failures.increment();
+    }
+
+    @Override
+    public void markStart() {
+        activeRequests.increment();
+    }
+
+    @Override
+    public void markComplete() {
+        activeRequests.decrement();
+    }
+
+    @Override
+    public void requestBytes(long requestBytes) {
+        this.requestBytes.add(requestBytes);
+    }
+
+    @Override
+    public void responseBytes(long responseBytes) {
+        this.responseBytes.add(responseBytes);
+    }
+
+    @Override
+    public String toString() {
+        return "<MeterRegistryRequestMetrics for: " + durationNanos.id() + '\n' +
+               "  durationNanos: " + durationNanos.snapshot() + '\n' +
+               "  successes: " + successes.count() + '\n' +
+               "  failures: " + failures.count() + '\n' +
+               "  activeRequests: " + activeRequests.value() + '\n' +
+               "  requestBytes: " + requestBytes.count() + '\n' +
+               "  responseBytes: " + responseBytes.count() + "\n>";
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.logging;
+
+import com.linecorp.armeria.common.SessionProtocol;
+import com.linecorp.armeria.common.logging.RequestLog;
+import com.linecorp.armeria.common.logging.RequestLogAvailability;
+import com.linecorp.armeria.common.thrift.ThriftReply;
+
+/**
+ * (Internal use only) Collects the metric data of a request from its {@link RequestLog}.
+ */
+public abstract class RequestMetricCollector {
+
+    RequestMetricCollector() {}
+
+    /**
+     * Looks up the {@link RequestMetrics} of the request, which usually involves building a metric name
+     * and a hash table lookup.
+     */
+    abstract RequestMetrics requestMetrics(RequestLog log);
+
+    /**
+     * Adds the listeners which collect the metric data of the request to the specified {@link RequestLog}.
+     * The {@link RequestMetrics} of the request are looked up only once and are shared by the listeners.
+     */
+    public final void addListeners(RequestLog log) {
+        final PerRequestCollector collector = new PerRequestCollector();
+        log.addListener(collector::onRequestStart,
+                        RequestLogAvailability.REQUEST_ENVELOPE,
+                        RequestLogAvailability.REQUEST_CONTENT);
+        log.addListener(collector::onRequestEnd,
+                        RequestLogAvailability.REQUEST_END);
+        log.addListener(collector::onResponse,
+                        RequestLogAvailability.COMPLETE);
+    }
+
+    public final void onRequestStart(RequestLog log) {
+        onRequestStart(requestMetrics(log));
+    }
+
+    public final void onRequestEnd(RequestLog log) {
+        onRequestEnd(log, requestMetrics(log));
+    }
+
+    public final void onResponse(RequestLog log) {
+        if (log.requestCause() != null) {
+            return;
+        }
+
+        onResponse(log, requestMetrics(log));
+    }
+
+    private static void onRequestStart(RequestMetrics metrics) {
+        metrics.markStart();
+    }
+
+    private static void onRequestEnd(RequestLog log, RequestMetrics metrics) {
+        metrics.requestBytes(log.requestLength());
+        if (log.requestCause() != null) {
+            metrics.markFailure();
+            metrics.markComplete();
+        }
+    }
+
+    private static void onResponse(RequestLog log, RequestMetrics metrics) {
+        metrics.updateTime(log.totalDurationNanos());
+        metrics.responseBytes(log.responseLength());
+
+        if (isSuccess(log)) {
+            metrics.markSuccess();
+        } else {
+            metrics.markFailure();
+        }
+
+        metrics.markComplete();
+    }
+
+    private static boolean isSuccess(RequestLog log) {
+        if (log.responseCause() != null) {
+            return false;
+        }
+
+        if (SessionProtocol.ofHttp().contains(log.sessionProtocol())) {
+            if (log.statusCode() >= 400) {
+                return false;
+            }
+        } else {
+            if (log.statusCode() != 0) {
+                return false;
+            }
+        }
+
+        final Object responseContent = log.responseContent();
+        if (responseContent instanceof ThriftReply) {
+            final ThriftReply reply = (ThriftReply) responseContent;
+            return !reply.isException() && !(reply.result() instanceof Throwable);
+        }
+
+        return true;
+    }
+
+    /**
+     * Collects the metric data of a single request. The listeners may be invoked by different threads,
+     * so the {@link RequestMetrics} are looked up by whichever listener is invoked first. Looking them up
+     * more than once in a race is harmless because the lookup always yields the same {@link RequestMetrics}.
+     */
+    private final class PerRequestCollector {
+
+        private RequestMetrics metrics;
+
+        private RequestMetrics metrics(RequestLog log) {
+            RequestMetrics metrics = this.metrics;
+            if (metrics == null) {
+                this.metrics = metrics = requestMetrics(log);
+            }
+            return metrics;
+        }
+
+        void onRequestStart(RequestLog log) {
+            RequestMetricCollector.onRequestStart(metrics(log));
+        }
+
+        void onRequestEnd(RequestLog log) {
+            RequestMetricCollector.onRequestEnd(log, metrics(log));
+        }
+
+        void onResponse(RequestLog log) {
+            if (log.requestCause() != null) {
+                return;
+            }
+
+            RequestMetricCollector.onResponse(log, metrics(log));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.logging;
+
+/**
+ * The set of metrics updated for the requests with the same metric name or {@code MeterId}.
+ */
+interface RequestMetrics {
+
+    void markStart();
+
+    void markComplete();
+
+    void markSuccess();
+
+    void markFailure();
+
+    void updateTime(long durationNanos);
+
+    void requestBytes(long requestBytes);
+
+    void responseBytes(long responseBytes);
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.thrift;
+
+import static java.util.Objects.requireNonNull;
+
+import javax.annotation.Nullable;
+
+import org.apache.thrift.TBase;
+import org.apache.thrift.TFieldIdEnum;
+
+import com.linecorp.armeria.common.DefaultRpcRequest;
+import com.linecorp.armeria.common.RpcRequest;
+
+/**
+ * A Thrift {@link RpcRequest} which is bound to its {@link ThriftFunction} already, so that the function
+ * does not have to be looked up by its name again. A request decoded by a service also keeps the arguments
+ * struct it was decoded from, so that the struct does not have to be built again from the parameters.
+ */
+public final class BoundRpcRequest extends DefaultRpcRequest {
+
+    private final ThriftFunction function;
+    @Nullable
+    private final TBase<TBase<?, ?>, TFieldIdEnum> thriftArgs;
+
+    /**
+     * Creates a new instance with the specified parameters, which is sent by a client.
+     */
+    public BoundRpcRequest(ThriftFunction function, Object... params) {
+        super(requireNonNull(function, "function").serviceType(), function.name(), params);
+        this.function = function;
+        thriftArgs = null;
+    }
+
+    /**
+     * Creates a new instance with the parameters in the specified arguments struct, which is decoded by
+     * a service.
+     */
+    public BoundRpcRequest(ThriftFunction function, String method,
+                           TBase<TBase<?, ?>, TFieldIdEnum> thriftArgs) {
+        super(requireNonNull(function, "function").serviceType(), method, function.toParams(thriftArgs));
+        this.function = function;
+        this.thriftArgs = thriftArgs;
+    }
+
+    /**
+     * Returns the {@link ThriftFunction} this request is bound to.
+     */
+    public ThriftFunction function() {
+        return function;
+    }
+
+    /**
+     * Returns the arguments struct the parameters of this request were decoded from, or {@code null} if
+     * this request was not decoded from a struct.
+     */
+    @Nullable
+    public TBase<TBase<?, ?>, TFieldIdEnum> thriftArgs() {
+        return thriftArgs;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.thrift;
+
+import static java.util.Objects.requireNonNull;
+
+import org.apache.thrift.transport.TTransport;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * A {@link TTransport} that reads from and writes into a Netty {@link ByteBuf}. Unlike
+ * {@link org.apache.thrift.transport.TMemoryBuffer}, the encoded message does not have to be copied into
+ * another array before it is sent; the {@link ByteBuf} can be wrapped into a
+ * {@link com.linecorp.armeria.common.http.ByteBufHttpData} and written to a connection as it is.
+ *
+ * <p>This transport does not take over the ownership of the {@link ByteBuf}. The caller is responsible for
+ * releasing it. Note that {@code binary} fields decoded from a heap buffer may share its backing array, so
+ * a pooled buffer must not be released while such fields are still in use.
+ */
+public final class TByteBufTransport extends TTransport {
+
+    private ByteBuf buf;
+
+    /**
+     * Creates a new instance that reads the readable bytes of the specified {@link ByteBuf} and writes
+     * after its writer index.
+     */
+    public TByteBufTransport(ByteBuf buf) {
+        this.buf = requireNonNull(buf, "buf");
+    }
+
+    /**
+     * Returns the {@link ByteBuf} this transport reads from and writes into.
+     */
+    public ByteBuf buf() {
+        return buf;
+    }
+
+    /**
+     * Replaces the {@link ByteBuf} this transport reads from and writes into. This is useful when a message
+     * is encoded into more than one {@link ByteBuf} by the same {@link org.apache.thrift.protocol.TProtocol},
+     * which may keep its state between the {@link ByteBuf}s.
+     */
+    public void buf(ByteBuf buf) {
+        this.buf = requireNonNull(buf, "buf");
+    }
+
+    @Override
+    public boolean isOpen() {
+        return true;
+    }
+
+    @Override
+    public void open() {}
+
+    @Override
+    public void close() {}
+
+    @Override
+    public int read(byte[] buf, int off, int len) {
+        final int bytesToRead = Math.min(this.buf.readableBytes(), len);
+        if (bytesToRead > 0) {
+            this.buf.readBytes(buf, off, bytesToRead);
+        }
+        return bytesToRead;
+    }
+
+    @Override
+    public void write(byte[] buf, int off, int len) {
+        this.buf.writeBytes(buf, off, len);
+    }
+
+    // The following methods let TBinaryProtocol and TCompactProtocol read a value directly from
+    // the backing array rather than through a temporary array, as they do with TMemoryInputTransport.
+
+    @Override
+    public byte[] getBuffer() {
+        return buf.hasArray() ? buf.array() : null;
+    }
+
+    @Override
+    public int getBufferPosition() {
+        return buf.hasArray() ? buf.arrayOffset() + buf.readerIndex() : 0;
+    }
+
+    @Override
+    public int getBytesRemainingInBuffer() {
+        return buf.hasArray() ? buf.readableBytes() : -1;
+    }
+
+    @Override
+    public void consumeBuffer(int len) {
+        buf.skipBytes(len);
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.thrift;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.ByteBuffer;
+
+import javax.annotation.Nullable;
+
+import org.apache.thrift.TBase;
+import org.apache.thrift.TEnum;
+import org.apache.thrift.TException;
+import org.apache.thrift.meta_data.EnumMetaData;
+import org.apache.thrift.meta_data.FieldValueMetaData;
+import org.apache.thrift.meta_data.ListMetaData;
+import org.apache.thrift.meta_data.SetMetaData;
+import org.apache.thrift.meta_data.StructMetaData;
+import org.apache.thrift.protocol.TList;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.protocol.TProtocolException;
+import org.apache.thrift.protocol.TSet;
+import org.apache.thrift.protocol.TType;
+
+/**
+ * Encodes and decodes the elements of a {@code list} or {@code set} field one by one, so that a large
+ * collection can be streamed rather than being encoded or decoded as a whole. Only the elements of a struct,
+ * an enum, a string, a binary or a primitive type are supported.
+ */
+public final class ThriftElementCodec {
+
+    /**
+     * Returns a new {@link ThriftElementCodec} for the specified field, or {@code null} if the field is not
+     * a {@code list} or a {@code set} or its element type is not supported.
+     */
+    @Nullable
+    public static ThriftElementCodec of(FieldValueMetaData metaData) {
+        final byte containerType = metaData.type;
+        final FieldValueMetaData elemMetaData;
+        if (containerType == TType.LIST) {
+            elemMetaData = ((ListMetaData) metaData).elemMetaData;
+        } else if (containerType == TType.SET) {
+            elemMetaData = ((SetMetaData) metaData).elemMetaData;
+        } else {
+            return null;
+        }
+
+        switch (elemMetaData.type) {
+            case TType.BOOL:
+            case TType.BYTE:
+            case TType.I16:
+            case TType.I32:
+            case TType.I64:
+            case TType.DOUBLE:
+                return new ThriftElementCodec(containerType, elemMetaData.type, elemMetaData, null);
+            case TType.STRING:
+                return new ThriftElementCodec(containerType, TType.STRING, elemMetaData, null);
+            case TType.STRUCT:
+                if (!(elemMetaData instanceof StructMetaData)) {
+                    // A typedef of a struct does not have the metadata of the struct.
+                    return null;
+                }
+                return new ThriftElementCodec(containerType, TType.STRUCT, elemMetaData, null);
+            case TType.ENUM:
+                if (!(elemMetaData instanceof EnumMetaData)) {
+                    return null;
+                }
+                final Class<? extends TEnum> enumClass = ((EnumMetaData) elemMetaData).enumClass;
+                try {
+                    final MethodHandle findByValue = MethodHandles.publicLookup().findStatic(
+                            enumClass, "findByValue", MethodType.methodType(enumClass, int.class));
+                    return new ThriftElementCodec(containerType, TType.I32, elemMetaData, findByValue);
+                } catch (ReflectiveOperationException e) {
+                    return null;
+                }
+            default:
+                return null;
+        }
+    }
+
+    private final byte containerType;
+    private final byte elemType;
+    private final FieldValueMetaData elemMetaData;
+    @Nullable
+    private final MethodHandle findEnumByValue;
+
+    private ThriftElementCodec(byte containerType, byte elemType, FieldValueMetaData elemMetaData,
+                               @Nullable MethodHandle findEnumByValue) {
+        this.containerType = containerType;
+        this.elemType = elemType;
+        this.elemMetaData = elemMetaData;
+        this.findEnumByValue = findEnumByValue;
+    }
+
+    /**
+     * Returns the type of the container.
+     *
+     * @return {@link TType#LIST} or {@link TType#SET}
+     */
+    public byte containerType() {
+        return containerType;
+    }
+
+    /**
+     * Writes the beginning of a container with the specified number of elements.
+     */
+    public void writeBegin(TProtocol proto, int size) throws TException {
+        if (containerType == TType.LIST) {
+            proto.writeListBegin(new TList(elemType, size));
+        } else {
+            proto.writeSetBegin(new TSet(elemType, size));
+        }
+    }
+
+    /**
+     * Writes the end of a container.
+     */
+    public void writeEnd(TProtocol proto) throws TException {
+        if (containerType == TType.LIST) {
+            proto.writeListEnd();
+        } else {
+            proto.writeSetEnd();
+        }
+    }
+
+    /**
+     * Reads the beginning of a container.
+     *
+     * @return the number of elements in the container
+     */
+    public int readBegin(TProtocol proto) throws TException {
+        final byte actualElemType;
+        final int size;
+        if (containerType == TType.LIST) {
+            final TList list = proto.readListBegin();
+            actualElemType = list.elemType;
+            size = list.size;
+        } else {
+            final TSet set = proto.readSetBegin();
+            actualElemType = set.elemType;
+            size = set.size;
+        }
+
+        if (size != 0 && actualElemType != elemType) {
+            throw new TProtocolException(TProtocolException.INVALID_DATA,
+                                         "elemType: " + actualElemType + " (expected: " + elemType + ')');
+        }
+        return size;
+    }
+
+    /**
+     * Reads the end of a container.
+     */
+    public void readEnd(TProtocol proto) throws TException {
+        if (containerType == TType.LIST) {
+            proto.readListEnd();
+        } else {
+            proto.readSetEnd();
+        }
+    }
+
+    /**
+     * Writes the specified element.
+     */
+    @SuppressWarnings("rawtypes")
+    public void write(TProtocol proto, Object elem) throws TException {
+        switch (elemMetaData.type) {
+            case TType.BOOL:
+                proto.writeBool((Boolean) elem);
+                break;
+            case TType.BYTE:
+                proto.writeByte((Byte) elem);
+                break;
+            case TType.I16:
+                proto.writeI16((Short) elem);
+                break;
+            case TType.I32:
+                proto.writeI32((Integer) elem);
+                break;
+            case TType.I64:
+                proto.writeI64((Long) elem);
+                break;
+            case TType.DOUBLE:
+                proto.writeDouble((Double) elem);
+                break;
+            case TType.STRING:
+                if (elemMetaData.isBinary()) {
+                    proto.writeBinary((ByteBuffer) elem);
+                } else {
+                    proto.writeString((String) elem);
+                }
+                break;
+            case TType.STRUCT:
+                ((TBase) elem).write(proto);
+                break;
+            case TType.ENUM:
+                proto.writeI32(((TEnum) elem).getValue());
+                break;
+            default:
+                throw new Error(); // Should never reach here.
+        }
+    }
+
+    /**
+     * Reads an element.
+     */
+    public Object read(TProtocol proto) throws TException {
+        switch (elemMetaData.type) {
+            case TType.BOOL:
+                return proto.readBool();
+            case TType.BYTE:
+                return proto.readByte();
+            case TType.I16:
+                return proto.readI16();
+            case TType.I32:
+                return proto.readI32();
+            case TType.I64:
+                return proto.readI64();
+            case TType.DOUBLE:
+                return proto.readDouble();
+            case TType.STRING:
+                return elemMetaData.isBinary() ? proto.readBinary() : proto.readString();
+            case TType.STRUCT:
+                return readStruct(proto);
+            case TType.ENUM:
+                return readEnum(proto);
+            default:
+                throw new Error(); // Should never reach here.
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    private Object readStruct(TProtocol proto) throws TException {
+        final TBase struct;
+        try {
+            struct = ((StructMetaData) elemMetaData).structClass.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("failed to create a new struct: " + elemMetaData, e);
+        }
+        struct.read(proto);
+        return struct;
+    }
+
+    private Object readEnum(TProtocol proto) throws TException {
+        final int value = proto.readI32();
+        final Object elem;
+        try {
+            assert findEnumByValue != null;
+            elem = findEnumByValue.invoke(value);
+        } catch (Throwable t) {
+            throw new IllegalStateException("failed to decode an enum: " + elemMetaData, t);
+        }
+
+        if (elem == null) {
+            // Unlike the generated code which decodes an unknown value into null, reject it because
+            // a stream cannot publish null.
+            throw new TProtocolException(TProtocolException.INVALID_DATA,
+                                         "unknown enum value: " + value + " (" + elemMetaData + ')');
+        }
+        return elem;
+    }
+}
@@ -24,6 +24,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
+import javax.annotation.Nullable;
+
 import org.apache.thrift.AsyncProcessFunction;
 import org.apache.thrift.ProcessFunction;
 import org.apache.thrift.TApplicationException;
@@ -40,6 +42,14 @@ import com.google.common.collect.ImmutableMap;
  */
 public final class ThriftFunction {
 
+    private static final int MIN_ENCODED_SIZE_HINT = 128;
+
+    /**
+     * The maximum of {@link #encodedSizeHint()}, which prevents a single large message from making every
+     * following message allocate a large buffer. A larger message simply grows its buffer.
+     */
+    private static final int MAX_ENCODED_SIZE_HINT = 65536;
+
     private enum Type {
         SYNC,
         ASYNC
@@ -54,6 +64,9 @@ public final class ThriftFunction {
     private final TFieldIdEnum successField;
     private final Map<Class<Throwable>, TFieldIdEnum> exceptionFields;
     private final Class<?>[] declaredExceptions;
+    @Nullable
+    private final ThriftElementCodec successElementCodec;
+    private volatile int encodedSizeHint = MIN_ENCODED_SIZE_HINT;
 
     ThriftFunction(Class<?> serviceType, ProcessFunction<?, ?> func) throws Exception {
         this(serviceType, func.getMethodName(), func, Type.SYNC,
@@ -83,6 +96,7 @@ public final class ThriftFunction {
         final ImmutableMap.Builder<Class<Throwable>, TFieldIdEnum> exceptionFieldsBuilder =
                 ImmutableMap.builder();
         TFieldIdEnum successField = null;
+        ThriftElementCodec successElementCodec = null;
 
         if (result != null) { // if not oneway
             @SuppressWarnings("rawtypes")
@@ -96,6 +110,7 @@ public final class ThriftFunction {
                 final String fieldName = key.getFieldName();
                 if ("success".equals(fieldName)) {
                     successField = key;
+                    successElementCodec = ThriftElementCodec.of(e.getValue().valueMetaData);
                     continue;
                 }
 
@@ -109,6 +124,7 @@ public final class ThriftFunction {
         }
 
         this.successField = successField;
+        this.successElementCodec = successElementCodec;
         exceptionFields = exceptionFieldsBuilder.build();
     }
 
@@ -176,6 +192,15 @@ public final class ThriftFunction {
         return successField;
     }
 
+    /**
+     * Returns the {@link ThriftElementCodec} of the field that holds the successful result, or {@code null}
+     * if the result is not a {@code list} or a {@code set} whose elements can be streamed.
+     */
+    @Nullable
+    public ThriftElementCodec successElementCodec() {
+        return successElementCodec;
+    }
+
     /**
      * Returns the field that holds the exception.
      */
@@ -214,6 +239,20 @@ public final class ThriftFunction {
         return newArgs;
     }
 
+    /**
+     * Returns the values of the fields of the specified arguments instance, in the order of the parameters of
+     * this function.
+     */
+    public Object[] toParams(TBase<TBase<?, ?>, TFieldIdEnum> args) {
+        requireNonNull(args, "args");
+        final TFieldIdEnum[] argFields = this.argFields;
+        final Object[] params = new Object[argFields.length];
+        for (int i = 0; i < argFields.length; i++) {
+            params[i] = ThriftFieldAccess.get(args, argFields[i]);
+        }
+        return params;
+    }
+
     /**
      * Returns a new empty result instance.
      */
@@ -252,6 +291,31 @@ public final class ThriftFunction {
         }
     }
 
+    /**
+     * Returns the estimated number of bytes of a message encoded for this function, i.e. the arguments at
+     * the client side and the result at the server side. It is used as the initial capacity of the buffer
+     * the next message is encoded into.
+     */
+    public int encodedSizeHint() {
+        return encodedSizeHint;
+    }
+
+    /**
+     * Updates {@link #encodedSizeHint()} with the size of the message encoded most recently. The estimate
+     * follows a larger size immediately and a smaller size gradually, so that the buffer rarely has to grow
+     * when the size of a message fluctuates.
+     */
+    public void updateEncodedSizeHint(int encodedSize) {
+        final int oldHint = encodedSizeHint;
+        final int newHint = Math.max(MIN_ENCODED_SIZE_HINT,
+                                     Math.min(Math.max(encodedSize, oldHint - (oldHint >>> 2)),
+                                              MAX_ENCODED_SIZE_HINT));
+        if (newHint != oldHint) {
+            // A lost update is harmless because this is only an estimate.
+            encodedSizeHint = newHint;
+        }
+    }
+
     private static TBase<TBase<?, ?>, TFieldIdEnum> getResult(ProcessFunction<?, ?> func) {
         return getResult0(Type.SYNC, func.getClass(), func.getMethodName());
     }
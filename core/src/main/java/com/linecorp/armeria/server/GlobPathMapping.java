@@ -47,6 +47,10 @@ final class GlobPathMapping extends AbstractPathMapping {
         return glob;
     }
 
+    String glob() {
+        return glob;
+    }
+
     Pattern asRegex() {
         return pattern;
     }
@@ -0,0 +1,278 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map.Entry;
+
+/**
+ * A compiled form of the {@link PathMapping}s registered to {@link PathMappings}.
+ *
+ * <p>{@link ExactPathMapping}s, {@link PrefixPathMapping}s, {@link GlobPathMapping}s and
+ * {@link CatchAllPathMapping} are stored in a radix tree keyed by their literal path prefix, so that only
+ * the mappings along the path being looked up are evaluated. Any other {@link PathMapping}s, such as
+ * {@link RegexPathMapping} or the ones decorated by {@link PathManipulators}, are kept in a fallback list.
+ * Every candidate remembers the order it was added in, and the candidate added first wins, which yields
+ * the same result as scanning all {@link PathMapping}s in order.
+ */
+final class PathMappingRouter<T> {
+
+    private static final int NO_INDEX = Integer.MAX_VALUE;
+    private static final int[] EMPTY_INDICES = new int[0];
+
+    private final PathMapping[] mappings;
+    private final Object[] values;
+    private final Node root = new Node("");
+    private final int[] fallbackIndices;
+
+    PathMappingRouter(List<Entry<PathMapping, T>> entries) {
+        final int size = entries.size();
+        mappings = new PathMapping[size];
+        values = new Object[size];
+
+        int[] fallbackIndices = new int[size];
+        int numFallbacks = 0;
+        for (int i = 0; i < size; i++) {
+            final Entry<PathMapping, T> e = entries.get(i);
+            final PathMapping mapping = e.getKey();
+            mappings[i] = mapping;
+            values[i] = e.getValue();
+
+            if (mapping instanceof ExactPathMapping) {
+                final Node node = insert(mapping.exactPath().get());
+                if (node.exactIndex == NO_INDEX) {
+                    node.exactIndex = i;
+                }
+            } else if (mapping instanceof PrefixPathMapping) {
+                final Node node = insert(((PrefixPathMapping) mapping).prefix());
+                if (node.prefixIndex == NO_INDEX) {
+                    node.prefixIndex = i;
+                }
+            } else if (mapping instanceof CatchAllPathMapping) {
+                final Node node = insert("/");
+                if (node.prefixIndex == NO_INDEX) {
+                    node.prefixIndex = i;
+                }
+            } else if (mapping instanceof GlobPathMapping) {
+                final Node node = insert(literalPrefix(((GlobPathMapping) mapping).glob()));
+                node.globIndices = append(node.globIndices, i);
+            } else {
+                fallbackIndices[numFallbacks++] = i;
+            }
+        }
+
+        this.fallbackIndices = Arrays.copyOf(fallbackIndices, numFallbacks);
+    }
+
+    /**
+     * Returns the part of the specified glob pattern that a matching path must start with.
+     */
+    private static String literalPrefix(String glob) {
+        if (glob.charAt(0) != '/') {
+            // A relative pattern is converted into '/**/<glob>'.
+            return "/";
+        }
+
+        final int asteriskIndex = glob.indexOf('*');
+        return asteriskIndex < 0 ? glob : glob.substring(0, asteriskIndex);
+    }
+
+    private Node insert(String key) {
+        final int keyLen = key.length();
+        Node node = root;
+        int pos = 0;
+        for (;;) {
+            if (pos == keyLen) {
+                return node;
+            }
+
+            final Node child = node.child(key.charAt(pos));
+            if (child == null) {
+                final Node newChild = new Node(key.substring(pos));
+                node.addChild(newChild);
+                return newChild;
+            }
+
+            final String label = child.label;
+            final int commonLen = commonPrefixLength(key, pos, label);
+            if (commonLen == label.length()) {
+                node = child;
+                pos += commonLen;
+                continue;
+            }
+
+            // Split the child so that a node ends exactly where the common prefix ends.
+            final Node split = new Node(label.substring(0, commonLen));
+            child.label = label.substring(commonLen);
+            split.addChild(child);
+            node.replaceChild(split);
+
+            node = split;
+            pos += commonLen;
+        }
+    }
+
+    private static int commonPrefixLength(String key, int keyOffset, String label) {
+        final int maxLen = Math.min(key.length() - keyOffset, label.length());
+        int i = 0;
+        while (i < maxLen && key.charAt(keyOffset + i) == label.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int[] append(int[] array, int value) {
+        final int[] newArray = Arrays.copyOf(array, array.length + 1);
+        newArray[array.length] = value;
+        return newArray;
+    }
+
+    /**
+     * Finds the value whose {@link PathMapping} was added first among the ones that match the specified
+     * {@code path}.
+     */
+    @SuppressWarnings("unchecked")
+    PathMapped<T> find(String path) {
+        final int pathLen = path.length();
+        int bestIndex = NO_INDEX;
+        String bestMappedPath = null;
+
+        // Walk down the tree while evaluating the candidates on the way.
+        Node node = root;
+        int pos = 0;
+        for (;;) {
+            final int prefixIndex = node.prefixIndex;
+            if (prefixIndex < bestIndex) {
+                final String mappedPath = mappings[prefixIndex].apply(path);
+                if (mappedPath != null) {
+                    bestIndex = prefixIndex;
+                    bestMappedPath = mappedPath;
+                }
+            }
+
+            for (int globIndex : node.globIndices) {
+                if (globIndex >= bestIndex) {
+                    break;
+                }
+                final String mappedPath = mappings[globIndex].apply(path);
+                if (mappedPath != null) {
+                    bestIndex = globIndex;
+                    bestMappedPath = mappedPath;
+                    break;
+                }
+            }
+
+            if (pos == pathLen) {
+                final int exactIndex = node.exactIndex;
+                if (exactIndex < bestIndex) {
+                    final String mappedPath = mappings[exactIndex].apply(path);
+                    if (mappedPath != null) {
+                        bestIndex = exactIndex;
+                        bestMappedPath = mappedPath;
+                    }
+                }
+                break;
+            }
+
+            final Node child = node.child(path.charAt(pos));
+            if (child == null) {
+                break;
+            }
+
+            final String label = child.label;
+            if (!path.regionMatches(pos, label, 0, label.length())) {
+                break;
+            }
+
+            node = child;
+            pos += label.length();
+        }
+
+        // Evaluate the fallback candidates which were added before the best candidate so far.
+        for (int fallbackIndex : fallbackIndices) {
+            if (fallbackIndex >= bestIndex) {
+                break;
+            }
+            final String mappedPath = mappings[fallbackIndex].apply(path);
+            if (mappedPath != null) {
+                bestIndex = fallbackIndex;
+                bestMappedPath = mappedPath;
+                break;
+            }
+        }
+
+        if (bestMappedPath == null) {
+            return PathMapped.empty();
+        }
+
+        return PathMapped.of(bestMappedPath, (T) values[bestIndex]);
+    }
+
+    private static final class Node {
+
+        private static final char[] EMPTY_CHARS = new char[0];
+        private static final Node[] EMPTY_NODES = new Node[0];
+
+        String label;
+        int exactIndex = NO_INDEX;
+        int prefixIndex = NO_INDEX;
+        int[] globIndices = EMPTY_INDICES;
+
+        /**
+         * The first characters of the {@link #children}'s labels, in ascending order.
+         */
+        private char[] childChars = EMPTY_CHARS;
+        private Node[] children = EMPTY_NODES;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        Node child(char firstChar) {
+            final int i = Arrays.binarySearch(childChars, firstChar);
+            return i >= 0 ? children[i] : null;
+        }
+
+        void addChild(Node child) {
+            final char firstChar = child.label.charAt(0);
+            final int insertionPoint = -(Arrays.binarySearch(childChars, firstChar) + 1);
+            assert insertionPoint >= 0;
+
+            final int oldLen = childChars.length;
+            final char[] newChildChars = new char[oldLen + 1];
+            final Node[] newChildren = new Node[oldLen + 1];
+            System.arraycopy(childChars, 0, newChildChars, 0, insertionPoint);
+            System.arraycopy(children, 0, newChildren, 0, insertionPoint);
+            newChildChars[insertionPoint] = firstChar;
+            newChildren[insertionPoint] = child;
+            System.arraycopy(childChars, insertionPoint, newChildChars, insertionPoint + 1,
+                             oldLen - insertionPoint);
+            System.arraycopy(children, insertionPoint, newChildren, insertionPoint + 1,
+                             oldLen - insertionPoint);
+
+            childChars = newChildChars;
+            children = newChildren;
+        }
+
+        void replaceChild(Node child) {
+            final int i = Arrays.binarySearch(childChars, child.label.charAt(0));
+            assert i >= 0;
+            children[i] = child;
+        }
+    }
+}
@@ -32,13 +32,17 @@ import com.linecorp.armeria.server.composition.SimpleCompositeService;
  * Maps a request path to a value associated with a matching {@link PathMapping}. Useful when building a
  * service that delegates some or all of its requests to other services. e.g. {@link SimpleCompositeService}.
  *
+ * <p>When more than one {@link PathMapping} matches a path, the value of the {@link PathMapping} added first
+ * is chosen. Once frozen, the exact, prefix and glob {@link PathMapping}s are compiled into a tree so that
+ * the cost of a look-up does not grow linearly with the number of {@link PathMapping}s.
+ *
  * @param <T> the type of the mapped value
  */
 public class PathMappings<T> implements Function<String, PathMapped<T>> {
 
     private final ThreadLocal<Map<String, PathMapped<T>>> threadLocalCache;
     private final List<Entry<PathMapping, T>> patterns = new ArrayList<>();
-    private boolean frozen;
+    private volatile PathMappingRouter<T> router;
 
     /**
      * Creates a new instance with the default thread-local cache size (1024).
@@ -74,7 +78,7 @@ public class PathMappings<T> implements Function<String, PathMapped<T>> {
      * @throws IllegalStateException if {@link #freeze()} or {@link #apply(String)} has been called already
      */
     public PathMappings<T> add(PathMapping pathMapping, T value) {
-        if (frozen) {
+        if (router != null) {
             throw new IllegalStateException("can't add a new mapping once apply() was called");
         }
 
@@ -89,10 +93,25 @@ public class PathMappings<T> implements Function<String, PathMapped<T>> {
      * Prevents adding a new mapping via {@link #add(PathMapping, Object)}.
      */
     public PathMappings<T> freeze() {
-        frozen = true;
+        router();
         return this;
     }
 
+    private PathMappingRouter<T> router() {
+        PathMappingRouter<T> router = this.router;
+        if (router != null) {
+            return router;
+        }
+
+        synchronized (patterns) {
+            router = this.router;
+            if (router == null) {
+                this.router = router = new PathMappingRouter<>(patterns);
+            }
+        }
+        return router;
+    }
+
     /**
      * Finds the {@link Service} whose {@link PathMapping} matches the specified {@code path}.
      *
@@ -101,7 +120,7 @@ public class PathMappings<T> implements Function<String, PathMapped<T>> {
      */
     @Override
     public PathMapped<T> apply(String path) {
-        freeze();
+        final PathMappingRouter<T> router = router();
 
         // Look up the cache if the cache is available.
         final Map<String, PathMapped<T>> cache =
@@ -115,16 +134,7 @@ public class PathMappings<T> implements Function<String, PathMapped<T>> {
         }
 
         // Cache miss or disabled cache
-        PathMapped<T> result = PathMapped.empty();
-        final int size = patterns.size();
-        for (int i = 0; i < size; i++) {
-            final Entry<PathMapping, T> e = patterns.get(i);
-            final String mappedPath = e.getKey().apply(path);
-            if (mappedPath != null) {
-                result = PathMapped.of(mappedPath, e.getValue());
-                break;
-            }
-        }
+        final PathMapped<T> result = router.find(path);
 
         // Cache the result.
         if (cache != null) {
@@ -138,6 +148,4 @@ public class PathMappings<T> implements Function<String, PathMapped<T>> {
     public String toString() {
         return patterns.toString();
     }
-
-
 }
@@ -46,6 +46,10 @@ final class PrefixPathMapping extends AbstractPathMapping {
         return stripPrefix ? path.substring(prefix.length() - 1) : path;
     }
 
+    String prefix() {
+        return prefix;
+    }
+
     @Override
     public String loggerName() {
         return loggerName;
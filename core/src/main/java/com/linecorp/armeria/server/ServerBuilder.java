@@ -38,6 +38,7 @@ import javax.net.ssl.SSLException;
 import com.linecorp.armeria.common.Request;
 import com.linecorp.armeria.common.Response;
 import com.linecorp.armeria.common.SessionProtocol;
+import com.linecorp.armeria.common.http.ByteBufHttpData;
 
 import io.netty.handler.ssl.SslContext;
 import io.netty.util.concurrent.DefaultThreadFactory;
@@ -132,6 +133,7 @@ public final class ServerBuilder {
     private long idleTimeoutMillis = DEFAULT_IDLE_TIMEOUT_MILLIS;
     private long defaultRequestTimeoutMillis = DEFAULT_DEFAULT_REQUEST_TIMEOUT_MILLIS;
     private long defaultMaxRequestLength = DEFAULT_DEFAULT_MAX_REQUEST_LENGTH;
+    private boolean usePooledHttpData;
     private Duration gracefulShutdownQuietPeriod = DEFAULT_GRACEFUL_SHUTDOWN_QUIET_PERIOD;
     private Duration gracefulShutdownTimeout = DEFAULT_GRACEFUL_SHUTDOWN_TIMEOUT;
     private Executor blockingTaskExecutor;
@@ -264,6 +266,17 @@ public final class ServerBuilder {
         return this;
     }
 
+    /**
+     * Sets whether the content of an HTTP request is decoded into a pooled {@link ByteBufHttpData} which
+     * wraps the received buffer without copying it. This is disabled by default. Enable this only when
+     * every {@link Service} either aggregates a request or releases the {@link ByteBufHttpData} it consumes;
+     * otherwise the pooled buffers will leak.
+     */
+    public ServerBuilder usePooledHttpData(boolean usePooledHttpData) {
+        this.usePooledHttpData = usePooledHttpData;
+        return this;
+    }
+
     /**
      * Sets the amount of time to wait after calling {@link Server#stop()} for
      * requests to go away before actually shutting down.
@@ -552,7 +565,7 @@ public final class ServerBuilder {
         Server server = new Server(new ServerConfig(
                 ports, defaultVirtualHost, virtualHosts, numBosses, numWorkers, maxPendingRequests,
                 maxConnections, idleTimeoutMillis, defaultRequestTimeoutMillis, defaultMaxRequestLength,
-                gracefulShutdownQuietPeriod, gracefulShutdownTimeout,
+                usePooledHttpData, gracefulShutdownQuietPeriod, gracefulShutdownTimeout,
                 blockingTaskExecutor, serviceLoggerPrefix));
         serverListeners.forEach(listener -> server.addListener(listener));
         return server;
@@ -563,7 +576,7 @@ public final class ServerBuilder {
         return ServerConfig.toString(
                 getClass(), ports, defaultVirtualHost, virtualHosts,
                 numWorkers, maxPendingRequests, maxConnections, idleTimeoutMillis,
-                defaultRequestTimeoutMillis, defaultMaxRequestLength,
+                defaultRequestTimeoutMillis, defaultMaxRequestLength, usePooledHttpData,
                 gracefulShutdownQuietPeriod, gracefulShutdownTimeout,
                 blockingTaskExecutor, serviceLoggerPrefix);
     }
@@ -28,6 +28,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 
 import com.linecorp.armeria.common.Request;
+import com.linecorp.armeria.common.http.ByteBufHttpData;
 import com.linecorp.armeria.internal.guava.stream.GuavaCollectors;
 
 import io.netty.handler.ssl.SslContext;
@@ -57,6 +58,7 @@ public final class ServerConfig {
     private final long defaultRequestTimeoutMillis;
     private final long idleTimeoutMillis;
     private final long defaultMaxRequestLength;
+    private final boolean usePooledHttpData;
 
     private final Duration gracefulShutdownQuietPeriod;
     private final Duration gracefulShutdownTimeout;
@@ -72,7 +74,7 @@ public final class ServerConfig {
             VirtualHost defaultVirtualHost, Iterable<VirtualHost> virtualHosts,
             int numBosses, int numWorkers, int maxPendingRequests, int maxConnections,
             long idleTimeoutMillis, long defaultRequestTimeoutMillis,
-            long defaultMaxRequestLength,
+            long defaultMaxRequestLength, boolean usePooledHttpData,
             Duration gracefulShutdownQuietPeriod, Duration gracefulShutdownTimeout,
             Executor blockingTaskExecutor, String serviceLoggerPrefix) {
 
@@ -88,6 +90,7 @@ public final class ServerConfig {
         this.idleTimeoutMillis = validateIdleTimeoutMillis(idleTimeoutMillis);
         this.defaultRequestTimeoutMillis = validateDefaultRequestTimeoutMillis(defaultRequestTimeoutMillis);
         this.defaultMaxRequestLength = validateDefaultMaxRequestLength(defaultMaxRequestLength);
+        this.usePooledHttpData = usePooledHttpData;
         this.gracefulShutdownQuietPeriod = validateNonNegative(requireNonNull(
                 gracefulShutdownQuietPeriod), "gracefulShutdownQuietPeriod");
         this.gracefulShutdownTimeout = validateNonNegative(requireNonNull(
@@ -379,6 +382,14 @@ public final class ServerConfig {
         return defaultMaxRequestLength;
     }
 
+    /**
+     * Returns whether the content of an HTTP request is decoded into a pooled {@link ByteBufHttpData}
+     * instead of being copied into a heap {@code byte[]}.
+     */
+    public boolean usePooledHttpData() {
+        return usePooledHttpData;
+    }
+
     /**
      * Returns the number of milliseconds to wait for active requests to go end before shutting down.
      * {@code 0} means the server will stop right away without waiting.
@@ -420,7 +431,7 @@ public final class ServerConfig {
                     getClass(), ports(), null, virtualHosts(),
                     numWorkers(), maxPendingRequests(), maxConnections(),
                     idleTimeoutMillis(), defaultRequestTimeoutMillis, defaultMaxRequestLength,
-                    gracefulShutdownQuietPeriod(), gracefulShutdownTimeout(),
+                    usePooledHttpData, gracefulShutdownQuietPeriod(), gracefulShutdownTimeout(),
                     blockingTaskExecutor(), serviceLoggerPrefix());
         }
 
@@ -431,7 +442,7 @@ public final class ServerConfig {
             Class<?> type,
             Iterable<ServerPort> ports, VirtualHost defaultVirtualHost, List<VirtualHost> virtualHosts,
             int numWorkers, int maxPendingRequests, int maxConnections, long idleTimeoutMillis,
-            long defaultRequestTimeoutMillis, long defaultMaxRequestLength,
+            long defaultRequestTimeoutMillis, long defaultMaxRequestLength, boolean usePooledHttpData,
             Duration gracefulShutdownQuietPeriod, Duration gracefulShutdownTimeout,
             Executor blockingTaskExecutor, String serviceLoggerPrefix) {
 
@@ -489,7 +500,9 @@ public final class ServerConfig {
         buf.append(defaultRequestTimeoutMillis);
         buf.append("ms, defaultMaxRequestLength: ");
         buf.append(defaultMaxRequestLength);
-        buf.append("B, gracefulShutdownQuietPeriod: ");
+        buf.append("B, usePooledHttpData: ");
+        buf.append(usePooledHttpData);
+        buf.append(", gracefulShutdownQuietPeriod: ");
         buf.append(gracefulShutdownQuietPeriod);
         buf.append(", gracefulShutdownTimeout: ");
         buf.append(gracefulShutdownTimeout);
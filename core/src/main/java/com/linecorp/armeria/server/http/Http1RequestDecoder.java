@@ -26,7 +26,6 @@ import com.google.common.net.MediaType;
 
 import com.linecorp.armeria.common.ContentTooLargeException;
 import com.linecorp.armeria.common.ProtocolViolationException;
-import com.linecorp.armeria.common.http.HttpData;
 import com.linecorp.armeria.internal.InboundTrafficController;
 import com.linecorp.armeria.internal.http.ArmeriaHttpUtil;
 import com.linecorp.armeria.server.ServerConfig;
@@ -163,7 +162,7 @@ final class Http1RequestDecoder extends ChannelDuplexHandler {
                     }
 
                     if (req.isOpen()) {
-                        req.write(HttpData.of(data));
+                        req.write(ArmeriaHttpUtil.toArmeria(data, cfg.usePooledHttpData()));
                     }
                 }
 
@@ -27,7 +27,6 @@ import com.google.common.net.MediaType;
 
 import com.linecorp.armeria.common.ContentTooLargeException;
 import com.linecorp.armeria.common.http.DefaultHttpRequest;
-import com.linecorp.armeria.common.http.HttpData;
 import com.linecorp.armeria.common.http.HttpHeaderNames;
 import com.linecorp.armeria.common.http.HttpHeaders;
 import com.linecorp.armeria.internal.InboundTrafficController;
@@ -154,7 +153,7 @@ final class Http2RequestDecoder extends Http2EventAdapter {
             }
         } else if (req.isOpen()) {
             try {
-                req.write(HttpData.of(data));
+                req.write(ArmeriaHttpUtil.toArmeria(data, cfg.usePooledHttpData()));
             } catch (Throwable t) {
                 req.close(t);
                 throw connectionError(INTERNAL_ERROR, t, "failed to consume a DATA frame");
@@ -50,6 +50,7 @@ import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http2.Http2Error;
+import io.netty.util.ReferenceCountUtil;
 
 final class HttpResponseSubscriber implements Subscriber<HttpObject>, RequestTimeoutChangeListener,
                                               ChannelFutureListener {
@@ -154,6 +155,7 @@ final class HttpResponseSubscriber implements Subscriber<HttpObject>, RequestTim
             case NEEDS_HEADERS: {
                 logBuilder().startResponse();
                 if (!(o instanceof HttpHeaders)) {
+                    ReferenceCountUtil.safeRelease(o);
                     throw newIllegalStateException(
                             "published an HttpData without a preceding Http2Headers: " + o +
                             " (service: " + service() + ')');
@@ -208,6 +210,7 @@ final class HttpResponseSubscriber implements Subscriber<HttpObject>, RequestTim
                 break;
             }
             case DONE:
+                ReferenceCountUtil.safeRelease(o);
                 return;
         }
 
@@ -247,12 +250,14 @@ final class HttpResponseSubscriber implements Subscriber<HttpObject>, RequestTim
 
     private void write(HttpObject o, boolean endOfStream, boolean flush) {
         if (state == State.DONE) {
+            ReferenceCountUtil.safeRelease(o);
             throw newIllegalStateException(
                     "a response publisher published an HttpObject after a trailing HttpHeaders: " + o);
         }
 
         final Channel ch = ctx.channel();
         if (!ch.isActive()) {
+            ReferenceCountUtil.safeRelease(o);
             fail(ClosedSessionException.get());
             return;
         }
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.http.encoding;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayDeque;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import javax.annotation.Nullable;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import com.linecorp.armeria.common.http.ByteBufHttpData;
+import com.linecorp.armeria.common.http.HttpData;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.util.concurrent.FastThreadLocal;
+
+/**
+ * Compresses a stream of {@link HttpData} into {@link ByteBuf}s with the {@code "gzip"} or
+ * {@code "deflate"} encoding. Unlike {@link java.util.zip.DeflaterOutputStream}, the compressed data is
+ * written directly into the buffer that is sent to the peer, and the {@link Deflater} is borrowed from a
+ * per-thread pool instead of being created for every response.
+ */
+final class HttpDataDeflater {
+
+    private static final byte[] GZIP_HEADER = {
+            0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0
+    };
+
+    private static final int GZIP_TRAILER_LENGTH = 8;
+
+    /**
+     * The minimum number of writable bytes to ensure before each {@link Deflater#deflate(byte[], int, int)}
+     * invocation, which is large enough to hold the marker of a sync flush and the end of a stream.
+     */
+    private static final int MIN_WRITABLE_BYTES = 64;
+
+    private static final int MAX_POOLED_DEFLATERS_PER_TYPE = 16;
+
+    /**
+     * The pools of {@link Deflater}s, indexed by {@link #poolIndex(boolean, int)}. A {@link Deflater} is
+     * pooled per compression level because changing the level of a {@link Deflater} affects how its next
+     * input is compressed.
+     */
+    private static final FastThreadLocal<ArrayDeque<Deflater>[]> pools =
+            new FastThreadLocal<ArrayDeque<Deflater>[]>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                protected ArrayDeque<Deflater>[] initialValue() {
+                    final ArrayDeque<Deflater>[] pools = new ArrayDeque[poolIndex(true, 9) + 1];
+                    for (int i = 0; i < pools.length; i++) {
+                        pools[i] = new ArrayDeque<>();
+                    }
+                    return pools;
+                }
+            };
+
+    private static int poolIndex(boolean nowrap, int compressionLevel) {
+        return (compressionLevel + 1) * 2 + (nowrap ? 1 : 0);
+    }
+
+    @VisibleForTesting
+    static int numPooledDeflaters(HttpEncodingType encodingType, int compressionLevel) {
+        return pools.get()[poolIndex(encodingType == HttpEncodingType.GZIP, compressionLevel)].size();
+    }
+
+    private final boolean usePooledHttpData;
+    private final boolean gzip;
+    private final int compressionLevel;
+    @Nullable
+    private final CRC32 crc;
+    @Nullable
+    private Deflater deflater;
+    private boolean headerWritten;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param compressionLevel {@code -1} for the default compression level or
+     *                         a value between {@code 0} (no compression) and {@code 9} (best compression)
+     * @param usePooledHttpData whether to compress into pooled {@link ByteBuf}s and return them as
+     *                          {@link ByteBufHttpData}s. If {@code false}, the compressed data is returned as
+     *                          an {@link HttpData} which does not need to be released.
+     */
+    HttpDataDeflater(HttpEncodingType encodingType, int compressionLevel, boolean usePooledHttpData) {
+        requireNonNull(encodingType, "encodingType");
+        checkArgument(compressionLevel >= -1 && compressionLevel <= 9,
+                      "compressionLevel: %s (expected: -1..9)", compressionLevel);
+        this.usePooledHttpData = usePooledHttpData;
+        this.compressionLevel = compressionLevel;
+
+        switch (encodingType) {
+            case GZIP:
+                // The gzip header and trailer are written by this class rather than zlib.
+                gzip = true;
+                crc = new CRC32();
+                break;
+            case DEFLATE:
+                gzip = false;
+                crc = null;
+                break;
+            default:
+                throw new IllegalArgumentException("Unexpected zlib type, this is a programming bug.");
+        }
+
+        final ArrayDeque<Deflater> pool = pools.get()[poolIndex(gzip, compressionLevel)];
+        final Deflater deflater = pool.pollFirst();
+        this.deflater = deflater != null ? deflater : new Deflater(compressionLevel, gzip);
+    }
+
+    /**
+     * Compresses the specified {@link HttpData} and flushes the compressed data so that the peer can
+     * decompress everything written so far. The specified {@link HttpData} is not released.
+     */
+    HttpData encode(HttpData data) {
+        final Deflater deflater = this.deflater;
+        checkState(deflater != null, "finished already");
+
+        final int length = data.length();
+        // The upper bound of the compressed length, as estimated by zlib's deflateBound().
+        final ByteBuf out = newBuffer(
+                length + (length >>> 12) + (length >>> 14) + (length >>> 25) + MIN_WRITABLE_BYTES);
+        boolean success = false;
+        try {
+            writeHeader(out);
+            if (length != 0) {
+                if (crc != null) {
+                    crc.update(data.array(), data.offset(), length);
+                }
+                deflater.setInput(data.array(), data.offset(), length);
+            }
+            deflate(deflater, out, Deflater.SYNC_FLUSH);
+            success = true;
+            return toHttpData(out);
+        } finally {
+            if (!success) {
+                out.release();
+            }
+        }
+    }
+
+    /**
+     * Finishes the compressed stream and returns the remaining compressed data, including the trailer.
+     * The {@link Deflater} is returned to the pool.
+     */
+    HttpData finish() {
+        final Deflater deflater = this.deflater;
+        checkState(deflater != null, "finished already");
+
+        final ByteBuf out = newBuffer(GZIP_HEADER.length + MIN_WRITABLE_BYTES + GZIP_TRAILER_LENGTH);
+        boolean success = false;
+        try {
+            writeHeader(out);
+            deflater.finish();
+            deflate(deflater, out, Deflater.NO_FLUSH);
+            if (crc != null) {
+                out.writeIntLE((int) crc.getValue());
+                out.writeIntLE((int) deflater.getBytesRead());
+            }
+            success = true;
+            return toHttpData(out);
+        } finally {
+            if (!success) {
+                out.release();
+            }
+            close();
+        }
+    }
+
+    /**
+     * Returns the {@link Deflater} to the pool without finishing the compressed stream. This method does
+     * nothing if {@link #finish()} or this method has been invoked already.
+     */
+    void close() {
+        final Deflater deflater = this.deflater;
+        if (deflater == null) {
+            return;
+        }
+
+        this.deflater = null;
+        deflater.reset();
+        final ArrayDeque<Deflater> pool = pools.get()[poolIndex(gzip, compressionLevel)];
+        if (pool.size() < MAX_POOLED_DEFLATERS_PER_TYPE) {
+            pool.addFirst(deflater);
+        } else {
+            deflater.end();
+        }
+    }
+
+    private ByteBuf newBuffer(int initialCapacity) {
+        // Deflater writes into an array, so both buffers are heap buffers.
+        return usePooledHttpData ? ByteBufAllocator.DEFAULT.heapBuffer(initialCapacity)
+                                 : Unpooled.buffer(initialCapacity);
+    }
+
+    private HttpData toHttpData(ByteBuf out) {
+        if (usePooledHttpData) {
+            return new ByteBufHttpData(out, false);
+        }
+        // Wrap the array of the unpooled buffer without a copy. It is garbage-collected as usual.
+        return HttpData.of(out.array(), out.arrayOffset() + out.readerIndex(), out.readableBytes());
+    }
+
+    private void writeHeader(ByteBuf out) {
+        if (!headerWritten) {
+            headerWritten = true;
+            if (gzip) {
+                out.writeBytes(GZIP_HEADER);
+            }
+        }
+    }
+
+    private static void deflate(Deflater deflater, ByteBuf out, int flush) {
+        for (;;) {
+            out.ensureWritable(MIN_WRITABLE_BYTES);
+            final int writableBytes = out.writableBytes();
+            final int writtenBytes = deflater.deflate(out.array(), out.arrayOffset() + out.writerIndex(),
+                                                      writableBytes, flush);
+            out.writerIndex(out.writerIndex() + writtenBytes);
+
+            if (deflater.finished()) {
+                return;
+            }
+
+            // The stream has been flushed when all input is consumed and the output did not fill the buffer.
+            if (flush == Deflater.SYNC_FLUSH && writtenBytes < writableBytes && deflater.needsInput()) {
+                return;
+            }
+        }
+    }
+}
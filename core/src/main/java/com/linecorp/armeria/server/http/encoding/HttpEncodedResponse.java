@@ -18,10 +18,9 @@ package com.linecorp.armeria.server.http.encoding;
 
 import static java.util.Objects.requireNonNull;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.util.function.Predicate;
-import java.util.zip.DeflaterOutputStream;
+import java.util.function.ToIntFunction;
+import java.util.zip.Deflater;
 
 import javax.annotation.Nullable;
 
@@ -38,6 +37,8 @@ import com.linecorp.armeria.common.http.HttpResponse;
 import com.linecorp.armeria.common.http.HttpStatusClass;
 import com.linecorp.armeria.common.stream.FilteredStreamMessage;
 
+import io.netty.util.ReferenceCountUtil;
+
 /**
  * A {@link FilteredStreamMessage} that applies HTTP encoding to {@link HttpObject}s as they are published.
  */
@@ -46,12 +47,11 @@ class HttpEncodedResponse extends FilteredHttpResponse {
     private final HttpEncodingType encodingType;
     private final Predicate<MediaType> encodableContentTypePredicate;
     private final int minBytesToForceChunkedAndEncoding;
+    private final ToIntFunction<MediaType> compressionLevelFunction;
+    private final boolean usePooledHttpData;
 
     @Nullable
-    private ByteArrayOutputStream encodedStream;
-
-    @Nullable
-    private DeflaterOutputStream encodingStream;
+    private HttpDataDeflater deflater;
 
     private boolean headersSent;
 
@@ -59,13 +59,17 @@ class HttpEncodedResponse extends FilteredHttpResponse {
             HttpResponse delegate,
             HttpEncodingType encodingType,
             Predicate<MediaType> encodableContentTypePredicate,
-            int minBytesToForceChunkedAndEncoding) {
+            int minBytesToForceChunkedAndEncoding,
+            ToIntFunction<MediaType> compressionLevelFunction,
+            boolean usePooledHttpData) {
         super(delegate);
         this.encodingType = requireNonNull(encodingType, "encodingType");
         this.encodableContentTypePredicate = requireNonNull(encodableContentTypePredicate,
                                                             "encodableContentTypePredicate");
         this.minBytesToForceChunkedAndEncoding = HttpEncodingService.validateMinBytesToForceChunkedAndEncoding(
                 minBytesToForceChunkedAndEncoding);
+        this.compressionLevelFunction = requireNonNull(compressionLevelFunction, "compressionLevelFunction");
+        this.usePooledHttpData = usePooledHttpData;
     }
 
     @Override
@@ -87,8 +91,13 @@ class HttpEncodedResponse extends FilteredHttpResponse {
                 return obj;
             }
 
-            encodedStream = new ByteArrayOutputStream();
-            encodingStream = HttpEncoders.getEncodingOutputStream(encodingType, encodedStream);
+            final HttpDataDeflater deflater =
+                    new HttpDataDeflater(encodingType, compressionLevel(headers), usePooledHttpData);
+            this.deflater = deflater;
+            // Neither beforeComplete() nor beforeError() is invoked when the subscription is cancelled,
+            // so the Deflater is also returned to the pool when the stream is closed for any reason.
+            // close() does nothing if finish() has returned it already.
+            closeFuture().whenComplete((unused1, unused2) -> deflater.close());
 
             // Always use chunked encoding when compressing.
             headers.remove(HttpHeaderNames.CONTENT_LENGTH);
@@ -104,49 +113,45 @@ class HttpEncodedResponse extends FilteredHttpResponse {
             return headers;
         }
 
-        if (encodingStream == null) {
+        if (deflater == null) {
             // Encoding was disabled for this response.
             return obj;
         }
 
-        HttpData data = (HttpData) obj;
+        final HttpData data = (HttpData) obj;
         try {
-            encodingStream.write(data.array(), data.offset(), data.length());
-            encodingStream.flush();
-            return HttpData.of(encodedStream.toByteArray());
-        } catch (IOException e) {
-            throw new IllegalStateException(
-                    "Error encoding HttpData, this should not happen with byte arrays.",
-                    e);
+            return deflater.encode(data);
         } finally {
-            encodedStream.reset();
+            ReferenceCountUtil.safeRelease(data);
         }
     }
 
     @Override
     protected void beforeComplete(Subscriber<? super HttpObject> subscriber) {
-        closeEncoder();
-        if (encodedStream != null && encodedStream.size() > 0) {
-            subscriber.onNext(HttpData.of(encodedStream.toByteArray()));
+        if (deflater != null) {
+            subscriber.onNext(deflater.finish());
         }
     }
 
     @Override
     protected void beforeError(Subscriber<? super HttpObject> subscriber, Throwable cause) {
-        closeEncoder();
+        if (deflater != null) {
+            deflater.close();
+        }
     }
 
-    private void closeEncoder() {
-        if (encodingStream == null) {
-            return;
+    private int compressionLevel(HttpHeaders headers) {
+        final String contentType = headers.get(HttpHeaderNames.CONTENT_TYPE);
+        if (contentType == null) {
+            return HttpEncodingService.DEFAULT_COMPRESSION_LEVEL;
         }
-        try {
-            encodingStream.close();
-        } catch (IOException e) {
-            throw new IllegalStateException(
-                    "Error closing encodingStream, this should not happen with byte arrays.",
-                    e);
+        // The content type has been validated by shouldEncodeResponse() already.
+        final int level = compressionLevelFunction.applyAsInt(MediaType.parse(contentType));
+        if (level == Deflater.DEFAULT_COMPRESSION) {
+            return level;
         }
+        // Clamp the level rather than failing the response on the event loop.
+        return Math.max(Deflater.NO_COMPRESSION, Math.min(level, Deflater.BEST_COMPRESSION));
     }
 
     private boolean shouldEncodeResponse(HttpHeaders headers) {
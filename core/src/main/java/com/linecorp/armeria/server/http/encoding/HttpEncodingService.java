@@ -19,7 +19,9 @@ package com.linecorp.armeria.server.http.encoding;
 import static java.util.Objects.requireNonNull;
 
 import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
 import java.util.stream.Stream;
+import java.util.zip.Deflater;
 
 import com.google.common.net.MediaType;
 
@@ -47,8 +49,14 @@ public class HttpEncodingService
 
     private static final int DEFAULT_MIN_BYTES_TO_FORCE_CHUNKED_AND_ENCODING = 1024;
 
+    static final int DEFAULT_COMPRESSION_LEVEL = Deflater.DEFAULT_COMPRESSION;
+
+    private static final ToIntFunction<MediaType> DEFAULT_COMPRESSION_LEVEL_FUNCTION =
+            contentType -> DEFAULT_COMPRESSION_LEVEL;
+
     private final Predicate<MediaType> encodableContentTypePredicate;
     private final int minBytesToForceChunkedAndEncoding;
+    private final ToIntFunction<MediaType> compressionLevelFunction;
 
     /**
      * Creates a new {@link DecoratingService} that HTTP encodes response data published from {@code delegate}.
@@ -69,11 +77,32 @@ public class HttpEncodingService
     public HttpEncodingService(Service<? super HttpRequest, ? extends HttpResponse> delegate,
                                Predicate<MediaType> encodableContentTypePredicate,
                                int minBytesToForceChunkedAndEncoding) {
+        this(delegate, encodableContentTypePredicate, minBytesToForceChunkedAndEncoding,
+             DEFAULT_COMPRESSION_LEVEL_FUNCTION);
+    }
+
+    /**
+     * Creates a new {@link DecoratingService} that HTTP encodes response data published from {@code delegate}.
+     * Encoding will be applied when the client supports it, the response content type passes the supplied
+     * {@code encodableContentTypePredicate} and the response either has variable content length or a length
+     * greater than {@code minBytesToForceChunkedAndEncoding}.
+     *
+     * @param compressionLevelFunction the function that returns the compression level for the content type
+     *                                 of a response, which is {@code -1} for the default level or a value
+     *                                 between {@code 0} (no compression) and {@code 9} (best compression).
+     *                                 The default level is used for a response without content type, and
+     *                                 a level out of the range is clamped into it.
+     */
+    public HttpEncodingService(Service<? super HttpRequest, ? extends HttpResponse> delegate,
+                               Predicate<MediaType> encodableContentTypePredicate,
+                               int minBytesToForceChunkedAndEncoding,
+                               ToIntFunction<MediaType> compressionLevelFunction) {
         super(delegate);
         this.encodableContentTypePredicate = requireNonNull(encodableContentTypePredicate,
                                                             "encodableContentTypePredicate");
         this.minBytesToForceChunkedAndEncoding = validateMinBytesToForceChunkedAndEncoding(
                 minBytesToForceChunkedAndEncoding);
+        this.compressionLevelFunction = requireNonNull(compressionLevelFunction, "compressionLevelFunction");
     }
 
     @Override
@@ -87,7 +116,9 @@ public class HttpEncodingService
                 delegateResponse,
                 encodingType,
                 encodableContentTypePredicate,
-                minBytesToForceChunkedAndEncoding);
+                minBytesToForceChunkedAndEncoding,
+                compressionLevelFunction,
+                ctx.server().config().usePooledHttpData());
     }
 
     static int validateMinBytesToForceChunkedAndEncoding(int minBytesToForceChunkedAndEncoding) {
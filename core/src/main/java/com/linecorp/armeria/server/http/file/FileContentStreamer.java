@@ -0,0 +1,135 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.http.file;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.Executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.linecorp.armeria.common.http.ByteBufHttpData;
+import com.linecorp.armeria.common.http.HttpData;
+import com.linecorp.armeria.common.http.HttpResponseWriter;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+
+/**
+ * Streams a region of a {@link FileChannel} into an {@link HttpResponseWriter} chunk by chunk. The next
+ * chunk is read only when the previous one has been consumed, so that the memory footprint of serving a
+ * file does not grow with its size.
+ */
+final class FileContentStreamer implements Runnable {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileContentStreamer.class);
+
+    static final int CHUNK_SIZE = 65536;
+
+    private final FileChannel in;
+    private final long end;
+    private final HttpResponseWriter res;
+    private final Executor executor;
+    private final boolean usePooledHttpData;
+    private long position;
+
+    /**
+     * Creates a new instance that streams the bytes of {@code in} in the range of
+     * {@code [position, position + length)}. The {@link FileChannel} is closed when the streaming ends.
+     *
+     * @param executor the {@link Executor} which performs the blocking file reads
+     * @param usePooledHttpData whether to write the chunks as pooled {@link ByteBufHttpData}s
+     */
+    FileContentStreamer(FileChannel in, long position, long length,
+                        HttpResponseWriter res, Executor executor, boolean usePooledHttpData) {
+        this.in = in;
+        this.position = position;
+        end = position + length;
+        this.res = res;
+        this.executor = executor;
+        this.usePooledHttpData = usePooledHttpData;
+    }
+
+    void start() {
+        executor.execute(this);
+    }
+
+    @Override
+    public void run() {
+        try {
+            if (position < end) {
+                final ByteBuf buf = read((int) Math.min(CHUNK_SIZE, end - position));
+                final HttpData data = usePooledHttpData ? new ByteBufHttpData(buf, false)
+                                                        : HttpData.of(buf.array());
+                if (!res.write(data)) {
+                    // The response has been closed or aborted already.
+                    close();
+                    return;
+                }
+            }
+
+            if (position < end) {
+                res.onDemand(() -> executor.execute(this))
+                   .exceptionally(unused -> {
+                       close();
+                       return null;
+                   });
+            } else {
+                close();
+                res.close();
+            }
+        } catch (Throwable cause) {
+            close();
+            res.close(cause);
+        }
+    }
+
+    private ByteBuf read(int length) throws IOException {
+        // An unpooled heap buffer is backed by an array of exactly 'length' bytes, which is wrapped by
+        // HttpData.of(byte[]) without a copy.
+        final ByteBuf buf = usePooledHttpData ? ByteBufAllocator.DEFAULT.directBuffer(length, length)
+                                              : Unpooled.buffer(length, length);
+        boolean success = false;
+        try {
+            while (buf.isWritable()) {
+                final int readBytes = buf.writeBytes(in, position + buf.writerIndex(), buf.writableBytes());
+                if (readBytes < 0) {
+                    // The file has been truncated since its length was determined.
+                    throw new EOFException("unexpected end of file at: " + (position + buf.writerIndex()));
+                }
+            }
+            position += length;
+            success = true;
+            return buf;
+        } finally {
+            if (!success) {
+                buf.release();
+            }
+        }
+    }
+
+    private void close() {
+        try {
+            in.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close a file channel: {}", in, e);
+        }
+    }
+}
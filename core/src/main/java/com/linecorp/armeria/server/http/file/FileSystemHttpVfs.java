@@ -71,6 +71,10 @@ final class FileSystemHttpVfs implements HttpVfs {
             this.file = file;
         }
 
+        File file() {
+            return file;
+        }
+
         @Override
         public long lastModifiedMillis() {
             return file.lastModified();
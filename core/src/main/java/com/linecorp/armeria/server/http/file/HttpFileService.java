@@ -18,13 +18,15 @@ package com.linecorp.armeria.server.http.file;
 
 import static java.util.Objects.requireNonNull;
 
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.text.ParseException;
-import java.util.Collections;
 import java.util.EnumSet;
-import java.util.Map;
 
 import javax.annotation.Nullable;
 
@@ -32,6 +34,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Splitter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.Weigher;
+import com.google.common.hash.Hashing;
 import com.google.common.net.MediaType;
 
 import com.linecorp.armeria.common.Request;
@@ -42,16 +49,28 @@ import com.linecorp.armeria.common.http.HttpRequest;
 import com.linecorp.armeria.common.http.HttpResponse;
 import com.linecorp.armeria.common.http.HttpResponseWriter;
 import com.linecorp.armeria.common.http.HttpStatus;
-import com.linecorp.armeria.common.util.LruMap;
 import com.linecorp.armeria.server.Service;
 import com.linecorp.armeria.server.ServiceRequestContext;
 import com.linecorp.armeria.server.http.AbstractHttpService;
 import com.linecorp.armeria.server.http.HttpService;
+import com.linecorp.armeria.server.http.file.FileSystemHttpVfs.FileSystemEntry;
 import com.linecorp.armeria.server.http.file.HttpVfs.Entry;
 
 /**
  * An {@link HttpService} that serves static files from a file system.
  *
+ * <p>A file in an O/S file system which is larger than {@link HttpFileServiceConfig#maxCacheEntrySizeBytes()}
+ * is streamed chunk by chunk instead of being read into memory at once. A request with a single byte range
+ * in its {@code "range"} header is served with a {@code "206 Partial Content"} response, optionally
+ * conditional on the {@code "if-range"} header.
+ *
+ * <p>The content of a small file is cached in memory, bounded by both
+ * {@link HttpFileServiceConfig#maxCacheEntries()} and {@link HttpFileServiceConfig#maxCacheSizeBytes()}.
+ * Every response has a strong {@code "etag"} header, which is derived from the content of a cached file or
+ * from the modification time and the length of a file which is not cached, so that a request with a matching
+ * {@code "if-none-match"} header is served with a {@code "304 Not Modified"} response without sending the
+ * file again.
+ *
  * @see HttpFileServiceBuilder
  */
 public final class HttpFileService extends AbstractHttpService {
@@ -59,6 +78,9 @@ public final class HttpFileService extends AbstractHttpService {
     private static final Logger logger = LoggerFactory.getLogger(HttpFileService.class);
 
     private static final Splitter COMMA_SPLITTER = Splitter.on(',');
+    private static final Splitter ETAG_SPLITTER = COMMA_SPLITTER.trimResults().omitEmptyStrings();
+
+    private static final CacheStats EMPTY_CACHE_STATS = new CacheStats(0, 0, 0, 0, 0, 0);
 
     /**
      * Creates a new {@link HttpFileService} for the specified {@code rootDir} in an O/S file system.
@@ -98,15 +120,27 @@ public final class HttpFileService extends AbstractHttpService {
     private final HttpFileServiceConfig config;
 
     /**
-     * An LRU cache map that releases the buffer that contains the cached content.
+     * A cache of the file entries and their contents, keyed by the path and the content encoding of a file.
+     * An entry is weighed by the length of its cached content, but no less than the average size allowed
+     * for an entry, so that the cache does not grow beyond both the maximum number of entries and the
+     * maximum total size.
      */
-    private final Map<String, CachedEntry> cache;
+    private final Cache<String, CachedEntry> cache;
 
     HttpFileService(HttpFileServiceConfig config) {
         this.config = requireNonNull(config, "config");
 
-        if (config.maxCacheEntries() != 0) {
-            cache = Collections.synchronizedMap(new LruMap<String, CachedEntry>(config.maxCacheEntries()));
+        if (config.maxCacheEntries() != 0 && config.maxCacheSizeBytes() != 0) {
+            final int minWeight = (int) Math.min(
+                    Integer.MAX_VALUE, Math.max(1, config.maxCacheSizeBytes() / config.maxCacheEntries()));
+            final Weigher<String, CachedEntry> weigher =
+                    (key, e) -> Math.max(minWeight, e.content != null ? e.content.data.length() : 0);
+
+            cache = CacheBuilder.newBuilder()
+                                .maximumWeight(config.maxCacheSizeBytes())
+                                .weigher(weigher)
+                                .recordStats()
+                                .build();
         } else {
             cache = null;
         }
@@ -119,6 +153,14 @@ public final class HttpFileService extends AbstractHttpService {
         return config;
     }
 
+    /**
+     * Returns the statistics of the file entry cache, such as the number of hits, misses and evictions.
+     * All counters are {@code 0} if the cache is disabled.
+     */
+    public CacheStats cacheStats() {
+        return cache != null ? cache.stats() : EMPTY_CACHE_STATS;
+    }
+
     @Override
     protected void doGet(ServiceRequestContext ctx, HttpRequest req, HttpResponseWriter res) {
         final Entry entry = getEntry(ctx, req);
@@ -129,10 +171,60 @@ public final class HttpFileService extends AbstractHttpService {
             return;
         }
 
+        // RFC 7232 requires to ignore "if-modified-since" when "if-none-match" is present.
+        final String ifNoneMatch = req.headers().get(HttpHeaderNames.IF_NONE_MATCH);
+        if (ifNoneMatch == null && !isModifiedSince(req.headers(), lastModifiedMillis)) {
+            respondNotModified(res, null, lastModifiedMillis);
+            return;
+        }
+
+        final File file = streamableFile(entry);
+        if (file != null) {
+            serveFile(ctx, req, res, entry, file, ifNoneMatch, lastModifiedMillis);
+            return;
+        }
+
+        final Content content;
+        try {
+            content = readContent(entry, lastModifiedMillis);
+        } catch (FileNotFoundException ignored) {
+            res.respond(HttpStatus.NOT_FOUND);
+            return;
+        } catch (Exception e) {
+            logger.warn("{} Unexpected exception reading a file:", ctx, e);
+            res.respond(HttpStatus.INTERNAL_SERVER_ERROR);
+            return;
+        }
+
+        if (ifNoneMatch != null && etagMatches(ifNoneMatch, content.etag)) {
+            respondNotModified(res, content.etag, lastModifiedMillis);
+            return;
+        }
+
+        final HttpData data = content.data;
+        final Range range = parseRange(req.headers(), data.length(), content.etag, lastModifiedMillis);
+        if (range == Range.UNSATISFIABLE) {
+            respondRangeNotSatisfiable(res, data.length());
+            return;
+        }
+
+        res.write(newHeaders(entry, data.length(), range, content.etag, lastModifiedMillis));
+        if (range != null) {
+            res.write(HttpData.of(data.array(), data.offset() + (int) range.start, (int) range.length));
+        } else {
+            res.write(data);
+        }
+        res.close();
+    }
+
+    /**
+     * Returns whether a file modified at the specified time has been modified since the date in the
+     * {@code "if-modified-since"} header.
+     */
+    private static boolean isModifiedSince(HttpHeaders headers, long lastModifiedMillis) {
         long ifModifiedSinceMillis = Long.MIN_VALUE;
         try {
-            ifModifiedSinceMillis =
-                    req.headers().getTimeMillis(HttpHeaderNames.IF_MODIFIED_SINCE, Long.MIN_VALUE);
+            ifModifiedSinceMillis = headers.getTimeMillis(HttpHeaderNames.IF_MODIFIED_SINCE, Long.MIN_VALUE);
         } catch (Exception e) {
             // Ignore the ParseException, which is raised on malformed date.
             //noinspection ConstantConditions
@@ -148,41 +240,279 @@ public final class HttpFileService extends AbstractHttpService {
             ifModifiedSinceMillis += 999;
         }
 
-        if (lastModifiedMillis < ifModifiedSinceMillis) {
-            res.write(HttpHeaders.of(HttpStatus.NOT_MODIFIED)
-                                 .setTimeMillis(HttpHeaderNames.DATE, config().clock().millis())
-                                 .setTimeMillis(HttpHeaderNames.LAST_MODIFIED, lastModifiedMillis));
-            res.close();
-            return;
+        return lastModifiedMillis >= ifModifiedSinceMillis;
+    }
+
+    private void respondNotModified(HttpResponseWriter res, @Nullable String etag, long lastModifiedMillis) {
+        final HttpHeaders headers =
+                HttpHeaders.of(HttpStatus.NOT_MODIFIED)
+                           .setTimeMillis(HttpHeaderNames.DATE, config().clock().millis())
+                           .setTimeMillis(HttpHeaderNames.LAST_MODIFIED, lastModifiedMillis);
+        if (etag != null) {
+            headers.set(HttpHeaderNames.ETAG, etag);
+        }
+        res.write(headers);
+        res.close();
+    }
+
+    /**
+     * Reads the content of the specified {@link Entry}, or returns its cached content if the file has not
+     * been modified since the content was cached.
+     */
+    private Content readContent(Entry entry, long lastModifiedMillis) throws IOException {
+        if (!(entry instanceof CachedEntry)) {
+            return uncachedContent(entry.readContent(), lastModifiedMillis);
         }
 
-        final HttpData data;
+        final CachedEntry cachedEntry = (CachedEntry) entry;
+        final Content cachedContent = cachedEntry.content;
+        if (cachedContent != null && cachedContent.lastModifiedMillis == lastModifiedMillis) {
+            return cachedContent;
+        }
+
+        final HttpData data = cachedEntry.entry.readContent();
+        if (data.length() > config.maxCacheEntrySizeBytes()) {
+            return uncachedContent(data, lastModifiedMillis);
+        }
+
+        final Content newContent = new Content(data, lastModifiedMillis, contentEtag(data));
+        // Replace the entry rather than updating it so that the cache weighs it again. Nothing is
+        // replaced if the entry has been evicted or replaced by another request meanwhile.
+        cache.asMap().replace(cachedEntry.key, cachedEntry, cachedEntry.withContent(newContent));
+        return newContent;
+    }
+
+    /**
+     * Returns the {@link Content} which is not cached. Its entity tag is not the hash of the content because
+     * the content is read again on every request.
+     */
+    private static Content uncachedContent(HttpData data, long lastModifiedMillis) {
+        return new Content(data, lastModifiedMillis, fileEtag(lastModifiedMillis, data.length()));
+    }
+
+    /**
+     * Returns the {@link File} of the specified {@link Entry} if its content has to be streamed rather than
+     * read into a single buffer, i.e. it is in an O/S file system and it is not small enough to be cached.
+     */
+    @Nullable
+    private File streamableFile(Entry entry) {
+        final Entry actualEntry = entry instanceof CachedEntry ? ((CachedEntry) entry).entry : entry;
+        if (!(actualEntry instanceof FileSystemEntry)) {
+            return null;
+        }
+
+        final File file = ((FileSystemEntry) actualEntry).file();
+        if (cache != null && file.length() <= config.maxCacheEntrySizeBytes()) {
+            return null;
+        }
+
+        return file;
+    }
+
+    private void serveFile(ServiceRequestContext ctx, HttpRequest req, HttpResponseWriter res,
+                           Entry entry, File file, @Nullable String ifNoneMatch, long lastModifiedMillis) {
+        FileChannel in = null;
+        final long length;
         try {
-            data = entry.readContent();
-        } catch (FileNotFoundException ignored) {
+            in = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            length = in.size();
+        } catch (NoSuchFileException ignored) {
             res.respond(HttpStatus.NOT_FOUND);
             return;
         } catch (Exception e) {
-            logger.warn("{} Unexpected exception reading a file:", ctx, e);
+            closeQuietly(in);
+            logger.warn("{} Unexpected exception opening a file:", ctx, e);
             res.respond(HttpStatus.INTERNAL_SERVER_ERROR);
             return;
         }
 
-        HttpHeaders headers = HttpHeaders.of(HttpStatus.OK)
-                                         .setInt(HttpHeaderNames.CONTENT_LENGTH, data.length())
-                                         .setTimeMillis(HttpHeaderNames.DATE, config().clock().millis())
-                                         .setTimeMillis(HttpHeaderNames.LAST_MODIFIED, lastModifiedMillis);
+        final String etag = fileEtag(lastModifiedMillis, length);
+        if (ifNoneMatch != null && etagMatches(ifNoneMatch, etag)) {
+            closeQuietly(in);
+            respondNotModified(res, etag, lastModifiedMillis);
+            return;
+        }
+
+        final Range range = parseRange(req.headers(), length, etag, lastModifiedMillis);
+        if (range == Range.UNSATISFIABLE) {
+            closeQuietly(in);
+            respondRangeNotSatisfiable(res, length);
+            return;
+        }
+
+        final long start = range != null ? range.start : 0;
+        final long contentLength = range != null ? range.length : length;
+        res.write(newHeaders(entry, length, range, etag, lastModifiedMillis));
+        new FileContentStreamer(in, start, contentLength, res, ctx.blockingTaskExecutor(),
+                                ctx.server().config().usePooledHttpData()).start();
+    }
+
+    private HttpHeaders newHeaders(Entry entry, long contentLength, @Nullable Range range,
+                                   String etag, long lastModifiedMillis) {
+        final HttpHeaders headers;
+        if (range != null) {
+            headers = HttpHeaders.of(HttpStatus.PARTIAL_CONTENT)
+                                 .setLong(HttpHeaderNames.CONTENT_LENGTH, range.length)
+                                 .set(HttpHeaderNames.CONTENT_RANGE,
+                                      "bytes " + range.start + '-' + (range.start + range.length - 1) +
+                                      '/' + contentLength);
+        } else {
+            headers = HttpHeaders.of(HttpStatus.OK)
+                                 .setLong(HttpHeaderNames.CONTENT_LENGTH, contentLength);
+        }
+
+        headers.set(HttpHeaderNames.ACCEPT_RANGES, "bytes")
+               .set(HttpHeaderNames.ETAG, etag)
+               .setTimeMillis(HttpHeaderNames.DATE, config().clock().millis())
+               .setTimeMillis(HttpHeaderNames.LAST_MODIFIED, lastModifiedMillis);
         if (entry.mediaType() != null) {
             headers.set(HttpHeaderNames.CONTENT_TYPE, entry.mediaType().toString());
         }
         if (entry.contentEncoding() != null) {
             headers.set(HttpHeaderNames.CONTENT_ENCODING, entry.contentEncoding());
         }
-        res.write(headers);
-        res.write(data);
+        return headers;
+    }
+
+    private void respondRangeNotSatisfiable(HttpResponseWriter res, long contentLength) {
+        res.write(HttpHeaders.of(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                             .set(HttpHeaderNames.CONTENT_RANGE, "bytes */" + contentLength)
+                             .setInt(HttpHeaderNames.CONTENT_LENGTH, 0)
+                             .setTimeMillis(HttpHeaderNames.DATE, config().clock().millis()));
         res.close();
     }
 
+    /**
+     * Parses the {@code "range"} header of the specified request. Only a single byte range is supported;
+     * a request for multiple ranges is served with the whole content as permitted by RFC 7233.
+     *
+     * @return the requested {@link Range}, {@link Range#UNSATISFIABLE} if the range cannot be satisfied,
+     *         or {@code null} if the whole content has to be sent
+     */
+    @Nullable
+    static Range parseRange(HttpHeaders headers, long contentLength, String etag, long lastModifiedMillis) {
+        final String value = headers.get(HttpHeaderNames.RANGE);
+        if (value == null || !value.startsWith("bytes=") ||
+            !ifRangeMatches(headers, etag, lastModifiedMillis)) {
+            return null;
+        }
+
+        final String spec = value.substring(6).trim();
+        final int dashPos = spec.indexOf('-');
+        if (dashPos < 0 || spec.indexOf(',') >= 0) {
+            return null;
+        }
+
+        final long start;
+        final long end;
+        try {
+            if (dashPos == 0) {
+                // A suffix range, e.g. "-500" for the last 500 bytes.
+                final long suffixLength = Long.parseLong(spec.substring(1));
+                if (suffixLength < 0) {
+                    return null;
+                }
+                if (suffixLength == 0 || contentLength == 0) {
+                    return Range.UNSATISFIABLE;
+                }
+                start = Math.max(0, contentLength - suffixLength);
+                end = contentLength - 1;
+            } else {
+                start = Long.parseLong(spec.substring(0, dashPos));
+                final String endStr = spec.substring(dashPos + 1);
+                final long requestedEnd = endStr.isEmpty() ? Long.MAX_VALUE : Long.parseLong(endStr);
+                if (start < 0 || requestedEnd < start) {
+                    return null;
+                }
+                if (start >= contentLength) {
+                    return Range.UNSATISFIABLE;
+                }
+                end = Math.min(requestedEnd, contentLength - 1);
+            }
+        } catch (NumberFormatException ignored) {
+            return null;
+        }
+
+        return new Range(start, end - start + 1);
+    }
+
+    /**
+     * Returns whether the {@code "if-range"} header of the specified request, if any, matches the entity tag
+     * or the modification time of the requested file. An entity tag is compared with the strong comparison
+     * function, i.e. a weak entity tag never matches.
+     */
+    private static boolean ifRangeMatches(HttpHeaders headers, String etag, long lastModifiedMillis) {
+        final String value = headers.get(HttpHeaderNames.IF_RANGE);
+        if (value == null) {
+            return true;
+        }
+
+        if (value.startsWith("\"") || value.startsWith("W/")) {
+            return value.equals(etag);
+        }
+
+        long ifRangeMillis = Long.MIN_VALUE;
+        try {
+            ifRangeMillis = headers.getTimeMillis(HttpHeaderNames.IF_RANGE, Long.MIN_VALUE);
+        } catch (Exception e) {
+            // Ignore the ParseException, which is raised on a malformed date.
+            //noinspection ConstantConditions
+            if (!(e instanceof ParseException)) {
+                throw e;
+            }
+        }
+
+        // HTTP-date does not have subsecond-precision.
+        return ifRangeMillis != Long.MIN_VALUE && ifRangeMillis / 1000 == lastModifiedMillis / 1000;
+    }
+
+    /**
+     * Returns whether the specified {@code "if-none-match"} header value matches the specified entity tag,
+     * using the weak comparison function defined in RFC 7232.
+     */
+    static boolean etagMatches(String ifNoneMatch, String etag) {
+        for (String candidate : ETAG_SPLITTER.split(ifNoneMatch)) {
+            if ("*".equals(candidate)) {
+                return true;
+            }
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the strong entity tag of the specified content, which is the hash of the content.
+     */
+    static String contentEtag(HttpData data) {
+        return '"' + Hashing.murmur3_128().hashBytes(data.array(), data.offset(), data.length()).toString() +
+               '"';
+    }
+
+    /**
+     * Returns the entity tag of a file which is not cached, which is derived from its modification time and
+     * length so that the file does not need to be hashed.
+     */
+    static String fileEtag(long lastModifiedMillis, long length) {
+        return "\"" + Long.toHexString(lastModifiedMillis) + '-' + Long.toHexString(length) + '"';
+    }
+
+    private static void closeQuietly(@Nullable FileChannel in) {
+        if (in == null) {
+            return;
+        }
+
+        try {
+            in.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close a file channel: {}", in, e);
+        }
+    }
+
     private Entry getEntry(ServiceRequestContext ctx, HttpRequest req) {
         final String path = ctx.mappedPath();
 
@@ -227,14 +557,17 @@ public final class HttpFileService extends AbstractHttpService {
             return config.vfs().get(path, contentEncoding);
         }
 
-        CachedEntry e = cache.get(path);
+        // Include the content encoding in the key so that a pre-compressed file requested by its own path,
+        // e.g. 'foo.js.gz', does not share an entry with the pre-compressed variant of 'foo.js'.
+        final String key = contentEncoding != null ? contentEncoding + ':' + path : path;
+        final CachedEntry e = cache.getIfPresent(key);
         if (e != null) {
             return e;
         }
 
-        e = new CachedEntry(config.vfs().get(path, contentEncoding), config.maxCacheEntrySizeBytes());
-        cache.put(path, e);
-        return e;
+        final CachedEntry newEntry = new CachedEntry(key, config.vfs().get(path, contentEncoding), null);
+        final CachedEntry oldEntry = cache.asMap().putIfAbsent(key, newEntry);
+        return oldEntry != null ? oldEntry : newEntry;
     }
 
     private Entry getEntryWithSupportedEncodings(String path,
@@ -248,17 +581,24 @@ public final class HttpFileService extends AbstractHttpService {
         return getEntry(path, null);
     }
 
+    /**
+     * An immutable cache entry which holds an {@link Entry} and optionally its {@link Content}.
+     */
     private static final class CachedEntry implements Entry {
 
-        private final Entry entry;
-        private final int maxCacheEntrySizeBytes;
-        private HttpData cachedContent;
-        private volatile long cachedLastModifiedMillis;
+        final String key;
+        final Entry entry;
+        @Nullable
+        final Content content;
 
-        CachedEntry(Entry entry, int maxCacheEntrySizeBytes) {
+        CachedEntry(String key, Entry entry, @Nullable Content content) {
+            this.key = key;
             this.entry = entry;
-            this.maxCacheEntrySizeBytes = maxCacheEntrySizeBytes;
-            cachedLastModifiedMillis = entry.lastModifiedMillis();
+            this.content = content;
+        }
+
+        CachedEntry withContent(Content content) {
+            return new CachedEntry(key, entry, content);
         }
 
         @Override
@@ -274,33 +614,12 @@ public final class HttpFileService extends AbstractHttpService {
 
         @Override
         public long lastModifiedMillis() {
-            final long newLastModifiedMillis = entry.lastModifiedMillis();
-            if (newLastModifiedMillis != cachedLastModifiedMillis) {
-                cachedLastModifiedMillis = newLastModifiedMillis;
-                destroyContent();
-            }
-
-            return newLastModifiedMillis;
+            return entry.lastModifiedMillis();
         }
 
         @Override
-        public synchronized HttpData readContent() throws IOException {
-            if (cachedContent == null) {
-                final HttpData newContent = entry.readContent();
-                if (newContent.length() > maxCacheEntrySizeBytes) {
-                    // Do not cache if the content is too large.
-                    return newContent;
-                }
-                cachedContent = newContent;
-            }
-
-            return cachedContent;
-        }
-
-        synchronized void destroyContent() {
-            if (cachedContent != null) {
-                cachedContent = null;
-            }
+        public HttpData readContent() throws IOException {
+            return entry.readContent();
         }
 
         @Override
@@ -309,6 +628,37 @@ public final class HttpFileService extends AbstractHttpService {
         }
     }
 
+    /**
+     * The content of a file and its entity tag.
+     */
+    private static final class Content {
+
+        final HttpData data;
+        final long lastModifiedMillis;
+        final String etag;
+
+        Content(HttpData data, long lastModifiedMillis, String etag) {
+            this.data = data;
+            this.lastModifiedMillis = lastModifiedMillis;
+            this.etag = etag;
+        }
+    }
+
+    /**
+     * A single byte range requested with a {@code "range"} header.
+     */
+    static final class Range {
+
+        static final Range UNSATISFIABLE = new Range(-1, 0);
+
+        final long start;
+        final long length;
+
+        Range(long start, long length) {
+            this.start = start;
+            this.length = length;
+        }
+    }
 
     /**
      * Creates a new {@link HttpService} that tries this {@link HttpFileService} first and then the specified
@@ -68,6 +68,7 @@ public final class HttpFileServiceBuilder {
     private Clock clock = Clock.systemUTC();
     private int maxCacheEntries = 1024;
     private int maxCacheEntrySizeBytes = 65536;
+    private long maxCacheSizeBytes = 64L * 1024 * 1024;
     private boolean serveCompressedFiles;
 
     private HttpFileServiceBuilder(HttpVfs vfs) {
@@ -115,16 +116,25 @@ public final class HttpFileServiceBuilder {
         return this;
     }
 
+    /**
+     * Sets the maximum allowed total size of the cached file entries. Specify {@code 0} to disable caching.
+     */
+    public HttpFileServiceBuilder maxCacheSizeBytes(long maxCacheSizeBytes) {
+        this.maxCacheSizeBytes = HttpFileServiceConfig.validateMaxCacheSizeBytes(maxCacheSizeBytes);
+        return this;
+    }
+
     /**
      * Creates a new {@link HttpFileService}.
      */
     public HttpFileService build() {
         return new HttpFileService(new HttpFileServiceConfig(
-                vfs, clock, maxCacheEntries, maxCacheEntrySizeBytes, serveCompressedFiles));
+                vfs, clock, maxCacheEntries, maxCacheEntrySizeBytes, maxCacheSizeBytes, serveCompressedFiles));
     }
 
     @Override
     public String toString() {
-        return HttpFileServiceConfig.toString(this, vfs, clock, maxCacheEntries, maxCacheEntrySizeBytes);
+        return HttpFileServiceConfig.toString(this, vfs, clock, maxCacheEntries, maxCacheEntrySizeBytes,
+                                              maxCacheSizeBytes);
     }
 }
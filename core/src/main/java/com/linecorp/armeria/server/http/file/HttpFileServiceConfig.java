@@ -29,14 +29,16 @@ public final class HttpFileServiceConfig {
     private final Clock clock;
     private final int maxCacheEntries;
     private final int maxCacheEntrySizeBytes;
+    private final long maxCacheSizeBytes;
     private final boolean serveCompressedFiles;
 
     HttpFileServiceConfig(HttpVfs vfs, Clock clock, int maxCacheEntries, int maxCacheEntrySizeBytes,
-                          boolean serveCompressedFiles) {
+                          long maxCacheSizeBytes, boolean serveCompressedFiles) {
         this.vfs = requireNonNull(vfs, "vfs");
         this.clock = requireNonNull(clock, "clock");
         this.maxCacheEntries = validateMaxCacheEntries(maxCacheEntries);
         this.maxCacheEntrySizeBytes = validateMaxCacheEntrySizeBytes(maxCacheEntrySizeBytes);
+        this.maxCacheSizeBytes = validateMaxCacheSizeBytes(maxCacheSizeBytes);
         this.serveCompressedFiles = serveCompressedFiles;
     }
 
@@ -48,6 +50,14 @@ public final class HttpFileServiceConfig {
         return validateNonNegativeParameter(maxCacheEntrySizeBytes, "maxCacheEntrySizeBytes");
     }
 
+    static long validateMaxCacheSizeBytes(long maxCacheSizeBytes) {
+        if (maxCacheSizeBytes < 0) {
+            throw new IllegalArgumentException(
+                    "maxCacheSizeBytes: " + maxCacheSizeBytes + " (expected: >= 0)");
+        }
+        return maxCacheSizeBytes;
+    }
+
     private static int validateNonNegativeParameter(int value, String name) {
         if (value < 0) {
             throw new IllegalArgumentException(name + ": " + value + " (expected: >= 0)");
@@ -84,6 +94,15 @@ public final class HttpFileServiceConfig {
         return maxCacheEntrySizeBytes;
     }
 
+    /**
+     * Returns the maximum allowed total size of the cached file entries. A cached entry is weighed as
+     * at least {@code maxCacheSizeBytes / maxCacheEntries} bytes so that neither this limit nor
+     * {@link #maxCacheEntries()} is exceeded.
+     */
+    public long maxCacheSizeBytes() {
+        return maxCacheSizeBytes;
+    }
+
     /**
      * Whether pre-compressed files should be served.
      */
@@ -93,16 +112,18 @@ public final class HttpFileServiceConfig {
 
     @Override
     public String toString() {
-        return toString(this, vfs(), clock(), maxCacheEntries(), maxCacheEntrySizeBytes());
+        return toString(this, vfs(), clock(), maxCacheEntries(), maxCacheEntrySizeBytes(),
+                        maxCacheSizeBytes());
     }
 
     static String toString(Object holder, HttpVfs vfs, Clock clock,
-                           int maxCacheEntries, int maxCacheEntrySizeBytes) {
+                           int maxCacheEntries, int maxCacheEntrySizeBytes, long maxCacheSizeBytes) {
 
         return holder.getClass().getSimpleName() +
                "(vfs: " + vfs +
                ", clock: " + clock +
                ", maxCacheEntries: " + maxCacheEntries +
-               ", maxCacheEntrySizeBytes: " + maxCacheEntrySizeBytes + ')';
+               ", maxCacheEntrySizeBytes: " + maxCacheEntrySizeBytes +
+               ", maxCacheSizeBytes: " + maxCacheSizeBytes + ')';
     }
 }
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.http.metric;
+
+import static java.util.Objects.requireNonNull;
+
+import com.linecorp.armeria.common.http.HttpRequest;
+import com.linecorp.armeria.common.http.HttpResponseWriter;
+import com.linecorp.armeria.common.http.HttpStatus;
+import com.linecorp.armeria.common.metric.MeterRegistry;
+import com.linecorp.armeria.common.metric.PrometheusTextFormat;
+import com.linecorp.armeria.server.ServiceRequestContext;
+import com.linecorp.armeria.server.http.AbstractHttpService;
+import com.linecorp.armeria.server.http.HttpService;
+
+/**
+ * An {@link HttpService} that responds with the metrics in a {@link MeterRegistry} in the
+ * <a href="https://prometheus.io/docs/instrumenting/exposition_formats/">Prometheus text format</a>,
+ * so that a Prometheus server can scrape them.
+ *
+ * <h2>Example:</h2>
+ * <pre>{@code
+ * MeterRegistry meterRegistry = new MeterRegistry();
+ * Server server = new ServerBuilder()
+ *         .defaultVirtualHost(new VirtualHostBuilder()
+ *                 .serviceAt("/rpc", new ThriftService(myHandler).decorate(
+ *                         MetricCollectingService.newDecorator(meterRegistry, "armeria.server")))
+ *                 .serviceAt("/metrics", new PrometheusExpositionService(meterRegistry))
+ *                 .build())
+ *         .build();
+ * }</pre>
+ *
+ * @see com.linecorp.armeria.server.logging.MetricCollectingService
+ */
+public class PrometheusExpositionService extends AbstractHttpService {
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param meterRegistry the {@link MeterRegistry} whose metrics are exposed
+     */
+    public PrometheusExpositionService(MeterRegistry meterRegistry) {
+        this.meterRegistry = requireNonNull(meterRegistry, "meterRegistry");
+    }
+
+    @Override
+    protected void doGet(ServiceRequestContext ctx, HttpRequest req, HttpResponseWriter res) {
+        res.respond(HttpStatus.OK, PrometheusTextFormat.MEDIA_TYPE, PrometheusTextFormat.format(meterRegistry));
+    }
+}
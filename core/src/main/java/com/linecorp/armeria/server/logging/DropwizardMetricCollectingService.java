@@ -27,7 +27,6 @@ import com.linecorp.armeria.common.Request;
 import com.linecorp.armeria.common.Response;
 import com.linecorp.armeria.common.http.HttpHeaders;
 import com.linecorp.armeria.common.logging.RequestLog;
-import com.linecorp.armeria.common.logging.RequestLogAvailability;
 import com.linecorp.armeria.common.thrift.ThriftCall;
 import com.linecorp.armeria.internal.logging.DropwizardMetricCollector;
 import com.linecorp.armeria.server.DecoratingService;
@@ -134,13 +133,7 @@ public final class DropwizardMetricCollectingService<I extends Request, O extend
 
     @Override
     public O serve(ServiceRequestContext ctx, I req) throws Exception {
-        ctx.log().addListener(collector::onRequestStart,
-                              RequestLogAvailability.REQUEST_ENVELOPE,
-                              RequestLogAvailability.REQUEST_CONTENT);
-        ctx.log().addListener(collector::onRequestEnd,
-                              RequestLogAvailability.REQUEST_END);
-        ctx.log().addListener(collector::onResponse,
-                              RequestLogAvailability.COMPLETE);
+        collector.addListeners(ctx.log());
 
         return delegate().serve(ctx, req);
     }
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.logging;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.function.Function;
+
+import com.google.common.base.MoreObjects;
+
+import com.linecorp.armeria.common.Request;
+import com.linecorp.armeria.common.Response;
+import com.linecorp.armeria.common.http.HttpHeaders;
+import com.linecorp.armeria.common.logging.RequestLog;
+import com.linecorp.armeria.common.metric.MeterId;
+import com.linecorp.armeria.common.metric.MeterRegistry;
+import com.linecorp.armeria.common.thrift.ThriftCall;
+import com.linecorp.armeria.internal.logging.MeterRegistryMetricCollector;
+import com.linecorp.armeria.server.DecoratingService;
+import com.linecorp.armeria.server.Service;
+import com.linecorp.armeria.server.ServiceRequestContext;
+
+/**
+ * Decorates a {@link Service} to collect metrics into a {@link MeterRegistry}. Unlike
+ * {@link DropwizardMetricCollectingService}, the metrics are recorded without acquiring a lock, and
+ * the {@link MeterId} of a request is resolved only once per request.
+ *
+ * <p>Example:
+ * <pre>{@code
+ * MeterRegistry meterRegistry = new MeterRegistry();
+ * serverBuilder.serviceAt(
+ *         "/service",
+ *         ThriftService.of(handler).decorate(
+ *                 MetricCollectingService.newDecorator(meterRegistry, "armeria.server")));
+ * serverBuilder.serviceAt("/metrics", new PrometheusExpositionService(meterRegistry));
+ * }
+ * </pre>
+ *
+ * @param <I> the {@link Request} type
+ * @param <O> the {@link Response} type
+ *
+ * @see com.linecorp.armeria.server.http.metric.PrometheusExpositionService
+ */
+public final class MetricCollectingService<I extends Request, O extends Response>
+        extends DecoratingService<I, O, I, O> {
+
+    /**
+     * Returns a new {@link Service} decorator that tracks request stats using the specified
+     * {@link MeterRegistry}.
+     *
+     * @param meterRegistry the {@link MeterRegistry} to store metrics into.
+     * @param meterIdFunc the function that transforms a {@link RequestLog} into a {@link MeterId}
+     */
+    public static <I extends Request, O extends Response>
+    Function<Service<? super I, ? extends O>, MetricCollectingService<I, O>> newDecorator(
+            MeterRegistry meterRegistry,
+            Function<? super RequestLog, MeterId> meterIdFunc) {
+
+        requireNonNull(meterRegistry, "meterRegistry");
+        requireNonNull(meterIdFunc, "meterIdFunc");
+
+        return service -> new MetricCollectingService<>(service, meterRegistry, meterIdFunc);
+    }
+
+    /**
+     * Returns a new {@link Service} decorator that tracks request stats using the specified
+     * {@link MeterRegistry}. The names of the {@link MeterId}s start with the specified prefix, and
+     * the {@link MeterId}s are tagged with the {@code "path"} and the {@code "method"} of the requests.
+     *
+     * @param meterRegistry the {@link MeterRegistry} to store metrics into.
+     * @param meterNamePrefix the prefix of the names of the meters created by the returned decorator.
+     */
+    public static <I extends Request, O extends Response>
+    Function<Service<? super I, ? extends O>, MetricCollectingService<I, O>> newDecorator(
+            MeterRegistry meterRegistry, String meterNamePrefix) {
+
+        requireNonNull(meterNamePrefix, "meterNamePrefix");
+        return newDecorator(meterRegistry, log -> defaultMeterId(log, meterNamePrefix));
+    }
+
+    private static MeterId defaultMeterId(RequestLog log, String meterNamePrefix) {
+
+        final ServiceRequestContext ctx = (ServiceRequestContext) log.context();
+        final Object requestEnvelope = log.requestEnvelope();
+        final Object requestContent = log.requestContent();
+
+        String path = null;
+        String methodName = null;
+
+        if (requestEnvelope instanceof HttpHeaders) {
+            path = ctx.pathMapping().metricName();
+            methodName = ((HttpHeaders) requestEnvelope).method().name();
+        }
+
+        if (requestContent instanceof ThriftCall) {
+            methodName = ((ThriftCall) requestContent).header().name;
+        }
+
+        path = MoreObjects.firstNonNull(path, "__UNKNOWN_PATH__");
+
+        if (methodName == null) {
+            methodName = MoreObjects.firstNonNull(log.method(), "__UNKNOWN_METHOD__");
+        }
+
+        return MeterId.of(meterNamePrefix, "path", path, "method", methodName);
+    }
+
+    private final MeterRegistryMetricCollector collector;
+
+    @SuppressWarnings("unchecked")
+    MetricCollectingService(Service<? super I, ? extends O> delegate,
+                            MeterRegistry meterRegistry,
+                            Function<? super RequestLog, MeterId> meterIdFunc) {
+
+        super(delegate);
+
+        collector = new MeterRegistryMetricCollector(
+                meterRegistry, (Function<RequestLog, MeterId>) meterIdFunc);
+    }
+
+    @Override
+    public O serve(ServiceRequestContext ctx, I req) throws Exception {
+        collector.addListeners(ctx.log());
+        return delegate().serve(ctx, req);
+    }
+}
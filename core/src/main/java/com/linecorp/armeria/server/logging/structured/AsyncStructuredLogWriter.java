@@ -0,0 +1,249 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.logging.structured;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.linecorp.armeria.common.logging.RequestLog;
+
+import io.netty.util.concurrent.DefaultThreadFactory;
+
+/**
+ * Passes the structured logs built by event loops to {@link StructuredLoggingService#writeLog(RequestLog,
+ * Object)} in a dedicated thread, so that a slow backend does not stall request processing.
+ */
+final class AsyncStructuredLogWriter<L> {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncStructuredLogWriter.class);
+
+    private static final ThreadFactory threadFactory =
+            new DefaultThreadFactory("armeria-structured-log-writer", true);
+
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private static final int INIT = 0;
+    private static final int STARTED = 1;
+    private static final int CLOSED = 2;
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<AsyncStructuredLogWriter> stateUpdater =
+            AtomicIntegerFieldUpdater.newUpdater(AsyncStructuredLogWriter.class, "state");
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<AsyncStructuredLogWriter> numPendingOffersUpdater =
+            AtomicIntegerFieldUpdater.newUpdater(AsyncStructuredLogWriter.class, "numPendingOffers");
+
+    private final StructuredLoggingService<?, ?, L> service;
+    private final MpscRingBuffer<Entry<L>> queue;
+    private final boolean blockWhenFull;
+    private final int maxBatchSize;
+    private final long flushIntervalNanos;
+
+    private final LongAdder numEnqueued = new LongAdder();
+    private final LongAdder numDropped = new LongAdder();
+    private final LongAdder numWritten = new LongAdder();
+
+    @SuppressWarnings("unused")
+    private volatile int state; // updated via stateUpdater
+    @SuppressWarnings("unused")
+    private volatile int numPendingOffers; // updated via numPendingOffersUpdater
+    private volatile boolean waiting;
+    private volatile Thread thread;
+
+    AsyncStructuredLogWriter(StructuredLoggingService<?, ?, L> service, StructuredLogWriterConfig config) {
+        this.service = service;
+        queue = new MpscRingBuffer<>(config.queueCapacity());
+        blockWhenFull = config.overflowPolicy() == StructuredLogOverflowPolicy.BLOCK;
+        maxBatchSize = config.maxBatchSize();
+        flushIntervalNanos = config.flushInterval().toNanos();
+    }
+
+    /**
+     * Enqueues the specified structured log, starting the writer thread if it has not been started yet.
+     *
+     * @return {@code false} if the structured log has been dropped
+     */
+    boolean enqueue(RequestLog log, L structuredLog) {
+        // Keep the writer thread from exiting until the entry is offered, even if this writer is closed
+        // after the state is checked below. The writer thread exits only when it sees no pending offers
+        // after it has seen the closed state, so a later offer always sees the closed state.
+        numPendingOffersUpdater.incrementAndGet(this);
+        try {
+            if (state != STARTED && !start()) {
+                numDropped.increment();
+                return false;
+            }
+
+            final Entry<L> entry = new Entry<>(log, structuredLog);
+            while (!queue.offer(entry)) {
+                if (!blockWhenFull || state == CLOSED) {
+                    numDropped.increment();
+                    return false;
+                }
+                LockSupport.parkNanos(BLOCK_PARK_NANOS);
+            }
+            numEnqueued.increment();
+        } finally {
+            numPendingOffersUpdater.decrementAndGet(this);
+        }
+
+        if (waiting) {
+            LockSupport.unpark(thread);
+        }
+        return true;
+    }
+
+    /**
+     * Starts the writer thread.
+     *
+     * @return {@code false} if this writer has been closed already
+     */
+    private boolean start() {
+        if (!stateUpdater.compareAndSet(this, INIT, STARTED)) {
+            return state == STARTED;
+        }
+
+        final Thread thread = threadFactory.newThread(this::run);
+        this.thread = thread;
+        thread.start();
+        return true;
+    }
+
+    /**
+     * Stops the writer thread after writing and flushing all the structured logs in the queue.
+     */
+    void close() {
+        final int oldState = stateUpdater.getAndSet(this, CLOSED);
+        if (oldState != STARTED) {
+            return;
+        }
+
+        Thread thread;
+        while ((thread = this.thread) == null) {
+            // Wait until start() assigns the thread.
+            Thread.yield();
+        }
+
+        LockSupport.unpark(thread);
+        boolean interrupted = false;
+        for (;;) {
+            try {
+                thread.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    long numEnqueued() {
+        return numEnqueued.sum();
+    }
+
+    long numDropped() {
+        return numDropped.sum();
+    }
+
+    long numWritten() {
+        return numWritten.sum();
+    }
+
+    private void run() {
+        int numUnflushed = 0;
+        long flushDeadline = 0;
+
+        for (;;) {
+            final Entry<L> entry = queue.poll();
+            if (entry != null) {
+                write(entry);
+                if (numUnflushed++ == 0) {
+                    flushDeadline = System.nanoTime() + flushIntervalNanos;
+                }
+                if (numUnflushed >= maxBatchSize) {
+                    flush();
+                    numUnflushed = 0;
+                }
+                continue;
+            }
+
+            final boolean closed = state == CLOSED;
+            if (numUnflushed != 0 && (closed || flushDeadline - System.nanoTime() <= 0)) {
+                flush();
+                numUnflushed = 0;
+                continue;
+            }
+
+            if (closed) {
+                // Check the pending offers first; an entry is in the queue once its offer is done.
+                if (numPendingOffers == 0 && queue.isEmpty()) {
+                    break;
+                }
+                Thread.yield();
+                continue;
+            }
+
+            // Wait for a new structured log or the flush deadline.
+            waiting = true;
+            if (queue.isEmpty() && state != CLOSED) {
+                if (numUnflushed != 0) {
+                    LockSupport.parkNanos(this, flushDeadline - System.nanoTime());
+                } else {
+                    LockSupport.park(this);
+                }
+            }
+            waiting = false;
+        }
+    }
+
+    private void write(Entry<L> entry) {
+        try {
+            service.writeLog(entry.log, entry.structuredLog);
+            numWritten.increment();
+        } catch (Throwable t) {
+            logger.warn("Failed to write a structured log: {}", entry.structuredLog, t);
+        }
+    }
+
+    private void flush() {
+        try {
+            service.flush();
+        } catch (Throwable t) {
+            logger.warn("Failed to flush the structured logs", t);
+        }
+    }
+
+    private static final class Entry<L> {
+        final RequestLog log;
+        final L structuredLog;
+
+        Entry(RequestLog log, L structuredLog) {
+            this.log = log;
+            this.structuredLog = structuredLog;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.logging.structured;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free queue which supports multiple producers and a single consumer. A producer claims
+ * a slot by incrementing the producer index with a CAS and then publishes its element into the slot.
+ * The consumer waits for the publication when it finds a claimed slot which is still empty.
+ */
+final class MpscRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> buffer;
+    private final int mask;
+    private final AtomicLong producerIndex = new AtomicLong();
+    private final AtomicLong consumerIndex = new AtomicLong();
+
+    /**
+     * Creates a new instance.
+     *
+     * @param capacity the capacity of the buffer, rounded up to the next power of two
+     */
+    MpscRingBuffer(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity: " + capacity + " (expected: 1..2^30)");
+        }
+        final int actualCapacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        buffer = new AtomicReferenceArray<>(actualCapacity);
+        mask = actualCapacity - 1;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Adds the specified element to the tail of this buffer.
+     *
+     * @return {@code false} if this buffer is full
+     */
+    boolean offer(E e) {
+        final int capacity = mask + 1;
+        for (;;) {
+            final long p = producerIndex.get();
+            if (p - consumerIndex.get() >= capacity) {
+                return false;
+            }
+            if (producerIndex.compareAndSet(p, p + 1)) {
+                buffer.lazySet((int) p & mask, e);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Removes and returns the element at the head of this buffer. Must be invoked only by the consumer.
+     *
+     * @return {@code null} if this buffer is empty
+     */
+    E poll() {
+        final long c = consumerIndex.get();
+        final int index = (int) c & mask;
+        E e = buffer.get(index);
+        if (e == null) {
+            if (c == producerIndex.get()) {
+                return null;
+            }
+
+            // A producer claimed the slot but has not published its element yet.
+            do {
+                e = buffer.get(index);
+            } while (e == null);
+        }
+
+        buffer.lazySet(index, null);
+        consumerIndex.lazySet(c + 1);
+        return e;
+    }
+
+    boolean isEmpty() {
+        return consumerIndex.get() == producerIndex.get();
+    }
+
+    int size() {
+        return (int) Math.max(0, producerIndex.get() - consumerIndex.get());
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.logging.structured;
+
+/**
+ * Specifies what {@link StructuredLoggingService} does when its queue of structured logs is full.
+ */
+public enum StructuredLogOverflowPolicy {
+    /**
+     * Discards the structured log. The thread which completed the request is never blocked.
+     */
+    DROP,
+    /**
+     * Blocks the thread which completed the request until the queue has room for the structured log.
+     * Note that the thread is usually an event loop, which means all other requests handled by the event
+     * loop are blocked as well.
+     */
+    BLOCK
+}
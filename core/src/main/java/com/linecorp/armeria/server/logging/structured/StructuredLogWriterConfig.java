@@ -0,0 +1,89 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.logging.structured;
+
+import java.time.Duration;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * The configuration of the queue and the writer thread of a {@link StructuredLoggingService}.
+ *
+ * @see StructuredLogWriterConfigBuilder
+ */
+public final class StructuredLogWriterConfig {
+
+    static final int DEFAULT_QUEUE_CAPACITY = 8192;
+    static final int DEFAULT_MAX_BATCH_SIZE = 512;
+    static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(1);
+    static final StructuredLogOverflowPolicy DEFAULT_OVERFLOW_POLICY = StructuredLogOverflowPolicy.DROP;
+
+    /**
+     * The default configuration.
+     */
+    public static final StructuredLogWriterConfig DEFAULT = new StructuredLogWriterConfigBuilder().build();
+
+    private final int queueCapacity;
+    private final int maxBatchSize;
+    private final Duration flushInterval;
+    private final StructuredLogOverflowPolicy overflowPolicy;
+
+    StructuredLogWriterConfig(int queueCapacity, int maxBatchSize, Duration flushInterval,
+                              StructuredLogOverflowPolicy overflowPolicy) {
+        this.queueCapacity = queueCapacity;
+        this.maxBatchSize = maxBatchSize;
+        this.flushInterval = flushInterval;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * Returns the maximum number of the structured logs which can wait for being written.
+     */
+    public int queueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Returns the maximum number of the structured logs written between two flushes.
+     */
+    public int maxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Returns the maximum amount of time a written structured log waits for being flushed.
+     */
+    public Duration flushInterval() {
+        return flushInterval;
+    }
+
+    /**
+     * Returns what happens when the queue is full.
+     */
+    public StructuredLogOverflowPolicy overflowPolicy() {
+        return overflowPolicy;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("queueCapacity", queueCapacity)
+                          .add("maxBatchSize", maxBatchSize)
+                          .add("flushInterval", flushInterval)
+                          .add("overflowPolicy", overflowPolicy).toString();
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.logging.structured;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+
+/**
+ * Builds a new {@link StructuredLogWriterConfig}.
+ */
+public final class StructuredLogWriterConfigBuilder {
+
+    private int queueCapacity = StructuredLogWriterConfig.DEFAULT_QUEUE_CAPACITY;
+    private int maxBatchSize = StructuredLogWriterConfig.DEFAULT_MAX_BATCH_SIZE;
+    private Duration flushInterval = StructuredLogWriterConfig.DEFAULT_FLUSH_INTERVAL;
+    private StructuredLogOverflowPolicy overflowPolicy = StructuredLogWriterConfig.DEFAULT_OVERFLOW_POLICY;
+
+    /**
+     * Sets the maximum number of the structured logs which can wait for being written. The capacity is
+     * rounded up to the next power of two.
+     */
+    public StructuredLogWriterConfigBuilder queueCapacity(int queueCapacity) {
+        if (queueCapacity <= 0 || queueCapacity > 1 << 30) {
+            throw new IllegalArgumentException(
+                    "queueCapacity: " + queueCapacity + " (expected: > 0 and <= 2^30)");
+        }
+        this.queueCapacity = queueCapacity;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of the structured logs written between two
+     * {@link StructuredLoggingService#flush()} invocations.
+     */
+    public StructuredLogWriterConfigBuilder maxBatchSize(int maxBatchSize) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize: " + maxBatchSize + " (expected: > 0)");
+        }
+        this.maxBatchSize = maxBatchSize;
+        return this;
+    }
+
+    /**
+     * Sets the maximum amount of time a written structured log waits for
+     * {@link StructuredLoggingService#flush()}.
+     */
+    public StructuredLogWriterConfigBuilder flushInterval(Duration flushInterval) {
+        requireNonNull(flushInterval, "flushInterval");
+        if (flushInterval.isNegative() || flushInterval.isZero()) {
+            throw new IllegalArgumentException("flushInterval: " + flushInterval + " (expected: > 0)");
+        }
+        this.flushInterval = flushInterval;
+        return this;
+    }
+
+    /**
+     * Sets the maximum amount of time in milliseconds a written structured log waits for
+     * {@link StructuredLoggingService#flush()}.
+     */
+    public StructuredLogWriterConfigBuilder flushIntervalMillis(long flushIntervalMillis) {
+        flushInterval(Duration.ofMillis(flushIntervalMillis));
+        return this;
+    }
+
+    /**
+     * Sets what happens when the queue is full.
+     */
+    public StructuredLogWriterConfigBuilder overflowPolicy(StructuredLogOverflowPolicy overflowPolicy) {
+        this.overflowPolicy = requireNonNull(overflowPolicy, "overflowPolicy");
+        return this;
+    }
+
+    /**
+     * Returns a newly-created {@link StructuredLogWriterConfig} based on the properties of this builder.
+     */
+    public StructuredLogWriterConfig build() {
+        return new StructuredLogWriterConfig(queueCapacity, maxBatchSize, flushInterval, overflowPolicy);
+    }
+}
@@ -33,6 +33,14 @@ import com.linecorp.armeria.server.ServiceRequestContext;
  * A decorating service which provides support of structured and optionally externalized request/response
  * content logging.
  *
+ * <p>A structured log is built by the thread which completed the request, and then is passed to
+ * {@link #writeLog(RequestLog, Object)} by a dedicated writer thread through a bounded lock-free queue,
+ * so that a slow logging backend does not stall request processing. The writer thread invokes
+ * {@link #flush()} after writing {@link StructuredLogWriterConfig#maxBatchSize()} structured logs or
+ * when {@link StructuredLogWriterConfig#flushInterval()} has passed since the first unflushed one was written.
+ * When the queue is full, a structured log is dropped or the thread which completed the request waits,
+ * depending on {@link StructuredLogWriterConfig#overflowPolicy()}.
+ *
  * @param <I> the {@link Request} type
  * @param <O> the {@link Response} type
  * @param <L> the type of the structured log representation
@@ -41,6 +49,7 @@ public abstract class StructuredLoggingService<I extends Request, O extends Resp
         extends DecoratingService<I, O, I, O> {
 
     private final StructuredLogBuilder<L> logBuilder;
+    private final AsyncStructuredLogWriter<L> writer;
     private Server associatedServer;
 
     /**
@@ -52,8 +61,24 @@ public abstract class StructuredLoggingService<I extends Request, O extends Resp
      */
     protected StructuredLoggingService(Service<? super I, ? extends O> delegate,
                                        StructuredLogBuilder<L> logBuilder) {
+        this(delegate, logBuilder, StructuredLogWriterConfig.DEFAULT);
+    }
+
+    /**
+     * Creates a new {@link StructuredLoggingService}.
+     *
+     * @param delegate the {@link Service} being decorated
+     * @param logBuilder an instance of {@link StructuredLogBuilder} which is used to construct an entry of
+     *        structured log
+     * @param writerConfig the {@link StructuredLogWriterConfig} which configures the queue and the writer
+     *        thread
+     */
+    protected StructuredLoggingService(Service<? super I, ? extends O> delegate,
+                                       StructuredLogBuilder<L> logBuilder,
+                                       StructuredLogWriterConfig writerConfig) {
         super(delegate);
         this.logBuilder = requireNonNull(logBuilder, "logBuilder");
+        writer = new AsyncStructuredLogWriter<>(this, requireNonNull(writerConfig, "writerConfig"));
     }
 
     @Override
@@ -72,6 +97,7 @@ public abstract class StructuredLoggingService<I extends Request, O extends Resp
         associatedServer.addListener(new ServerListenerAdapter() {
             @Override
             public void serverStopped(Server server) throws Exception {
+                writer.close();
                 close();
             }
         });
@@ -82,21 +108,55 @@ public abstract class StructuredLoggingService<I extends Request, O extends Resp
         ctx.log().addListener(log -> {
             L structuredLog = logBuilder.build(log);
             if (structuredLog != null) {
-                writeLog(log, structuredLog);
+                writer.enqueue(log, structuredLog);
             }
         }, RequestLogAvailability.COMPLETE);
         return delegate().serve(ctx, req);
     }
 
     /**
-     * Writes given {@code structuredLog} to the underlying system.
-     *  @param log the {@link RequestLog} which is a source of constructed {@code structuredLog}
+     * Returns the number of the structured logs which have been queued for being written.
+     */
+    public long numEnqueuedLogs() {
+        return writer.numEnqueued();
+    }
+
+    /**
+     * Returns the number of the structured logs which have been dropped because the queue was full or
+     * the {@link Server} was stopped.
+     */
+    public long numDroppedLogs() {
+        return writer.numDropped();
+    }
+
+    /**
+     * Returns the number of the structured logs which have been written by
+     * {@link #writeLog(RequestLog, Object)} successfully.
+     */
+    public long numWrittenLogs() {
+        return writer.numWritten();
+    }
+
+    /**
+     * Writes given {@code structuredLog} to the underlying system. This method is always invoked by
+     * the writer thread of this service.
+     *
+     * @param log the {@link RequestLog} which is a source of constructed {@code structuredLog}
      * @param structuredLog the content of a structuredLog
      */
     protected abstract void writeLog(RequestLog log, L structuredLog);
 
     /**
-     * Cleanup resources which were opened for logging.
+     * Flushes the structured logs written so far to the underlying system, if the underlying system
+     * buffers them. This method is always invoked by the writer thread of this service.
+     */
+    protected void flush() {
+        // noop by default
+    }
+
+    /**
+     * Cleanup resources which were opened for logging. This method is invoked after all the queued
+     * structured logs are written and flushed.
      */
     protected void close() {
         // noop by default
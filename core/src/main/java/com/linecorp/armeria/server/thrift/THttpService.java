@@ -17,12 +17,13 @@
 package com.linecorp.armeria.server.thrift;
 
 import static com.linecorp.armeria.common.util.Functions.voidFunction;
+import static com.linecorp.armeria.internal.http.ArmeriaHttpUtil.newContentBuffer;
+import static com.linecorp.armeria.internal.http.ArmeriaHttpUtil.toHttpData;
 import static java.util.Objects.requireNonNull;
 
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.EnumSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
@@ -34,12 +35,10 @@ import org.apache.thrift.TApplicationException;
 import org.apache.thrift.TBase;
 import org.apache.thrift.TException;
 import org.apache.thrift.TFieldIdEnum;
-import org.apache.thrift.meta_data.FieldMetaData;
 import org.apache.thrift.protocol.TMessage;
 import org.apache.thrift.protocol.TMessageType;
 import org.apache.thrift.protocol.TProtocol;
 import org.apache.thrift.protocol.TProtocolFactory;
-import org.apache.thrift.transport.TMemoryBuffer;
 import org.apache.thrift.transport.TMemoryInputTransport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -54,6 +53,7 @@ import com.linecorp.armeria.common.RpcRequest;
 import com.linecorp.armeria.common.RpcResponse;
 import com.linecorp.armeria.common.SerializationFormat;
 import com.linecorp.armeria.common.http.AggregatedHttpMessage;
+import com.linecorp.armeria.common.http.CompositeHttpData;
 import com.linecorp.armeria.common.http.HttpData;
 import com.linecorp.armeria.common.http.HttpHeaderNames;
 import com.linecorp.armeria.common.http.HttpHeaders;
@@ -65,12 +65,16 @@ import com.linecorp.armeria.common.thrift.ThriftProtocolFactories;
 import com.linecorp.armeria.common.thrift.ThriftReply;
 import com.linecorp.armeria.common.util.CompletionActions;
 import com.linecorp.armeria.common.util.SafeCloseable;
-import com.linecorp.armeria.internal.thrift.ThriftFieldAccess;
+import com.linecorp.armeria.internal.thrift.BoundRpcRequest;
+import com.linecorp.armeria.internal.thrift.TByteBufTransport;
 import com.linecorp.armeria.internal.thrift.ThriftFunction;
 import com.linecorp.armeria.server.Service;
+import com.linecorp.armeria.server.ServiceConfig;
 import com.linecorp.armeria.server.ServiceRequestContext;
 import com.linecorp.armeria.server.http.AbstractHttpService;
 
+import io.netty.buffer.ByteBuf;
+
 /**
  * A {@link Service} that handles a Thrift call.
  *
@@ -80,6 +84,12 @@ public class THttpService extends AbstractHttpService {
 
     private static final Logger logger = LoggerFactory.getLogger(THttpService.class);
 
+    /**
+     * The initial capacity of the buffer a {@link TApplicationException} is encoded into, which is large
+     * enough for a typical server-side stack trace.
+     */
+    private static final int EXCEPTION_SIZE_HINT = 2048;
+
     private static final String THRIFT_PROTOCOL_NOT_SUPPORTED = "Specified Thrift protocol not supported";
 
     private static final String ACCEPT_THRIFT_PROTOCOL_MUST_MATCH_CONTENT_TYPE =
@@ -345,11 +355,20 @@ public class THttpService extends AbstractHttpService {
     private final SerializationFormat defaultSerializationFormat;
     private final Set<SerializationFormat> allowedSerializationFormats;
     private final ThriftCallService thriftService;
+    private final boolean streaming;
+    private boolean usePooledHttpData;
 
     // TODO(trustin): Make this contructor private once we remove ThriftService.
     THttpService(Service<RpcRequest, RpcResponse> delegate,
                  SerializationFormat defaultSerializationFormat,
                  Set<SerializationFormat> allowedSerializationFormats) {
+        this(delegate, defaultSerializationFormat, allowedSerializationFormats, false);
+    }
+
+    private THttpService(Service<RpcRequest, RpcResponse> delegate,
+                         SerializationFormat defaultSerializationFormat,
+                         Set<SerializationFormat> allowedSerializationFormats,
+                         boolean streaming) {
 
         requireNonNull(delegate, "delegate");
         requireNonNull(defaultSerializationFormat, "defaultSerializationFormat");
@@ -360,6 +379,7 @@ public class THttpService extends AbstractHttpService {
 
         this.defaultSerializationFormat = defaultSerializationFormat;
         this.allowedSerializationFormats = Sets.immutableEnumSet(allowedSerializationFormats);
+        this.streaming = streaming;
     }
 
     private static ThriftCallService findThriftService(Service<?, ?> delegate) {
@@ -392,6 +412,34 @@ public class THttpService extends AbstractHttpService {
         return defaultSerializationFormat;
     }
 
+    /**
+     * Returns whether a {@code list} or a {@code set} result is streamed to the client.
+     *
+     * @see #withStreaming(boolean)
+     */
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    /**
+     * Returns a new {@link THttpService} which is identical to this service except whether it streams
+     * a {@code list} or a {@code set} result to the client. When enabled, the elements of such a result are
+     * encoded into small chunks one after another as the client consumes them, rather than into a single
+     * buffer that holds the whole result. The streamed reply is identical to the non-streamed one, so any
+     * client can decode it, and a client that uses {@code THttpClient.executeStreaming()} can decode each
+     * element as soon as it arrives. Only the {@link SerializationFormat#THRIFT_BINARY TBinary} and
+     * {@link SerializationFormat#THRIFT_COMPACT TCompact} replies are streamed.
+     */
+    public THttpService withStreaming(boolean streaming) {
+        return new THttpService(delegate, defaultSerializationFormat, allowedSerializationFormats, streaming);
+    }
+
+    @Override
+    public void serviceAdded(ServiceConfig cfg) throws Exception {
+        super.serviceAdded(cfg);
+        usePooledHttpData = cfg.server().config().usePooledHttpData();
+    }
+
     @Override
     protected void doPost(ServiceRequestContext ctx, HttpRequest req, HttpResponseWriter res) {
 
@@ -453,11 +501,20 @@ public class THttpService extends AbstractHttpService {
             ServiceRequestContext ctx, AggregatedHttpMessage req,
             SerializationFormat serializationFormat, HttpResponseWriter res) {
 
-        final TProtocol inProto = FORMAT_TO_THREAD_LOCAL_INPUT_PROTOCOL.get(serializationFormat).get();
-        inProto.reset();
-        final TMemoryInputTransport inTransport = (TMemoryInputTransport) inProto.getTransport();
         final HttpData content = req.content();
-        inTransport.reset(content.array(), content.offset(), content.length());
+        final TProtocol inProto;
+        final TMemoryInputTransport inTransport;
+        if (content instanceof CompositeHttpData) {
+            // Read the chunks of the request as they are rather than merging them into an array.
+            inProto = ThriftProtocolFactories.get(serializationFormat).getProtocol(
+                    new TByteBufTransport(((CompositeHttpData) content).toByteBuf()));
+            inTransport = null;
+        } else {
+            inProto = FORMAT_TO_THREAD_LOCAL_INPUT_PROTOCOL.get(serializationFormat).get();
+            inProto.reset();
+            inTransport = (TMemoryInputTransport) inProto.getTransport();
+            inTransport.reset(content.array(), content.offset(), content.length());
+        }
 
         final TMessage header;
         final int seqId;
@@ -538,7 +595,9 @@ public class THttpService extends AbstractHttpService {
                 return;
             }
         } finally {
-            inTransport.clear();
+            if (inTransport != null) {
+                inTransport.clear();
+            }
             ctx.logBuilder().requestContent(null);
         }
 
@@ -564,7 +623,7 @@ public class THttpService extends AbstractHttpService {
             ServiceRequestContext ctx, SerializationFormat serializationFormat, int seqId, String methodName,
             ThriftFunction func, TBase<TBase<?, ?>, TFieldIdEnum> args, HttpResponseWriter res) {
 
-        final RpcRequest call = toRpcRequest(func.serviceType(), methodName, args);
+        final RpcRequest call = new BoundRpcRequest(func, methodName, args);
         final RpcResponse reply;
 
         try (SafeCloseable ignored = RequestContext.push(ctx)) {
@@ -588,11 +647,16 @@ public class THttpService extends AbstractHttpService {
             try {
                 TBase<TBase<?, ?>, TFieldIdEnum> wrappedResult = func.newResult();
                 func.setSuccess(wrappedResult, result);
-                respond(ctx, serializationFormat, seqId, func.name(), wrappedResult, res);
+                if (streaming && isStreamable(serializationFormat, func, result)) {
+                    respondStreaming(ctx, serializationFormat, seqId, func, wrappedResult,
+                                     (Collection<?>) result, res);
+                } else {
+                    respond(ctx, serializationFormat, seqId, func, wrappedResult, res);
+                }
             } catch (Throwable t) {
                 final TBase<TBase<?, ?>, TFieldIdEnum> exceptionResult = func.newResult();
                 if (func.setException(exceptionResult, t)) {
-                    respond(ctx, serializationFormat, seqId, func.name(), exceptionResult, res);
+                    respond(ctx, serializationFormat, seqId, func, exceptionResult, res);
                 } else {
                     respond(ctx, serializationFormat, seqId, func.name(), t, res);
                 }
@@ -600,97 +664,97 @@ public class THttpService extends AbstractHttpService {
         })).exceptionally(CompletionActions::log);
     }
 
-    private static RpcRequest toRpcRequest(Class<?> serviceType, String method, TBase<?, ?> thriftArgs) {
-        requireNonNull(thriftArgs, "thriftArgs");
-
-        @SuppressWarnings("unchecked")
-        final TBase<TBase<?, ?>, TFieldIdEnum> castThriftArgs = (TBase<TBase<?, ?>, TFieldIdEnum>) thriftArgs;
-
-        // NB: The map returned by FieldMetaData.getStructMetaDataMap() is an EnumMap,
-        //     so the parameter ordering is preserved correctly during iteration.
-        final Set<? extends TFieldIdEnum> fields =
-                FieldMetaData.getStructMetaDataMap(castThriftArgs.getClass()).keySet();
-
-        // Handle the case where the number of arguments is 0 or 1.
-        final int numFields = fields.size();
-        switch (numFields) {
-            case 0:
-                return RpcRequest.of(serviceType, method);
-            case 1:
-                return RpcRequest.of(serviceType, method,
-                                     ThriftFieldAccess.get(castThriftArgs, fields.iterator().next()));
-        }
-
-        // Handle the case where the number of arguments is greater than 1.
-        final List<Object> list = new ArrayList<>(numFields);
-        for (TFieldIdEnum field : fields) {
-            list.add(ThriftFieldAccess.get(castThriftArgs, field));
-        }
-
-        return RpcRequest.of(serviceType, method, list);
-    }
-
-    private static void handleException(
+    private void handleException(
             ServiceRequestContext ctx,
             SerializationFormat serializationFormat,
             int seqId, ThriftFunction func, Throwable cause, HttpResponseWriter res) {
 
         final TBase<TBase<?, ?>, TFieldIdEnum> result = func.newResult();
         if (func.setException(result, cause)) {
-            respond(ctx, serializationFormat, seqId, func.name(), result, res);
+            respond(ctx, serializationFormat, seqId, func, result, res);
         } else {
             respond(ctx, serializationFormat, seqId, func.name(), cause, res);
         }
     }
 
-    private static void respond(ServiceRequestContext ctx,
-                                SerializationFormat serializationFormat, int seqId,
-                                String methodName, TBase<TBase<?, ?>, TFieldIdEnum> result,
-                                HttpResponseWriter res) {
+    private void respond(ServiceRequestContext ctx,
+                         SerializationFormat serializationFormat, int seqId,
+                         ThriftFunction func, TBase<TBase<?, ?>, TFieldIdEnum> result,
+                         HttpResponseWriter res) {
         respond(serializationFormat,
-                encodeSuccess(ctx, serializationFormat, methodName, seqId, result),
+                encodeSuccess(ctx, serializationFormat, func, seqId, result),
                 res);
     }
 
-    private static void respond(ServiceRequestContext ctx,
-                                SerializationFormat serializationFormat, int seqId,
-                                String methodName, Throwable cause, HttpResponseWriter res) {
+    private void respond(ServiceRequestContext ctx,
+                         SerializationFormat serializationFormat, int seqId,
+                         String methodName, Throwable cause, HttpResponseWriter res) {
 
         final HttpData content = encodeException(ctx, serializationFormat, seqId, methodName, cause);
         respond(serializationFormat, content, res);
     }
 
+    private static boolean isStreamable(SerializationFormat serializationFormat,
+                                        ThriftFunction func, Object result) {
+        return (serializationFormat == SerializationFormat.THRIFT_BINARY ||
+                serializationFormat == SerializationFormat.THRIFT_COMPACT) &&
+               func.successElementCodec() != null && result instanceof Collection;
+    }
+
+    private void respondStreaming(ServiceRequestContext ctx,
+                                  SerializationFormat serializationFormat, int seqId,
+                                  ThriftFunction func, TBase<TBase<?, ?>, TFieldIdEnum> wrappedResult,
+                                  Collection<?> result, HttpResponseWriter res) {
+
+        final TMessage header = new TMessage(func.name(), TMessageType.REPLY, seqId);
+        final ThriftResultStreamer streamer = new ThriftResultStreamer(
+                ThriftProtocolFactories.get(serializationFormat), header,
+                func.successField(), func.successElementCodec(), result, res, usePooledHttpData);
+
+        ctx.logBuilder().responseContent(new ThriftReply(header, wrappedResult));
+        res.write(HttpHeaders.of(HttpStatus.OK)
+                             .set(HttpHeaderNames.CONTENT_TYPE, serializationFormat.mediaType().toString()));
+        streamer.run();
+    }
+
     private static void respond(SerializationFormat serializationFormat,
                                 HttpData content, HttpResponseWriter res) {
 
         res.respond(HttpStatus.OK, serializationFormat.mediaType(), content);
     }
 
-    private static HttpData encodeSuccess(ServiceRequestContext ctx,
-                                          SerializationFormat serializationFormat,
-                                          String methodName, int seqId,
-                                          TBase<TBase<?, ?>, TFieldIdEnum> result) {
-
-        final TMemoryBuffer buf = new TMemoryBuffer(128);
-        final TProtocol outProto = ThriftProtocolFactories.get(serializationFormat).getProtocol(buf);
+    private HttpData encodeSuccess(ServiceRequestContext ctx,
+                                   SerializationFormat serializationFormat,
+                                   ThriftFunction func, int seqId,
+                                   TBase<TBase<?, ?>, TFieldIdEnum> result) {
 
+        final ByteBuf buf = newContentBuffer(func.encodedSizeHint(), usePooledHttpData);
+        boolean success = false;
         try {
-            final TMessage header = new TMessage(methodName, TMessageType.REPLY, seqId);
+            final TProtocol outProto =
+                    ThriftProtocolFactories.get(serializationFormat).getProtocol(new TByteBufTransport(buf));
+            final TMessage header = new TMessage(func.name(), TMessageType.REPLY, seqId);
             outProto.writeMessageBegin(header);
             result.write(outProto);
             outProto.writeMessageEnd();
 
             ctx.logBuilder().responseContent(new ThriftReply(header, result));
+            func.updateEncodedSizeHint(buf.readableBytes());
+            success = true;
         } catch (TException e) {
             throw new Error(e); // Should never reach here.
+        } finally {
+            if (!success) {
+                buf.release();
+            }
         }
 
-        return HttpData.of(buf.getArray(), 0, buf.length());
+        return toHttpData(buf, usePooledHttpData);
     }
 
-    private static HttpData encodeException(ServiceRequestContext ctx,
-                                            SerializationFormat serializationFormat,
-                                            int seqId, String methodName, Throwable cause) {
+    private HttpData encodeException(ServiceRequestContext ctx,
+                                     SerializationFormat serializationFormat,
+                                     int seqId, String methodName, Throwable cause) {
 
         final TApplicationException appException;
         if (cause instanceof TApplicationException) {
@@ -704,21 +768,27 @@ public class THttpService extends AbstractHttpService {
                     "---- END server-side trace ----");
         }
 
-        final TMemoryBuffer buf = new TMemoryBuffer(128);
-        final TProtocol outProto = ThriftProtocolFactories.get(serializationFormat).getProtocol(buf);
-
+        final ByteBuf buf = newContentBuffer(EXCEPTION_SIZE_HINT, usePooledHttpData);
+        boolean success = false;
         try {
+            final TProtocol outProto =
+                    ThriftProtocolFactories.get(serializationFormat).getProtocol(new TByteBufTransport(buf));
             final TMessage header = new TMessage(methodName, TMessageType.EXCEPTION, seqId);
             outProto.writeMessageBegin(header);
             appException.write(outProto);
             outProto.writeMessageEnd();
 
             ctx.logBuilder().responseContent(new ThriftReply(header, appException));
+            success = true;
         } catch (TException e) {
             throw new Error(e); // Should never reach here.
+        } finally {
+            if (!success) {
+                buf.release();
+            }
         }
 
-        return HttpData.of(buf.getArray(), 0, buf.length());
+        return toHttpData(buf, usePooledHttpData);
     }
 
     private static Map<SerializationFormat, ThreadLocalTProtocol> createFormatToThreadLocalTProtocolMap() {
@@ -18,7 +18,6 @@ package com.linecorp.armeria.server.thrift;
 
 import static java.util.Objects.requireNonNull;
 
-import java.util.List;
 import java.util.Map;
 
 import org.apache.thrift.AsyncProcessFunction;
@@ -35,6 +34,7 @@ import com.linecorp.armeria.common.DefaultRpcResponse;
 import com.linecorp.armeria.common.RpcRequest;
 import com.linecorp.armeria.common.RpcResponse;
 import com.linecorp.armeria.internal.guava.stream.GuavaCollectors;
+import com.linecorp.armeria.internal.thrift.BoundRpcRequest;
 import com.linecorp.armeria.internal.thrift.ThriftFunction;
 import com.linecorp.armeria.server.Service;
 import com.linecorp.armeria.server.ServiceRequestContext;
@@ -109,7 +109,7 @@ public final class ThriftCallService implements Service<RpcRequest, RpcResponse>
             final ThriftFunction f = e.metadata.function(method);
             if (f != null) {
                 final DefaultRpcResponse reply = new DefaultRpcResponse();
-                invoke(ctx, e.implementation, f, call.params(), reply);
+                invoke(ctx, e.implementation, f, call, reply);
                 return reply;
             }
         }
@@ -120,10 +120,10 @@ public final class ThriftCallService implements Service<RpcRequest, RpcResponse>
 
     private static void invoke(
             ServiceRequestContext ctx,
-            Object impl, ThriftFunction func, List<Object> args, DefaultRpcResponse reply) {
+            Object impl, ThriftFunction func, RpcRequest call, DefaultRpcResponse reply) {
 
         try {
-            final TBase<TBase<?, ?>, TFieldIdEnum> tArgs = func.newArgs(args);
+            final TBase<TBase<?, ?>, TFieldIdEnum> tArgs = toThriftArgs(func, call);
             if (func.isAsync()) {
                 invokeAsynchronously(impl, func, tArgs, reply);
             } else {
@@ -134,6 +134,18 @@ public final class ThriftCallService implements Service<RpcRequest, RpcResponse>
         }
     }
 
+    private static TBase<TBase<?, ?>, TFieldIdEnum> toThriftArgs(ThriftFunction func, RpcRequest call) {
+        if (call instanceof BoundRpcRequest) {
+            // Reuse the struct decoded by THttpService rather than building it again from the parameters.
+            final BoundRpcRequest boundCall = (BoundRpcRequest) call;
+            final TBase<TBase<?, ?>, TFieldIdEnum> thriftArgs = boundCall.thriftArgs();
+            if (thriftArgs != null && boundCall.function() == func) {
+                return thriftArgs;
+            }
+        }
+        return func.newArgs(call.params());
+    }
+
     private static void invokeAsynchronously(
             Object impl, ThriftFunction func,
             TBase<TBase<?, ?>, TFieldIdEnum> args, DefaultRpcResponse reply) throws TException {
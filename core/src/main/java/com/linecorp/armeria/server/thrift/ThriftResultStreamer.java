@@ -0,0 +1,149 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.thrift;
+
+import static com.linecorp.armeria.internal.http.ArmeriaHttpUtil.newContentBuffer;
+import static com.linecorp.armeria.internal.http.ArmeriaHttpUtil.toHttpData;
+
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+
+import org.apache.thrift.TException;
+import org.apache.thrift.TFieldIdEnum;
+import org.apache.thrift.protocol.TField;
+import org.apache.thrift.protocol.TMessage;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.protocol.TProtocolFactory;
+import org.apache.thrift.protocol.TStruct;
+
+import com.linecorp.armeria.common.http.HttpResponseWriter;
+import com.linecorp.armeria.internal.thrift.TByteBufTransport;
+import com.linecorp.armeria.internal.thrift.ThriftElementCodec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * Streams a Thrift reply whose result is a {@code list} or a {@code set} into an {@link HttpResponseWriter}
+ * chunk by chunk. The elements are encoded into the next chunk only when the previous one has been
+ * consumed, so that the memory footprint of encoding does not grow with the number of the elements.
+ * The streamed reply is identical to the one encoded at once, so a client can decode it either way.
+ */
+final class ThriftResultStreamer implements Runnable {
+
+    static final int CHUNK_SIZE = 16384;
+
+    /**
+     * The number of bytes after which no more element is encoded into the current chunk. It is less than
+     * {@link #CHUNK_SIZE} so that the last element of a chunk usually fits without growing the buffer.
+     */
+    private static final int CHUNK_THRESHOLD = CHUNK_SIZE * 3 / 4;
+
+    private static final TStruct RESULT_STRUCT = new TStruct("");
+
+    private final TByteBufTransport transport = new TByteBufTransport(Unpooled.EMPTY_BUFFER);
+    private final TProtocol proto;
+    private final TMessage header;
+    private final TField successField;
+    private final ThriftElementCodec codec;
+    private final int numElements;
+    private final Iterator<?> elements;
+    private final HttpResponseWriter res;
+    private final boolean usePooledHttpData;
+    private int numWrittenElements = -1;
+
+    ThriftResultStreamer(TProtocolFactory protocolFactory, TMessage header,
+                         TFieldIdEnum successField, ThriftElementCodec codec,
+                         Collection<?> result, HttpResponseWriter res, boolean usePooledHttpData) {
+        proto = protocolFactory.getProtocol(transport);
+        this.header = header;
+        this.successField = new TField(successField.getFieldName(), codec.containerType(),
+                                       successField.getThriftFieldId());
+        this.codec = codec;
+        numElements = result.size();
+        elements = result.iterator();
+        this.res = res;
+        this.usePooledHttpData = usePooledHttpData;
+    }
+
+    @Override
+    public void run() {
+        final ByteBuf buf = newContentBuffer(CHUNK_SIZE, usePooledHttpData);
+        final boolean hasMore;
+        try {
+            transport.buf(buf);
+            hasMore = encode(buf);
+        } catch (Throwable cause) {
+            buf.release();
+            res.close(cause);
+            return;
+        } finally {
+            transport.buf(Unpooled.EMPTY_BUFFER);
+        }
+
+        if (!res.write(toHttpData(buf, usePooledHttpData))) {
+            // The response has been closed or aborted already.
+            return;
+        }
+
+        if (hasMore) {
+            // The returned future fails only when the response has been closed or aborted,
+            // in which case there is nothing to clean up.
+            res.onDemand(this);
+        } else {
+            res.close();
+        }
+    }
+
+    /**
+     * Encodes the next chunk into the specified {@link ByteBuf}.
+     *
+     * @return {@code true} if there are more elements to encode
+     */
+    private boolean encode(ByteBuf buf) throws TException {
+        if (numWrittenElements < 0) {
+            proto.writeMessageBegin(header);
+            proto.writeStructBegin(RESULT_STRUCT);
+            proto.writeFieldBegin(successField);
+            codec.writeBegin(proto, numElements);
+            numWrittenElements = 0;
+        }
+
+        while (numWrittenElements < numElements && buf.readableBytes() < CHUNK_THRESHOLD) {
+            if (!elements.hasNext()) {
+                // The number of the elements has been written already.
+                throw new ConcurrentModificationException(
+                        "result modified while being streamed: " + numWrittenElements +
+                        " element(s) (expected: " + numElements + ')');
+            }
+            codec.write(proto, elements.next());
+            numWrittenElements++;
+        }
+
+        if (numWrittenElements < numElements) {
+            return true;
+        }
+
+        codec.writeEnd(proto);
+        proto.writeFieldEnd();
+        proto.writeFieldStop();
+        proto.writeStructEnd();
+        proto.writeMessageEnd();
+        return false;
+    }
+}
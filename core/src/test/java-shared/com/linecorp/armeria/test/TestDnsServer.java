@@ -0,0 +1,207 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.test;
+
+import static java.util.Objects.requireNonNull;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.DatagramChannel;
+import io.netty.channel.socket.nio.NioDatagramChannel;
+import io.netty.handler.codec.dns.DatagramDnsQuery;
+import io.netty.handler.codec.dns.DatagramDnsQueryDecoder;
+import io.netty.handler.codec.dns.DatagramDnsResponse;
+import io.netty.handler.codec.dns.DatagramDnsResponseEncoder;
+import io.netty.handler.codec.dns.DefaultDnsQuestion;
+import io.netty.handler.codec.dns.DefaultDnsRawRecord;
+import io.netty.handler.codec.dns.DnsQuestion;
+import io.netty.handler.codec.dns.DnsRawRecord;
+import io.netty.handler.codec.dns.DnsRecordType;
+import io.netty.handler.codec.dns.DnsResponseCode;
+import io.netty.handler.codec.dns.DnsSection;
+import io.netty.util.NetUtil;
+
+/**
+ * A DNS server for testing, which answers the queries over UDP with the records set by
+ * {@link #setAnswer(String, DnsRecordType, DnsResponseCode, List)} and counts the queries it received.
+ * A query without an answer set is answered with {@code NXDOMAIN}.
+ */
+public final class TestDnsServer implements AutoCloseable {
+
+    private final EventLoopGroup group = new NioEventLoopGroup(1);
+    private final Channel channel;
+    private final ConcurrentMap<String, Answer> answers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicInteger> numQueries = new ConcurrentHashMap<>();
+    private volatile long delayMillis;
+
+    /**
+     * Creates a new instance which listens on a random port of the loopback address.
+     */
+    public TestDnsServer() {
+        channel = new Bootstrap().group(group)
+                                 .channel(NioDatagramChannel.class)
+                                 .handler(new ChannelInitializer<DatagramChannel>() {
+                                     @Override
+                                     protected void initChannel(DatagramChannel ch) {
+                                         ch.pipeline().addLast(new DatagramDnsQueryDecoder(),
+                                                               new DatagramDnsResponseEncoder(),
+                                                               new QueryHandler());
+                                     }
+                                 })
+                                 .bind(NetUtil.LOCALHOST4, 0).syncUninterruptibly().channel();
+    }
+
+    /**
+     * Returns the address of this server.
+     */
+    public InetSocketAddress address() {
+        return (InetSocketAddress) channel.localAddress();
+    }
+
+    /**
+     * Answers the queries for the records of the specified name and type with the specified response code
+     * and records.
+     */
+    public void setAnswer(String name, DnsRecordType type, DnsResponseCode code, List<DnsRawRecord> records) {
+        requireNonNull(code, "code");
+        requireNonNull(records, "records");
+        final Answer answer = new Answer(code, new ArrayList<>(records));
+        // Replace the answer in the event loop so that the old answer is not in use when released.
+        channel.eventLoop().submit(() -> {
+            final Answer oldAnswer = answers.put(key(name, type), answer);
+            if (oldAnswer != null) {
+                oldAnswer.release();
+            }
+        }).syncUninterruptibly();
+    }
+
+    /**
+     * Answers the queries for the {@code A} records of the specified host name with the specified IPv4
+     * addresses.
+     */
+    public void setAddresses(String hostname, int ttl, byte[]... addresses) {
+        final List<DnsRawRecord> records = new ArrayList<>();
+        for (byte[] address : addresses) {
+            records.add(newRecord(hostname, DnsRecordType.A, ttl, Unpooled.wrappedBuffer(address)));
+        }
+        setAnswer(hostname, DnsRecordType.A, DnsResponseCode.NOERROR, records);
+    }
+
+    /**
+     * Answers the queries for the records of the specified name and type with the specified response code
+     * and no records.
+     */
+    public void setResponseCode(String name, DnsRecordType type, DnsResponseCode code) {
+        setAnswer(name, type, code, Collections.emptyList());
+    }
+
+    /**
+     * Delays every response by the specified amount of time.
+     */
+    public void setDelay(long delay, TimeUnit unit) {
+        delayMillis = unit.toMillis(delay);
+    }
+
+    /**
+     * Returns the number of the queries received for the records of the specified name and type.
+     */
+    public int numQueries(String name, DnsRecordType type) {
+        final AtomicInteger n = numQueries.get(key(name, type));
+        return n != null ? n.get() : 0;
+    }
+
+    /**
+     * Returns a new {@link DnsRawRecord} of the specified name, type, time-to-live and content.
+     */
+    public static DnsRawRecord newRecord(String name, DnsRecordType type, int ttl, ByteBuf content) {
+        return new DefaultDnsRawRecord(name, type, ttl, content);
+    }
+
+    @Override
+    public void close() {
+        channel.close().syncUninterruptibly();
+        group.shutdownGracefully().syncUninterruptibly();
+        answers.values().forEach(Answer::release);
+    }
+
+    private static String key(String name, DnsRecordType type) {
+        // Ignore the trailing dot and the case of the name.
+        final String normalized = name.endsWith(".") ? name.substring(0, name.length() - 1) : name;
+        return normalized.toLowerCase(Locale.ENGLISH) + '/' + type.name();
+    }
+
+    private final class QueryHandler extends SimpleChannelInboundHandler<DatagramDnsQuery> {
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, DatagramDnsQuery query) {
+            final DnsQuestion question = query.recordAt(DnsSection.QUESTION);
+            final String key = key(question.name(), question.type());
+            numQueries.computeIfAbsent(key, unused -> new AtomicInteger()).incrementAndGet();
+
+            final DatagramDnsResponse res = new DatagramDnsResponse(query.recipient(), query.sender(),
+                                                                    query.id());
+            res.addRecord(DnsSection.QUESTION,
+                          new DefaultDnsQuestion(question.name(), question.type(), question.dnsClass()));
+            final Answer answer = answers.get(key);
+            if (answer == null) {
+                res.setCode(DnsResponseCode.NXDOMAIN);
+            } else {
+                res.setCode(answer.code);
+                for (DnsRawRecord r : answer.records) {
+                    res.addRecord(DnsSection.ANSWER, r.retainedDuplicate());
+                }
+            }
+
+            final long delayMillis = TestDnsServer.this.delayMillis;
+            if (delayMillis > 0) {
+                ctx.executor().schedule(() -> ctx.writeAndFlush(res), delayMillis, TimeUnit.MILLISECONDS);
+            } else {
+                ctx.writeAndFlush(res);
+            }
+        }
+    }
+
+    private static final class Answer {
+        final DnsResponseCode code;
+        final List<DnsRawRecord> records;
+
+        Answer(DnsResponseCode code, List<DnsRawRecord> records) {
+            this.code = code;
+            this.records = records;
+        }
+
+        void release() {
+            records.forEach(DnsRawRecord::release);
+        }
+    }
+}
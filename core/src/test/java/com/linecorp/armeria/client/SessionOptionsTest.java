@@ -18,6 +18,8 @@ package com.linecorp.armeria.client;
 import static com.linecorp.armeria.client.SessionOption.CONNECT_TIMEOUT;
 import static com.linecorp.armeria.client.SessionOption.EVENT_LOOP_GROUP;
 import static com.linecorp.armeria.client.SessionOption.IDLE_TIMEOUT;
+import static com.linecorp.armeria.client.SessionOption.MAX_CONNECTIONS_PER_HOST_PER_EVENT_LOOP;
+import static com.linecorp.armeria.client.SessionOption.MIN_IDLE_CONNECTIONS_PER_HOST_PER_EVENT_LOOP;
 import static com.linecorp.armeria.client.SessionOption.TRUST_MANAGER_FACTORY;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
@@ -41,6 +43,9 @@ public class SessionOptionsTest {
         assertThat(options.connectTimeout(), is(notNullValue()));
         assertThat(options.idleTimeout(), is(notNullValue()));
         assertThat(options.trustManagerFactory(), is(Optional.empty()));
+        assertThat(options.usePooledHttpData(), is(false));
+        assertThat(options.maxConnectionsPerHostPerEventLoop(), is(0));
+        assertThat(options.minIdleConnectionsPerHostPerEventLoop(), is(0));
     }
 
     @Test
@@ -55,12 +60,16 @@ public class SessionOptionsTest {
                 CONNECT_TIMEOUT.newValue(connectionTimeout),
                 IDLE_TIMEOUT.newValue(idleTimeout),
                 EVENT_LOOP_GROUP.newValue(eventLoop),
-                TRUST_MANAGER_FACTORY.newValue(trustManagerFactory)
+                TRUST_MANAGER_FACTORY.newValue(trustManagerFactory),
+                MAX_CONNECTIONS_PER_HOST_PER_EVENT_LOOP.newValue(4),
+                MIN_IDLE_CONNECTIONS_PER_HOST_PER_EVENT_LOOP.newValue(2)
         );
 
         assertThat(options.get(CONNECT_TIMEOUT),is(Optional.of(connectionTimeout)));
         assertThat(options.get(IDLE_TIMEOUT),is(Optional.of(idleTimeout)));
         assertThat(options.get(EVENT_LOOP_GROUP),is(Optional.of(eventLoop)));
+        assertThat(options.maxConnectionsPerHostPerEventLoop(), is(4));
+        assertThat(options.minIdleConnectionsPerHostPerEventLoop(), is(2));
     }
 
     @Test(expected = IllegalArgumentException.class)
@@ -72,5 +81,14 @@ public class SessionOptionsTest {
     public void testValidateFailIdleTimeout() {
         SessionOptions.of(IDLE_TIMEOUT.newValue(Duration.ofMillis(-1)));
     }
-}
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testValidateFailMaxConnectionsPerHost() {
+        SessionOptions.of(MAX_CONNECTIONS_PER_HOST_PER_EVENT_LOOP.newValue(-1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testValidateFailMinIdleConnectionsPerHost() {
+        SessionOptions.of(MIN_IDLE_CONNECTIONS_PER_HOST_PER_EVENT_LOOP.newValue(-1));
+    }
+}
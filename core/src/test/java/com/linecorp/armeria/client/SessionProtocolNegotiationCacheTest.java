@@ -0,0 +1,124 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client;
+
+import static com.linecorp.armeria.common.SessionProtocol.H1C;
+import static com.linecorp.armeria.common.SessionProtocol.H2;
+import static com.linecorp.armeria.common.SessionProtocol.H2C;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import com.google.common.base.Ticker;
+
+import io.netty.channel.local.LocalAddress;
+
+public class SessionProtocolNegotiationCacheTest {
+
+    private static final InetSocketAddress ADDR_A = InetSocketAddress.createUnresolved("a.com", 8080);
+    private static final InetSocketAddress ADDR_B = InetSocketAddress.createUnresolved("b.com", 8080);
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private final Ticker ticker = new Ticker() {
+        @Override
+        public long read() {
+            return nanoTime.get();
+        }
+    };
+
+    @Test
+    public void unsupportedPerAddressAndProtocol() {
+        final SessionProtocolNegotiationCache cache = new SessionProtocolNegotiationCache();
+        assertThat(cache.isUnsupported(ADDR_A, H2C)).isFalse();
+
+        cache.setUnsupported(ADDR_A, H2C);
+        assertThat(cache.isUnsupported(ADDR_A, H2C)).isTrue();
+        assertThat(cache.isUnsupported(ADDR_A, H1C)).isFalse();
+        assertThat(cache.isUnsupported(ADDR_B, H2C)).isFalse();
+
+        cache.setUnsupported(ADDR_A, H2);
+        assertThat(cache.isUnsupported(ADDR_A, H2C)).isTrue();
+        assertThat(cache.isUnsupported(ADDR_A, H2)).isTrue();
+        assertThat(cache.size()).isEqualTo(1);
+
+        cache.clear();
+        assertThat(cache.isUnsupported(ADDR_A, H2C)).isFalse();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    public void expiry() {
+        final SessionProtocolNegotiationCache cache =
+                new SessionProtocolNegotiationCache(16, Duration.ofSeconds(10), ticker);
+
+        cache.setUnsupported(ADDR_A, H2C);
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(9));
+        assertThat(cache.isUnsupported(ADDR_A, H2C)).isTrue();
+
+        // A new failure renews the entry.
+        cache.setUnsupported(ADDR_A, H2);
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(9));
+        assertThat(cache.isUnsupported(ADDR_A, H2C)).isTrue();
+
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(cache.isUnsupported(ADDR_A, H2C)).isFalse();
+        assertThat(cache.isUnsupported(ADDR_A, H2)).isFalse();
+    }
+
+    @Test
+    public void maxEntries() {
+        final SessionProtocolNegotiationCache cache =
+                new SessionProtocolNegotiationCache(1, Duration.ofMinutes(1), ticker);
+
+        cache.setUnsupported(ADDR_A, H2C);
+        cache.setUnsupported(ADDR_B, H2C);
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.isUnsupported(ADDR_A, H2C)).isFalse();
+        assertThat(cache.isUnsupported(ADDR_B, H2C)).isTrue();
+        assertThat(cache.stats().evictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void stats() {
+        final SessionProtocolNegotiationCache cache = new SessionProtocolNegotiationCache();
+        cache.isUnsupported(ADDR_A, H2C);
+        cache.setUnsupported(ADDR_A, H2C);
+        cache.isUnsupported(ADDR_A, H2C);
+        cache.isUnsupported(ADDR_A, H2);
+
+        // An update must not be counted as a look-up.
+        assertThat(cache.stats().missCount()).isEqualTo(1);
+        assertThat(cache.stats().hitCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void invalidArguments() {
+        assertThatThrownBy(() -> new SessionProtocolNegotiationCache(0, Duration.ofMinutes(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SessionProtocolNegotiationCache(1, Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class);
+        final SessionProtocolNegotiationCache cache = new SessionProtocolNegotiationCache();
+        assertThatThrownBy(() -> cache.isUnsupported(new LocalAddress("foo"), H2C))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
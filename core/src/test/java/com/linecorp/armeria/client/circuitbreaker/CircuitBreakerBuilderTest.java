@@ -181,6 +181,12 @@ public class CircuitBreakerBuilderTest {
         throwsException(() -> builder().counterUpdateIntervalMillis(0));
     }
 
+    @Test
+    public void testUseRingBufferCounter() {
+        assertThat(confOf(builder().build()).useRingBufferCounter(), is(false));
+        assertThat(confOf(builder().useRingBufferCounter(true).build()).useRingBufferCounter(), is(true));
+    }
+
     @Test
     public void testExceptionFilter() {
         ExceptionFilter instance = e -> true;
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.dns;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.linecorp.armeria.common.util.NativeLibraries;
+import com.linecorp.armeria.internal.dns.DnsQueryException;
+import com.linecorp.armeria.internal.dns.DnsUtil;
+import com.linecorp.armeria.test.TestDnsServer;
+
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.handler.codec.dns.DnsRecordType;
+import io.netty.handler.codec.dns.DnsResponseCode;
+import io.netty.resolver.dns.DnsNameResolver;
+import io.netty.resolver.dns.DnsServerAddresses;
+
+public class DnsAddressCacheTest {
+
+    private static final EventLoopGroup eventLoopGroup =
+            NativeLibraries.isEpollAvailable() ? new EpollEventLoopGroup(1) : new NioEventLoopGroup(1);
+
+    private static final byte[] ADDRESS_1 = { 1, 1, 1, 1 };
+    private static final byte[] ADDRESS_2 = { 1, 1, 1, 2 };
+
+    @AfterClass
+    public static void shutdownEventLoopGroup() {
+        eventLoopGroup.shutdownGracefully();
+    }
+
+    private final EventLoop eventLoop = eventLoopGroup.next();
+    private TestDnsServer server;
+    private DnsNameResolver resolver;
+
+    @Before
+    public void setUp() {
+        server = new TestDnsServer();
+        resolver = DnsUtil.newResolver(eventLoop, 1000, DnsServerAddresses.singleton(server.address()));
+    }
+
+    @After
+    public void tearDown() {
+        resolver.close();
+        server.close();
+    }
+
+    @Test
+    public void ttlClampedToMin() throws Exception {
+        server.setAddresses("foo.com", 0, ADDRESS_1);
+        final DnsAddressCache cache = new DnsAddressCache(1, 10, 1, false);
+
+        assertThat(get(cache, "foo.com")).containsExactly(InetAddress.getByAddress("foo.com", ADDRESS_1));
+        final int numQueries = server.numQueries("foo.com", DnsRecordType.A);
+
+        // A zero TTL is raised to the minimum TTL, so the addresses are cached for a second.
+        get(cache, "foo.com");
+        assertThat(server.numQueries("foo.com", DnsRecordType.A)).isEqualTo(numQueries);
+
+        Thread.sleep(1500);
+        get(cache, "foo.com");
+        assertThat(server.numQueries("foo.com", DnsRecordType.A)).isGreaterThan(numQueries);
+    }
+
+    @Test
+    public void ttlClampedToMax() throws Exception {
+        server.setAddresses("foo.com", 3600, ADDRESS_1);
+        final DnsAddressCache cache = new DnsAddressCache(1, 1, 1, false);
+
+        get(cache, "foo.com");
+        final int numQueries = server.numQueries("foo.com", DnsRecordType.A);
+        get(cache, "foo.com");
+        assertThat(server.numQueries("foo.com", DnsRecordType.A)).isEqualTo(numQueries);
+
+        // A one-hour TTL is lowered to the maximum TTL.
+        server.setAddresses("foo.com", 3600, ADDRESS_2);
+        Thread.sleep(1500);
+        assertThat(get(cache, "foo.com")).containsExactly(InetAddress.getByAddress("foo.com", ADDRESS_2));
+        assertThat(server.numQueries("foo.com", DnsRecordType.A)).isGreaterThan(numQueries);
+    }
+
+    @Test
+    public void nonExistentNameCachedForNegativeTtl() throws Exception {
+        // The test server answers NXDOMAIN to a name without an answer.
+        final DnsAddressCache cache = new DnsAddressCache(1, 10, 1, false);
+
+        assertThatThrownBy(() -> get(cache, "bar.com")).hasCauseInstanceOf(UnknownHostException.class);
+        final int numQueries = server.numQueries("bar.com", DnsRecordType.A);
+
+        assertThatThrownBy(() -> get(cache, "bar.com")).hasCauseInstanceOf(UnknownHostException.class);
+        assertThat(server.numQueries("bar.com", DnsRecordType.A)).isEqualTo(numQueries);
+
+        Thread.sleep(1500);
+        server.setAddresses("bar.com", 10, ADDRESS_1);
+        assertThat(get(cache, "bar.com")).containsExactly(InetAddress.getByAddress("bar.com", ADDRESS_1));
+        assertThat(server.numQueries("bar.com", DnsRecordType.A)).isGreaterThan(numQueries);
+    }
+
+    @Test
+    public void serverFailureNotCached() throws Exception {
+        server.setResponseCode("baz.com", DnsRecordType.A, DnsResponseCode.SERVFAIL);
+        server.setResponseCode("baz.com", DnsRecordType.AAAA, DnsResponseCode.SERVFAIL);
+        final DnsAddressCache cache = new DnsAddressCache(1, 10, 10, false);
+
+        assertThatThrownBy(() -> get(cache, "baz.com")).hasCauseInstanceOf(DnsQueryException.class);
+        final int numQueries = server.numQueries("baz.com", DnsRecordType.A);
+
+        // The failure is not cached even if the negative TTL is long, so the next lookup sends a query.
+        server.setAddresses("baz.com", 10, ADDRESS_1);
+        assertThat(get(cache, "baz.com")).containsExactly(InetAddress.getByAddress("baz.com", ADDRESS_1));
+        assertThat(server.numQueries("baz.com", DnsRecordType.A)).isGreaterThan(numQueries);
+    }
+
+    @Test
+    public void noAddressRecordsNotCached() throws Exception {
+        server.setResponseCode("qux.com", DnsRecordType.A, DnsResponseCode.NOERROR);
+        server.setResponseCode("qux.com", DnsRecordType.AAAA, DnsResponseCode.NOERROR);
+        final DnsAddressCache cache = new DnsAddressCache(1, 10, 10, false);
+
+        assertThatThrownBy(() -> get(cache, "qux.com")).hasCauseInstanceOf(DnsQueryException.class);
+        final int numQueries = server.numQueries("qux.com", DnsRecordType.A);
+
+        assertThatThrownBy(() -> get(cache, "qux.com")).hasCauseInstanceOf(DnsQueryException.class);
+        assertThat(server.numQueries("qux.com", DnsRecordType.A)).isGreaterThan(numQueries);
+    }
+
+    @Test
+    public void prefetch() throws Exception {
+        server.setAddresses("foo.com", 2, ADDRESS_1);
+        final DnsAddressCache cache = new DnsAddressCache(1, 10, 1, true);
+
+        get(cache, "foo.com");
+        final int numQueries = server.numQueries("foo.com", DnsRecordType.A);
+        server.setAddresses("foo.com", 2, ADDRESS_2);
+
+        // After 80% of the TTL, the cached addresses are still served while they are refreshed in background.
+        Thread.sleep(1700);
+        final CompletableFuture<List<InetAddress>> future = cache.get("foo.com", resolver, eventLoop);
+        assertThat(future.isDone()).isTrue();
+        assertThat(future.join()).containsExactly(InetAddress.getByAddress("foo.com", ADDRESS_1));
+
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (server.numQueries("foo.com", DnsRecordType.A) == numQueries) {
+            assertThat(System.nanoTime() - deadline).isNegative();
+            Thread.sleep(10);
+        }
+        assertThat(server.numQueries("foo.com", DnsRecordType.A)).isEqualTo(numQueries + 1);
+    }
+
+    @Test
+    public void concurrentLookupsCoalesced() throws Exception {
+        server.setAddresses("foo.com", 10, ADDRESS_1);
+        server.setDelay(500, TimeUnit.MILLISECONDS);
+        final DnsAddressCache cache = new DnsAddressCache(1, 10, 1, false);
+
+        final CompletableFuture<List<InetAddress>> future1 = cache.get("foo.com", resolver, eventLoop);
+        final CompletableFuture<List<InetAddress>> future2 = cache.get("foo.com", resolver, eventLoop);
+        assertThat(future1.get(10, TimeUnit.SECONDS))
+                .containsExactly(InetAddress.getByAddress("foo.com", ADDRESS_1));
+        assertThat(future2.get(10, TimeUnit.SECONDS))
+                .containsExactly(InetAddress.getByAddress("foo.com", ADDRESS_1));
+        assertThat(server.numQueries("foo.com", DnsRecordType.A)).isEqualTo(1);
+    }
+
+    private List<InetAddress> get(DnsAddressCache cache, String hostname) throws Exception {
+        return cache.get(hostname, resolver, eventLoop).get(10, TimeUnit.SECONDS);
+    }
+}
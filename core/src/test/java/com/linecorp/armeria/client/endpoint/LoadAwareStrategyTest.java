@@ -0,0 +1,95 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.endpoint;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.common.logging.RequestLog;
+import com.linecorp.armeria.common.logging.RequestLogAvailability;
+import com.linecorp.armeria.common.logging.RequestLogListener;
+
+public class LoadAwareStrategyTest {
+
+    private static final Endpoint FOO = Endpoint.of("foo", 80);
+    private static final Endpoint BAR = Endpoint.of("bar", 80);
+    private static final EndpointGroup ENDPOINT_GROUP = new StaticEndpointGroup(FOO, BAR);
+
+    @Test
+    public void leastOutstandingRequests() throws Exception {
+        final EndpointSelector selector =
+                EndpointSelectionStrategy.LEAST_OUTSTANDING_REQUESTS.newSelector(ENDPOINT_GROUP);
+
+        final RequestLog log1 = mock(RequestLog.class);
+        final Endpoint first = selector.select(newContext(log1));
+        final Endpoint second = selector.select(newContext(mock(RequestLog.class)));
+        assertThat(second).isNotEqualTo(first);
+
+        // Both endpoints have one in-flight request; complete the one sent to the first endpoint.
+        completeRequest(log1, 1000);
+        assertThat(selector.select(newContext(mock(RequestLog.class)))).isEqualTo(first);
+    }
+
+    @Test
+    public void powerOfTwoChoices() throws Exception {
+        final EndpointSelector selector =
+                EndpointSelectionStrategy.POWER_OF_TWO_CHOICES.newSelector(ENDPOINT_GROUP);
+
+        // Send a slow request to one endpoint and a fast one to the other.
+        final RequestLog log1 = mock(RequestLog.class);
+        final RequestLog log2 = mock(RequestLog.class);
+        final Endpoint slow = selector.select(newContext(log1));
+        final Endpoint fast = selector.select(newContext(log2));
+        assertThat(fast).isNotEqualTo(slow);
+        completeRequest(log1, 1_000_000_000);
+        completeRequest(log2, 1_000_000);
+
+        // Both endpoints are compared whenever there are only two of them.
+        for (int i = 0; i < 10; i++) {
+            assertThat(selector.select()).isEqualTo(fast);
+        }
+    }
+
+    @Test
+    public void strategy() {
+        assertThat(EndpointSelectionStrategy.POWER_OF_TWO_CHOICES.newSelector(ENDPOINT_GROUP).strategy())
+                .isSameAs(EndpointSelectionStrategy.POWER_OF_TWO_CHOICES);
+        assertThat(EndpointSelectionStrategy.LEAST_OUTSTANDING_REQUESTS.newSelector(ENDPOINT_GROUP).strategy())
+                .isSameAs(EndpointSelectionStrategy.LEAST_OUTSTANDING_REQUESTS);
+    }
+
+    private static ClientRequestContext newContext(RequestLog log) {
+        final ClientRequestContext ctx = mock(ClientRequestContext.class);
+        when(ctx.log()).thenReturn(log);
+        return ctx;
+    }
+
+    private static void completeRequest(RequestLog log, long totalDurationNanos) throws Exception {
+        final ArgumentCaptor<RequestLogListener> captor = ArgumentCaptor.forClass(RequestLogListener.class);
+        verify(log).addListener(captor.capture(), eq(RequestLogAvailability.COMPLETE));
+        when(log.totalDurationNanos()).thenReturn(totalDurationNanos);
+        captor.getValue().onRequestLog(log);
+    }
+}
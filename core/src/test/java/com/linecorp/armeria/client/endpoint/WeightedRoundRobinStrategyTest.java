@@ -19,9 +19,15 @@ package com.linecorp.armeria.client.endpoint;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
 import org.junit.Before;
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableList;
+
 import com.linecorp.armeria.client.Endpoint;
 
 public class WeightedRoundRobinStrategyTest {
@@ -45,4 +51,53 @@ public class WeightedRoundRobinStrategyTest {
                 .isInstanceOf(EndpointGroupException.class);
     }
 
+    @Test
+    public void selectInOrder() {
+        assertThat(select(strategy.newSelector(newGroup(1, 1, 1)), 6)).isEqualTo("abcabc");
+        assertThat(select(strategy.newSelector(newGroup(1, 2, 3)), 12)).isEqualTo("abcbccabcbcc");
+        assertThat(select(strategy.newSelector(newGroup(2, 4, 6)), 12)).isEqualTo("abcabcbcbccc");
+        assertThat(select(strategy.newSelector(newGroup(3, 5, 7)), 15)).isEqualTo("abcabcabcbcbccc");
+        assertThat(select(strategy.newSelector(newGroup(3, 1, 2)), 6)).isEqualTo("abcaca");
+    }
+
+    @Test
+    public void selectAfterChange() {
+        final AtomicReference<List<Endpoint>> endpoints = new AtomicReference<>(
+                newGroup(1, 1).endpoints());
+        final EndpointSelector selector = strategy.newSelector(endpoints::get);
+        assertThat(select(selector, 4)).isEqualTo("abab");
+
+        // A change of an EndpointGroup that does not notify its listeners.
+        endpoints.set(newGroup(1, 3).endpoints());
+        assertThat(select(selector, 4)).isEqualTo("abbb");
+
+        // A change of an EndpointGroup that notifies its listeners.
+        final TestDynamicEndpointGroup group = new TestDynamicEndpointGroup();
+        final EndpointSelector dynamicSelector = strategy.newSelector(group);
+        assertThat(catchThrowable(dynamicSelector::select)).isInstanceOf(EndpointGroupException.class);
+        group.set(newGroup(2, 1).endpoints());
+        assertThat(select(dynamicSelector, 3)).isEqualTo("aba");
+    }
+
+    private static EndpointGroup newGroup(int... weights) {
+        final List<Endpoint> endpoints = new ArrayList<>();
+        for (int i = 0; i < weights.length; i++) {
+            endpoints.add(Endpoint.of(String.valueOf((char) ('a' + i)), 80, weights[i]));
+        }
+        return new StaticEndpointGroup(endpoints);
+    }
+
+    private static String select(EndpointSelector selector, int count) {
+        final StringBuilder buf = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            buf.append(selector.select().host());
+        }
+        return buf.toString();
+    }
+
+    private static final class TestDynamicEndpointGroup extends DynamicEndpointGroup {
+        void set(List<Endpoint> endpoints) {
+            setEndpoints(ImmutableList.copyOf(endpoints));
+        }
+    }
 }
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.endpoint.dns;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.common.util.NativeLibraries;
+import com.linecorp.armeria.internal.dns.DnsQueryException;
+import com.linecorp.armeria.test.TestDnsServer;
+
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.handler.codec.dns.DnsRecordType;
+import io.netty.handler.codec.dns.DnsResponseCode;
+import io.netty.resolver.dns.DnsServerAddresses;
+
+public class DnsAddressEndpointGroupTest {
+
+    private static final EventLoopGroup eventLoopGroup =
+            NativeLibraries.isEpollAvailable() ? new EpollEventLoopGroup(1) : new NioEventLoopGroup(1);
+
+    @AfterClass
+    public static void shutdownEventLoopGroup() {
+        eventLoopGroup.shutdownGracefully();
+    }
+
+    private final EventLoop eventLoop = eventLoopGroup.next();
+    private TestDnsServer server;
+
+    @Before
+    public void setUp() {
+        server = new TestDnsServer();
+    }
+
+    @After
+    public void tearDown() {
+        server.close();
+    }
+
+    @Test
+    public void addresses() throws Exception {
+        server.setAddresses("foo.com", 1, new byte[] { 1, 1, 1, 1 }, new byte[] { 1, 1, 1, 2 });
+        try (DnsAddressEndpointGroup group = newGroup("foo.com")) {
+            assertThat(group.initialEndpointsFuture().get(10, TimeUnit.SECONDS)).containsExactly(
+                    Endpoint.of("1.1.1.1", 8080), Endpoint.of("1.1.1.2", 8080));
+            assertThat(group.endpoints()).containsExactly(
+                    Endpoint.of("1.1.1.1", 8080), Endpoint.of("1.1.1.2", 8080));
+        }
+    }
+
+    @Test
+    public void refreshedWhenTtlExpires() throws Exception {
+        server.setAddresses("foo.com", 1, new byte[] { 1, 1, 1, 1 });
+        try (DnsAddressEndpointGroup group = newGroup("foo.com")) {
+            assertThat(group.initialEndpointsFuture().get(10, TimeUnit.SECONDS))
+                    .containsExactly(Endpoint.of("1.1.1.1", 8080));
+
+            server.setAddresses("foo.com", 1, new byte[] { 1, 1, 1, 3 });
+            await(group::endpoints, Endpoint.of("1.1.1.3", 8080));
+        }
+    }
+
+    @Test
+    public void endpointsKeptOnServerFailure() throws Exception {
+        server.setAddresses("foo.com", 1, new byte[] { 1, 1, 1, 1 });
+        try (DnsAddressEndpointGroup group = newGroup("foo.com")) {
+            group.initialEndpointsFuture().get(10, TimeUnit.SECONDS);
+            final int numQueries = server.numQueries("foo.com", DnsRecordType.A);
+
+            server.setResponseCode("foo.com", DnsRecordType.A, DnsResponseCode.SERVFAIL);
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (server.numQueries("foo.com", DnsRecordType.A) == numQueries) {
+                assertThat(System.nanoTime() - deadline).isNegative();
+                Thread.sleep(10);
+            }
+            assertThat(group.endpoints()).containsExactly(Endpoint.of("1.1.1.1", 8080));
+        }
+    }
+
+    @Test
+    public void nonExistentHost() {
+        try (DnsAddressEndpointGroup group = newGroup("bar.com")) {
+            assertThatThrownBy(() -> group.initialEndpointsFuture().get(10, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(UnknownHostException.class);
+            assertThat(group.endpoints()).isEmpty();
+        }
+    }
+
+    @Test
+    public void serverFailure() {
+        server.setResponseCode("baz.com", DnsRecordType.A, DnsResponseCode.SERVFAIL);
+        server.setResponseCode("baz.com", DnsRecordType.AAAA, DnsResponseCode.REFUSED);
+        try (DnsAddressEndpointGroup group = newGroup("baz.com")) {
+            assertThatThrownBy(() -> group.initialEndpointsFuture().get(10, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(DnsQueryException.class);
+        }
+    }
+
+    private DnsAddressEndpointGroup newGroup(String hostname) {
+        return DnsAddressEndpointGroup.of(hostname, 8080, eventLoop, 1, 10,
+                                          DnsServerAddresses.singleton(server.address()));
+    }
+
+    static void await(Supplier<List<Endpoint>> endpoints, Endpoint... expected) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!endpoints.get().equals(Arrays.asList(expected))) {
+            assertThat(System.nanoTime() - deadline).isNegative();
+            Thread.sleep(10);
+        }
+    }
+}
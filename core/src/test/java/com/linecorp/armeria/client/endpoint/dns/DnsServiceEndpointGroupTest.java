@@ -0,0 +1,151 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.endpoint.dns;
+
+import static com.linecorp.armeria.client.endpoint.dns.DnsAddressEndpointGroupTest.await;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.common.util.NativeLibraries;
+import com.linecorp.armeria.internal.dns.DnsQueryException;
+import com.linecorp.armeria.test.TestDnsServer;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.handler.codec.dns.DnsRawRecord;
+import io.netty.handler.codec.dns.DnsRecordType;
+import io.netty.handler.codec.dns.DnsResponseCode;
+import io.netty.resolver.dns.DnsServerAddresses;
+
+public class DnsServiceEndpointGroupTest {
+
+    private static final String SERVICE_NAME = "_http._tcp.foo.com";
+
+    private static final EventLoopGroup eventLoopGroup =
+            NativeLibraries.isEpollAvailable() ? new EpollEventLoopGroup(1) : new NioEventLoopGroup(1);
+
+    @AfterClass
+    public static void shutdownEventLoopGroup() {
+        eventLoopGroup.shutdownGracefully();
+    }
+
+    private final EventLoop eventLoop = eventLoopGroup.next();
+    private TestDnsServer server;
+
+    @Before
+    public void setUp() {
+        server = new TestDnsServer();
+    }
+
+    @After
+    public void tearDown() {
+        server.close();
+    }
+
+    @Test
+    public void highestPriorityRecords() throws Exception {
+        server.setAnswer(SERVICE_NAME, DnsRecordType.SRV, DnsResponseCode.NOERROR, ImmutableList.of(
+                newSrvRecord(10, 1, 10, 8080, "a.foo.com."),
+                newSrvRecord(10, 1, 0, 8081, "b.foo.com."),
+                newSrvRecord(10, 2, 10, 8082, "c.foo.com."),
+                newSrvRecord(10, 1, 10, 0, "d.foo.com."),
+                newSrvRecord(10, 1, 10, 8083, ".")));
+        try (DnsServiceEndpointGroup group = newGroup()) {
+            // The records of a lower priority and the unavailable targets are ignored,
+            // and the weight of 0 is raised to 1.
+            assertThat(group.initialEndpointsFuture().get(10, TimeUnit.SECONDS)).containsExactly(
+                    Endpoint.of("a.foo.com", 8080, 10), Endpoint.of("b.foo.com", 8081, 1));
+        }
+    }
+
+    @Test
+    public void refreshedWhenTtlExpires() throws Exception {
+        server.setAnswer(SERVICE_NAME, DnsRecordType.SRV, DnsResponseCode.NOERROR,
+                         ImmutableList.of(newSrvRecord(1, 1, 10, 8080, "a.foo.com.")));
+        try (DnsServiceEndpointGroup group = newGroup()) {
+            assertThat(group.initialEndpointsFuture().get(10, TimeUnit.SECONDS))
+                    .containsExactly(Endpoint.of("a.foo.com", 8080, 10));
+
+            server.setAnswer(SERVICE_NAME, DnsRecordType.SRV, DnsResponseCode.NOERROR,
+                             ImmutableList.of(newSrvRecord(1, 1, 20, 8080, "b.foo.com.")));
+            await(group::endpoints, Endpoint.of("b.foo.com", 8080, 20));
+        }
+    }
+
+    @Test
+    public void nonExistentService() {
+        try (DnsServiceEndpointGroup group = newGroup()) {
+            assertThatThrownBy(() -> group.initialEndpointsFuture().get(10, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(UnknownHostException.class);
+        }
+    }
+
+    @Test
+    public void serverFailure() {
+        server.setResponseCode(SERVICE_NAME, DnsRecordType.SRV, DnsResponseCode.SERVFAIL);
+        try (DnsServiceEndpointGroup group = newGroup()) {
+            assertThatThrownBy(() -> group.initialEndpointsFuture().get(10, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(DnsQueryException.class);
+        }
+    }
+
+    @Test
+    public void noSrvRecords() {
+        server.setResponseCode(SERVICE_NAME, DnsRecordType.SRV, DnsResponseCode.NOERROR);
+        try (DnsServiceEndpointGroup group = newGroup()) {
+            assertThatThrownBy(() -> group.initialEndpointsFuture().get(10, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(DnsQueryException.class);
+        }
+    }
+
+    private DnsServiceEndpointGroup newGroup() {
+        return DnsServiceEndpointGroup.of(SERVICE_NAME, eventLoop, 1, 10,
+                                          DnsServerAddresses.singleton(server.address()));
+    }
+
+    private static DnsRawRecord newSrvRecord(int ttl, int priority, int weight, int port, String target) {
+        final ByteBuf content = Unpooled.buffer();
+        content.writeShort(priority);
+        content.writeShort(weight);
+        content.writeShort(port);
+        if (!".".equals(target)) {
+            for (String label : target.substring(0, target.length() - 1).split("\\.")) {
+                final byte[] bytes = label.getBytes(StandardCharsets.US_ASCII);
+                content.writeByte(bytes.length);
+                content.writeBytes(bytes);
+            }
+        }
+        content.writeByte(0);
+        return TestDnsServer.newRecord(SERVICE_NAME, DnsRecordType.SRV, ttl, content);
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.InetSocketAddress;
+
+import org.junit.Test;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.http.MultiplexedConnectionManager.MultiplexedConnection;
+import com.linecorp.armeria.client.pool.PoolKey;
+import com.linecorp.armeria.common.SessionProtocol;
+import com.linecorp.armeria.common.http.HttpRequest;
+import com.linecorp.armeria.internal.InboundTrafficController;
+
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+public class MultiplexedConnectionManagerTest {
+
+    private static final PoolKey KEY =
+            new PoolKey(InetSocketAddress.createUnresolved("foo.com", 80), SessionProtocol.H2C);
+
+    @Test
+    public void maxConcurrentStreams() {
+        final MultiplexedConnectionManager manager = new MultiplexedConnectionManager(0);
+        final MockHttpSession session = new MockHttpSession(2);
+        final EmbeddedChannel ch = new EmbeddedChannel(session);
+
+        assertThat(manager.tryAcquire(KEY, ch.eventLoop())).isNull();
+
+        final MultiplexedConnection conn = manager.register(KEY, ch);
+        assertThat(manager.register(KEY, ch)).isSameAs(conn);
+        assertThat(manager.tryAcquire(KEY, ch.eventLoop())).isSameAs(conn);
+
+        // A stream which has been opened is counted as an unfinished response.
+        conn.release();
+        session.unfinishedResponses++;
+        assertThat(manager.tryAcquire(KEY, ch.eventLoop())).isSameAs(conn);
+
+        // Both streams are in use.
+        assertThat(conn.numReservedStreams()).isEqualTo(1);
+        assertThat(manager.tryAcquire(KEY, ch.eventLoop())).isNull();
+
+        session.unfinishedResponses--;
+        assertThat(manager.tryAcquire(KEY, ch.eventLoop())).isSameAs(conn);
+        ch.finishAndReleaseAll();
+    }
+
+    @Test
+    public void deactivatedConnection() {
+        final MultiplexedConnectionManager manager = new MultiplexedConnectionManager(0);
+        final MockHttpSession session = new MockHttpSession(Integer.MAX_VALUE);
+        final EmbeddedChannel ch = new EmbeddedChannel(session);
+
+        manager.register(KEY, ch);
+        session.deactivate();
+        assertThat(manager.tryAcquire(KEY, ch.eventLoop())).isNull();
+        ch.finishAndReleaseAll();
+    }
+
+    @Test
+    public void closedConnection() {
+        final MultiplexedConnectionManager manager = new MultiplexedConnectionManager(0);
+        final EmbeddedChannel ch1 = new EmbeddedChannel(new MockHttpSession(1));
+        final EmbeddedChannel ch2 = new EmbeddedChannel(new MockHttpSession(1));
+
+        manager.register(KEY, ch1);
+        final MultiplexedConnection conn2 = manager.register(KEY, ch2);
+        ch1.close();
+
+        assertThat(manager.tryAcquire(KEY, ch1.eventLoop())).isSameAs(conn2);
+        assertThat(manager.tryAcquire(KEY, ch1.eventLoop())).isNull();
+
+        manager.close();
+        assertThat(ch2.isOpen()).isFalse();
+    }
+
+    @Test
+    public void idleConnectionClosed() throws Exception {
+        final MultiplexedConnectionManager manager = new MultiplexedConnectionManager(100);
+        final MockHttpSession session = new MockHttpSession(Integer.MAX_VALUE);
+        final EmbeddedChannel ch = new EmbeddedChannel(session);
+
+        // A connection with an unfinished response is not closed.
+        manager.register(KEY, ch);
+        session.unfinishedResponses++;
+        Thread.sleep(150);
+        ch.runPendingTasks();
+        assertThat(ch.isOpen()).isTrue();
+
+        // The idle timeout is reset by the response.
+        session.unfinishedResponses--;
+        ch.writeInbound(new Object());
+        ch.readInbound();
+        Thread.sleep(150);
+        ch.runPendingTasks();
+        assertThat(ch.isOpen()).isFalse();
+        assertThat(manager.tryAcquire(KEY, ch.eventLoop())).isNull();
+        ch.finishAndReleaseAll();
+    }
+
+    private static final class MockHttpSession extends ChannelInboundHandlerAdapter implements HttpSession {
+
+        private final int maxUnfinishedResponses;
+        int unfinishedResponses;
+        private boolean active = true;
+
+        MockHttpSession(int maxUnfinishedResponses) {
+            this.maxUnfinishedResponses = maxUnfinishedResponses;
+        }
+
+        @Override
+        public SessionProtocol protocol() {
+            return SessionProtocol.H2C;
+        }
+
+        @Override
+        public boolean isActive() {
+            return active;
+        }
+
+        @Override
+        public InboundTrafficController inboundTrafficController() {
+            return HttpSession.INACTIVE.inboundTrafficController();
+        }
+
+        @Override
+        public boolean hasUnfinishedResponses() {
+            return unfinishedResponses != 0;
+        }
+
+        @Override
+        public int numUnfinishedResponses() {
+            return unfinishedResponses;
+        }
+
+        @Override
+        public int maxUnfinishedResponses() {
+            return maxUnfinishedResponses;
+        }
+
+        @Override
+        public boolean invoke(ClientRequestContext ctx, HttpRequest req, DecodedHttpResponse res) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void retryWithH1C() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deactivate() {
+            active = false;
+        }
+    }
+}
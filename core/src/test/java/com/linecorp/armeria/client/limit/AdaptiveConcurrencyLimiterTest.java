@@ -0,0 +1,89 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.limit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long RTT_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    public void growsWhileRttIsStable() {
+        final AdaptiveConcurrencyLimiter limiter = newLimiter();
+        for (int i = 0; i < 100; i++) {
+            limiter.onSuccess(RTT_NANOS, limiter.limit());
+        }
+        assertThat(limiter.limit()).isEqualTo(100);
+    }
+
+    @Test
+    public void doesNotGrowWhenNotLimited() {
+        final AdaptiveConcurrencyLimiter limiter = newLimiter();
+        for (int i = 0; i < 100; i++) {
+            limiter.onSuccess(RTT_NANOS, 1);
+        }
+        assertThat(limiter.limit()).isEqualTo(20);
+    }
+
+    @Test
+    public void shrinksWhenRttIncreases() {
+        final AdaptiveConcurrencyLimiter limiter = newLimiter();
+        for (int i = 0; i < 10; i++) {
+            limiter.onSuccess(RTT_NANOS, limiter.limit());
+        }
+        final int limit = limiter.limit();
+
+        for (int i = 0; i < 10; i++) {
+            limiter.onSuccess(RTT_NANOS * 4, limiter.limit());
+        }
+        assertThat(limiter.limit()).isLessThan(limit);
+    }
+
+    @Test
+    public void shrinksOnFailure() {
+        final AdaptiveConcurrencyLimiter limiter = newLimiter();
+        limiter.onFailure();
+        assertThat(limiter.limit()).isEqualTo(18);
+        for (int i = 0; i < 100; i++) {
+            limiter.onFailure();
+        }
+        assertThat(limiter.limit()).isEqualTo(5);
+    }
+
+    @Test
+    public void invalidLimits() {
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimitBuilder().minLimit(10).maxLimit(5).build())
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimitBuilder().initialLimit(5).minLimit(10).build())
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimitBuilder().smoothing(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static AdaptiveConcurrencyLimiter newLimiter() {
+        return new AdaptiveConcurrencyLimiter(new AdaptiveConcurrencyLimitBuilder().initialLimit(20)
+                                                                                   .minLimit(5)
+                                                                                   .maxLimit(100)
+                                                                                   .build());
+    }
+}
@@ -18,6 +18,9 @@ package com.linecorp.armeria.client.limit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -27,18 +30,28 @@ import java.util.concurrent.TimeUnit;
 
 import org.junit.AfterClass;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 import com.linecorp.armeria.client.Client;
 import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.Endpoint;
 import com.linecorp.armeria.client.ResponseTimeoutException;
+import com.linecorp.armeria.client.endpoint.EndpointGroupRegistry;
+import com.linecorp.armeria.client.endpoint.EndpointSelectionStrategy;
+import com.linecorp.armeria.client.endpoint.StaticEndpointGroup;
 import com.linecorp.armeria.common.http.DefaultHttpResponse;
 import com.linecorp.armeria.common.http.DeferredHttpResponse;
 import com.linecorp.armeria.common.http.HttpRequest;
 import com.linecorp.armeria.common.http.HttpResponse;
+import com.linecorp.armeria.common.logging.RequestLog;
+import com.linecorp.armeria.common.logging.RequestLogAvailability;
+import com.linecorp.armeria.common.logging.RequestLogListener;
 import com.linecorp.armeria.common.stream.NoopSubscriber;
 
 import io.netty.channel.DefaultEventLoop;
 import io.netty.channel.EventLoop;
+import io.netty.util.AttributeKey;
+import io.netty.util.DefaultAttributeMap;
 
 public class ConcurrencyLimitingHttpClientTest {
 
@@ -158,6 +171,8 @@ public class ConcurrencyLimitingHttpClientTest {
         assertThat(res1.isOpen()).isTrue();
         assertThat(res1.closeFuture()).isNotDone();
 
+        assertThat(client.numRejectedRequests()).isEqualTo(1);
+
         // Close req1 and make sure req2 does not affect numActiveRequests.
         actualRes1.close();
         waitForEventLoop();
@@ -192,6 +207,64 @@ public class ConcurrencyLimitingHttpClientTest {
         assertThat(client.numActiveRequests()).isZero();
     }
 
+    /**
+     * Tests if the adaptive limit is maintained for each endpoint and updated from the request log.
+     */
+    @Test
+    public void testAdaptiveLimitPerEndpoint() throws Exception {
+        final Endpoint endpointA = Endpoint.of("a.com", 80);
+        final Endpoint endpointB = Endpoint.of("b.com", 80);
+        final ClientRequestContext ctx1 = newContext(endpointA);
+        final ClientRequestContext ctx2 = newContext(endpointB);
+        final ClientRequestContext ctx3 = newContext(endpointA);
+        final HttpRequest req1 = mock(HttpRequest.class);
+        final HttpRequest req2 = mock(HttpRequest.class);
+        final HttpRequest req3 = mock(HttpRequest.class);
+        final DefaultHttpResponse actualRes1 = new DefaultHttpResponse();
+        final DefaultHttpResponse actualRes2 = new DefaultHttpResponse();
+        final DefaultHttpResponse actualRes3 = new DefaultHttpResponse();
+
+        @SuppressWarnings("unchecked")
+        final Client<HttpRequest, HttpResponse> delegate = mock(Client.class);
+        when(delegate.execute(ctx1, req1)).thenReturn(actualRes1);
+        when(delegate.execute(ctx2, req2)).thenReturn(actualRes2);
+        when(delegate.execute(ctx3, req3)).thenReturn(actualRes3);
+
+        final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimitBuilder().initialLimit(1)
+                                                                                    .minLimit(1)
+                                                                                    .maxLimit(10)
+                                                                                    .smoothing(1)
+                                                                                    .perEndpoint(true)
+                                                                                    .build();
+        final ConcurrencyLimitingHttpClient client =
+                ConcurrencyLimitingHttpClient.newDecorator(limit).apply(delegate);
+
+        // req1 and req2 should be delegated immediately because they are sent to different endpoints.
+        final HttpResponse res1 = client.execute(ctx1, req1);
+        final HttpResponse res2 = client.execute(ctx2, req2);
+        verify(delegate).execute(ctx1, req1);
+        verify(delegate).execute(ctx2, req2);
+
+        // req3 should be deferred until res1 is closed.
+        final HttpResponse res3 = client.execute(ctx3, req3);
+        verify(delegate, never()).execute(ctx3, req3);
+        assertThat(client.numActiveRequests()).isEqualTo(2);
+        assertThat(client.numPendingRequests()).isEqualTo(1);
+        assertThat(client.concurrencyLimit()).isEqualTo(2);
+        assertThat(client.endpointConcurrencyLimits()).containsOnly(entry("a.com:80", 1), entry("b.com:80", 1));
+
+        // Complete req1 with a round trip time, which should grow the limit of endpointA.
+        completeLog(ctx1, TimeUnit.MILLISECONDS.toNanos(10));
+        assertThat(client.endpointConcurrencyLimits()).containsOnly(entry("a.com:80", 2), entry("b.com:80", 1));
+        closeAndDrain(actualRes1, res1);
+        verify(delegate).execute(ctx3, req3);
+        assertThat(client.numPendingRequests()).isZero();
+
+        closeAndDrain(actualRes2, res2);
+        closeAndDrain(actualRes3, res3);
+        assertThat(client.numActiveRequests()).isZero();
+    }
+
     @Test
     public void testUnlimitedRequest() throws Exception {
         final ClientRequestContext ctx = newContext();
@@ -237,12 +310,127 @@ public class ConcurrencyLimitingHttpClientTest {
         assertThat(client.numActiveRequests()).isZero();
     }
 
+    /**
+     * Tests if the requests to a group endpoint are limited separately for each host in the group.
+     */
+    @Test
+    public void testAdaptiveLimitPerHostOfGroup() throws Exception {
+        final StaticEndpointGroup endpointGroup =
+                new StaticEndpointGroup(Endpoint.of("a.com", 80), Endpoint.of("b.com", 80));
+        EndpointGroupRegistry.register("limitTest", endpointGroup, EndpointSelectionStrategy.ROUND_ROBIN);
+        try {
+            final Endpoint group = Endpoint.ofGroup("limitTest");
+            final ClientRequestContext ctx1 = newContext(group);
+            final ClientRequestContext ctx2 = newContext(group);
+            final HttpRequest req1 = mock(HttpRequest.class);
+            final HttpRequest req2 = mock(HttpRequest.class);
+            final DefaultHttpResponse actualRes1 = new DefaultHttpResponse();
+            final DefaultHttpResponse actualRes2 = new DefaultHttpResponse();
+
+            @SuppressWarnings("unchecked")
+            final Client<HttpRequest, HttpResponse> delegate = mock(Client.class);
+            when(delegate.execute(ctx1, req1)).thenReturn(actualRes1);
+            when(delegate.execute(ctx2, req2)).thenReturn(actualRes2);
+
+            final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimitBuilder().initialLimit(1)
+                                                                                        .minLimit(1)
+                                                                                        .perEndpoint(true)
+                                                                                        .build();
+            final ConcurrencyLimitingHttpClient client =
+                    ConcurrencyLimitingHttpClient.newDecorator(limit).apply(delegate);
+
+            // Both requests should be delegated immediately because they are sent to different hosts.
+            final HttpResponse res1 = client.execute(ctx1, req1);
+            final HttpResponse res2 = client.execute(ctx2, req2);
+            verify(delegate).execute(ctx1, req1);
+            verify(delegate).execute(ctx2, req2);
+            assertThat(client.endpointConcurrencyLimits()).containsOnlyKeys("a.com:80", "b.com:80");
+
+            // The host selected by the decorator should be the host the request is sent to.
+            final Endpoint resolved1 = group.resolve(ctx1);
+            final Endpoint resolved2 = group.resolve(ctx2);
+            assertThat(resolved1).isNotEqualTo(resolved2);
+            assertThat(group.resolve(ctx1)).isSameAs(resolved1);
+            assertThat(group.resolve(ctx2)).isSameAs(resolved2);
+
+            closeAndDrain(actualRes1, res1);
+            closeAndDrain(actualRes2, res2);
+            assertThat(client.numActiveRequests()).isZero();
+        } finally {
+            EndpointGroupRegistry.unregister("limitTest");
+        }
+    }
+
+    /**
+     * Tests if the limit of a host is discarded after no request has been sent to the host for a while.
+     */
+    @Test
+    public void testIdleEndpointLimitEviction() throws Exception {
+        final Endpoint endpoint = Endpoint.of("a.com", 80);
+        final ClientRequestContext ctx1 = newContext(endpoint);
+        final ClientRequestContext ctx2 = newContext(endpoint);
+        final HttpRequest req1 = mock(HttpRequest.class);
+        final HttpRequest req2 = mock(HttpRequest.class);
+        final DefaultHttpResponse actualRes1 = new DefaultHttpResponse();
+        final DefaultHttpResponse actualRes2 = new DefaultHttpResponse();
+
+        @SuppressWarnings("unchecked")
+        final Client<HttpRequest, HttpResponse> delegate = mock(Client.class);
+        when(delegate.execute(ctx1, req1)).thenReturn(actualRes1);
+        when(delegate.execute(ctx2, req2)).thenReturn(actualRes2);
+
+        final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimitBuilder().perEndpoint(true).build();
+        final ConcurrencyLimitingHttpClient client =
+                ConcurrencyLimitingHttpClient.newDecorator(limit).apply(delegate);
+        client.limiterIdleTimeout(100, TimeUnit.MILLISECONDS);
+
+        // The limit should not be discarded while a request is active.
+        final HttpResponse res1 = client.execute(ctx1, req1);
+        Thread.sleep(200);
+        assertThat(client.endpointConcurrencyLimits()).containsOnlyKeys("a.com:80");
+
+        closeAndDrain(actualRes1, res1);
+        for (int i = 0; i < 100 && !client.endpointConcurrencyLimits().isEmpty(); i++) {
+            Thread.sleep(100);
+        }
+        assertThat(client.endpointConcurrencyLimits()).isEmpty();
+
+        // A new limit should be created for a new request.
+        final HttpResponse res2 = client.execute(ctx2, req2);
+        verify(delegate).execute(ctx2, req2);
+        assertThat(client.endpointConcurrencyLimits()).containsOnlyKeys("a.com:80");
+        closeAndDrain(actualRes2, res2);
+        assertThat(client.numActiveRequests()).isZero();
+    }
+
     private static ClientRequestContext newContext() {
         final ClientRequestContext ctx = mock(ClientRequestContext.class);
         when(ctx.eventLoop()).thenReturn(eventLoop);
         return ctx;
     }
 
+    private static ClientRequestContext newContext(Endpoint endpoint) {
+        final ClientRequestContext ctx = newContext();
+        final RequestLog log = mock(RequestLog.class);
+        final DefaultAttributeMap attrs = new DefaultAttributeMap();
+        when(ctx.endpoint()).thenReturn(endpoint);
+        when(ctx.log()).thenReturn(log);
+        when(ctx.attr(any())).thenAnswer(invocation -> attrs.attr(invocation.<AttributeKey<?>>getArgument(0)));
+        return ctx;
+    }
+
+    /**
+     * Notifies the {@link RequestLogListener} added to the {@link RequestLog} of the specified context, as if
+     * the request was completed successfully within the specified round trip time.
+     */
+    private static void completeLog(ClientRequestContext ctx, long rttNanos) throws Exception {
+        final RequestLog log = ctx.log();
+        final ArgumentCaptor<RequestLogListener> captor = ArgumentCaptor.forClass(RequestLogListener.class);
+        verify(log).addListener(captor.capture(), eq(RequestLogAvailability.COMPLETE));
+        when(log.totalDurationNanos()).thenReturn(rttNanos);
+        captor.getValue().onRequestLog(log);
+    }
+
     /**
      * Closes the response returned by the delegate and consumes everything from it, so that its close future
      * is completed.
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.pool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.ExecutionException;
+import java.util.function.BooleanSupplier;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.netty.channel.Channel;
+import io.netty.channel.DefaultEventLoop;
+import io.netty.channel.EventLoop;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.channel.pool.ChannelHealthChecker;
+import io.netty.util.concurrent.Future;
+
+public class DefaultKeyedChannelPoolTest {
+
+    private static final String KEY = "foo";
+
+    private EventLoop eventLoop;
+    private DefaultKeyedChannelPool<String> pool;
+
+    @Before
+    public void setUp() {
+        eventLoop = new DefaultEventLoop();
+    }
+
+    @After
+    public void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+        eventLoop.shutdownGracefully();
+    }
+
+    @Test
+    public void testMaxConnections() throws Exception {
+        pool = newPool(1, 0, 0, 0);
+
+        final Channel ch = pool.acquire(KEY).get();
+        final Future<Channel> pending = pool.acquire(KEY);
+        waitUntil(() -> pool.numPendingAcquisitions(KEY) == 1);
+        assertThat(pending.isDone()).isFalse();
+        assertThat(pool.numActiveChannels(KEY)).isEqualTo(1);
+
+        // The pending acquisition must get the released Channel rather than a new one.
+        pool.release(KEY, ch).sync();
+        assertThat(pending.get()).isSameAs(ch);
+        assertThat(pool.numPendingAcquisitions(KEY)).isZero();
+        assertThat(pool.numCreatedChannels(KEY)).isEqualTo(1);
+
+        // The pending acquisition must get a new Channel when the acquired Channel is closed.
+        final Future<Channel> pending2 = pool.acquire(KEY);
+        waitUntil(() -> pool.numPendingAcquisitions(KEY) == 1);
+        ch.close();
+        assertThat(pending2.get()).isNotSameAs(ch);
+        assertThat(pool.numCreatedChannels(KEY)).isEqualTo(2);
+        assertThat(pool.numClosedChannels(KEY)).isEqualTo(1);
+    }
+
+    @Test
+    public void testAcquireTimeout() throws Exception {
+        pool = newPool(1, 0, 0, 100);
+
+        pool.acquire(KEY).get();
+        assertThatThrownBy(() -> pool.acquire(KEY).get())
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        waitUntil(() -> pool.numPendingAcquisitions(KEY) == 0);
+    }
+
+    @Test
+    public void testWarmUp() throws Exception {
+        pool = newPool(0, 2, 0, 0);
+
+        pool.warmUp(KEY).sync();
+        assertThat(pool.numIdleChannels(KEY)).isEqualTo(2);
+        assertThat(pool.numCreatedChannels(KEY)).isEqualTo(2);
+        assertThat(pool.keys()).containsExactly(KEY);
+
+        // Acquiring the warmed-up Channels must not create a new Channel.
+        pool.acquire(KEY).get();
+        pool.acquire(KEY).get();
+        assertThat(pool.numIdleChannels(KEY)).isZero();
+        assertThat(pool.numActiveChannels(KEY)).isEqualTo(2);
+        assertThat(pool.numCreatedChannels(KEY)).isEqualTo(2);
+
+        // The pool must establish the new Channels in background to keep the minimum idle Channels.
+        waitUntil(() -> pool.numIdleChannels(KEY) == 2);
+        assertThat(pool.numCreatedChannels(KEY)).isEqualTo(4);
+    }
+
+    @Test
+    public void testIdleEviction() throws Exception {
+        pool = newPool(0, 0, 100, 0);
+
+        final Channel ch1 = pool.acquire(KEY).get();
+        final Channel ch2 = pool.acquire(KEY).get();
+        pool.release(KEY, ch1).sync();
+        pool.release(KEY, ch2).sync();
+
+        // The Channel released most recently must be acquired first.
+        final Channel ch = pool.acquire(KEY).get();
+        assertThat(ch).isSameAs(ch2);
+
+        waitUntil(() -> pool.numClosedChannels(KEY) == 1);
+        assertThat(ch1.isOpen()).isFalse();
+        assertThat(ch2.isOpen()).isTrue();
+        assertThat(pool.numIdleChannels(KEY)).isZero();
+    }
+
+    private DefaultKeyedChannelPool<String> newPool(int maxConnections, int minIdleConnections,
+                                                   long idleTimeoutMillis, long acquireTimeoutMillis) {
+        return new DefaultKeyedChannelPool<>(
+                eventLoop, key -> eventLoop.newSucceededFuture(new EmbeddedChannel()),
+                ChannelHealthChecker.ACTIVE, new KeyedChannelPoolHandlerAdapter<>(), true,
+                maxConnections, minIdleConnections, idleTimeoutMillis, acquireTimeoutMillis);
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 500 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(10);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
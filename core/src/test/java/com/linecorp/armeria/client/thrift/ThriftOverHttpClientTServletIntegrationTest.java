@@ -66,11 +66,12 @@ import org.slf4j.LoggerFactory;
 
 import com.linecorp.armeria.client.Client;
 import com.linecorp.armeria.client.ClientBuilder;
+import com.linecorp.armeria.client.ClientFactory;
 import com.linecorp.armeria.client.ClientRequestContext;
 import com.linecorp.armeria.client.Clients;
 import com.linecorp.armeria.client.DecoratingClient;
-import com.linecorp.armeria.client.SessionProtocolNegotiationCache;
 import com.linecorp.armeria.client.SessionProtocolNegotiationException;
+import com.linecorp.armeria.client.http.HttpClientFactory;
 import com.linecorp.armeria.common.Request;
 import com.linecorp.armeria.common.Response;
 import com.linecorp.armeria.common.RpcRequest;
@@ -108,6 +109,9 @@ public class ThriftOverHttpClientTServletIntegrationTest {
 
     private static final AtomicBoolean sendConnectionClose = new AtomicBoolean();
 
+    private static final HttpClientFactory httpClientFactory = new HttpClientFactory(true);
+    private static final ClientFactory clientFactory = new THttpClientFactory(httpClientFactory);
+
     private static Server http1server;
     private static Server http2server;
 
@@ -179,6 +183,7 @@ public class ThriftOverHttpClientTServletIntegrationTest {
     @AfterClass
     public static void destroyServer() throws Exception {
         CompletableFuture.runAsync(() -> {
+            clientFactory.close();
             if (http1server != null) {
                 try {
                     http1server.stop();
@@ -198,7 +203,7 @@ public class ThriftOverHttpClientTServletIntegrationTest {
 
     @Before
     public void setup() {
-        SessionProtocolNegotiationCache.clear();
+        httpClientFactory.sessionProtocolNegotiationCache().clear();
         sendConnectionClose.set(false);
     }
 
@@ -243,10 +248,10 @@ public class ThriftOverHttpClientTServletIntegrationTest {
     public void testRejectedUpgrade() throws Exception {
         final InetSocketAddress remoteAddress = new InetSocketAddress("127.0.0.1", http1Port());
 
-        assertFalse(SessionProtocolNegotiationCache.isUnsupported(remoteAddress, H2C));
+        assertFalse(httpClientFactory.sessionProtocolNegotiationCache().isUnsupported(remoteAddress, H2C));
 
         final HelloService.Iface client =
-                Clients.newClient(http1uri(H2C), HelloService.Iface.class);
+                Clients.newClient(clientFactory, http1uri(H2C), HelloService.Iface.class);
 
         try {
             client.hello("unused");
@@ -257,7 +262,7 @@ public class ThriftOverHttpClientTServletIntegrationTest {
             assertThat(e.expected(), is(H2C));
             assertThat(e.actual().orElse(null), is(H1C));
             // .. and if the negotiation cache is updated.
-            assertTrue(SessionProtocolNegotiationCache.isUnsupported(remoteAddress, H2C));
+            assertTrue(httpClientFactory.sessionProtocolNegotiationCache().isUnsupported(remoteAddress, H2C));
         }
 
         try {
@@ -275,6 +280,7 @@ public class ThriftOverHttpClientTServletIntegrationTest {
             String uri, AtomicReference<SessionProtocol> sessionProtocol) {
 
         return new ClientBuilder(uri)
+                .factory(clientFactory)
                 .decorator(RpcRequest.class, RpcResponse.class,
                            c -> new SessionProtocolCapturer<>(c, sessionProtocol))
                 .build(HelloService.Iface.class);
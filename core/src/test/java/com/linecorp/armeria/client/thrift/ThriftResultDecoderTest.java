@@ -0,0 +1,155 @@
+/*
+ * Copyright 2017 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.thrift;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.thrift.TBase;
+import org.apache.thrift.TFieldIdEnum;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.protocol.TMessage;
+import org.apache.thrift.protocol.TMessageType;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.transport.TMemoryBuffer;
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.common.DefaultRpcResponse;
+import com.linecorp.armeria.common.SerializationFormat;
+import com.linecorp.armeria.common.http.HttpData;
+import com.linecorp.armeria.common.http.HttpHeaders;
+import com.linecorp.armeria.common.http.HttpObject;
+import com.linecorp.armeria.common.http.HttpStatus;
+import com.linecorp.armeria.common.logging.DefaultRequestLog;
+import com.linecorp.armeria.common.stream.DefaultStreamMessage;
+import com.linecorp.armeria.common.stream.StreamMessage;
+import com.linecorp.armeria.common.thrift.ThriftProtocolFactories;
+import com.linecorp.armeria.internal.thrift.ThriftFunction;
+import com.linecorp.armeria.internal.thrift.ThriftServiceMetadata;
+import com.linecorp.armeria.service.test.thrift.main.Name;
+import com.linecorp.armeria.service.test.thrift.main.NameSortService;
+
+public class ThriftResultDecoderTest {
+
+    private static final ThriftFunction FUNC =
+            new ThriftServiceMetadata(NameSortService.Iface.class).function("sort");
+
+    private static final int CHUNK_SIZE = 7;
+
+    @Test
+    public void decodeOnlyOnDemand() throws Exception {
+        final List<Name> names = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            names.add(new Name("first" + i, "middle" + i, "last" + i));
+        }
+
+        // Split the reply into small chunks so that most elements arrive in more than one chunk.
+        final byte[] reply = encodeReply(names);
+        final CountingHttpResponse res = new CountingHttpResponse();
+        res.write(HttpHeaders.of(HttpStatus.OK));
+        int numChunks = 1;
+        for (int i = 0; i < reply.length; i += CHUNK_SIZE) {
+            res.write(HttpData.of(reply, i, Math.min(CHUNK_SIZE, reply.length - i)));
+            numChunks++;
+        }
+        res.close();
+
+        final DefaultRpcResponse rpcRes = new DefaultRpcResponse();
+        res.subscribe(new ThriftResultDecoder(newContext(),
+                                              new THttpClientDelegate(null, "/",
+                                                                      SerializationFormat.THRIFT_BINARY, false),
+                                              ThriftProtocolFactories.BINARY, FUNC, rpcRes));
+
+        @SuppressWarnings("unchecked")
+        final StreamMessage<Name> elements = (StreamMessage<Name>) rpcRes.get(10, TimeUnit.SECONDS);
+        final List<Name> received = new ArrayList<>();
+        final CompletableFuture<Subscription> subscriptionFuture = new CompletableFuture<>();
+        final CompletableFuture<Void> completionFuture = new CompletableFuture<>();
+        elements.subscribe(new Subscriber<Name>() {
+            @Override
+            public void onSubscribe(Subscription s) {
+                subscriptionFuture.complete(s);
+                s.request(1);
+            }
+
+            @Override
+            public void onNext(Name name) {
+                received.add(name);
+            }
+
+            @Override
+            public void onError(Throwable cause) {
+                completionFuture.completeExceptionally(cause);
+            }
+
+            @Override
+            public void onComplete() {
+                completionFuture.complete(null);
+            }
+        });
+
+        // The first element is received as soon as its bytes arrive, and no more bytes are consumed
+        // until more elements are requested.
+        assertThat(received).containsExactly(names.get(0));
+        final int numConsumedChunks = res.numRemovedObjects.get();
+        assertThat(numConsumedChunks).isLessThan(numChunks / 10);
+        assertThat(res.numRemovedObjects.get()).isEqualTo(numConsumedChunks);
+
+        subscriptionFuture.get().request(Long.MAX_VALUE);
+        completionFuture.get(10, TimeUnit.SECONDS);
+        assertThat(received).isEqualTo(names);
+        assertThat(res.numRemovedObjects.get()).isEqualTo(numChunks);
+    }
+
+    private static byte[] encodeReply(List<Name> names) throws Exception {
+        final TMemoryBuffer out = new TMemoryBuffer(1024);
+        final TProtocol proto = new TBinaryProtocol(out);
+        final TBase<TBase<?, ?>, TFieldIdEnum> result = FUNC.newResult();
+        FUNC.setSuccess(result, names);
+        proto.writeMessageBegin(new TMessage("sort", TMessageType.REPLY, 0));
+        result.write(proto);
+        proto.writeMessageEnd();
+        return Arrays.copyOf(out.getArray(), out.length());
+    }
+
+    private static ClientRequestContext newContext() {
+        final ClientRequestContext ctx = mock(ClientRequestContext.class);
+        when(ctx.logBuilder()).thenReturn(new DefaultRequestLog(ctx));
+        return ctx;
+    }
+
+    private static final class CountingHttpResponse extends DefaultStreamMessage<HttpObject> {
+
+        final AtomicInteger numRemovedObjects = new AtomicInteger();
+
+        @Override
+        protected void onRemoval(HttpObject obj) {
+            numRemovedObjects.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import com.linecorp.armeria.common.stream.DefaultStreamMessage;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+
+public class ByteBufHttpDataTest {
+
+    @Test
+    public void testHeapBuffer() {
+        final ByteBuf buf = Unpooled.wrappedBuffer("__foo".getBytes(StandardCharsets.US_ASCII));
+        buf.skipBytes(2);
+        final ByteBufHttpData data = new ByteBufHttpData(buf, false);
+
+        // A heap buffer is exposed without copying.
+        assertThat(data.array()).isSameAs(buf.array());
+        assertThat(data.offset()).isEqualTo(2);
+        assertThat(data.length()).isEqualTo(3);
+        assertThat(data.toStringAscii()).isEqualTo("foo");
+        assertThat(data.release()).isTrue();
+    }
+
+    @Test
+    public void testDirectBuffer() {
+        final ByteBuf buf = PooledByteBufAllocator.DEFAULT.directBuffer();
+        buf.writeCharSequence("foo", StandardCharsets.US_ASCII);
+        final ByteBufHttpData data = new ByteBufHttpData(buf, true);
+
+        assertThat(data.isEndOfStream()).isTrue();
+        assertThat(data.offset()).isZero();
+        assertThat(data.toStringAscii()).isEqualTo("foo");
+        assertThat(data).isEqualTo(HttpData.ofAscii("foo"));
+        assertThat(data.hashCode()).isEqualTo(HttpData.ofAscii("foo").hashCode());
+        assertThat(data.release()).isTrue();
+    }
+
+    @Test
+    public void testAggregationReleasesBuffers() {
+        final ByteBuf foo = newBuffer("foo");
+        final ByteBuf bar = newBuffer("bar");
+        final DefaultHttpResponse res = new DefaultHttpResponse();
+        res.write(HttpHeaders.of(HttpStatus.OK));
+        res.write(new ByteBufHttpData(foo, false));
+        res.write(new ByteBufHttpData(bar, false));
+        res.close();
+
+        final AggregatedHttpMessage msg = res.aggregate().join();
+        assertThat(msg.content().toStringAscii()).isEqualTo("foobar");
+        assertThat(foo.refCnt()).isZero();
+        assertThat(bar.refCnt()).isZero();
+    }
+
+    @Test
+    public void testAbortReleasesBuffers() {
+        final ByteBuf buf = newBuffer("foo");
+        final DefaultStreamMessage<HttpObject> stream = new DefaultStreamMessage<>();
+        stream.write(new ByteBufHttpData(buf, false));
+        stream.abort();
+        assertThat(buf.refCnt()).isZero();
+    }
+
+    @Test
+    public void testWriteAfterCloseReleasesBuffer() {
+        final ByteBuf buf = newBuffer("foo");
+        final DefaultStreamMessage<HttpObject> stream = new DefaultStreamMessage<>();
+        stream.close();
+        assertThat(stream.write(new ByteBufHttpData(buf, false))).isFalse();
+        assertThat(buf.refCnt()).isZero();
+    }
+
+    private static ByteBuf newBuffer(String content) {
+        final ByteBuf buf = PooledByteBufAllocator.DEFAULT.directBuffer();
+        buf.writeCharSequence(content, StandardCharsets.US_ASCII);
+        return buf;
+    }
+}
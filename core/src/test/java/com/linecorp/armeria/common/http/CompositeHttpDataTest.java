@@ -0,0 +1,105 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.ByteStreams;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+public class CompositeHttpDataTest {
+
+    @Test
+    public void testViews() throws IOException {
+        final HttpData foo = HttpData.ofAscii("foo");
+        final HttpData bar = HttpData.of("__bar".getBytes(StandardCharsets.US_ASCII), 2, 3);
+        final CompositeHttpData data = new CompositeHttpData(ImmutableList.of(foo, bar), false);
+
+        assertThat(data.components()).containsExactly(foo, bar);
+        assertThat(data.length()).isEqualTo(6);
+        assertThat(data.offset()).isZero();
+
+        final ByteBuf buf = data.toByteBuf();
+        assertThat(buf.toString(StandardCharsets.US_ASCII)).isEqualTo("foobar");
+        buf.release();
+
+        try (InputStream in = data.toInputStream()) {
+            assertThat(new String(ByteStreams.toByteArray(in), StandardCharsets.US_ASCII)).isEqualTo("foobar");
+        }
+
+        // The components are merged only when the array is requested.
+        assertThat(data.toStringAscii()).isEqualTo("foobar");
+        assertThat(data.array()).isSameAs(data.array());
+    }
+
+    @Test
+    public void testEquality() {
+        final CompositeHttpData data = new CompositeHttpData(
+                ImmutableList.of(HttpData.ofAscii("foo"), HttpData.ofAscii("bar")), false);
+
+        assertThat(data).isEqualTo(HttpData.ofAscii("foobar"));
+        assertThat(data.hashCode()).isEqualTo(HttpData.ofAscii("foobar").hashCode());
+        assertThat(data).isNotEqualTo(HttpData.ofAscii("foobaz"));
+    }
+
+    @Test
+    public void testReferenceCountedComponent() {
+        final ByteBufHttpData pooled = new ByteBufHttpData(Unpooled.buffer().writeByte(1), false);
+        assertThatThrownBy(() -> new CompositeHttpData(ImmutableList.of(pooled), false))
+                .isInstanceOf(IllegalArgumentException.class);
+        pooled.release();
+    }
+
+    @Test
+    public void testAggregation() {
+        final HttpData foo = HttpData.ofAscii("foo");
+        final HttpData bar = HttpData.ofAscii("bar");
+        final DefaultHttpResponse res = new DefaultHttpResponse();
+        res.write(HttpHeaders.of(HttpStatus.OK));
+        res.write(foo);
+        res.write(HttpData.EMPTY_DATA);
+        res.write(bar);
+        res.close();
+
+        // The chunks are not merged.
+        final HttpData content = res.aggregate().join().content();
+        assertThat(content).isInstanceOf(CompositeHttpData.class);
+        assertThat(((CompositeHttpData) content).components()).containsExactly(foo, bar);
+        assertThat(content.toStringAscii()).isEqualTo("foobar");
+    }
+
+    @Test
+    public void testAggregationOfSingleChunk() {
+        final HttpData foo = HttpData.ofAscii("foo");
+        final DefaultHttpResponse res = new DefaultHttpResponse();
+        res.write(HttpHeaders.of(HttpStatus.OK));
+        res.write(foo);
+        res.close();
+
+        assertThat(res.aggregate().join().content()).isSameAs(foo);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.linecorp.armeria.common.RequestContext;
+import com.linecorp.armeria.common.SessionProtocol;
+
+public class DefaultRequestLogTest {
+
+    @Test
+    public void listenersAreNotifiedInOrder() {
+        final DefaultRequestLog log = new DefaultRequestLog(mock(RequestContext.class));
+        final List<Integer> notified = new ArrayList<>();
+        log.addListener(l -> notified.add(0), RequestLogAvailability.REQUEST_END);
+        log.addListener(l -> notified.add(1), RequestLogAvailability.COMPLETE);
+        log.addListener(l -> notified.add(2), RequestLogAvailability.REQUEST_START);
+        log.addListener(l -> notified.add(3), RequestLogAvailability.REQUEST_END);
+
+        log.startRequest(null, SessionProtocol.H2C, "foo", "GET", "/");
+        assertThat(notified).containsExactly(2);
+        log.endRequest();
+        assertThat(notified).containsExactly(2, 0, 3);
+        log.endRequest();
+        log.startResponse();
+        log.endResponse();
+        assertThat(notified).containsExactly(2, 0, 3, 1);
+
+        // A listener added after the availability is notified immediately.
+        log.addListener(l -> notified.add(4), RequestLogAvailability.REQUEST_END);
+        assertThat(notified).containsExactly(2, 0, 3, 1, 4);
+    }
+
+    @Test
+    public void concurrentRegistration() throws Exception {
+        final int numThreads = 4;
+        final int numListenersPerThread = 1000;
+        final DefaultRequestLog log = new DefaultRequestLog(mock(RequestContext.class));
+        final AtomicInteger numNotifications = new AtomicInteger();
+        final CountDownLatch startLatch = new CountDownLatch(1);
+
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < numThreads; i++) {
+            final Thread t = new Thread(() -> {
+                try {
+                    startLatch.await();
+                } catch (InterruptedException e) {
+                    throw new Error(e);
+                }
+                for (int j = 0; j < numListenersPerThread; j++) {
+                    log.addListener(l -> numNotifications.incrementAndGet(), RequestLogAvailability.COMPLETE);
+                }
+            });
+            t.start();
+            threads.add(t);
+        }
+
+        startLatch.countDown();
+        log.startRequest(null, SessionProtocol.H2C, "foo", "GET", "/");
+        log.endRequest();
+        log.startResponse();
+        log.endResponse();
+
+        for (Thread t : threads) {
+            t.join();
+        }
+
+        assertThat(numNotifications).hasValue(numThreads * numListenersPerThread);
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.metric;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.Test;
+
+public class HistogramTest {
+
+    @Test
+    public void bucketBounds() {
+        for (long v : new long[] { 0, 1, 31, 32, 33, 63, 64, 65, 1000, 123456789, Long.MAX_VALUE }) {
+            final int index = Histogram.bucketIndex(v);
+            assertThat(index).isBetween(0, Histogram.BUCKET_COUNT - 1);
+            assertThat(Histogram.bucketLowerBound(index)).isLessThanOrEqualTo(v);
+            if (index + 1 < Histogram.BUCKET_COUNT) {
+                assertThat(Histogram.bucketLowerBound(index + 1)).isGreaterThan(v);
+            }
+        }
+        assertThat(Histogram.bucketIndex(Long.MAX_VALUE)).isEqualTo(Histogram.BUCKET_COUNT - 1);
+    }
+
+    @Test
+    public void quantiles() {
+        final Histogram histogram = new MeterRegistry().histogram(MeterId.of("foo"));
+        for (int i = 1; i <= 10000; i++) {
+            histogram.record(i * 1000L);
+        }
+        histogram.record(-1);
+
+        final HistogramSnapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.count()).isEqualTo(10001);
+        assertThat(snapshot.max()).isEqualTo(10000000);
+        assertThat(snapshot.sum()).isEqualTo(50005000000L);
+        assertThat((double) snapshot.valueAtQuantile(0.5)).isCloseTo(5000000, within(5000000 * 0.02));
+        assertThat((double) snapshot.valueAtQuantile(0.99)).isCloseTo(9900000, within(9900000 * 0.02));
+        assertThat(snapshot.valueAtQuantile(0)).isZero();
+        assertThat(snapshot.valueAtQuantile(1)).isEqualTo(10000000);
+    }
+
+    @Test
+    public void emptySnapshot() {
+        final HistogramSnapshot snapshot = new MeterRegistry().histogram(MeterId.of("foo")).snapshot();
+        assertThat(snapshot.count()).isZero();
+        assertThat(snapshot.mean()).isZero();
+        assertThat(snapshot.valueAtQuantile(0.99)).isZero();
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.metric;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.Test;
+
+public class PrometheusTextFormatTest {
+
+    @Test
+    public void meterIdsAreSortedByTagKeys() {
+        assertThat(MeterId.of("foo", "b", "2", "a", "1")).isEqualTo(MeterId.of("foo", "a", "1", "b", "2"));
+        assertThat(MeterId.of("foo", "b", "2", "a", "1").toString()).isEqualTo("foo{a=1,b=2}");
+        assertThatThrownBy(() -> MeterId.of("foo", "a", "1", "a", "2"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> MeterId.of("foo", "a"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void typeMismatch() {
+        final MeterRegistry registry = new MeterRegistry();
+        registry.counter(MeterId.of("foo"));
+        assertThatThrownBy(() -> registry.gauge(MeterId.of("foo")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void format() {
+        final MeterRegistry registry = new MeterRegistry();
+        final MeterId id = MeterId.of("armeria.server", "path", "/a\"b", "method", "GET");
+        registry.counter(id.append("successes")).add(3);
+        registry.counter(MeterId.of("armeria.server.successes", "path", "/c", "method", "POST")).increment();
+        registry.gauge(id.append("activeRequests")).increment();
+        registry.histogram(id.append("durationNanos")).record(10);
+
+        assertThat(PrometheusTextFormat.format(registry)).isEqualTo(
+                "# TYPE armeria_server_activeRequests gauge\n" +
+                "armeria_server_activeRequests{method=\"GET\",path=\"/a\\\"b\"} 1\n" +
+                "# TYPE armeria_server_durationNanos summary\n" +
+                "armeria_server_durationNanos{method=\"GET\",path=\"/a\\\"b\",quantile=\"0.5\"} 10\n" +
+                "armeria_server_durationNanos{method=\"GET\",path=\"/a\\\"b\",quantile=\"0.75\"} 10\n" +
+                "armeria_server_durationNanos{method=\"GET\",path=\"/a\\\"b\",quantile=\"0.9\"} 10\n" +
+                "armeria_server_durationNanos{method=\"GET\",path=\"/a\\\"b\",quantile=\"0.95\"} 10\n" +
+                "armeria_server_durationNanos{method=\"GET\",path=\"/a\\\"b\",quantile=\"0.99\"} 10\n" +
+                "armeria_server_durationNanos{method=\"GET\",path=\"/a\\\"b\",quantile=\"0.999\"} 10\n" +
+                "armeria_server_durationNanos_sum{method=\"GET\",path=\"/a\\\"b\"} 10\n" +
+                "armeria_server_durationNanos_count{method=\"GET\",path=\"/a\\\"b\"} 1\n" +
+                "# TYPE armeria_server_durationNanos_max gauge\n" +
+                "armeria_server_durationNanos_max{method=\"GET\",path=\"/a\\\"b\"} 10\n" +
+                "# TYPE armeria_server_successes counter\n" +
+                "armeria_server_successes{method=\"GET\",path=\"/a\\\"b\"} 3\n" +
+                "armeria_server_successes{method=\"POST\",path=\"/c\"} 1\n");
+    }
+}
@@ -31,6 +31,7 @@ import org.apache.thrift.TException;
 import org.apache.thrift.protocol.TMessage;
 import org.apache.thrift.protocol.TMessageType;
 import org.apache.thrift.transport.TIOStreamTransport;
+import org.apache.thrift.transport.TMemoryInputTransport;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -100,6 +101,22 @@ public class TTextProtocolTest {
         assertEquals(msg1, msg2);
     }
 
+    @Test
+    public void enumMapKeysWrittenAsNumbers() throws Exception {
+        TTextProtocolTestMsgEnumMap msg1 = new TTextProtocolTestMsgEnumMap()
+                .setA(ImmutableMap.of(1, Letter.ALPHA, 5, Letter.ECHO))
+                .setB(ImmutableMap.of(Letter.BETA, Letter.CHARLIE, Letter.DELTA, Letter.ALPHA));
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        msg1.write(new TTextProtocol(new TIOStreamTransport(baos)));
+        String json = new String(baos.toByteArray(), StandardCharsets.UTF_8);
+        assertJsonEquals("{ \"a\": { \"1\": 1, \"5\": 5 }, \"b\": { \"2\": 3, \"4\": 1 } }", json);
+
+        TTextProtocolTestMsgEnumMap msg2 = new TTextProtocolTestMsgEnumMap();
+        msg2.read(new TTextProtocol(new TMemoryInputTransport(baos.toByteArray())));
+        assertEquals(msg1, msg2);
+    }
+
     private TTextProtocolTestMsg testMsg() {
 
         return new TTextProtocolTestMsg()
@@ -191,6 +208,40 @@ public class TTextProtocolTest {
         assertJsonEquals(request, new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
     }
 
+    @Test
+    public void rpcCall_argsBeforeHeader() throws Exception {
+        String request =
+                "{\n" +
+                "  \"args\" : {\n" +
+                "    \"methodArg1\" : \"foo1\",\n" +
+                "    \"methodArg2\" : 200,\n" +
+                "    \"details\" : {\n" +
+                "      \"detailsArg1\" : \"foo2\",\n" +
+                "      \"detailsArg2\" : 100\n" +
+                "    }\n" +
+                "  },\n" +
+                "  \"method\" : \"doDebug\",\n" +
+                "  \"type\" : \"CALL\",\n" +
+                "  \"seqid\" : 1\n" +
+                '}';
+
+        TTextProtocol prot = new TTextProtocol(
+                new TMemoryInputTransport(request.getBytes(StandardCharsets.UTF_8)));
+        TMessage header = prot.readMessageBegin();
+        doDebug_args args = new RpcDebugService.Processor.doDebug().getEmptyArgsInstance();
+        args.read(prot);
+        prot.readMessageEnd();
+
+        assertEquals("doDebug", header.name);
+        assertEquals(TMessageType.CALL, header.type);
+        assertEquals(1, header.seqid);
+
+        assertEquals("foo1", args.getMethodArg1());
+        assertEquals(200, args.getMethodArg2());
+        assertEquals("foo2", args.getDetails().getDetailsArg1());
+        assertEquals(100, args.getDetails().getDetailsArg2());
+    }
+
     @Test
     public void rpcCall_noSeqId() throws Exception {
         String request =
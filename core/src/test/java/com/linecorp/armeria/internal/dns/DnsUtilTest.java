@@ -0,0 +1,127 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.dns;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import com.linecorp.armeria.internal.dns.DnsUtil.ResolvedAddresses;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.dns.DefaultDnsRawRecord;
+import io.netty.handler.codec.dns.DefaultDnsResponse;
+import io.netty.handler.codec.dns.DnsRecordType;
+import io.netty.handler.codec.dns.DnsResponse;
+import io.netty.handler.codec.dns.DnsResponseCode;
+import io.netty.handler.codec.dns.DnsSection;
+
+public class DnsUtilTest {
+
+    @Test
+    public void decodeCompressedName() {
+        final ByteBuf buf = Unpooled.buffer();
+        writeLabel(buf, "example");
+        writeLabel(buf, "com");
+        buf.writeByte(0);
+        final int offset = buf.writerIndex();
+        writeLabel(buf, "foo");
+        buf.writeShort(0xC000);
+        buf.writeByte(42);
+
+        buf.readerIndex(offset);
+        assertThat(DnsUtil.decodeName(buf)).isEqualTo("foo.example.com.");
+        assertThat(buf.readByte()).isEqualTo((byte) 42);
+
+        buf.readerIndex(0);
+        assertThat(DnsUtil.decodeName(buf)).isEqualTo("example.com.");
+        assertThat(buf.readerIndex()).isEqualTo(offset);
+        buf.release();
+    }
+
+    private static void writeLabel(ByteBuf buf, String label) {
+        buf.writeByte(label.length());
+        buf.writeBytes(label.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void decodeAddresses() throws Exception {
+        final DnsResponse res = new DefaultDnsResponse(0);
+        res.addRecord(DnsSection.ANSWER, new DefaultDnsRawRecord(
+                "foo.com.", DnsRecordType.A, 60, Unpooled.wrappedBuffer(new byte[] { 1, 2, 3, 4 })));
+        res.addRecord(DnsSection.ANSWER, new DefaultDnsRawRecord(
+                "foo.com.", DnsRecordType.A, 30, Unpooled.wrappedBuffer(new byte[] { 5, 6, 7, 8 })));
+        try {
+            final ResolvedAddresses resolved = DnsUtil.decodeAddresses("foo.com", res);
+            assertThat(resolved.addresses()).containsExactly(
+                    InetAddress.getByAddress("foo.com", new byte[] { 1, 2, 3, 4 }),
+                    InetAddress.getByAddress("foo.com", new byte[] { 5, 6, 7, 8 }));
+            assertThat(resolved.ttl()).isEqualTo(30);
+        } finally {
+            res.release();
+        }
+    }
+
+    @Test
+    public void nonExistentDomain() {
+        final DnsResponse res = new DefaultDnsResponse(0).setCode(DnsResponseCode.NXDOMAIN);
+        try {
+            assertThatThrownBy(() -> DnsUtil.decodeAddresses("foo.com", res))
+                    .isInstanceOf(UnknownHostException.class);
+        } finally {
+            res.release();
+        }
+    }
+
+    @Test
+    public void noAddresses() {
+        final DnsResponse res = new DefaultDnsResponse(0);
+        try {
+            assertThatThrownBy(() -> DnsUtil.decodeAddresses("foo.com", res))
+                    .isInstanceOf(DnsQueryException.class);
+        } finally {
+            res.release();
+        }
+    }
+
+    @Test
+    public void serverFailure() {
+        for (DnsResponseCode code : new DnsResponseCode[] { DnsResponseCode.SERVFAIL,
+                                                            DnsResponseCode.REFUSED }) {
+            final DnsResponse res = new DefaultDnsResponse(0).setCode(code);
+            try {
+                assertThatThrownBy(() -> DnsUtil.decodeAddresses("foo.com", res))
+                        .isInstanceOf(DnsQueryException.class);
+            } finally {
+                res.release();
+            }
+        }
+    }
+
+    @Test
+    public void literalAddress() {
+        assertThat(DnsUtil.literalAddress("127.0.0.1")).isNotNull();
+        assertThat(DnsUtil.literalAddress("::1")).isNotNull();
+        assertThat(DnsUtil.literalAddress("foo.com")).isNull();
+    }
+}
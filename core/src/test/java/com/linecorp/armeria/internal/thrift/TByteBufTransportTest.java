@@ -0,0 +1,83 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.thrift;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+
+import org.apache.thrift.protocol.TMessage;
+import org.apache.thrift.protocol.TMessageType;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.protocol.TProtocolFactory;
+import org.junit.Test;
+
+import com.linecorp.armeria.common.thrift.ThriftProtocolFactories;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+public class TByteBufTransportTest {
+
+    private static final TProtocolFactory[] FACTORIES = {
+            ThriftProtocolFactories.BINARY, ThriftProtocolFactories.COMPACT, ThriftProtocolFactories.JSON
+    };
+
+    @Test
+    public void heapBuffer() throws Exception {
+        for (TProtocolFactory factory : FACTORIES) {
+            testRoundTrip(factory, Unpooled.buffer(4));
+        }
+    }
+
+    @Test
+    public void directBuffer() throws Exception {
+        for (TProtocolFactory factory : FACTORIES) {
+            testRoundTrip(factory, Unpooled.directBuffer(4));
+        }
+    }
+
+    private static void testRoundTrip(TProtocolFactory factory, ByteBuf buf) throws Exception {
+        try {
+            final TByteBufTransport transport = new TByteBufTransport(buf);
+            final TProtocol out = factory.getProtocol(transport);
+            out.writeMessageBegin(new TMessage("hello", TMessageType.CALL, 42));
+            out.writeString("Hello, world!");
+            out.writeBinary(ByteBuffer.wrap(new byte[] { 1, 2, 3 }));
+            out.writeI64(Long.MAX_VALUE);
+            out.writeMessageEnd();
+            // The buffer must have grown beyond its initial capacity.
+            assertThat(buf.readableBytes()).isGreaterThan(4);
+
+            final TProtocol in = factory.getProtocol(transport);
+            final TMessage header = in.readMessageBegin();
+            assertThat(header.name).isEqualTo("hello");
+            assertThat(header.type).isEqualTo(TMessageType.CALL);
+            assertThat(header.seqid).isEqualTo(42);
+            assertThat(in.readString()).isEqualTo("Hello, world!");
+            final ByteBuffer binary = in.readBinary();
+            final byte[] binaryArray = new byte[binary.remaining()];
+            binary.get(binaryArray);
+            assertThat(binaryArray).containsExactly(1, 2, 3);
+            assertThat(in.readI64()).isEqualTo(Long.MAX_VALUE);
+            in.readMessageEnd();
+            assertThat(buf.isReadable()).isFalse();
+        } finally {
+            buf.release();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class PathMappingsTest {
+
+    @Test
+    public void testFirstMatchWins() {
+        final PathMappings<String> mappings = new PathMappings<String>(0)
+                .add(PathMapping.ofExact("/foo/bar"), "exact")
+                .add(PathMapping.ofPrefix("/foo/"), "prefix")
+                .add(PathMapping.ofGlob("/foo/*/baz"), "glob")
+                .add(PathMapping.ofRegex("^/foo/.*/qux$"), "regex")
+                .add(PathMapping.ofCatchAll(), "catchAll");
+
+        assertMapped(mappings, "/foo/bar", "/foo/bar", "exact");
+        assertMapped(mappings, "/foo/a/baz", "/a/baz", "prefix");
+        assertMapped(mappings, "/foo", "/foo", "catchAll");
+        assertMapped(mappings, "/", "/", "catchAll");
+    }
+
+    @Test
+    public void testLaterMappingsAreNotShadowedByTree() {
+        final PathMappings<String> mappings = new PathMappings<String>(0)
+                .add(PathMapping.ofRegex("^/foo/"), "regex")
+                .add(PathMapping.ofGlob("**/bar"), "glob")
+                .add(PathMapping.ofExact("/foo/bar"), "exact")
+                .add(PathMapping.ofPrefix("/foo/", false), "prefix");
+
+        assertMapped(mappings, "/foo/bar", "/foo/bar", "regex");
+        assertMapped(mappings, "/baz/bar", "/baz/bar", "glob");
+        assertMapped(mappings, "/bar", "/bar", "glob");
+        assertThat(mappings.apply("/baz").isPresent()).isFalse();
+    }
+
+    @Test
+    public void testOverlappingPrefixes() {
+        final PathMappings<String> mappings = new PathMappings<String>(0)
+                .add(PathMapping.ofExact("/a/b/c"), "exact")
+                .add(PathMapping.ofPrefix("/a/b/"), "ab")
+                .add(PathMapping.ofPrefix("/a/"), "a")
+                .add(PathMapping.ofPrefix("/ab/"), "ab2")
+                .add(PathMapping.ofGlob("/a/b*"), "glob");
+
+        assertMapped(mappings, "/a/b/c", "/a/b/c", "exact");
+        assertMapped(mappings, "/a/b/c/d", "/c/d", "ab");
+        assertMapped(mappings, "/a/b", "/b", "a");
+        assertMapped(mappings, "/ab/c", "/c", "ab2");
+        assertThat(mappings.apply("/abc").isPresent()).isFalse();
+        assertThat(mappings.apply("/a").isPresent()).isFalse();
+    }
+
+    @Test
+    public void testSameResultAsLinearScan() {
+        final List<PathMapping> list = new ArrayList<>();
+        final PathMappings<Integer> mappings = new PathMappings<>(0);
+        for (int i = 0; i < 50; i++) {
+            final PathMapping m;
+            switch (i % 5) {
+            case 0:
+                m = PathMapping.ofExact("/svc" + i % 7 + "/item" + i % 3);
+                break;
+            case 1:
+                m = PathMapping.ofPrefix("/svc" + i % 7 + '/');
+                break;
+            case 2:
+                m = PathMapping.ofGlob("/svc" + i % 7 + "/*/item" + i % 3);
+                break;
+            case 3:
+                m = PathMapping.ofGlob("item" + i % 3);
+                break;
+            default:
+                m = PathMapping.ofRegex("^/svc" + i % 7 + "/[a-z]+$");
+            }
+            list.add(m);
+            mappings.add(m, i);
+        }
+
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < 4; j++) {
+                for (String path : new String[] {
+                        "/svc" + i + "/item" + j,
+                        "/svc" + i + "/x/item" + j,
+                        "/svc" + i + "/x/y/item" + j,
+                        "/svc" + i,
+                        "/item" + j }) {
+
+                    final PathMapped<Integer> actual = mappings.apply(path);
+                    PathMapped<Integer> expected = PathMapped.empty();
+                    for (int k = 0; k < list.size(); k++) {
+                        final String mappedPath = list.get(k).apply(path);
+                        if (mappedPath != null) {
+                            expected = PathMapped.of(mappedPath, k);
+                            break;
+                        }
+                    }
+
+                    assertThat(actual.toString()).as(path).isEqualTo(expected.toString());
+                }
+            }
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testAddAfterFreeze() {
+        new PathMappings<String>().freeze().add(PathMapping.ofCatchAll(), "foo");
+    }
+
+    private static void assertMapped(PathMappings<String> mappings, String path,
+                                     String expectedMappedPath, String expectedValue) {
+        final PathMapped<String> mapped = mappings.apply(path);
+        assertThat(mapped.isPresent()).isTrue();
+        assertThat(mapped.mappedPath()).isEqualTo(expectedMappedPath);
+        assertThat(mapped.value()).isEqualTo(expectedValue);
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.http.encoding;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.junit.Test;
+
+import com.google.common.io.ByteStreams;
+
+import com.linecorp.armeria.common.http.ByteBufHttpData;
+import com.linecorp.armeria.common.http.HttpData;
+
+public class HttpDataDeflaterTest {
+
+    @Test
+    public void gzip() throws Exception {
+        final byte[] content = newContent();
+        final byte[] encoded = encode(HttpEncodingType.GZIP, -1, content);
+        assertThat(ByteStreams.toByteArray(new GZIPInputStream(new ByteArrayInputStream(encoded))))
+                .isEqualTo(content);
+    }
+
+    @Test
+    public void deflate() throws Exception {
+        final byte[] content = newContent();
+        final byte[] encoded = encode(HttpEncodingType.DEFLATE, 9, content);
+        assertThat(ByteStreams.toByteArray(new InflaterInputStream(new ByteArrayInputStream(encoded))))
+                .isEqualTo(content);
+    }
+
+    @Test
+    public void emptyContent() throws Exception {
+        final byte[] encoded = encode(HttpEncodingType.GZIP, -1, new byte[0]);
+        assertThat(ByteStreams.toByteArray(new GZIPInputStream(new ByteArrayInputStream(encoded))))
+                .isEmpty();
+    }
+
+    @Test
+    public void flushedPerData() throws Exception {
+        final HttpDataDeflater deflater =
+                new HttpDataDeflater(HttpEncodingType.DEFLATE, -1, true);
+        final byte[] content = "Hello, world!".getBytes(StandardCharsets.UTF_8);
+        final byte[] encoded = toByteArray(deflater.encode(HttpData.of(content)));
+        deflater.close();
+
+        // The data must be decodable without the rest of the stream.
+        final InputStream in = new InflaterInputStream(new ByteArrayInputStream(encoded));
+        final byte[] decoded = new byte[content.length];
+        ByteStreams.readFully(in, decoded);
+        assertThat(decoded).isEqualTo(content);
+    }
+
+    @Test
+    public void finishedTwice() {
+        final HttpDataDeflater deflater =
+                new HttpDataDeflater(HttpEncodingType.GZIP, -1, true);
+        toByteArray(deflater.finish());
+        assertThatThrownBy(deflater::finish).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> deflater.encode(HttpData.ofUtf8("foo")))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void unpooled() throws Exception {
+        final HttpDataDeflater deflater = new HttpDataDeflater(HttpEncodingType.GZIP, -1, false);
+        final byte[] content = "Hello, world!".getBytes(StandardCharsets.UTF_8);
+        final HttpData encoded = deflater.encode(HttpData.of(content));
+        final HttpData trailer = deflater.finish();
+        assertThat(encoded).isNotInstanceOf(ByteBufHttpData.class);
+        assertThat(trailer).isNotInstanceOf(ByteBufHttpData.class);
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(encoded.array(), encoded.offset(), encoded.length());
+        out.write(trailer.array(), trailer.offset(), trailer.length());
+        assertThat(ByteStreams.toByteArray(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))))
+                .isEqualTo(content);
+    }
+
+    @Test
+    public void invalidCompressionLevel() {
+        assertThatThrownBy(() -> new HttpDataDeflater(HttpEncodingType.GZIP, 10, true))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static byte[] encode(HttpEncodingType type, int level, byte[] content) throws IOException {
+        // Encode twice to make sure a pooled Deflater is reset properly.
+        byte[] encoded = null;
+        for (int i = 0; i < 2; i++) {
+            final HttpDataDeflater deflater = new HttpDataDeflater(type, level, true);
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            for (int offset = 0; offset < content.length; offset += 10000) {
+                final int length = Math.min(10000, content.length - offset);
+                out.write(toByteArray(deflater.encode(HttpData.of(content, offset, length))));
+            }
+            out.write(toByteArray(deflater.finish()));
+            encoded = out.toByteArray();
+        }
+        return encoded;
+    }
+
+    private static byte[] toByteArray(HttpData data) {
+        assertThat(data).isInstanceOf(ByteBufHttpData.class);
+        try {
+            final byte[] array = new byte[data.length()];
+            System.arraycopy(data.array(), data.offset(), array, 0, data.length());
+            return array;
+        } finally {
+            ((ByteBufHttpData) data).release();
+        }
+    }
+
+    private static byte[] newContent() {
+        // Half random and half repetitive so that the content is compressible but not trivially.
+        final byte[] content = new byte[100000];
+        new Random(42).nextBytes(content);
+        for (int i = 0; i < content.length; i += 2) {
+            content[i] = (byte) ('a' + i % 26);
+        }
+        return content;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.http.encoding;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.net.MediaType;
+
+import com.linecorp.armeria.common.http.AggregatedHttpMessage;
+import com.linecorp.armeria.common.http.DefaultHttpResponse;
+import com.linecorp.armeria.common.http.HttpData;
+import com.linecorp.armeria.common.http.HttpHeaderNames;
+import com.linecorp.armeria.common.http.HttpHeaders;
+import com.linecorp.armeria.common.http.HttpObject;
+import com.linecorp.armeria.common.http.HttpStatus;
+
+public class HttpEncodedResponseTest {
+
+    @Test
+    public void compressionLevelOutOfRange() throws Exception {
+        final DefaultHttpResponse res = new DefaultHttpResponse();
+        final HttpEncodedResponse encoded = new HttpEncodedResponse(
+                res, HttpEncodingType.GZIP, contentType -> true, 1, contentType -> 42, false);
+        res.respond(HttpStatus.OK, MediaType.PLAIN_TEXT_UTF_8, "Hello, world!");
+
+        final AggregatedHttpMessage msg = encoded.aggregate().join();
+        assertThat(msg.headers().get(HttpHeaderNames.CONTENT_ENCODING)).isEqualTo("gzip");
+        final HttpData content = msg.content();
+        assertThat(ByteStreams.toByteArray(new GZIPInputStream(
+                new ByteArrayInputStream(content.array(), content.offset(), content.length()))))
+                .isEqualTo("Hello, world!".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void deflaterReleasedOnCancel() {
+        final int level = 3;
+        final DefaultHttpResponse res = new DefaultHttpResponse();
+        final HttpEncodedResponse encoded = new HttpEncodedResponse(
+                res, HttpEncodingType.GZIP, contentType -> true, 1, contentType -> level, false);
+        res.write(HttpHeaders.of(HttpStatus.OK)
+                             .set(HttpHeaderNames.CONTENT_TYPE, MediaType.PLAIN_TEXT_UTF_8.toString()));
+
+        final int numPooledDeflaters = HttpDataDeflater.numPooledDeflaters(HttpEncodingType.GZIP, level);
+        encoded.subscribe(new Subscriber<HttpObject>() {
+            private Subscription subscription;
+
+            @Override
+            public void onSubscribe(Subscription s) {
+                subscription = s;
+                s.request(1);
+            }
+
+            @Override
+            public void onNext(HttpObject obj) {
+                // Cancel as soon as the headers are received, before any content is compressed.
+                subscription.cancel();
+            }
+
+            @Override
+            public void onError(Throwable t) {}
+
+            @Override
+            public void onComplete() {}
+        });
+
+        // The Deflater borrowed for the response must have been returned to the pool.
+        assertThat(encoded.closeFuture()).isCompletedExceptionally();
+        assertThat(HttpDataDeflater.numPooledDeflaters(HttpEncodingType.GZIP, level))
+                .isEqualTo(Math.max(numPooledDeflaters, 1));
+    }
+}
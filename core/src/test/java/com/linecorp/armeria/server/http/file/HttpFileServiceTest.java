@@ -15,6 +15,8 @@
  */
 package com.linecorp.armeria.server.http.file;
 
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
@@ -29,7 +31,9 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.Random;
 import java.util.zip.GZIPInputStream;
 
 import org.apache.http.HttpHeaders;
@@ -43,6 +47,7 @@ import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import com.google.common.cache.CacheStats;
 import com.google.common.io.ByteStreams;
 import com.google.common.io.Resources;
 
@@ -58,6 +63,9 @@ public class HttpFileServiceTest {
     private static final String baseResourceDir =
             HttpFileServiceTest.class.getPackage().getName().replace('.', '/') + '/';
     private static final File tmpDir;
+    private static final File cachedDir;
+    private static final int MAX_CACHE_ENTRIES = 4;
+    private static final HttpFileService cachedFileService;
 
     private static final Server server;
     private static int httpPort;
@@ -65,17 +73,31 @@ public class HttpFileServiceTest {
     static {
         try {
             tmpDir = Files.createTempDirectory("armeria-test.").toFile();
+            cachedDir = new File(tmpDir, "cached");
+            Files.createDirectory(cachedDir.toPath());
         } catch (Exception e) {
             throw new Error(e);
         }
 
         final ServerBuilder sb = new ServerBuilder();
+        cachedFileService = HttpFileServiceBuilder.forFileSystem(cachedDir.toPath())
+                                                  .maxCacheEntries(MAX_CACHE_ENTRIES)
+                                                  .maxCacheSizeBytes(MAX_CACHE_ENTRIES * 1024)
+                                                  .build();
 
         try {
             sb.serviceUnder(
                     "/fs/",
                     HttpFileService.forFileSystem(tmpDir.toPath()).decorate(LoggingService::new));
 
+            sb.serviceUnder("/cached/", cachedFileService);
+
+            sb.serviceUnder(
+                    "/uncached/",
+                    HttpFileServiceBuilder.forClassPath(baseResourceDir + "foo")
+                                          .maxCacheEntries(0)
+                                          .build());
+
             sb.serviceUnder(
                     "/compressed/",
                     HttpFileServiceBuilder.forClassPath(baseResourceDir + "foo")
@@ -283,6 +305,186 @@ public class HttpFileServiceTest {
         }
     }
 
+    @Test
+    public void testFileSystemGetLargeFile() throws Exception {
+        final File largeFile = new File(tmpDir, "large.bin");
+        final byte[] expectedContent = new byte[FileContentStreamer.CHUNK_SIZE * 3 + 42];
+        new Random(0).nextBytes(expectedContent);
+        Files.write(largeFile.toPath(), expectedContent);
+
+        try (CloseableHttpClient hc = HttpClients.createMinimal()) {
+            try (CloseableHttpResponse res = hc.execute(new HttpGet(newUri("/fs/large.bin")))) {
+                assertStatusLine(res, "HTTP/1.1 200 OK");
+                assertThat(res.getFirstHeader(HttpHeaders.ACCEPT_RANGES).getValue(), is("bytes"));
+                assertThat(EntityUtils.toByteArray(res.getEntity()), is(expectedContent));
+            }
+        }
+    }
+
+    @Test
+    public void testFileSystemGetRange() throws Exception {
+        final File largeFile = new File(tmpDir, "range.bin");
+        final byte[] content = new byte[FileContentStreamer.CHUNK_SIZE * 2];
+        new Random(1).nextBytes(content);
+        Files.write(largeFile.toPath(), content);
+
+        try (CloseableHttpClient hc = HttpClients.createMinimal()) {
+            final String lastModified;
+            HttpUriRequest req = new HttpGet(newUri("/fs/range.bin"));
+            req.setHeader(HttpHeaders.RANGE, "bytes=100-65635");
+            try (CloseableHttpResponse res = hc.execute(req)) {
+                assertStatusLine(res, "HTTP/1.1 206 Partial Content");
+                assertThat(res.getFirstHeader(HttpHeaders.CONTENT_RANGE).getValue(),
+                           is("bytes 100-65635/" + content.length));
+                assertThat(EntityUtils.toByteArray(res.getEntity()),
+                           is(Arrays.copyOfRange(content, 100, 65636)));
+                lastModified = res.getFirstHeader(HttpHeaders.LAST_MODIFIED).getValue();
+            }
+
+            // A suffix range.
+            req = new HttpGet(newUri("/fs/range.bin"));
+            req.setHeader(HttpHeaders.RANGE, "bytes=-10");
+            req.setHeader(HttpHeaders.IF_RANGE, lastModified);
+            try (CloseableHttpResponse res = hc.execute(req)) {
+                assertStatusLine(res, "HTTP/1.1 206 Partial Content");
+                assertThat(EntityUtils.toByteArray(res.getEntity()),
+                           is(Arrays.copyOfRange(content, content.length - 10, content.length)));
+            }
+
+            // A stale 'If-Range' header makes the server send the whole content.
+            req = new HttpGet(newUri("/fs/range.bin"));
+            req.setHeader(HttpHeaders.RANGE, "bytes=0-9");
+            req.setHeader(HttpHeaders.IF_RANGE, "Thu, 01 Jan 1970 00:00:00 GMT");
+            try (CloseableHttpResponse res = hc.execute(req)) {
+                assertStatusLine(res, "HTTP/1.1 200 OK");
+                assertThat(EntityUtils.toByteArray(res.getEntity()), is(content));
+            }
+
+            // An unsatisfiable range.
+            req = new HttpGet(newUri("/fs/range.bin"));
+            req.setHeader(HttpHeaders.RANGE, "bytes=" + content.length + '-');
+            req.setHeader(HttpHeaders.CONNECTION, "close");
+            try (CloseableHttpResponse res = hc.execute(req)) {
+                assertStatusLine(res, "HTTP/1.1 416 Requested Range Not Satisfiable");
+                assertThat(res.getFirstHeader(HttpHeaders.CONTENT_RANGE).getValue(),
+                           is("bytes */" + content.length));
+            }
+        }
+    }
+
+    @Test
+    public void testClassPathGetRange() throws Exception {
+        try (CloseableHttpClient hc = HttpClients.createMinimal()) {
+            final HttpUriRequest req = new HttpGet(newUri("/foo.txt"));
+            req.setHeader(HttpHeaders.RANGE, "bytes=1-");
+            req.setHeader(HttpHeaders.CONNECTION, "close");
+            try (CloseableHttpResponse res = hc.execute(req)) {
+                assertStatusLine(res, "HTTP/1.1 206 Partial Content");
+                assertThat(res.getFirstHeader(HttpHeaders.CONTENT_RANGE).getValue(), is("bytes 1-2/3"));
+                assertThat(EntityUtils.toString(res.getEntity()), is("oo"));
+            }
+        }
+    }
+
+    @Test
+    public void testClassPathGetIfNoneMatch() throws Exception {
+        try (CloseableHttpClient hc = HttpClients.createMinimal()) {
+            final String lastModified;
+            final String etag;
+            try (CloseableHttpResponse res = hc.execute(new HttpGet(newUri("/foo.txt")))) {
+                lastModified = assert200Ok(res, "text/plain", "foo");
+                etag = res.getFirstHeader(HttpHeaders.ETAG).getValue();
+                assertThat(etag, startsWith("\""));
+            }
+
+            // Test if the entity tag is matched even if 'if-modified-since' is not satisfied.
+            final HttpUriRequest req = new HttpGet(newUri("/foo.txt"));
+            req.setHeader(HttpHeaders.IF_NONE_MATCH, "\"bar\", W/" + etag);
+            req.setHeader(HttpHeaders.IF_MODIFIED_SINCE, "Thu, 01 Jan 1970 00:00:00 GMT");
+            try (CloseableHttpResponse res = hc.execute(req)) {
+                assert304NotModified(res, lastModified);
+                assertThat(res.getFirstHeader(HttpHeaders.ETAG).getValue(), is(etag));
+            }
+
+            // Test if 'if-modified-since' is ignored when the entity tag does not match.
+            final HttpUriRequest req2 = new HttpGet(newUri("/foo.txt"));
+            req2.setHeader(HttpHeaders.IF_NONE_MATCH, "\"bar\"");
+            req2.setHeader(HttpHeaders.IF_MODIFIED_SINCE, currentHttpDate());
+            try (CloseableHttpResponse res = hc.execute(req2)) {
+                assert200Ok(res, "text/plain", "foo");
+            }
+        }
+    }
+
+    @Test
+    public void testUncachedClassPathGetIfNoneMatch() throws Exception {
+        try (CloseableHttpClient hc = HttpClients.createMinimal()) {
+            final String lastModified;
+            final String etag;
+            try (CloseableHttpResponse res = hc.execute(new HttpGet(newUri("/uncached/foo.txt")))) {
+                lastModified = assert200Ok(res, "text/plain", "foo");
+                etag = res.getFirstHeader(HttpHeaders.ETAG).getValue();
+                // The entity tag of an uncached file is derived from its modification time and length.
+                assertThat(etag, endsWith("-3\""));
+            }
+
+            // The entity tag does not change while the file is not modified.
+            try (CloseableHttpResponse res = hc.execute(new HttpGet(newUri("/uncached/foo.txt")))) {
+                assert200Ok(res, "text/plain", "foo");
+                assertThat(res.getFirstHeader(HttpHeaders.ETAG).getValue(), is(etag));
+            }
+
+            final HttpUriRequest req = new HttpGet(newUri("/uncached/foo.txt"));
+            req.setHeader(HttpHeaders.IF_NONE_MATCH, etag);
+            try (CloseableHttpResponse res = hc.execute(req)) {
+                assert304NotModified(res, lastModified);
+                assertThat(res.getFirstHeader(HttpHeaders.ETAG).getValue(), is(etag));
+            }
+        }
+    }
+
+    @Test
+    public void testCacheEviction() throws Exception {
+        final int numFiles = MAX_CACHE_ENTRIES * 3;
+        for (int i = 0; i < numFiles; i++) {
+            Files.write(new File(cachedDir, i + ".txt").toPath(),
+                        ("content" + i).getBytes(StandardCharsets.UTF_8));
+        }
+
+        try (CloseableHttpClient hc = HttpClients.createMinimal()) {
+            for (int i = 0; i < numFiles; i++) {
+                try (CloseableHttpResponse res = hc.execute(new HttpGet(newUri("/cached/" + i + ".txt")))) {
+                    assert200Ok(res, "text/plain", "content" + i);
+                }
+            }
+
+            // Every file was a miss, and the cache evicted the files beyond its size.
+            CacheStats stats = cachedFileService.cacheStats();
+            assertThat(stats.hitCount(), is(0L));
+            assertThat(stats.missCount(), is((long) numFiles));
+            assertThat(stats.evictionCount(), is(greaterThanOrEqualTo((long) (numFiles - MAX_CACHE_ENTRIES))));
+
+            // The file served last is still cached.
+            final String lastFile = (numFiles - 1) + ".txt";
+            try (CloseableHttpResponse res = hc.execute(new HttpGet(newUri("/cached/" + lastFile)))) {
+                assert200Ok(res, "text/plain", "content" + (numFiles - 1));
+            }
+            stats = cachedFileService.cacheStats();
+            assertThat(stats.hitCount(), is(1L));
+            assertThat(stats.missCount(), is((long) numFiles));
+        }
+    }
+
+    @Test
+    public void testEtagMatches() {
+        assertThat(HttpFileService.etagMatches("\"foo\"", "\"foo\""), is(true));
+        assertThat(HttpFileService.etagMatches("W/\"foo\"", "\"foo\""), is(true));
+        assertThat(HttpFileService.etagMatches("\"bar\" , \"foo\"", "\"foo\""), is(true));
+        assertThat(HttpFileService.etagMatches("*", "\"foo\""), is(true));
+        assertThat(HttpFileService.etagMatches("\"bar\"", "\"foo\""), is(false));
+        assertThat(HttpFileService.etagMatches("foo", "\"foo\""), is(false));
+    }
+
     private static String assert200Ok(
             CloseableHttpResponse res, String expectedContentType, String expectedContent) throws Exception {
 
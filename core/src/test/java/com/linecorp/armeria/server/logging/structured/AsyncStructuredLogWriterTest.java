@@ -0,0 +1,243 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.logging.structured;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+
+import com.linecorp.armeria.common.Request;
+import com.linecorp.armeria.common.Response;
+import com.linecorp.armeria.common.logging.RequestLog;
+import com.linecorp.armeria.server.Service;
+
+public class AsyncStructuredLogWriterTest {
+
+    @Test
+    public void writeAndFlushInBatches() throws Exception {
+        final TestService service = new TestService(new StructuredLogWriterConfigBuilder()
+                                                            .maxBatchSize(3)
+                                                            .flushIntervalMillis(60000)
+                                                            .build());
+        final AsyncStructuredLogWriter<String> writer = new AsyncStructuredLogWriter<>(
+                service, service.config);
+        for (int i = 0; i < 7; i++) {
+            assertThat(writer.enqueue(null, "log" + i)).isTrue();
+        }
+        writer.close();
+
+        assertThat(service.written).containsExactly("log0", "log1", "log2", "log3", "log4", "log5", "log6");
+        // Flushed after every 3 logs and when closed.
+        assertThat(service.flushedAt).containsExactly(3, 6, 7);
+        assertThat(writer.numEnqueued()).isEqualTo(7);
+        assertThat(writer.numWritten()).isEqualTo(7);
+        assertThat(writer.numDropped()).isZero();
+
+        // Dropped after closed.
+        assertThat(writer.enqueue(null, "log7")).isFalse();
+        assertThat(writer.numDropped()).isEqualTo(1);
+    }
+
+    @Test(timeout = 10000)
+    public void flushByTime() throws Exception {
+        final TestService service = new TestService(new StructuredLogWriterConfigBuilder()
+                                                            .flushIntervalMillis(10)
+                                                            .build());
+        final AsyncStructuredLogWriter<String> writer = new AsyncStructuredLogWriter<>(
+                service, service.config);
+        writer.enqueue(null, "log0");
+        service.flushed.await();
+        assertThat(service.flushedAt).containsExactly(1);
+        writer.close();
+    }
+
+    @Test(timeout = 10000)
+    public void dropWhenFull() throws Exception {
+        final CountDownLatch unblock = new CountDownLatch(1);
+        final TestService service = newStalledService(unblock, StructuredLogOverflowPolicy.DROP);
+        final AsyncStructuredLogWriter<String> writer = new AsyncStructuredLogWriter<>(
+                service, service.config);
+        fillQueue(writer, service);
+
+        assertThat(writer.enqueue(null, "log3")).isFalse();
+        assertThat(writer.numDropped()).isEqualTo(1);
+
+        unblock.countDown();
+        writer.close();
+        assertThat(service.written).containsExactly("log0", "log1", "log2");
+    }
+
+    @Test(timeout = 10000)
+    public void blockWhenFull() throws Exception {
+        final CountDownLatch unblock = new CountDownLatch(1);
+        final TestService service = newStalledService(unblock, StructuredLogOverflowPolicy.BLOCK);
+        final AsyncStructuredLogWriter<String> writer = new AsyncStructuredLogWriter<>(
+                service, service.config);
+        fillQueue(writer, service);
+
+        // The producer waits for a room in the queue instead of dropping the log.
+        final CompletableFuture<Boolean> blocked = supplyInNewThread(() -> writer.enqueue(null, "log3"));
+        Thread.sleep(500);
+        assertThat(blocked.isDone()).isFalse();
+        assertThat(writer.numDropped()).isZero();
+
+        // The producer resumes once the writer thread takes a log from the queue.
+        unblock.countDown();
+        assertThat(blocked.get()).isTrue();
+        writer.close();
+        assertThat(service.written).containsExactly("log0", "log1", "log2", "log3");
+        assertThat(writer.numEnqueued()).isEqualTo(4);
+        assertThat(writer.numDropped()).isZero();
+    }
+
+    @Test(timeout = 10000)
+    public void closeWhileBlocked() throws Exception {
+        final CountDownLatch unblock = new CountDownLatch(1);
+        final TestService service = newStalledService(unblock, StructuredLogOverflowPolicy.BLOCK);
+        final AsyncStructuredLogWriter<String> writer = new AsyncStructuredLogWriter<>(
+                service, service.config);
+        fillQueue(writer, service);
+
+        final CompletableFuture<Boolean> blocked = supplyInNewThread(() -> writer.enqueue(null, "log3"));
+        Thread.sleep(100);
+
+        // close() waits for the stalled writer thread, but the blocked producer gives up immediately.
+        final CompletableFuture<Boolean> closed = supplyInNewThread(() -> {
+            writer.close();
+            return true;
+        });
+        assertThat(blocked.get()).isFalse();
+        assertThat(writer.numDropped()).isEqualTo(1);
+        assertThat(closed.isDone()).isFalse();
+
+        unblock.countDown();
+        closed.get();
+        assertThat(service.written).containsExactly("log0", "log1", "log2");
+    }
+
+    @Test(timeout = 30000)
+    public void closeWhileEnqueuing() throws Exception {
+        final AtomicInteger numWritten = new AtomicInteger();
+        final TestService service = new TestService(new StructuredLogWriterConfigBuilder()
+                                                            .queueCapacity(16)
+                                                            .build()) {
+            @Override
+            protected void writeLog(RequestLog log, String structuredLog) {
+                numWritten.incrementAndGet();
+            }
+        };
+        final AsyncStructuredLogWriter<String> writer = new AsyncStructuredLogWriter<>(
+                service, service.config);
+
+        final int numProducers = 4;
+        final int numLogsPerProducer = 100000;
+        final CountDownLatch started = new CountDownLatch(numProducers);
+        final List<CompletableFuture<Boolean>> producers = new ArrayList<>();
+        for (int i = 0; i < numProducers; i++) {
+            producers.add(supplyInNewThread(() -> {
+                started.countDown();
+                for (int j = 0; j < numLogsPerProducer; j++) {
+                    writer.enqueue(null, "log");
+                }
+                return true;
+            }));
+        }
+
+        started.await();
+        writer.close();
+        CompletableFuture.allOf(producers.toArray(new CompletableFuture[numProducers])).get();
+
+        // Every log is either written or dropped; none is left in the queue after closed.
+        assertThat(writer.numEnqueued() + writer.numDropped()).isEqualTo(numProducers * numLogsPerProducer);
+        assertThat(writer.numWritten()).isEqualTo(writer.numEnqueued());
+        assertThat((long) numWritten.get()).isEqualTo(writer.numEnqueued());
+    }
+
+    private static <T> CompletableFuture<T> supplyInNewThread(Supplier<T> supplier) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        final Thread thread = new Thread(() -> future.complete(supplier.get()));
+        thread.setDaemon(true);
+        thread.start();
+        return future;
+    }
+
+    private static TestService newStalledService(CountDownLatch unblock,
+                                                 StructuredLogOverflowPolicy overflowPolicy) {
+        return new TestService(new StructuredLogWriterConfigBuilder()
+                                       .queueCapacity(2)
+                                       .overflowPolicy(overflowPolicy)
+                                       .build()) {
+            @Override
+            protected void writeLog(RequestLog log, String structuredLog) {
+                writing = true;
+                try {
+                    unblock.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                super.writeLog(log, structuredLog);
+            }
+        };
+    }
+
+    /**
+     * Makes the writer thread take the first log and stall, and fills the queue with the next two logs.
+     */
+    private static void fillQueue(AsyncStructuredLogWriter<String> writer, TestService service) {
+        assertThat(writer.enqueue(null, "log0")).isTrue();
+        while (writer.numEnqueued() != 1 || !service.writing) {
+            Thread.yield();
+        }
+        assertThat(writer.enqueue(null, "log1")).isTrue();
+        assertThat(writer.enqueue(null, "log2")).isTrue();
+    }
+
+    private static class TestService extends StructuredLoggingService<Request, Response, String> {
+
+        final StructuredLogWriterConfig config;
+        final List<String> written = new CopyOnWriteArrayList<>();
+        final List<Integer> flushedAt = new CopyOnWriteArrayList<>();
+        final CountDownLatch flushed = new CountDownLatch(1);
+        volatile boolean writing;
+
+        @SuppressWarnings("unchecked")
+        TestService(StructuredLogWriterConfig config) {
+            super(mock(Service.class), log -> null, config);
+            this.config = config;
+        }
+
+        @Override
+        protected void writeLog(RequestLog log, String structuredLog) {
+            written.add(structuredLog);
+        }
+
+        @Override
+        protected void flush() {
+            flushedAt.add(written.size());
+            flushed.countDown();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.logging.structured;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.thrift.TApplicationException;
+import org.apache.thrift.protocol.TCompactProtocol;
+import org.apache.thrift.protocol.TField;
+import org.apache.thrift.protocol.TMessage;
+import org.apache.thrift.protocol.TMessageType;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.protocol.TProtocolUtil;
+import org.apache.thrift.protocol.TType;
+import org.apache.thrift.transport.TMemoryInputTransport;
+import org.junit.Test;
+
+import com.linecorp.armeria.common.thrift.ThriftCall;
+import com.linecorp.armeria.common.thrift.ThriftReply;
+import com.linecorp.armeria.service.test.thrift.main.HelloService;
+import com.linecorp.armeria.service.test.thrift.main.HelloService.hello_args;
+import com.linecorp.armeria.service.test.thrift.main.HelloService.hello_result;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+
+public class StructuredLogBinaryFormatTest {
+
+    private static ApacheThriftStructuredLog buildLog(ThriftCall call, ThriftReply reply) {
+        return new ApacheThriftStructuredLog(12345, 6789, 128, 512,
+                                             HelloService.class.getCanonicalName(), "hello", call, reply);
+    }
+
+    @Test
+    public void testRegularFunctionCall() throws Exception {
+        final ApacheThriftStructuredLog log = buildLog(
+                new ThriftCall(new TMessage("hello", TMessageType.CALL, 1),
+                               new hello_args().setName("kawamuray")),
+                new ThriftReply(new TMessage("hello", TMessageType.REPLY, 1),
+                                new hello_result().setSuccess("Hello kawamuray")));
+
+        final byte[] encoded = StructuredLogBinaryFormat.encodeToArray(log);
+        final TProtocol in = new TCompactProtocol(new TMemoryInputTransport(encoded));
+        in.readStructBegin();
+        assertThat(readI64(in, 1)).isEqualTo(12345);
+        assertThat(readI64(in, 2)).isEqualTo(6789);
+        assertThat(readI64(in, 3)).isEqualTo(128);
+        assertThat(readI64(in, 4)).isEqualTo(512);
+        assertThat(readString(in, 10)).isEqualTo(HelloService.class.getCanonicalName());
+        assertThat(readString(in, 11)).isEqualTo("hello");
+
+        assertField(in, TType.STRUCT, 12);
+        in.readStructBegin();
+        assertHeader(in, TMessageType.CALL, 1);
+        assertField(in, TType.STRUCT, 2);
+        final hello_args args = new hello_args();
+        args.read(in);
+        assertThat(args).isEqualTo(new hello_args().setName("kawamuray"));
+        assertThat(in.readFieldBegin().type).isEqualTo(TType.STOP);
+        in.readStructEnd();
+
+        assertField(in, TType.STRUCT, 13);
+        in.readStructBegin();
+        assertHeader(in, TMessageType.REPLY, 1);
+        assertField(in, TType.STRUCT, 2);
+        final hello_result result = new hello_result();
+        result.read(in);
+        assertThat(result).isEqualTo(new hello_result().setSuccess("Hello kawamuray"));
+        assertThat(in.readFieldBegin().type).isEqualTo(TType.STOP);
+        in.readStructEnd();
+
+        assertThat(in.readFieldBegin().type).isEqualTo(TType.STOP);
+        assertThat(in.getTransport().getBytesRemainingInBuffer()).isZero();
+
+        // The pooled and the array variants must produce the same output.
+        final ByteBuf buf = StructuredLogBinaryFormat.encode(log, ByteBufAllocator.DEFAULT);
+        try {
+            final byte[] pooled = new byte[buf.readableBytes()];
+            buf.readBytes(pooled);
+            assertThat(pooled).isEqualTo(encoded);
+        } finally {
+            buf.release();
+        }
+    }
+
+    @Test
+    public void testApplicationException() throws Exception {
+        final ApacheThriftStructuredLog log = buildLog(
+                new ThriftCall(new TMessage("hello", TMessageType.CALL, 2),
+                               new hello_args().setName("kawamuray")),
+                new ThriftReply(new TMessage("hello", TMessageType.EXCEPTION, 2),
+                                new TApplicationException(TApplicationException.INTERNAL_ERROR, "oops")));
+
+        final TProtocol in = new TCompactProtocol(
+                new TMemoryInputTransport(StructuredLogBinaryFormat.encodeToArray(log)));
+        in.readStructBegin();
+        for (int i = 0; i < 6; i++) {
+            in.readFieldBegin();
+            if (i < 4) {
+                in.readI64();
+            } else {
+                in.readString();
+            }
+        }
+
+        // Skip the call.
+        assertField(in, TType.STRUCT, 12);
+        TProtocolUtil.skip(in, TType.STRUCT);
+
+        assertField(in, TType.STRUCT, 13);
+        in.readStructBegin();
+        assertHeader(in, TMessageType.EXCEPTION, 2);
+        assertField(in, TType.STRUCT, 3);
+        final TApplicationException exception = TApplicationException.read(in);
+        assertThat(exception.getType()).isEqualTo(TApplicationException.INTERNAL_ERROR);
+        assertThat(exception.getMessage()).isEqualTo("oops");
+    }
+
+    private static void assertHeader(TProtocol in, byte type, int seqId) throws Exception {
+        assertField(in, TType.STRUCT, 1);
+        in.readStructBegin();
+        assertThat(readString(in, 1)).isEqualTo("hello");
+        assertField(in, TType.BYTE, 2);
+        assertThat(in.readByte()).isEqualTo(type);
+        assertField(in, TType.I32, 3);
+        assertThat(in.readI32()).isEqualTo(seqId);
+        assertThat(in.readFieldBegin().type).isEqualTo(TType.STOP);
+        in.readStructEnd();
+    }
+
+    private static long readI64(TProtocol in, int id) throws Exception {
+        assertField(in, TType.I64, id);
+        return in.readI64();
+    }
+
+    private static String readString(TProtocol in, int id) throws Exception {
+        assertField(in, TType.STRING, id);
+        return in.readString();
+    }
+
+    private static void assertField(TProtocol in, byte type, int id) throws Exception {
+        final TField field = in.readFieldBegin();
+        assertThat(field.type).isEqualTo(type);
+        assertThat(field.id).isEqualTo((short) id);
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
+import org.junit.Test;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.net.MediaType;
+
+import com.linecorp.armeria.client.ClientBuilder;
+import com.linecorp.armeria.client.logging.MetricCollectingClient;
+import com.linecorp.armeria.common.RpcRequest;
+import com.linecorp.armeria.common.RpcResponse;
+import com.linecorp.armeria.common.metric.DropwizardMeterRegistryAdapter;
+import com.linecorp.armeria.common.metric.HistogramSnapshot;
+import com.linecorp.armeria.common.metric.MeterId;
+import com.linecorp.armeria.common.metric.MeterRegistry;
+import com.linecorp.armeria.common.metric.PrometheusTextFormat;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.server.http.metric.PrometheusExpositionService;
+import com.linecorp.armeria.server.logging.MetricCollectingService;
+import com.linecorp.armeria.server.thrift.THttpService;
+import com.linecorp.armeria.service.test.thrift.main.HelloService.Iface;
+import com.linecorp.armeria.test.AbstractServerTest;
+
+public class MetricsIntegrationTest extends AbstractServerTest {
+
+    // The server is configured only once for all test methods, hence the static registries.
+    private static final MeterRegistry meterRegistry = new MeterRegistry();
+    private static final MetricRegistry metricRegistry = new MetricRegistry();
+
+    static {
+        DropwizardMeterRegistryAdapter.bind(meterRegistry, metricRegistry);
+    }
+
+    @Override
+    protected void configureServer(ServerBuilder sb) throws Exception {
+        final THttpService helloService = THttpService.of((Iface) name -> {
+            if ("world".equals(name)) {
+                return "success";
+            }
+            throw new IllegalArgumentException("bad argument");
+        });
+
+        sb.serviceAt("/helloservice", helloService.decorate(
+                MetricCollectingService.newDecorator(meterRegistry, "armeria.server")));
+        sb.serviceAt("/exposed", helloService.decorate(
+                MetricCollectingService.newDecorator(meterRegistry, "armeria.server")));
+        sb.serviceAt("/internal/metrics", new PrometheusExpositionService(meterRegistry));
+    }
+
+    @Test(timeout = 10000L)
+    public void normal() throws Exception {
+        makeRequest("/helloservice", "world");
+        makeRequest("/helloservice", "world");
+        makeRequest("/helloservice", "space");
+        makeRequest("/helloservice", "world");
+        makeRequest("/helloservice", "space");
+        makeRequest("/helloservice", "space");
+        makeRequest("/helloservice", "world");
+
+        final MeterId serverId = serverMeterId("/helloservice");
+        final MeterId clientId = clientMeterId("/helloservice");
+        for (MeterId id : new MeterId[] { serverId, clientId }) {
+            assertEquals(3, meterRegistry.counter(id.append("failures")).count());
+            assertEquals(4, meterRegistry.counter(id.append("successes")).count());
+            assertEquals(0, meterRegistry.gauge(id.append("activeRequests")).value());
+            assertEquals(210, meterRegistry.counter(id.append("requestBytes")).count());
+
+            // Can't assert with exact byte count because the failure responses contain stack traces.
+            assertThat(meterRegistry.counter(id.append("responseBytes")).count()).isGreaterThan(0);
+
+            final HistogramSnapshot duration = meterRegistry.histogram(id.append("durationNanos")).snapshot();
+            assertEquals(7, duration.count());
+            assertThat(duration.sum()).isGreaterThan(0);
+            assertThat(duration.max()).isGreaterThan(0);
+        }
+
+        // The Dropwizard adapter exposes the same values, named after the tag values of the MeterIds.
+        assertEquals(3L, dropwizardGauge("armeria.server.failures.hello./helloservice").getValue());
+        assertEquals(4L, dropwizardGauge("armeria.server.successes.hello./helloservice").getValue());
+        assertEquals(210L, dropwizardGauge("armeria.server.requestBytes.hello./helloservice").getValue());
+        assertEquals(7L, dropwizardGauge("armeria.server.durationNanos.hello./helloservice.count").getValue());
+        assertEquals(3L, dropwizardGauge("armeria.client./helloservice.failures.hello").getValue());
+        assertEquals(4L, dropwizardGauge("armeria.client./helloservice.successes.hello").getValue());
+        assertThat(metricRegistry.getGauges()).containsKeys(
+                "armeria.server.durationNanos.hello./helloservice.mean",
+                "armeria.server.durationNanos.hello./helloservice.p50",
+                "armeria.server.durationNanos.hello./helloservice.p999",
+                "armeria.server.durationNanos.hello./helloservice.max",
+                "armeria.server.activeRequests.hello./helloservice");
+    }
+
+    @Test(timeout = 10000L)
+    public void prometheusExposition() throws Exception {
+        makeRequest("/exposed", "world");
+        makeRequest("/exposed", "world");
+        makeRequest("/exposed", "space");
+
+        try (CloseableHttpClient hc = HttpClients.createMinimal();
+             CloseableHttpResponse res = hc.execute(new HttpGet(uri("/internal/metrics")))) {
+
+            assertEquals(200, res.getStatusLine().getStatusCode());
+            assertEquals(PrometheusTextFormat.MEDIA_TYPE,
+                         MediaType.parse(res.getFirstHeader(HttpHeaders.CONTENT_TYPE).getValue()));
+
+            final String body = EntityUtils.toString(res.getEntity(), StandardCharsets.UTF_8);
+            final String labels = "{method=\"hello\",path=\"/exposed\"}";
+            assertThat(body).contains(
+                    "# TYPE armeria_server_successes counter\n",
+                    "armeria_server_successes" + labels + " 2\n",
+                    "# TYPE armeria_server_failures counter\n",
+                    "armeria_server_failures" + labels + " 1\n",
+                    "armeria_server_requestBytes" + labels + " 90\n",
+                    "# TYPE armeria_server_activeRequests gauge\n",
+                    "armeria_server_activeRequests" + labels + " 0\n",
+                    "# TYPE armeria_server_durationNanos summary\n",
+                    "armeria_server_durationNanos_count" + labels + " 3\n",
+                    "# TYPE armeria_server_durationNanos_max gauge\n");
+        }
+    }
+
+    private static MeterId serverMeterId(String path) {
+        return MeterId.of("armeria.server", "path", path, "method", "hello");
+    }
+
+    private static MeterId clientMeterId(String path) {
+        return MeterId.of("armeria.client." + path, "method", "hello");
+    }
+
+    private static Gauge<?> dropwizardGauge(String name) {
+        final Gauge<?> gauge = metricRegistry.getGauges().get(name);
+        assertThat(gauge).isNotNull();
+        return gauge;
+    }
+
+    private static void makeRequest(String path, String name) {
+        Iface client = new ClientBuilder("tbinary+" + uri(path))
+                .decorator(RpcRequest.class, RpcResponse.class,
+                           MetricCollectingClient.<RpcRequest, RpcResponse>newDecorator(
+                                   meterRegistry, "armeria.client." + path))
+                .build(Iface.class);
+        try {
+            client.hello(name);
+        } catch (Throwable t) {
+            // Ignore, we will count these up
+        }
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.thrift;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.thrift.TException;
+import org.apache.thrift.protocol.TMessage;
+import org.apache.thrift.protocol.TMessageType;
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import com.linecorp.armeria.client.Clients;
+import com.linecorp.armeria.client.thrift.THttpClient;
+import com.linecorp.armeria.common.http.DefaultHttpResponse;
+import com.linecorp.armeria.common.http.HttpObject;
+import com.linecorp.armeria.common.stream.StreamMessage;
+import com.linecorp.armeria.common.thrift.ThriftProtocolFactories;
+import com.linecorp.armeria.internal.thrift.ThriftFunction;
+import com.linecorp.armeria.internal.thrift.ThriftServiceMetadata;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.service.test.thrift.main.HelloService;
+import com.linecorp.armeria.service.test.thrift.main.Name;
+import com.linecorp.armeria.service.test.thrift.main.NameSortService;
+import com.linecorp.armeria.test.AbstractServerTest;
+
+public class ThriftStreamingTest extends AbstractServerTest {
+
+    private static final List<Name> NAMES = new ArrayList<>();
+    private static final List<Name> SORTED_NAMES;
+
+    static {
+        // Large enough to be streamed in more than one chunk.
+        for (int i = 0; i < 10000; i++) {
+            NAMES.add(new Name("first" + (i * 7919 % 10000), "middle" + i, "last" + (i % 100)));
+        }
+        final List<Name> sortedNames = new ArrayList<>(NAMES);
+        Collections.sort(sortedNames);
+        SORTED_NAMES = Collections.unmodifiableList(sortedNames);
+    }
+
+    private static final NameSortService.Iface SORT_SERVICE = names -> {
+        if (names.isEmpty()) {
+            throw new IllegalArgumentException("empty");
+        }
+        final List<Name> sortedNames = new ArrayList<>(names);
+        Collections.sort(sortedNames);
+        return sortedNames;
+    };
+
+    /**
+     * The index of the element whose encoding blocks until {@link #unblockService} is counted down,
+     * which is far beyond the first chunk.
+     */
+    private static final int BLOCKING_INDEX = 5000;
+    private static final CountDownLatch unblockService = new CountDownLatch(1);
+
+    private static final NameSortService.Iface BLOCKING_SERVICE = names -> new AbstractList<Name>() {
+        @Override
+        public Name get(int index) {
+            if (index == BLOCKING_INDEX) {
+                try {
+                    unblockService.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return names.get(index);
+        }
+
+        @Override
+        public int size() {
+            return names.size();
+        }
+    };
+
+    @Override
+    protected void configureServer(ServerBuilder sb) {
+        sb.serviceAt("/sort", THttpService.of(SORT_SERVICE).withStreaming(true))
+          .serviceAt("/sort-aggregated", THttpService.of(SORT_SERVICE))
+          .serviceAt("/blocking", THttpService.of(BLOCKING_SERVICE).withStreaming(true))
+          .serviceAt("/hello", THttpService.of((HelloService.Iface) name -> "Hello, " + name + '!'));
+    }
+
+    @Test
+    public void streamingBinary() throws Exception {
+        assertThat(sort("tbinary", "/sort")).isEqualTo(SORTED_NAMES);
+    }
+
+    @Test
+    public void streamingCompact() throws Exception {
+        assertThat(sort("tcompact", "/sort")).isEqualTo(SORTED_NAMES);
+    }
+
+    @Test
+    public void streamingWithNonStreamableProtocol() throws Exception {
+        assertThat(sort("tjson", "/sort")).isEqualTo(SORTED_NAMES);
+    }
+
+    @Test
+    public void streamingFromNonStreamingService() throws Exception {
+        assertThat(sort("tbinary", "/sort-aggregated")).isEqualTo(SORTED_NAMES);
+    }
+
+    @Test
+    public void nonStreamingClient() throws Exception {
+        final NameSortService.Iface client =
+                Clients.newClient("tcompact+" + uri("/sort"), NameSortService.Iface.class);
+        assertThat(client.sort(NAMES)).isEqualTo(SORTED_NAMES);
+    }
+
+    @Test
+    public void exception() throws Exception {
+        final THttpClient client = Clients.newClient("tbinary+" + uri("/"), THttpClient.class);
+        final StreamMessage<Name> stream =
+                client.executeStreaming("/sort", NameSortService.Iface.class, "sort", Collections.emptyList());
+        assertThatThrownBy(() -> collect(stream).get())
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(TException.class);
+    }
+
+    @Test
+    public void notListResult() throws Exception {
+        final THttpClient client = Clients.newClient("tbinary+" + uri("/"), THttpClient.class);
+        final StreamMessage<Object> stream =
+                client.executeStreaming("/hello", HelloService.Iface.class, "hello", "Armeria");
+        assertThatThrownBy(() -> collect(stream).get())
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void firstElementReceivedBeforeResultIsEncoded() throws Exception {
+        final THttpClient client = Clients.newClient("tbinary+" + uri("/"), THttpClient.class);
+        final StreamMessage<Name> stream =
+                client.executeStreaming("/blocking", NameSortService.Iface.class, "sort", NAMES);
+        final BlockingQueue<Name> received = new LinkedBlockingQueue<>();
+        final CompletableFuture<List<Name>> future;
+        try {
+            future = collect(stream, received);
+            // The service is still blocked in the middle of the result.
+            assertThat(received.poll(10, TimeUnit.SECONDS)).isEqualTo(NAMES.get(0));
+            assertThat(unblockService.getCount()).isEqualTo(1);
+        } finally {
+            unblockService.countDown();
+        }
+        assertThat(future.get(10, TimeUnit.SECONDS)).isEqualTo(NAMES);
+    }
+
+    @Test
+    public void streamerEncodesOnlyOnDemand() throws Exception {
+        final AtomicInteger numEncodedElements = new AtomicInteger();
+        final List<Name> result = new AbstractList<Name>() {
+            @Override
+            public Name get(int index) {
+                numEncodedElements.incrementAndGet();
+                return NAMES.get(index);
+            }
+
+            @Override
+            public int size() {
+                return NAMES.size();
+            }
+        };
+
+        final ThriftFunction func = new ThriftServiceMetadata(NameSortService.Iface.class).function("sort");
+        final DefaultHttpResponse res = new DefaultHttpResponse();
+        new ThriftResultStreamer(ThriftProtocolFactories.BINARY,
+                                 new TMessage("sort", TMessageType.REPLY, 0),
+                                 func.successField(), func.successElementCodec(), result, res, false).run();
+
+        final AtomicReference<Subscription> subscription = new AtomicReference<>();
+        final AtomicInteger numChunks = new AtomicInteger();
+        final CompletableFuture<Void> completionFuture = new CompletableFuture<>();
+        res.subscribe(new Subscriber<HttpObject>() {
+            @Override
+            public void onSubscribe(Subscription s) {
+                subscription.set(s);
+                s.request(1);
+            }
+
+            @Override
+            public void onNext(HttpObject obj) {
+                numChunks.incrementAndGet();
+            }
+
+            @Override
+            public void onError(Throwable cause) {
+                completionFuture.completeExceptionally(cause);
+            }
+
+            @Override
+            public void onComplete() {
+                completionFuture.complete(null);
+            }
+        });
+
+        // Only the first chunk has been encoded because nothing else has been requested.
+        assertThat(numChunks.get()).isEqualTo(1);
+        final int numElementsPerChunk = numEncodedElements.get();
+        assertThat(numElementsPerChunk).isPositive().isLessThan(NAMES.size() / 2);
+
+        // One more chunk is encoded for each request.
+        subscription.get().request(1);
+        assertThat(numChunks.get()).isEqualTo(2);
+        assertThat(numEncodedElements.get()).isLessThan(NAMES.size());
+
+        subscription.get().request(Long.MAX_VALUE);
+        completionFuture.get(10, TimeUnit.SECONDS);
+        assertThat(numEncodedElements.get()).isEqualTo(NAMES.size());
+    }
+
+    private static List<Name> sort(String scheme, String path) throws Exception {
+        final THttpClient client = Clients.newClient(scheme + '+' + uri("/"), THttpClient.class);
+        final StreamMessage<Name> stream =
+                client.executeStreaming(path, NameSortService.Iface.class, "sort", NAMES);
+        return collect(stream).get();
+    }
+
+    /**
+     * Collects the elements of the specified {@link StreamMessage}, requesting one element at a time.
+     */
+    private static <T> CompletableFuture<List<T>> collect(StreamMessage<T> stream) {
+        return collect(stream, new LinkedBlockingQueue<>());
+    }
+
+    /**
+     * Collects the elements of the specified {@link StreamMessage}, requesting one element at a time,
+     * while adding each element to the specified {@link BlockingQueue} as soon as it is received.
+     */
+    private static <T> CompletableFuture<List<T>> collect(StreamMessage<T> stream, BlockingQueue<T> received) {
+        final CompletableFuture<List<T>> future = new CompletableFuture<>();
+        stream.subscribe(new Subscriber<T>() {
+            private final List<T> elements = new ArrayList<>();
+            private Subscription subscription;
+
+            @Override
+            public void onSubscribe(Subscription s) {
+                subscription = s;
+                s.request(1);
+            }
+
+            @Override
+            public void onNext(T element) {
+                elements.add(element);
+                received.add(element);
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable cause) {
+                future.completeExceptionally(cause);
+            }
+
+            @Override
+            public void onComplete() {
+                future.complete(elements);
+            }
+        });
+        return future;
+    }
+}
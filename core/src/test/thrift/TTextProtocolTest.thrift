@@ -100,3 +100,9 @@ struct TTextProtocolTestMsg {
 struct TTextProtocolTestMsgUnion {
   1: required TestUnion u;
 }
+
+// The maps whose values are enums, whose keys are written as numbers.
+struct TTextProtocolTestMsgEnumMap {
+  1: required map<i32, Letter> a;
+  2: required map<Letter, Letter> b;
+}
@@ -28,6 +28,7 @@ import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Queue;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -40,27 +41,32 @@ import org.eclipse.jetty.http.HttpVersion;
 import org.eclipse.jetty.http.MetaData;
 import org.eclipse.jetty.io.AbstractEndPoint;
 import org.eclipse.jetty.server.HttpChannel;
+import org.eclipse.jetty.server.HttpInput;
 import org.eclipse.jetty.server.HttpInput.Content;
 import org.eclipse.jetty.server.HttpTransport;
 import org.eclipse.jetty.server.Request;
 import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.util.Callback;
 import org.eclipse.jetty.util.thread.Scheduler;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Splitter;
 import com.google.common.net.UrlEscapers;
 
-import com.linecorp.armeria.common.http.AggregatedHttpMessage;
+import com.linecorp.armeria.common.http.CompositeHttpData;
 import com.linecorp.armeria.common.http.DefaultHttpResponse;
 import com.linecorp.armeria.common.http.HttpData;
 import com.linecorp.armeria.common.http.HttpHeaderNames;
 import com.linecorp.armeria.common.http.HttpHeaders;
+import com.linecorp.armeria.common.http.HttpObject;
 import com.linecorp.armeria.common.http.HttpRequest;
 import com.linecorp.armeria.common.http.HttpResponse;
 import com.linecorp.armeria.common.http.HttpResponseWriter;
 import com.linecorp.armeria.common.http.HttpStatus;
+import com.linecorp.armeria.common.stream.ClosedPublisherException;
 import com.linecorp.armeria.common.util.CompletionActions;
 import com.linecorp.armeria.server.ServerListenerAdapter;
 import com.linecorp.armeria.server.ServiceConfig;
@@ -68,6 +74,7 @@ import com.linecorp.armeria.server.ServiceRequestContext;
 import com.linecorp.armeria.server.http.HttpService;
 
 import io.netty.util.AsciiString;
+import io.netty.util.ReferenceCountUtil;
 
 /**
  * An {@link HttpService} that dispatches its requests to a web application running in an embedded
@@ -143,12 +150,14 @@ public final class JettyService implements HttpService {
             }
         };
 
-        return new JettyService(config.hostname().orElse(null), serverFactory, postStopTask);
+        return new JettyService(config.hostname().orElse(null), serverFactory, postStopTask,
+                                config.streaming());
     }
 
     private final Function<ExecutorService, Server> serverFactory;
     private final Consumer<Server> postStopTask;
     private final Configurator configurator;
+    private final boolean streaming;
 
     private String hostname;
     private Server server;
@@ -157,16 +166,17 @@ public final class JettyService implements HttpService {
     private boolean startedServer;
 
     private JettyService(String hostname, Function<ExecutorService, Server> serverSupplier) {
-        this(hostname, serverSupplier, unused -> { /* unused */ });
+        this(hostname, serverSupplier, unused -> { /* unused */ }, false);
     }
 
     private JettyService(String hostname,
                          Function<ExecutorService, Server> serverFactory,
-                         Consumer<Server> postStopTask) {
+                         Consumer<Server> postStopTask, boolean streaming) {
 
         this.hostname = hostname;
         this.serverFactory = serverFactory;
         this.postStopTask = postStopTask;
+        this.streaming = streaming;
         configurator = new Configurator();
     }
 
@@ -235,6 +245,10 @@ public final class JettyService implements HttpService {
         final ArmeriaConnector connector = this.connector;
 
         final DefaultHttpResponse res = new DefaultHttpResponse();
+        if (streaming) {
+            serveStreaming(ctx, req, res, connector);
+            return res;
+        }
 
         req.aggregate().handle(voidFunction((aReq, cause) -> {
             if (cause != null) {
@@ -253,7 +267,20 @@ public final class JettyService implements HttpService {
                                             ctx.localAddress(), ctx.remoteAddress()),
                         transport);
 
-                fillRequest(ctx, aReq, httpChannel.getRequest());
+                final Request jReq = httpChannel.getRequest();
+                final HttpData content = aReq.content();
+                fillRequest(ctx, aReq.headers(), content.length(), jReq);
+                if (content instanceof CompositeHttpData) {
+                    // Add the chunks of the request as they are rather than merging them into an array.
+                    for (HttpData c : ((CompositeHttpData) content).components()) {
+                        jReq.getHttpInput().addContent(new Content(ByteBuffer.wrap(
+                                c.array(), c.offset(), c.length())));
+                    }
+                } else if (!content.isEmpty()) {
+                    jReq.getHttpInput().addContent(new Content(ByteBuffer.wrap(
+                            content.array(), content.offset(), content.length())));
+                }
+                jReq.getHttpInput().eof();
 
                 ctx.blockingTaskExecutor().execute(() -> invoke(ctx, res, transport, httpChannel));
                 success = true;
@@ -267,6 +294,48 @@ public final class JettyService implements HttpService {
         return res;
     }
 
+    /**
+     * Dispatches the specified {@link HttpRequest} to Jetty without aggregating it. The request content is
+     * fed into the {@link HttpInput} as it arrives and the response is written to
+     * the {@link HttpResponseWriter} as it is flushed by Jetty.
+     */
+    private void serveStreaming(ServiceRequestContext ctx, HttpRequest req,
+                                HttpResponseWriter res, ArmeriaConnector connector) {
+
+        boolean success = false;
+        try {
+            final StreamingHttpTransport transport = new StreamingHttpTransport(res);
+            final HttpChannel httpChannel = new HttpChannel(
+                    connector,
+                    connector.getHttpConfiguration(),
+                    new ArmeriaEndPoint(hostname, connector.getScheduler(),
+                                        ctx.localAddress(), ctx.remoteAddress()),
+                    transport);
+
+            final Request jReq = httpChannel.getRequest();
+            fillRequest(ctx, req.headers(), Long.MIN_VALUE, jReq);
+            final HttpInputSubscriber in = new HttpInputSubscriber(jReq.getHttpInput());
+            transport.in = in;
+            req.subscribe(in);
+
+            ctx.blockingTaskExecutor().execute(() -> {
+                try {
+                    server.handle(httpChannel);
+                } catch (Throwable t) {
+                    logger.warn("{} Failed to produce a response:", ctx, t);
+                    in.close();
+                    res.close();
+                }
+            });
+            success = true;
+        } finally {
+            if (!success) {
+                req.abort();
+                res.close();
+            }
+        }
+    }
+
     private void invoke(ServiceRequestContext ctx, HttpResponseWriter res,
                         ArmeriaHttpTransport transport, HttpChannel httpChannel) {
 
@@ -280,7 +349,7 @@ public final class JettyService implements HttpService {
                 throw cause;
             }
 
-            final HttpHeaders headers = toResponseHeaders(transport);
+            final HttpHeaders headers = toResponseHeaders(transport.info);
             res.write(headers);
             for (;;) {
                 final HttpData data = out.poll();
@@ -296,26 +365,25 @@ public final class JettyService implements HttpService {
         }
     }
 
+    /**
+     * Fills the specified Jetty {@link Request} with the specified {@link HttpHeaders}.
+     *
+     * @param contentLength the length of the request content, or {@link Long#MIN_VALUE} to get it from
+     *                      the {@code "content-length"} header
+     */
     private static void fillRequest(
-            ServiceRequestContext ctx, AggregatedHttpMessage aReq, Request jReq) {
+            ServiceRequestContext ctx, HttpHeaders aHeaders, long contentLength, Request jReq) {
 
         jReq.setDispatcherType(DispatcherType.REQUEST);
         jReq.setAsyncSupported(true, "armeria");
         jReq.setSecure(ctx.sessionProtocol().isTls());
-        jReq.setMetaData(toRequestMetadata(ctx, aReq));
-
-        final HttpData content = aReq.content();
-        if (!content.isEmpty()) {
-            jReq.getHttpInput().addContent(new Content(ByteBuffer.wrap(
-                    content.array(), content.offset(), content.length())));
-        }
-        jReq.getHttpInput().eof();
+        jReq.setMetaData(toRequestMetadata(ctx, aHeaders, contentLength));
     }
 
-    private static MetaData.Request toRequestMetadata(ServiceRequestContext ctx, AggregatedHttpMessage aReq) {
+    private static MetaData.Request toRequestMetadata(ServiceRequestContext ctx, HttpHeaders aHeaders,
+                                                      long contentLength) {
         // Construct the HttpURI
         final StringBuilder uriBuf = new StringBuilder();
-        final HttpHeaders aHeaders = aReq.headers();
 
         uriBuf.append(ctx.sessionProtocol().isTls() ? "https" : "http");
         uriBuf.append("://");
@@ -338,11 +406,10 @@ public final class JettyService implements HttpService {
         });
 
         return new MetaData.Request(
-                aHeaders.method().name(), uri, HttpVersion.HTTP_1_1, jHeaders, aReq.content().length());
+                aHeaders.method().name(), uri, HttpVersion.HTTP_1_1, jHeaders, contentLength);
     }
 
-    private static HttpHeaders toResponseHeaders(ArmeriaHttpTransport transport) {
-        final MetaData.Response info = transport.info;
+    private static HttpHeaders toResponseHeaders(MetaData.Response info) {
         if (info == null) {
             throw new IllegalStateException("response metadata unavailable");
         }
@@ -407,6 +474,200 @@ public final class JettyService implements HttpService {
         }
     }
 
+    /**
+     * An {@link HttpTransport} which writes the response to an {@link HttpResponseWriter} as soon as Jetty
+     * sends it. Jetty is notified that the content has been sent only when the client has consumed it, so
+     * that a blocking write of a handler waits for a slow client.
+     */
+    private static final class StreamingHttpTransport implements HttpTransport {
+
+        private final HttpResponseWriter res;
+        HttpInputSubscriber in;
+        private boolean headersWritten;
+
+        StreamingHttpTransport(HttpResponseWriter res) {
+            this.res = res;
+        }
+
+        @Override
+        public void send(MetaData.Response info, boolean head,
+                         ByteBuffer content, boolean lastContent, Callback callback) {
+
+            if (!headersWritten) {
+                final HttpHeaders headers;
+                try {
+                    headers = toResponseHeaders(info);
+                } catch (Throwable t) {
+                    callback.failed(t);
+                    return;
+                }
+                headersWritten = true;
+                res.write(headers);
+            }
+
+            final int length = content != null ? content.remaining() : 0;
+            if (length != 0) {
+                // NB: We make a copy because Jetty reuses the buffer once the callback is notified.
+                final byte[] data = new byte[length];
+                content.get(data);
+                if (!res.write(HttpData.of(data))) {
+                    callback.failed(ClosedPublisherException.get());
+                    return;
+                }
+            }
+
+            if (lastContent) {
+                res.close();
+                callback.succeeded();
+            } else if (length == 0) {
+                callback.succeeded();
+            } else {
+                res.onDemand(callback::succeeded).exceptionally(cause -> {
+                    callback.failed(cause);
+                    return null;
+                });
+            }
+        }
+
+        @Override
+        public boolean isPushSupported() {
+            return false;
+        }
+
+        @Override
+        public void push(MetaData.Request request) {}
+
+        @Override
+        public void onCompleted() {
+            in.close();
+            res.close();
+        }
+
+        @Override
+        public void abort(Throwable failure) {
+            in.close();
+            res.close(failure);
+        }
+
+        @Override
+        public boolean isOptimizedForDirectBuffers() {
+            return false;
+        }
+    }
+
+    /**
+     * Feeds the content of an {@link HttpRequest} into an {@link HttpInput}. The next {@link HttpData} is
+     * requested only when Jetty has consumed the previous one, so that a slow handler does not make the
+     * request content buffered in the heap.
+     */
+    private static final class HttpInputSubscriber implements Subscriber<HttpObject> {
+
+        private final HttpInput input;
+        private volatile Subscription subscription;
+        private volatile boolean closed;
+        private volatile DataContent pending;
+
+        HttpInputSubscriber(HttpInput input) {
+            this.input = input;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            subscription = s;
+            if (closed) {
+                s.cancel();
+            } else {
+                s.request(1);
+            }
+        }
+
+        @Override
+        public void onNext(HttpObject obj) {
+            if (!(obj instanceof HttpData)) {
+                // Ignore the trailing headers; they cannot be added once the request has been dispatched.
+                subscription.request(1);
+                return;
+            }
+
+            final HttpData data = (HttpData) obj;
+            if (closed) {
+                ReferenceCountUtil.safeRelease(data);
+                return;
+            }
+
+            if (data.isEmpty()) {
+                ReferenceCountUtil.safeRelease(data);
+                subscription.request(1);
+                return;
+            }
+
+            final DataContent content = new DataContent(data);
+            pending = content;
+            input.addContent(content);
+            if (closed) {
+                content.release();
+            }
+        }
+
+        @Override
+        public void onError(Throwable cause) {
+            input.failed(cause);
+        }
+
+        @Override
+        public void onComplete() {
+            input.eof();
+        }
+
+        /**
+         * Cancels the subscription if the handler did not read the whole content and releases
+         * the {@link HttpData} which has not been consumed.
+         */
+        void close() {
+            closed = true;
+            final Subscription subscription = this.subscription;
+            if (subscription != null) {
+                subscription.cancel();
+            }
+
+            final DataContent pending = this.pending;
+            if (pending != null) {
+                pending.release();
+            }
+        }
+
+        private final class DataContent extends Content {
+
+            private final HttpData data;
+            private final AtomicBoolean released = new AtomicBoolean();
+
+            DataContent(HttpData data) {
+                super(ByteBuffer.wrap(data.array(), data.offset(), data.length()));
+                this.data = data;
+            }
+
+            @Override
+            public void succeeded() {
+                if (release() && !closed) {
+                    subscription.request(1);
+                }
+            }
+
+            @Override
+            public void failed(Throwable cause) {
+                release();
+            }
+
+            boolean release() {
+                if (released.compareAndSet(false, true)) {
+                    ReferenceCountUtil.safeRelease(data);
+                    return true;
+                }
+                return false;
+            }
+        }
+    }
+
     private static final class ArmeriaEndPoint extends AbstractEndPoint {
         ArmeriaEndPoint(String hostname, Scheduler scheduler, SocketAddress local, SocketAddress remote) {
             super(scheduler, addHostname((InetSocketAddress) local, hostname), (InetSocketAddress) remote);
@@ -54,6 +54,7 @@ public final class JettyServiceBuilder {
     private RequestLog requestLog;
     private SessionIdManager sessionIdManager;
     private Long stopTimeoutMillis;
+    private boolean streaming;
 
     /**
      * Sets the default hostname of the Jetty {@link Server}.
@@ -179,6 +180,18 @@ public final class JettyServiceBuilder {
         return this;
     }
 
+    /**
+     * Sets whether the request and response contents are streamed between Armeria and Jetty. When disabled,
+     * which is the default, the whole request content is received before the request is dispatched to
+     * Jetty and the response is sent only after the handler returns. When enabled, a handler reads the
+     * request content as it arrives and its output is sent to the client as soon as Jetty flushes it.
+     * A blocking write of the handler waits until the client has consumed the previous output.
+     */
+    public JettyServiceBuilder streaming(boolean streaming) {
+        this.streaming = streaming;
+        return this;
+    }
+
     /**
      * Adds a {@link Consumer} that performs additional configuration operations against
      * the Jetty {@link Server} created by a {@link JettyService}.
@@ -195,7 +208,7 @@ public final class JettyServiceBuilder {
         return JettyService.forConfig(new JettyServiceConfig(
                 hostname, dumpAfterStart, dumpBeforeStop, stopTimeoutMillis, handler, requestLog,
                 sessionIdManager, attrs, beans, handlerWrappers, eventListeners, lifeCycleListeners,
-                configurators));
+                configurators, streaming));
     }
 
     @Override
@@ -203,6 +216,6 @@ public final class JettyServiceBuilder {
         return JettyServiceConfig.toString(
                 this, hostname, dumpAfterStart, dumpBeforeStop, stopTimeoutMillis, handler, requestLog,
                 sessionIdManager, attrs, beans, handlerWrappers, eventListeners, lifeCycleListeners,
-                configurators);
+                configurators, streaming);
     }
 }
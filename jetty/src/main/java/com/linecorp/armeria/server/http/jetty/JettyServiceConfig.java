@@ -47,13 +47,14 @@ final class JettyServiceConfig {
     private final List<Listener> eventListeners;
     private final List<LifeCycle.Listener> lifeCycleListeners;
     private final List<Consumer<? super Server>> configurators;
+    private final boolean streaming;
 
     JettyServiceConfig(String hostname,
                        Boolean dumpAfterStart, Boolean dumpBeforeStop, Long stopTimeoutMillis,
                        Handler handler, RequestLog requestLog, SessionIdManager sessionIdManager,
                        Map<String, Object> attrs, List<Bean> beans, List<HandlerWrapper> handlerWrappers,
                        List<Listener> eventListeners, List<LifeCycle.Listener> lifeCycleListeners,
-                       List<Consumer<? super Server>> configurators) {
+                       List<Consumer<? super Server>> configurators, boolean streaming) {
 
         this.hostname = hostname;
         this.dumpAfterStart = dumpAfterStart;
@@ -68,6 +69,7 @@ final class JettyServiceConfig {
         this.eventListeners = Collections.unmodifiableList(eventListeners);
         this.lifeCycleListeners = Collections.unmodifiableList(lifeCycleListeners);
         this.configurators = Collections.unmodifiableList(configurators);
+        this.streaming = streaming;
     }
 
     Optional<String> hostname() {
@@ -122,12 +124,16 @@ final class JettyServiceConfig {
         return configurators;
     }
 
+    boolean streaming() {
+        return streaming;
+    }
+
     @Override
     public String toString() {
         return toString(
                 this, hostname, dumpAfterStart, dumpBeforeStop, stopTimeoutMillis, handler, requestLog,
                 sessionIdManager, attrs, beans, handlerWrappers, eventListeners, lifeCycleListeners,
-                configurators);
+                configurators, streaming);
     }
 
     static String toString(
@@ -135,7 +141,7 @@ final class JettyServiceConfig {
             Handler handler, RequestLog requestLog, SessionIdManager sessionIdManager,
             Map<String, Object> attrs, List<Bean> beans, List<HandlerWrapper> handlerWrappers,
             List<Listener> eventListeners, List<LifeCycle.Listener> lifeCycleListeners,
-            List<Consumer<? super Server>> configurators) {
+            List<Consumer<? super Server>> configurators, boolean streaming) {
 
         final StringBuilder buf = new StringBuilder(256);
         buf.append(holder.getClass().getSimpleName());
@@ -165,6 +171,8 @@ final class JettyServiceConfig {
         buf.append(lifeCycleListeners);
         buf.append(", configurators: ");
         buf.append(configurators);
+        buf.append(", streaming: ");
+        buf.append(streaming);
         buf.append(')');
         return buf.toString();
     }
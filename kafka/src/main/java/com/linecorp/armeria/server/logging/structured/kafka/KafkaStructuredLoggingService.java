@@ -29,6 +29,8 @@ import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -37,6 +39,7 @@ import com.linecorp.armeria.common.Response;
 import com.linecorp.armeria.common.logging.RequestLog;
 import com.linecorp.armeria.server.Service;
 import com.linecorp.armeria.server.logging.structured.ApacheThriftStructuredLog;
+import com.linecorp.armeria.server.logging.structured.StructuredLogBinaryFormat;
 import com.linecorp.armeria.server.logging.structured.StructuredLogBuilder;
 import com.linecorp.armeria.server.logging.structured.StructuredLogJsonFormat;
 import com.linecorp.armeria.server.logging.structured.StructuredLoggingService;
@@ -131,7 +134,33 @@ public class KafkaStructuredLoggingService<I extends Request, O extends Response
     Function<Service<? super I, ? extends O>, StructuredLoggingService<I, O, L>> newDecorator(
             String bootstrapServers, String topic,
             StructuredLogBuilder<L> logBuilder, KeySelector<L> keySelector) {
-        Producer<byte[], L> producer = new KafkaProducer<>(newDefaultConfig(bootstrapServers));
+        return newDecorator(bootstrapServers, topic, logBuilder, keySelector,
+                            new StructuredLogJsonKafkaSerializer<>(StructuredLogJsonFormat.newObjectMapper()));
+    }
+
+    /**
+     * Creates a decorator which provides {@link StructuredLoggingService} with default {@link Producer}
+     * which serializes logs with the specified {@link Serializer}, such as
+     * {@link StructuredLogJsonKafkaSerializer} and {@link StructuredLogBinaryKafkaSerializer}.
+     *
+     * @param bootstrapServers a {@code bootstrap.servers} config to specify destination Kafka cluster
+     * @param topic a name of topic which is used to send logs
+     * @param logBuilder an instance of {@link StructuredLogBuilder} which is used to construct a log entry
+     * @param keySelector a {@link KeySelector} which is used to decide what key to use for the log
+     * @param serializer a {@link Serializer} which is used to serialize logs
+     * @param <I> the {@link Request} type
+     * @param <O> the {@link Response} type
+     * @param <L> the type of the structured log representation
+     *
+     * @return a service decorator which adds structured logging support integrated to Kafka
+     */
+    public static <I extends Request, O extends Response, L>
+    Function<Service<? super I, ? extends O>, StructuredLoggingService<I, O, L>> newDecorator(
+            String bootstrapServers, String topic,
+            StructuredLogBuilder<L> logBuilder, KeySelector<L> keySelector, Serializer<L> serializer) {
+        requireNonNull(serializer, "serializer");
+        Producer<byte[], L> producer = new KafkaProducer<>(newDefaultConfig(bootstrapServers),
+                                                           new ByteArraySerializer(), serializer);
         return service -> new KafkaStructuredLoggingService<>(
                 service, logBuilder, producer, topic, keySelector, true);
     }
@@ -175,6 +204,28 @@ public class KafkaStructuredLoggingService<I extends Request, O extends Response
         return newDecorator(bootstrapServers, topic, ApacheThriftStructuredLog::new);
     }
 
+    /**
+     * Creates a decorator which provides {@link StructuredLoggingService} with default {@link Producer}
+     * and defaulting key to null.
+     * {@link ApacheThriftStructuredLog} is used to construct log entries.
+     * The specified {@link Serializer} is used to serialize logs, e.g.
+     * {@code new StructuredLogBinaryKafkaSerializer<>()} for the compact binary format provided by
+     * {@link StructuredLogBinaryFormat}.
+     *
+     * @param bootstrapServers a {@code bootstrap.servers} config to specify destination Kafka cluster
+     * @param topic a name of topic which is used to send logs
+     * @param serializer a {@link Serializer} which is used to serialize logs
+     * @param <I> the {@link Request} type
+     * @param <O> the {@link Response} type
+     *
+     * @return a service decorator which adds structured logging support integrated to Kafka
+     */
+    public static <I extends Request, O extends Response>
+    Function<Service<? super I, ? extends O>, StructuredLoggingService<I, O, ApacheThriftStructuredLog>>
+    newDecorator(String bootstrapServers, String topic, Serializer<ApacheThriftStructuredLog> serializer) {
+        return newDecorator(bootstrapServers, topic, ApacheThriftStructuredLog::new, null, serializer);
+    }
+
     private static Properties newDefaultConfig(String bootstrapServers) {
         Properties producerConfig = new Properties();
 
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.logging.structured.kafka;
+
+import java.util.Map;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+import com.linecorp.armeria.server.logging.structured.StructuredLog;
+import com.linecorp.armeria.server.logging.structured.StructuredLogBinaryFormat;
+
+/**
+ * A Kafka {@link Serializer} which serializes {@link StructuredLog}s in the compact binary format provided by
+ * {@link StructuredLogBinaryFormat}.
+ * @param <L> the type of structured log which is being serialized
+ */
+public class StructuredLogBinaryKafkaSerializer<L extends StructuredLog> implements Serializer<L> {
+
+    @Override
+    public void configure(Map<String, ?> map, boolean b) { /* noop */ }
+
+    @Override
+    public byte[] serialize(String topic, L value) {
+        if (value == null) {
+            return null;
+        }
+
+        return StructuredLogBinaryFormat.encodeToArray(value);
+    }
+
+    @Override
+    public void close() { /* noop */ }
+}
@@ -19,15 +19,24 @@ package com.linecorp.armeria.server.http.tomcat;
 import static com.linecorp.armeria.common.util.Functions.voidFunction;
 import static java.util.Objects.requireNonNull;
 
+import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.net.InetSocketAddress;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map.Entry;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.regex.Matcher;
@@ -51,19 +60,23 @@ import org.apache.tomcat.util.buf.ByteChunk;
 import org.apache.tomcat.util.buf.CharChunk;
 import org.apache.tomcat.util.buf.MessageBytes;
 import org.apache.tomcat.util.http.MimeHeaders;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.collect.Sets;
 
-import com.linecorp.armeria.common.http.AggregatedHttpMessage;
+import com.linecorp.armeria.common.http.CompositeHttpData;
 import com.linecorp.armeria.common.http.DefaultHttpResponse;
 import com.linecorp.armeria.common.http.HttpData;
 import com.linecorp.armeria.common.http.HttpHeaderNames;
 import com.linecorp.armeria.common.http.HttpHeaders;
 import com.linecorp.armeria.common.http.HttpMethod;
+import com.linecorp.armeria.common.http.HttpObject;
 import com.linecorp.armeria.common.http.HttpRequest;
 import com.linecorp.armeria.common.http.HttpResponse;
+import com.linecorp.armeria.common.http.HttpResponseWriter;
 import com.linecorp.armeria.common.http.HttpStatus;
 import com.linecorp.armeria.common.util.CompletionActions;
 import com.linecorp.armeria.server.Server;
@@ -75,6 +88,7 @@ import com.linecorp.armeria.server.ServiceUnavailableException;
 import com.linecorp.armeria.server.http.HttpService;
 
 import io.netty.util.AsciiString;
+import io.netty.util.ReferenceCountUtil;
 
 /**
  * An {@link HttpService} that dispatches its requests to a web application running in an embedded
@@ -230,7 +244,8 @@ public final class TomcatService implements HttpService {
             }
         };
 
-        return new TomcatService(null, new ManagedConnectorFactory(config), postStopTask);
+        return new TomcatService(null, new ManagedConnectorFactory(config), postStopTask,
+                                 config.streaming());
     }
 
     static String toString(org.apache.catalina.Server server) {
@@ -259,6 +274,7 @@ public final class TomcatService implements HttpService {
     private final Function<String, Connector> connectorFactory;
     private final Consumer<Connector> postStopTask;
     private final ServerListener configurator;
+    private final boolean streaming;
 
     private org.apache.catalina.Server server;
     private Server armeriaServer;
@@ -268,15 +284,17 @@ public final class TomcatService implements HttpService {
     private boolean started;
 
     private TomcatService(String hostname, Function<String, Connector> connectorFactory) {
-        this(hostname, connectorFactory, unused -> { /* unused */ });
+        this(hostname, connectorFactory, unused -> { /* unused */ }, false);
     }
 
     private TomcatService(String hostname,
-                  Function<String, Connector> connectorFactory, Consumer<Connector> postStopTask) {
+                  Function<String, Connector> connectorFactory, Consumer<Connector> postStopTask,
+                  boolean streaming) {
 
         this.hostname = hostname;
         this.connectorFactory = connectorFactory;
         this.postStopTask = postStopTask;
+        this.streaming = streaming;
         configurator = new Configurator();
     }
 
@@ -378,6 +396,11 @@ public final class TomcatService implements HttpService {
         }
 
         final DefaultHttpResponse res = new DefaultHttpResponse();
+        if (streaming) {
+            serveStreaming(ctx, req, res, coyoteAdapter);
+            return res;
+        }
+
         req.aggregate().handle(voidFunction((aReq, cause) -> {
             if (cause != null) {
                 logger.warn("{} Failed to aggregate a request:", ctx, cause);
@@ -386,11 +409,19 @@ public final class TomcatService implements HttpService {
             }
 
             try {
-                final Request coyoteReq = convertRequest(ctx, aReq);
+                final Request coyoteReq = convertRequest(ctx, aReq.headers());
                 if (coyoteReq == null) {
                     res.respond(HttpStatus.BAD_REQUEST);
                     return;
                 }
+
+                // Set the trailing headers and the content.
+                convertHeaders(aReq.trailingHeaders(), coyoteReq.getMimeHeaders());
+                final HttpData content = aReq.content();
+                if (!content.isEmpty()) {
+                    coyoteReq.setInputBuffer(new InputBufferImpl(content));
+                }
+
                 final Response coyoteRes = new Response();
                 coyoteReq.setResponse(coyoteRes);
                 coyoteRes.setRequest(coyoteReq);
@@ -430,13 +461,55 @@ public final class TomcatService implements HttpService {
         return res;
     }
 
+    /**
+     * Dispatches the specified {@link HttpRequest} to Tomcat without aggregating it. The servlet reads the
+     * request content as it arrives and its output is written to the {@link HttpResponseWriter} as it is
+     * flushed by Tomcat.
+     */
+    private void serveStreaming(ServiceRequestContext ctx, HttpRequest req,
+                                HttpResponseWriter res, Adapter coyoteAdapter) {
+
+        final Request coyoteReq = convertRequest(ctx, req.headers());
+        if (coyoteReq == null) {
+            req.abort();
+            res.respond(HttpStatus.BAD_REQUEST);
+            return;
+        }
+
+        final Response coyoteRes = new Response();
+        coyoteReq.setResponse(coyoteRes);
+        coyoteRes.setRequest(coyoteReq);
+
+        final StreamingInputBuffer in = new StreamingInputBuffer();
+        coyoteReq.setInputBuffer(in);
+        final StreamingOutputBuffer out = new StreamingOutputBuffer(coyoteRes, res);
+        coyoteRes.setOutputBuffer(out);
+        req.subscribe(in);
+
+        ctx.blockingTaskExecutor().execute(() -> {
+            try {
+                if (!res.isOpen()) {
+                    return;
+                }
+
+                coyoteAdapter.service(coyoteReq, coyoteRes);
+                out.finish();
+            } catch (Throwable t) {
+                logger.warn("{} Failed to produce a response:", ctx, t);
+                res.close();
+            } finally {
+                in.close();
+            }
+        });
+    }
+
     @Nullable
-    private Request convertRequest(ServiceRequestContext ctx, AggregatedHttpMessage req) {
+    private Request convertRequest(ServiceRequestContext ctx, HttpHeaders headers) {
         final String mappedPath = ctx.mappedPath();
 
         final Request coyoteReq = new Request();
 
-        coyoteReq.scheme().setString(req.scheme());
+        coyoteReq.scheme().setString(headers.scheme());
 
         // Set the remote host/address.
         final InetSocketAddress remoteAddr = ctx.remoteAddress();
@@ -450,7 +523,7 @@ public final class TomcatService implements HttpService {
         coyoteReq.localName().setString(hostname);
         coyoteReq.setLocalPort(localAddr.getPort());
 
-        final String hostHeader = req.headers().authority();
+        final String hostHeader = headers.authority();
         int colonPos = hostHeader.indexOf(':');
         if (colonPos < 0) {
             coyoteReq.serverName().setString(hostHeader);
@@ -465,7 +538,7 @@ public final class TomcatService implements HttpService {
         }
 
         // Set the method.
-        final HttpMethod method = req.method();
+        final HttpMethod method = headers.method();
         coyoteReq.method().setString(method.name());
 
         // Set the request URI.
@@ -476,21 +549,14 @@ public final class TomcatService implements HttpService {
         coyoteReq.requestURI().setBytes(uriBytes, 0, uriBytes.length);
 
         // Set the query string if any.
-        final int queryIndex = req.path().indexOf('?');
+        final String path = headers.path();
+        final int queryIndex = path.indexOf('?');
         if (queryIndex >= 0) {
-            coyoteReq.queryString().setString(req.path().substring(queryIndex + 1));
+            coyoteReq.queryString().setString(path.substring(queryIndex + 1));
         }
 
         // Set the headers.
-        final MimeHeaders cHeaders = coyoteReq.getMimeHeaders();
-        convertHeaders(req.headers(), cHeaders);
-        convertHeaders(req.trailingHeaders(), cHeaders);
-
-        // Set the content.
-        final HttpData content = req.content();
-        if (!content.isEmpty()) {
-            coyoteReq.setInputBuffer(new InputBufferImpl(content));
-        }
+        convertHeaders(headers, coyoteReq.getMimeHeaders());
 
         return coyoteReq;
     }
@@ -589,22 +655,24 @@ public final class TomcatService implements HttpService {
     }
 
     private static class InputBufferImpl implements InputBuffer {
-        private final HttpData content;
-        private boolean read;
+        private final Iterator<HttpData> contents;
 
         InputBufferImpl(HttpData content) {
-            this.content = content;
+            if (content instanceof CompositeHttpData) {
+                // Read the chunks of the request one by one rather than merging them into an array.
+                contents = ((CompositeHttpData) content).components().iterator();
+            } else {
+                contents = Collections.singletonList(content).iterator();
+            }
         }
 
         @Override
         public int doRead(ByteChunk chunk) {
-            if (read) {
-                // Read only once.
+            if (!contents.hasNext()) {
                 return -1;
             }
 
-            read = true;
-
+            final HttpData content = contents.next();
             final int readableBytes = content.length();
             chunk.setBytes(content.array(), content.offset(), readableBytes);
 
@@ -655,4 +723,215 @@ public final class TomcatService implements HttpService {
             return bytesWritten;
         }
     }
+
+    /**
+     * An {@link InputBuffer} which reads the content of an {@link HttpRequest} as it arrives. Only one
+     * {@link HttpData} is requested ahead of what the servlet has read, so that a slow servlet does not make
+     * the request content buffered in the heap.
+     */
+    private static final class StreamingInputBuffer implements InputBuffer, Subscriber<HttpObject> {
+
+        private static final Object END_OF_STREAM = new Object();
+
+        private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+        private volatile Subscription subscription;
+        private volatile boolean closed;
+
+        /**
+         * The {@link HttpData} whose array has been handed to Tomcat, which is released on the next read.
+         */
+        private HttpData current;
+        private boolean done;
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            subscription = s;
+            if (closed) {
+                s.cancel();
+            } else {
+                s.request(1);
+            }
+        }
+
+        @Override
+        public void onNext(HttpObject obj) {
+            if (obj instanceof HttpData) {
+                queue.add(obj);
+                if (closed) {
+                    drain();
+                }
+            } else {
+                // Ignore the trailing headers; they cannot be added once the request has been dispatched.
+                subscription.request(1);
+            }
+        }
+
+        @Override
+        public void onError(Throwable cause) {
+            queue.add(cause);
+        }
+
+        @Override
+        public void onComplete() {
+            queue.add(END_OF_STREAM);
+        }
+
+        @Override
+        public int doRead(ByteChunk chunk) throws IOException {
+            releaseCurrent();
+            while (!done) {
+                final Object o;
+                try {
+                    o = queue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                }
+
+                if (o == END_OF_STREAM) {
+                    done = true;
+                    break;
+                }
+
+                if (o instanceof Throwable) {
+                    done = true;
+                    throw new IOException("failed to receive the request content", (Throwable) o);
+                }
+
+                // Request the next data while the servlet consumes this one.
+                subscription.request(1);
+
+                final HttpData data = (HttpData) o;
+                final int length = data.length();
+                if (length == 0) {
+                    ReferenceCountUtil.safeRelease(data);
+                    continue;
+                }
+
+                current = data;
+                chunk.setBytes(data.array(), data.offset(), length);
+                return length;
+            }
+
+            return -1;
+        }
+
+        // NB: Do not remove; required for Tomcat 8 or older.
+        @SuppressWarnings("unused")
+        public int doRead(ByteChunk chunk, Request request) throws IOException {
+            return doRead(chunk);
+        }
+
+        /**
+         * Cancels the subscription if the servlet did not read the whole content and releases the
+         * {@link HttpData}s which have not been read.
+         */
+        void close() {
+            closed = true;
+            releaseCurrent();
+            final Subscription subscription = this.subscription;
+            if (!done && subscription != null) {
+                subscription.cancel();
+            }
+            drain();
+        }
+
+        private void releaseCurrent() {
+            if (current != null) {
+                ReferenceCountUtil.safeRelease(current);
+                current = null;
+            }
+        }
+
+        private void drain() {
+            for (;;) {
+                final Object o = queue.poll();
+                if (o == null) {
+                    break;
+                }
+                ReferenceCountUtil.safeRelease(o);
+            }
+        }
+    }
+
+    /**
+     * An {@link OutputBuffer} which writes the response headers and content to an {@link HttpResponseWriter}
+     * as soon as Tomcat flushes them. A write blocks the servlet until the client has consumed the content
+     * written by the previous write.
+     */
+    private static final class StreamingOutputBuffer implements OutputBuffer {
+
+        private final Response coyoteRes;
+        private final HttpResponseWriter res;
+        private CompletableFuture<Void> lastDemand;
+        private boolean headersWritten;
+        private long bytesWritten;
+
+        StreamingOutputBuffer(Response coyoteRes, HttpResponseWriter res) {
+            this.coyoteRes = coyoteRes;
+            this.res = res;
+        }
+
+        @Override
+        public int doWrite(ByteChunk chunk) throws IOException {
+            final int start = chunk.getStart();
+            final int end = chunk.getEnd();
+            final int length = end - start;
+            if (length == 0) {
+                return 0;
+            }
+
+            awaitDemand();
+            writeHeaders();
+
+            // NB: We make a copy because Tomcat reuses the underlying byte array of 'chunk'.
+            final byte[] content = Arrays.copyOfRange(chunk.getBuffer(), start, end);
+            if (!res.write(HttpData.of(content))) {
+                throw new IOException("the response has been closed");
+            }
+            lastDemand = res.onDemand(() -> { /* unused */ });
+
+            bytesWritten += length;
+            return length;
+        }
+
+        // NB: Do not remove; required for Tomcat 8 or older.
+        @SuppressWarnings("unused")
+        public int doWrite(ByteChunk chunk, Response response) throws IOException {
+            return doWrite(chunk);
+        }
+
+        @Override
+        public long getBytesWritten() {
+            return bytesWritten;
+        }
+
+        /**
+         * Writes the response headers if the servlet has not written any content and closes the response.
+         */
+        void finish() {
+            writeHeaders();
+            res.close();
+        }
+
+        private void writeHeaders() {
+            if (!headersWritten) {
+                headersWritten = true;
+                res.write(convertResponse(coyoteRes));
+            }
+        }
+
+        private void awaitDemand() throws IOException {
+            final CompletableFuture<Void> lastDemand = this.lastDemand;
+            if (lastDemand == null) {
+                return;
+            }
+
+            try {
+                lastDemand.join();
+            } catch (CompletionException | CancellationException e) {
+                throw new IOException("the response has been closed", e);
+            }
+        }
+    }
 }
@@ -180,6 +180,7 @@ public final class TomcatServiceBuilder {
     private Path baseDir;
     private Realm realm;
     private String hostname;
+    private boolean streaming;
 
     private TomcatServiceBuilder(Path docBase, String jarRoot) {
         this.docBase = validateDocBase(docBase);
@@ -287,6 +288,19 @@ public final class TomcatServiceBuilder {
         return hostname;
     }
 
+    /**
+     * Sets whether the request and response contents are streamed between Armeria and Tomcat. When disabled,
+     * which is the default, the whole request content is received before the request is dispatched to
+     * Tomcat and the response is sent only after the servlet returns. When enabled, a servlet reads the
+     * request content as it arrives and its output is sent to the client as soon as Tomcat flushes it,
+     * blocking the servlet while the client is not ready to receive more. Enable this option for the web
+     * applications which upload or download large contents.
+     */
+    public TomcatServiceBuilder streaming(boolean streaming) {
+        this.streaming = streaming;
+        return this;
+    }
+
     /**
      * Adds a {@link Consumer} that performs additional configuration operations against
      * the Tomcat {@link StandardServer} created by a {@link TomcatService}.
@@ -328,12 +342,12 @@ public final class TomcatServiceBuilder {
 
         return TomcatService.forConfig(new TomcatServiceConfig(
                 serviceName, engineName, baseDir, realm, hostname, docBase, jarRoot,
-                Collections.unmodifiableList(configurators)));
+                Collections.unmodifiableList(configurators), streaming));
     }
 
     @Override
     public String toString() {
         return TomcatServiceConfig.toString(
-                this, serviceName, engineName, baseDir, realm, hostname, docBase, jarRoot);
+                this, serviceName, engineName, baseDir, realm, hostname, docBase, jarRoot, streaming);
     }
 }
@@ -41,10 +41,11 @@ final class TomcatServiceConfig {
     private final Path docBase;
     private final String jarRoot;
     private final List<Consumer<? super StandardServer>> configurators;
+    private final boolean streaming;
 
     TomcatServiceConfig(String serviceName, String engineName, Path baseDir, Realm realm,
                         String hostname, Path docBase, String jarRoot,
-                        List<Consumer<? super StandardServer>> configurators) {
+                        List<Consumer<? super StandardServer>> configurators, boolean streaming) {
 
         this.engineName = engineName;
         this.serviceName = serviceName;
@@ -54,6 +55,7 @@ final class TomcatServiceConfig {
         this.docBase = docBase;
         this.jarRoot = jarRoot;
         this.configurators = configurators;
+        this.streaming = streaming;
     }
 
     /**
@@ -115,14 +117,23 @@ final class TomcatServiceConfig {
         return configurators;
     }
 
+    /**
+     * Returns whether the request and response contents are streamed between Armeria and Tomcat
+     * instead of being aggregated.
+     */
+    boolean streaming() {
+        return streaming;
+    }
+
     @Override
     public String toString() {
         return toString(this, serviceName(), engineName(), baseDir(), realm(), hostname().orElse(null),
-                        docBase(), jarRoot().orElse(null));
+                        docBase(), jarRoot().orElse(null), streaming());
     }
 
     static String toString(Object holder, String serviceName, String engineName,
-                           Path baseDir, Realm realm, String hostname, Path docBase, String jarRoot) {
+                           Path baseDir, Realm realm, String hostname, Path docBase, String jarRoot,
+                           boolean streaming) {
 
         return holder.getClass().getSimpleName() +
                "(serviceName: " + serviceName +
@@ -132,6 +143,7 @@ final class TomcatServiceConfig {
                ", hostname: " + hostname +
                ", docBase: " + docBase +
                (jarRoot != null ? ", jarRoot: " + jarRoot : "") +
+               ", streaming: " + streaming +
                ')';
     }
 }
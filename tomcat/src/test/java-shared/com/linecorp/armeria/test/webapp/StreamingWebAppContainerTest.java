@@ -0,0 +1,166 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.test.webapp;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import com.linecorp.armeria.client.Clients;
+import com.linecorp.armeria.client.http.HttpClient;
+import com.linecorp.armeria.common.http.DefaultHttpRequest;
+import com.linecorp.armeria.common.http.HttpData;
+import com.linecorp.armeria.common.http.HttpHeaderNames;
+import com.linecorp.armeria.common.http.HttpHeaders;
+import com.linecorp.armeria.common.http.HttpMethod;
+import com.linecorp.armeria.common.http.HttpObject;
+import com.linecorp.armeria.common.http.HttpRequest;
+import com.linecorp.armeria.common.http.HttpResponse;
+import com.linecorp.armeria.common.stream.FilteredStreamMessage;
+import com.linecorp.armeria.server.Service;
+import com.linecorp.armeria.server.ServiceRequestContext;
+
+/**
+ * Tests a web application container whose service streams the request content. The service under
+ * {@code /jsp/} must be decorated with {@code countRequestContent()}.
+ */
+public abstract class StreamingWebAppContainerTest extends WebAppContainerTest {
+
+    private static final int NUM_CHUNKS = 32;
+    private static final int CHUNK_LENGTH = 1024;
+
+    private static final AtomicInteger numReceivedData = new AtomicInteger();
+    private static final CountDownLatch resumeLatch = new CountDownLatch(1);
+
+    /**
+     * Decorates the service of a container so that the number of the {@link HttpData}s received by the
+     * container is counted.
+     */
+    protected static HttpResponse countRequestContent(Service<HttpRequest, HttpResponse> delegate,
+                                                      ServiceRequestContext ctx,
+                                                      HttpRequest req) throws Exception {
+        return delegate.serve(ctx, new ContentCountingHttpRequest(req));
+    }
+
+    /**
+     * Blocks {@code streaming.jsp} until the client has sent the whole request content.
+     */
+    public static void awaitResume() throws InterruptedException {
+        resumeLatch.await();
+    }
+
+    @Test(timeout = 30000)
+    public void testSlowRequestContent() throws Exception {
+        final HttpClient client = Clients.newClient("none+" + uri("/"), HttpClient.class);
+        final DefaultHttpRequest req = new DefaultHttpRequest(
+                HttpHeaders.of(HttpMethod.POST, "/jsp/streaming.jsp")
+                           .set(HttpHeaderNames.CONTENT_TYPE, "application/octet-stream"));
+        final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        client.execute(req).subscribe(new Subscriber<HttpObject>() {
+            @Override
+            public void onSubscribe(Subscription s) {
+                s.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(HttpObject obj) {
+                if (obj instanceof HttpData) {
+                    final HttpData data = (HttpData) obj;
+                    received.add(new String(data.array(), data.offset(), data.length(),
+                                            StandardCharsets.UTF_8));
+                }
+            }
+
+            @Override
+            public void onError(Throwable cause) {}
+
+            @Override
+            public void onComplete() {}
+        });
+
+        // The servlet must be dispatched and respond before the request content is complete.
+        req.write(HttpData.ofUtf8("a"));
+        final StringBuilder content = new StringBuilder();
+        awaitContent(received, content, "dispatched\n");
+
+        // Send the rest of the content while the servlet does not read it.
+        final byte[] chunk = new byte[CHUNK_LENGTH];
+        for (int i = 0; i < NUM_CHUNKS; i++) {
+            req.write(HttpData.of(chunk));
+        }
+        req.close();
+        req.closeFuture().get(10, TimeUnit.SECONDS);
+        Thread.sleep(500);
+
+        // The container must not pull more than it needs: the data being read and the next one.
+        assertThat(numReceivedData.get(), is(lessThanOrEqualTo(3)));
+
+        resumeLatch.countDown();
+        awaitContent(received, content, "read " + (1 + NUM_CHUNKS * CHUNK_LENGTH) + '\n');
+    }
+
+    private static void awaitContent(BlockingQueue<String> received, StringBuilder content,
+                                     String expected) throws InterruptedException {
+        while (content.indexOf(expected) < 0) {
+            final String s = received.poll(10, TimeUnit.SECONDS);
+            assertTrue("timed out while waiting for: " + expected + " (received: " + content + ')',
+                       s != null);
+            content.append(s);
+        }
+    }
+
+    private static final class ContentCountingHttpRequest
+            extends FilteredStreamMessage<HttpObject, HttpObject> implements HttpRequest {
+
+        private final HttpRequest delegate;
+
+        ContentCountingHttpRequest(HttpRequest delegate) {
+            super(delegate);
+            this.delegate = delegate;
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return delegate.headers();
+        }
+
+        @Override
+        public boolean isKeepAlive() {
+            return delegate.isKeepAlive();
+        }
+
+        @Override
+        protected HttpObject filter(HttpObject obj) {
+            if (obj instanceof HttpData) {
+                numReceivedData.incrementAndGet();
+            }
+            return obj;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.http.tomcat;
+
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.server.logging.LoggingService;
+import com.linecorp.armeria.test.webapp.StreamingWebAppContainerTest;
+
+public class StreamingTomcatServiceTest extends StreamingWebAppContainerTest {
+    @Override
+    protected void configureServer(ServerBuilder sb) throws Exception {
+        super.configureServer(sb);
+        sb.serviceUnder(
+                "/jsp/",
+                TomcatServiceBuilder.forCurrentClassPath("tomcat_service")
+                                    .serviceName("StreamingTomcatServiceTest")
+                                    .streaming(true)
+                                    .build()
+                                    .decorate(StreamingWebAppContainerTest::countRequestContent)
+                                    .decorate(LoggingService::new));
+    }
+}
@@ -0,0 +1,18 @@
+<%@ page contentType="text/plain; charset=UTF-8"
+         import="java.io.InputStream,com.linecorp.armeria.test.webapp.StreamingWebAppContainerTest" %><%
+    final InputStream in = request.getInputStream();
+    long numBytes = in.read() < 0 ? 0 : 1;
+    out.print("dispatched\n");
+    out.flush();
+
+    StreamingWebAppContainerTest.awaitResume();
+    final byte[] buf = new byte[1024];
+    for (;;) {
+        final int n = in.read(buf);
+        if (n < 0) {
+            break;
+        }
+        numBytes += n;
+    }
+    out.print("read " + numBytes + '\n');
+%>
@@ -23,7 +23,6 @@ import static org.apache.zookeeper.Watcher.Event.KeeperState.SyncConnected;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
-import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
@@ -42,6 +41,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Joiner;
 
 import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.client.endpoint.DynamicEndpointGroup;
 import com.linecorp.armeria.client.endpoint.EndpointGroup;
 import com.linecorp.armeria.client.endpoint.EndpointGroupException;
 
@@ -51,7 +51,7 @@ import com.linecorp.armeria.client.endpoint.EndpointGroupException;
  * ZooKeeper session expires, it will automatically reconnect to the ZooKeeper with exponential retry delay,
  * starting from 1 second up to 60 seconds.
  */
-public class ZooKeeperEndpointGroup implements EndpointGroup {
+public class ZooKeeperEndpointGroup extends DynamicEndpointGroup {
 
     private static final Logger logger = LoggerFactory.getLogger(ZooKeeperEndpointGroup.class);
 
@@ -61,7 +61,6 @@ public class ZooKeeperEndpointGroup implements EndpointGroup {
     private final String zNodePath;
     private final int sessionTimeout;
     private final ZooKeeperNodeValueConverter converter;
-    private List<Endpoint> endpointList;
     private ZooKeeper zooKeeper;
     private byte[] prevData;
     private CompletableFuture<ZooKeeper> zkFuture = new CompletableFuture<>();
@@ -158,7 +157,7 @@ public class ZooKeeperEndpointGroup implements EndpointGroup {
             final Stat stat = zkFuture.get().exists(zNodePath, true);
             if (stat != null) {
                 final byte[] nodeData = zkFuture.get().getData(zNodePath, false, null);
-                endpointList = converter.convert(nodeData);
+                setEndpoints(converter.convert(nodeData));
             }
         } catch (Exception e) {
             throw new EndpointGroupException(
@@ -166,11 +165,6 @@ public class ZooKeeperEndpointGroup implements EndpointGroup {
         }
     }
 
-    @Override
-    public List<Endpoint> endpoints() {
-        return endpointList;
-    }
-
     /**
      * Returns the connection state of the underlying ZooKeeper connection.
      */
@@ -289,7 +283,7 @@ public class ZooKeeperEndpointGroup implements EndpointGroup {
                 nodeData != null && !Arrays.equals(prevData, nodeData)) {
                 prevData = nodeData;
                 try {
-                    endpointList = converter.convert(prevData);
+                    setEndpoints(converter.convert(prevData));
                 } catch (Exception e) {
                     logger.warn("Failed to convert a zNode value at {} to an EndpointGroup: {}",
                                 zNodePath, new String(prevData, StandardCharsets.UTF_8), e);